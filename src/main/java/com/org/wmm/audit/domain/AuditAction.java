@@ -0,0 +1,17 @@
+package com.org.wmm.audit.domain;
+
+import java.util.Locale;
+
+/**
+ * Values of {@code audit_log.action} written by entity listeners
+ */
+public enum AuditAction {
+
+    CREATE,
+    UPDATE,
+    DELETE;
+
+    public String dbValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
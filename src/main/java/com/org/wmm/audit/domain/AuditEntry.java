@@ -0,0 +1,15 @@
+package com.org.wmm.audit.domain;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/**
+ * One pending {@code audit_log} row
+ *
+ * @param oldValues changed attributes before the change; null for creates
+ * @param newValues changed attributes after the change; null for deletes
+ */
+public record AuditEntry(Long userId, String entityType, long entityId, AuditAction action,
+                         Map<String, Object> oldValues, Map<String, Object> newValues,
+                         String ipAddress, String userAgent, OffsetDateTime createdAt) {
+}
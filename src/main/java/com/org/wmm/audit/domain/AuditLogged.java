@@ -0,0 +1,33 @@
+package com.org.wmm.audit.domain;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a JPA entity whose committed inserts, updates and deletes are written to {@code audit_log}.
+ * Only basic attributes are recorded; associations and collections are left out. The entity id must be
+ * numeric, since {@code audit_log.entity_id} is a BIGINT.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AuditLogged {
+
+    /**
+     * Value of {@code audit_log.entity_type}
+     */
+    String value();
+
+    /**
+     * Attributes never recorded, typically ones that change on every write (timestamps, login counters)
+     */
+    String[] ignore() default {};
+
+    /**
+     * Attributes whose changes are recorded without their values (secrets)
+     */
+    String[] mask() default {};
+}
@@ -0,0 +1,72 @@
+package com.org.wmm.audit.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.wmm.audit.domain.AuditEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes {@code audit_log} rows with one multi-row INSERT per batch
+ */
+@Repository
+@RequiredArgsConstructor
+public class AuditLogRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO audit_log (user_id, entity_type, entity_id, action, "
+            + "old_values, new_values, ip_address, user_agent, created_at) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, CAST(? AS JSONB), CAST(? AS JSONB), ?, ?, ?)";
+    private static final int MAX_USER_AGENT_LENGTH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @return number of rows written
+     */
+    public int insert(List<AuditEntry> entries) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder(INSERT_SQL.length() + entries.size() * (ROW.length() + 2))
+                .append(INSERT_SQL);
+        List<Object> args = new ArrayList<>(entries.size() * 9);
+        for (AuditEntry entry : entries) {
+            if (args.size() > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW);
+            args.add(entry.userId());
+            args.add(entry.entityType());
+            args.add(entry.entityId());
+            args.add(entry.action().dbValue());
+            args.add(toJson(entry.oldValues()));
+            args.add(toJson(entry.newValues()));
+            args.add(entry.ipAddress());
+            args.add(truncate(entry.userAgent()));
+            args.add(entry.createdAt());
+        }
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private String toJson(Map<String, Object> values) {
+        if (values == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize audit values", e);
+        }
+    }
+
+    private static String truncate(String userAgent) {
+        return userAgent == null || userAgent.length() <= MAX_USER_AGENT_LENGTH
+                ? userAgent : userAgent.substring(0, MAX_USER_AGENT_LENGTH);
+    }
+}
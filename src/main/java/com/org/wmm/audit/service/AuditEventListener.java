@@ -0,0 +1,193 @@
+package com.org.wmm.audit.service;
+
+import com.org.wmm.audit.domain.AuditAction;
+import com.org.wmm.audit.domain.AuditEntry;
+import com.org.wmm.audit.domain.AuditLogged;
+import com.org.wmm.auth.dto.ClientInfo;
+import com.org.wmm.security.JwtAuthenticationToken;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate listener that turns committed changes of {@link AuditLogged} entities into {@link AuditEntry}s
+ * for {@link AuditWriter}. Registered for the post-commit events, so rolled-back changes are never audited
+ * and the audited transaction does not pay for it.
+ * <p>
+ * Entries hold a field-level diff: only attributes whose value changed, by attribute name, with masked
+ * attributes replaced by {@value #MASK}. The acting user, address and user agent are taken from the
+ * security context and the current request, when there is one.
+ */
+@Slf4j
+@Component
+public class AuditEventListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    static final String MASK = "***";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditWriter auditWriter;
+    // Per entity class; null values are not allowed, so unaudited classes map to NOT_AUDITED
+    private final Map<Class<?>, AuditedType> types = new ConcurrentHashMap<>();
+
+    public AuditEventListener(EntityManagerFactory entityManagerFactory, AuditWriter auditWriter) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.auditWriter = auditWriter;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return typeOf(persister.getMappedClass()) != AuditedType.NOT_AUDITED;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        record(event.getPersister(), event.getId(), AuditAction.CREATE, null, event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        record(event.getPersister(), event.getId(), AuditAction.UPDATE, event.getOldState(), event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        record(event.getPersister(), event.getId(), AuditAction.DELETE, event.getDeletedState(), null);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nothing was committed, so there is nothing to audit
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Nothing was committed, so there is nothing to audit
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Nothing was committed, so there is nothing to audit
+    }
+
+    private void record(EntityPersister persister, Object id, AuditAction action, Object[] oldState, Object[] newState) {
+        AuditedType type = typeOf(persister.getMappedClass());
+        if (type == AuditedType.NOT_AUDITED) {
+            return;
+        }
+        if (!(id instanceof Number number)) {
+            log.warn("Cannot audit {} with non-numeric id {}", type.entityType(), id);
+            return;
+        }
+        AuditEntry entry = diff(type, persister.getPropertyNames(), persister.getPropertyTypes(), number.longValue(),
+                action, oldState, newState);
+        if (entry != null) {
+            auditWriter.submit(entry);
+        }
+    }
+
+    /**
+     * The changed basic attributes as an entry, or null if none of the audited ones changed
+     *
+     * @param oldState attribute values before, null for inserts (and for updates of detached entities,
+     *                 in which case all new values are recorded)
+     * @param newState attribute values after, null for deletes
+     */
+    AuditEntry diff(AuditedType type, String[] names, Type[] types, long entityId, AuditAction action,
+                    Object[] oldState, Object[] newState) {
+        Map<String, Object> oldValues = oldState == null ? null : new LinkedHashMap<>();
+        Map<String, Object> newValues = newState == null ? null : new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            if (types[i].isAssociationType() || type.ignored().contains(names[i])) {
+                continue;
+            }
+            Object before = oldState == null ? null : oldState[i];
+            Object after = newState == null ? null : newState[i];
+            boolean changed = action == AuditAction.UPDATE && oldState != null
+                    ? !Objects.deepEquals(before, after)
+                    : (before != null || after != null);
+            if (!changed) {
+                continue;
+            }
+            boolean masked = type.masked().contains(names[i]);
+            if (oldValues != null) {
+                oldValues.put(names[i], masked && before != null ? MASK : before);
+            }
+            if (newValues != null) {
+                newValues.put(names[i], masked && after != null ? MASK : after);
+            }
+        }
+        if ((oldValues == null || oldValues.isEmpty()) && (newValues == null || newValues.isEmpty())) {
+            return null;
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        ClientInfo client = attributes instanceof ServletRequestAttributes servlet
+                ? ClientInfo.from(servlet.getRequest()) : null;
+        return new AuditEntry(currentUserId(), type.entityType(), entityId, action, oldValues, newValues,
+                client == null ? null : client.getIpAddress(),
+                client == null ? null : client.getUserAgent(),
+                OffsetDateTime.now());
+    }
+
+    private AuditedType typeOf(Class<?> entityClass) {
+        return types.computeIfAbsent(entityClass, AuditedType::of);
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication instanceof JwtAuthenticationToken token ? token.getClaims().getUserId() : null;
+    }
+
+    /**
+     * {@link AuditLogged} settings of one entity class
+     */
+    record AuditedType(String entityType, Set<String> ignored, Set<String> masked) {
+
+        static final AuditedType NOT_AUDITED = new AuditedType(null, Set.of(), Set.of());
+
+        static AuditedType of(Class<?> entityClass) {
+            AuditLogged audited = entityClass == null ? null : entityClass.getAnnotation(AuditLogged.class);
+            if (audited == null) {
+                return NOT_AUDITED;
+            }
+            return new AuditedType(audited.value(), Set.copyOf(Arrays.asList(audited.ignore())),
+                    Set.copyOf(Arrays.asList(audited.mask())));
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.org.wmm.audit.service;
+
+import com.org.wmm.audit.domain.AuditEntry;
+import com.org.wmm.audit.repository.AuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers audit entries in a bounded ring buffer and writes them from a background thread in multi-row
+ * INSERTs of up to {@code audit.writer.batch-size} rows, flushing at least every
+ * {@code audit.writer.flush-interval} ms, so audited transactions never wait for {@code audit_log}.
+ * <p>
+ * When the buffer is full, {@code audit.buffer.overflow-policy} decides: {@link OverflowPolicy#BLOCK}
+ * makes the caller wait for the writer (a stalled database slows edits down instead of losing entries),
+ * {@link OverflowPolicy#DROP} discards the new entry and counts it in {@code audit.entries.dropped}.
+ * <p>
+ * On shutdown the writer drains the buffer before stopping; entries still left afterwards, or submitted
+ * later, are written on the calling thread.
+ */
+@Slf4j
+@Component
+public class AuditWriter {
+
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP
+    }
+
+    private final AuditLogRepository repository;
+    private final BlockingQueue<AuditEntry> buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long shutdownTimeoutMs;
+    private final Thread writer;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    private volatile boolean running = true;
+
+    public AuditWriter(
+            AuditLogRepository repository,
+            @Value("${audit.buffer.capacity:8192}") int capacity,
+            @Value("${audit.buffer.overflow-policy:block}") OverflowPolicy overflowPolicy,
+            @Value("${audit.writer.batch-size:100}") int batchSize,
+            @Value("${audit.writer.flush-interval:500}") long flushIntervalMs,
+            @Value("${audit.writer.shutdown-timeout:10000}") long shutdownTimeoutMs,
+            MeterRegistry meterRegistry
+    ) {
+        this.repository = repository;
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = flushIntervalMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+
+        Gauge.builder("audit.buffer.size", buffer, BlockingQueue::size)
+                .description("Audit entries waiting to be written")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.entries.written")
+                .description("Audit entries written to audit_log")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.entries.dropped")
+                .description("Audit entries discarded because the buffer was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.entries.failed")
+                .description("Audit entries that could not be written")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("audit.writer.batch")
+                .description("Time to write one batch of audit entries")
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::run, "audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queue an entry; see the class comment for what happens when the buffer is full
+     */
+    public void submit(AuditEntry entry) {
+        if (!running) {
+            write(List.of(entry));
+            return;
+        }
+        if (!buffer.offer(entry) && !offerWhenFull(entry)) {
+            return;
+        }
+        // Raced with shutdown, whose final drain may already be done: take the entry back and write it here,
+        // unless the writer or the drain has picked it up
+        if (!running && buffer.remove(entry)) {
+            write(List.of(entry));
+        }
+    }
+
+    /**
+     * @return whether the entry was queued; if not, it was dropped or already written
+     */
+    private boolean offerWhenFull(AuditEntry entry) {
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            droppedCounter.increment();
+            log.debug("Audit buffer is full, dropping {} of {} {}", entry.action(), entry.entityType(), entry.entityId());
+            return false;
+        }
+        log.warn("Audit buffer is full, waiting for the writer");
+        try {
+            while (!buffer.offer(entry, flushIntervalMs, TimeUnit.MILLISECONDS)) {
+                if (!running) {
+                    write(List.of(entry));
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            write(List.of(entry));
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Not interrupted: that could abort an INSERT in flight. The writer notices within one flush interval.
+        running = false;
+        try {
+            writer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("Audit writer did not stop within {} ms", shutdownTimeoutMs);
+            return;
+        }
+        // Entries queued while the writer was finishing its last batch
+        List<AuditEntry> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            write(remaining.subList(from, Math.min(remaining.size(), from + batchSize)));
+        }
+    }
+
+    private void run() {
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                AuditEntry first = running ? buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS) : buffer.poll();
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || !running || remaining <= 0) {
+                        break;
+                    }
+                    AuditEntry next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Nothing interrupts the writer on purpose; write what was collected and carry on
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AuditEntry> batch) {
+        try {
+            batchTimer.record(() -> {
+                repository.insert(batch);
+            });
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            // Any failure, not only DataAccessException: the writer thread must survive a bad entry
+            if (batch.size() == 1) {
+                failedCounter.increment();
+                log.error("Dropping audit entry for {} {}: {}", batch.get(0).entityType(), batch.get(0).entityId(),
+                        e.getMessage());
+                return;
+            }
+            log.warn("Batch of {} audit entries failed, retrying one by one: {}", batch.size(), e.getMessage());
+            for (AuditEntry entry : batch) {
+                write(List.of(entry));
+            }
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.org.wmm.auth.controller;
 
 import com.org.wmm.auth.dto.AuthResponse;
+import com.org.wmm.auth.dto.ClientInfo;
 import com.org.wmm.auth.dto.LoginRequest;
 import com.org.wmm.auth.dto.RefreshTokenRequest;
 import com.org.wmm.auth.dto.RegisterRequest;
 import com.org.wmm.auth.service.AuthService;
 import com.org.wmm.common.dto.BaseResponse;
+import com.org.wmm.security.PasswordHashingExecutor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -24,6 +26,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RestController
 @RequestMapping("/auth")
@@ -32,24 +36,29 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
 
     private final AuthService authService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     @Operation(summary = "Register", description = "Register new user with username, email and password. Logs in after successful registration and returns access + refresh tokens.")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Created"),
             @ApiResponse(responseCode = "400", description = "Validation error",
+                    content = @Content(schema = @Schema(implementation = BaseResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent auth requests, see Retry-After",
                     content = @Content(schema = @Schema(implementation = BaseResponse.class)))
     })
     @SecurityRequirement(name = "")
     @PostMapping("/register")
-    public ResponseEntity<BaseResponse<AuthResponse>> register(
+    public CompletableFuture<ResponseEntity<BaseResponse<AuthResponse>>> register(
             @Valid @RequestBody RegisterRequest registerRequest,
             HttpServletRequest httpServletRequest
     ) {
-        log.info("Register request: {}", registerRequest);
-        AuthResponse response = authService.register(registerRequest, httpServletRequest);
-        return ResponseEntity
-                .status(HttpStatus.CREATED)
-                .body(BaseResponse.success(response, "Registration successful"));
+        log.info("Register request for email: {}", registerRequest.getEmail());
+        ClientInfo clientInfo = ClientInfo.from(httpServletRequest);
+        return passwordHashingExecutor
+                .submit(() -> authService.register(registerRequest, clientInfo))
+                .thenApply(response -> ResponseEntity
+                        .status(HttpStatus.CREATED)
+                        .body(BaseResponse.success(response, "Registration successful")));
     }
 
 
@@ -59,20 +68,24 @@ public class AuthController {
             @ApiResponse(responseCode = "401", description = "Invalid credentials",
                     content = @Content(schema = @Schema(implementation = BaseResponse.class))),
             @ApiResponse(responseCode = "400", description = "Validation error",
+                    content = @Content(schema = @Schema(implementation = BaseResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent auth requests, see Retry-After",
                     content = @Content(schema = @Schema(implementation = BaseResponse.class)))
     })
     @SecurityRequirement(name = "")
     @PostMapping("/login")
-    public ResponseEntity<BaseResponse<AuthResponse>> login(
+    public CompletableFuture<ResponseEntity<BaseResponse<AuthResponse>>> login(
             @Valid @RequestBody LoginRequest request,
             HttpServletRequest httpRequest
     ) {
         log.info("Login request for email: {}", request.getEmail());
-        AuthResponse response = authService.login(request, httpRequest);
-        return ResponseEntity.ok(BaseResponse.success(response, "Login successful"));
+        ClientInfo clientInfo = ClientInfo.from(httpRequest);
+        return passwordHashingExecutor
+                .submit(() -> authService.login(request, clientInfo))
+                .thenApply(response -> ResponseEntity.ok(BaseResponse.success(response, "Login successful")));
     }
 
-    @Operation(summary = "Refresh token", description = "Exchange a valid refresh token for a new access token.")
+    @Operation(summary = "Refresh token", description = "Exchange a valid refresh token for a new access token and a new refresh token. The presented refresh token is revoked; reusing it revokes every token from the same login.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Token refreshed"),
             @ApiResponse(responseCode = "401", description = "Invalid or expired refresh token")
@@ -80,10 +93,11 @@ public class AuthController {
     @SecurityRequirement(name = "")
     @PostMapping("/refresh")
     public ResponseEntity<BaseResponse<AuthResponse>> refresh(
-            @Valid @RequestBody RefreshTokenRequest request
+            @Valid @RequestBody RefreshTokenRequest request,
+            HttpServletRequest httpRequest
     ) {
         log.info("Token refresh request");
-        AuthResponse response = authService.refresh(request.getRefreshToken());
+        AuthResponse response = authService.refresh(request.getRefreshToken(), ClientInfo.from(httpRequest));
         return ResponseEntity.ok(BaseResponse.success(response, "Token refreshed"));
     }
 
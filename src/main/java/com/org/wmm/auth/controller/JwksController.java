@@ -0,0 +1,45 @@
+package com.org.wmm.auth.controller;
+
+import com.org.wmm.security.JwtKeySet;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Publishes the JWT verification keys so other services can verify access tokens locally.
+ * The body is a standard JWK set, not wrapped in {@code BaseResponse}.
+ */
+@RestController
+@Tag(name = "Authentication", description = "Login, token refresh and logout")
+public class JwksController {
+
+    private final String jwksJson;
+    private final String etag;
+    private final CacheControl cacheControl;
+
+    public JwksController(JwtKeySet keySet, @Value("${jwt.jwks.max-age:300}") long maxAgeSeconds) {
+        this.jwksJson = keySet.toJwksJson();
+        this.etag = "\"" + DigestUtils.md5DigestAsHex(jwksJson.getBytes(StandardCharsets.UTF_8)) + "\"";
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+    }
+
+    @Operation(summary = "JWK set", description = "Public keys for verifying access tokens, selected by the token's kid header.")
+    @SecurityRequirement(name = "")
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks() {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(jwksJson);
+    }
+}
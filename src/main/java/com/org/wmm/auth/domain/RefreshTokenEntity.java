@@ -8,6 +8,7 @@ import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.OffsetDateTime;
+import java.util.UUID;
 
 @Getter
 @Setter
@@ -39,6 +40,9 @@ public class RefreshTokenEntity {
     @Column(name = "revoked_at")
     private OffsetDateTime revokedAt;
 
+    @Column(name = "family_id")
+    private UUID familyId;
+
     @Size(max = 500)
     @Column(name = "device_info", length = 500)
     private String deviceInfo;
@@ -0,0 +1,36 @@
+package com.org.wmm.auth.dto;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Client address and user agent captured on the servlet thread, so auth work that runs on
+ * another thread never touches the request object.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientInfo {
+
+    private String ipAddress;
+    private String userAgent;
+
+    public static ClientInfo from(HttpServletRequest request) {
+        return new ClientInfo(getClientIp(request), request.getHeader("User-Agent"));
+    }
+
+    /**
+     * Get client IP address from request
+     */
+    private static String getClientIp(HttpServletRequest request) {
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+            return xForwardedFor.split(",")[0].trim();
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,81 @@
+package com.org.wmm.auth.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Rotation family state for the in-memory revocation registry: the newest token of every family and the
+ * revoked families ({@code auth_refresh_token_family_revocations}). Inserts go through the write-behind.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RefreshTokenFamilyRepository {
+
+    // Newest token per family, via idx_refresh_tokens_family_id
+    private static final String CURRENT_TOKENS_SQL = """
+            SELECT DISTINCT ON (family_id) family_id, token_hash, created_at, expires_at
+            FROM auth_refresh_tokens
+            WHERE family_id IS NOT NULL AND expires_at > ?
+            ORDER BY family_id, created_at DESC
+            """;
+    private static final String ISSUED_SINCE_SQL = """
+            SELECT family_id, token_hash, created_at, expires_at
+            FROM auth_refresh_tokens
+            WHERE family_id IS NOT NULL AND created_at > ? AND expires_at > ?
+            ORDER BY created_at
+            """;
+    private static final String REVOKED_FAMILIES_SQL =
+            "SELECT family_id, expires_at FROM auth_refresh_token_family_revocations WHERE expires_at > ?";
+    private static final String REVOKED_FAMILIES_SINCE_SQL = """
+            SELECT family_id, expires_at FROM auth_refresh_token_family_revocations
+            WHERE revoked_at > ? AND expires_at > ?
+            """;
+
+    private static final RowMapper<FamilyToken> FAMILY_TOKEN_MAPPER = (rs, rowNum) -> new FamilyToken(
+            rs.getObject("family_id", UUID.class),
+            rs.getString("token_hash"),
+            rs.getObject("created_at", OffsetDateTime.class),
+            rs.getObject("expires_at", OffsetDateTime.class));
+    private static final RowMapper<FamilyRevocation> REVOCATION_MAPPER = (rs, rowNum) -> new FamilyRevocation(
+            rs.getObject("family_id", UUID.class),
+            rs.getObject("expires_at", OffsetDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The newest unexpired token of every family
+     */
+    public List<FamilyToken> findCurrentTokens(OffsetDateTime now) {
+        return jdbcTemplate.query(CURRENT_TOKENS_SQL, FAMILY_TOKEN_MAPPER, now);
+    }
+
+    /**
+     * Unexpired tokens issued after {@code since}, oldest first
+     */
+    public List<FamilyToken> findIssuedSince(OffsetDateTime since, OffsetDateTime now) {
+        return jdbcTemplate.query(ISSUED_SINCE_SQL, FAMILY_TOKEN_MAPPER, since, now);
+    }
+
+    public List<FamilyRevocation> findRevokedFamilies(OffsetDateTime now) {
+        return jdbcTemplate.query(REVOKED_FAMILIES_SQL, REVOCATION_MAPPER, now);
+    }
+
+    public List<FamilyRevocation> findRevokedFamiliesSince(OffsetDateTime since, OffsetDateTime now) {
+        return jdbcTemplate.query(REVOKED_FAMILIES_SINCE_SQL, REVOCATION_MAPPER, since, now);
+    }
+
+    /**
+     * A token as the current member of its rotation family
+     */
+    public record FamilyToken(UUID familyId, String tokenHash, OffsetDateTime issuedAt, OffsetDateTime expiresAt) {
+    }
+
+    public record FamilyRevocation(UUID familyId, OffsetDateTime expiresAt) {
+    }
+}
@@ -7,7 +7,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, Long> {
@@ -18,12 +20,38 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity
     @Query("DELETE FROM RefreshTokenEntity rt WHERE rt.user.id = :userId")
     void deleteAllByUserId(Long userId);
 
-    @Modifying
-    @Query("DELETE FROM RefreshTokenEntity rt WHERE rt.expiresAt < :now")
-    void deleteAllExpiredTokens(OffsetDateTime now);
-
     @Modifying
     @Query("UPDATE RefreshTokenEntity rt SET rt.revokedAt = :now WHERE rt.tokenHash = :tokenHash")
     void revokeToken(String tokenHash, OffsetDateTime now);
+
+    @Modifying
+    @Query("UPDATE RefreshTokenEntity rt SET rt.revokedAt = :now WHERE rt.user.id = :userId AND rt.revokedAt IS NULL")
+    void revokeAllByUserId(Long userId, OffsetDateTime now);
+
+    @Query("SELECT rt.tokenHash AS tokenHash, rt.expiresAt AS expiresAt, rt.familyId AS familyId " +
+            "FROM RefreshTokenEntity rt " +
+            "WHERE rt.user.id = :userId AND rt.revokedAt IS NULL AND rt.expiresAt > :now")
+    List<TokenExpiry> findActiveTokensByUserId(Long userId, OffsetDateTime now);
+
+    @Query("SELECT rt.tokenHash AS tokenHash, rt.expiresAt AS expiresAt, rt.familyId AS familyId " +
+            "FROM RefreshTokenEntity rt " +
+            "WHERE rt.revokedAt IS NOT NULL AND rt.expiresAt > :now AND rt.familyId IS NULL")
+    List<TokenExpiry> findRevokedWithoutFamily(OffsetDateTime now);
+
+    @Query("SELECT rt.tokenHash AS tokenHash, rt.expiresAt AS expiresAt, rt.familyId AS familyId " +
+            "FROM RefreshTokenEntity rt " +
+            "WHERE rt.revokedAt > :since AND rt.expiresAt > :now AND rt.familyId IS NULL")
+    List<TokenExpiry> findRevokedWithoutFamilySince(OffsetDateTime since, OffsetDateTime now);
+
+    /**
+     * Token hash with its expiry and rotation family (null for tokens issued before rotation)
+     */
+    interface TokenExpiry {
+        String getTokenHash();
+
+        OffsetDateTime getExpiresAt();
+
+        UUID getFamilyId();
+    }
 }
 
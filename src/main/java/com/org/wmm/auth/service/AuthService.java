@@ -2,17 +2,24 @@ package com.org.wmm.auth.service;
 
 import com.org.wmm.auth.domain.RefreshTokenEntity;
 import com.org.wmm.auth.dto.AuthResponse;
+import com.org.wmm.auth.dto.ClientInfo;
 import com.org.wmm.auth.dto.LoginRequest;
 import com.org.wmm.auth.dto.RegisterRequest;
 import com.org.wmm.auth.dto.UserInfo;
+import com.org.wmm.auth.repository.RefreshTokenFamilyRepository.FamilyToken;
 import com.org.wmm.auth.repository.RefreshTokenRepository;
+import com.org.wmm.auth.repository.RefreshTokenRepository.TokenExpiry;
+import com.org.wmm.common.constants.SecurityConstants;
 import com.org.wmm.common.error.BadRequestException;
 import com.org.wmm.common.error.UnauthorizedException;
+import com.org.wmm.security.JwtClaims;
 import com.org.wmm.security.JwtTokenProvider;
+import com.org.wmm.security.password.PasswordEncoderRegistry;
+import com.org.wmm.users.dto.UserSnapshot;
 import com.org.wmm.users.entity.UserEntity;
 import com.org.wmm.users.repository.UserRepository;
 import com.org.wmm.users.service.CustomUserDetailsService;
-import jakarta.servlet.http.HttpServletRequest;
+import com.org.wmm.users.service.UserSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,7 +27,6 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,11 +34,14 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
-import static com.org.wmm.common.constants.SecurityConstants.BCRYPT;
-
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -43,7 +52,11 @@ public class AuthService {
     private final CustomUserDetailsService userDetailsService;
     private final RefreshTokenRepository refreshTokenRepository;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordEncoderRegistry passwordEncoderRegistry;
+    private final RefreshTokenRevocationRegistry revocationRegistry;
+    private final RefreshTokenWriteBehind refreshTokenWriteBehind;
+    private final RefreshTokenPurgeJob refreshTokenPurgeJob;
+    private final UserSnapshotCache userSnapshotCache;
 
     @Value("${jwt.refresh-token-expiration}")
     private long refreshTokenExpiration;
@@ -55,7 +68,7 @@ public class AuthService {
      * Register user
      */
     @Transactional
-    public AuthResponse register(RegisterRequest registerRequest, HttpServletRequest httpServletRequest) {
+    public AuthResponse register(RegisterRequest registerRequest, ClientInfo clientInfo) {
         if (userRepository.existsByEmail(registerRequest.getEmail())) {
             throw new IllegalArgumentException("Email already in use");
         }
@@ -63,22 +76,22 @@ public class AuthService {
         UserEntity user = UserEntity.builder()
                 .displayName(registerRequest.getDisplayName())
                 .email(registerRequest.getEmail())
-                .passwordHash(passwordEncoder.encode(registerRequest.getPassword()))
-                .passwordAlgo(BCRYPT)
+                .passwordHash(passwordEncoderRegistry.encode(registerRequest.getPassword()))
+                .passwordAlgo(passwordEncoderRegistry.getTargetAlgorithm())
                 .build();
 
         userRepository.save(user);
         log.info("User registered successfully: {}", user.getEmail());
 
         LoginRequest loginRequest = new LoginRequest(registerRequest.getEmail(), registerRequest.getPassword());
-        return login(loginRequest, httpServletRequest);
+        return login(loginRequest, clientInfo);
     }
 
     /**
      * Authenticate user and generate tokens
      */
     @Transactional
-    public AuthResponse login(LoginRequest request, HttpServletRequest httpRequest) {
+    public AuthResponse login(LoginRequest request, ClientInfo clientInfo) {
         log.info("Login attempt for email: {}", request.getEmail());
 
         // Authenticate user
@@ -92,14 +105,19 @@ public class AuthService {
         // Update last login
         user.setLastLoginAt(OffsetDateTime.now());
         user.setFailedLoginAttempts(0);
-        userRepository.save(user);
+        rehashIfNeeded(user, request.getPassword());
+        // Flush so updated_at is current; the access token carries it as the profile version
+        userRepository.saveAndFlush(user);
 
-        // Generate tokens
-        String accessToken = jwtTokenProvider.generateAccessToken(userDetails);
-        String refreshToken = jwtTokenProvider.generateRefreshToken(userDetails);
+        // Generate tokens; each login starts a new rotation family
+        UUID familyId = UUID.randomUUID();
+        String accessToken = generateAccessToken(UserSnapshot.from(user));
+        String refreshToken = jwtTokenProvider.generateRefreshToken(userDetails.getUsername(), familyId);
 
-        // Save refresh token
-        saveRefreshToken(user, refreshToken, httpRequest);
+        // Save refresh token (written after commit by the write-behind batcher)
+        FamilyToken issued = familyToken(familyId, refreshToken, OffsetDateTime.now());
+        saveRefreshToken(user.getId(), issued, clientInfo);
+        revocationRegistry.markIssued(issued);
 
         log.info("User logged in successfully: {}", user.getEmail());
 
@@ -113,37 +131,63 @@ public class AuthService {
     }
 
     /**
-     * Refresh access token using refresh token
+     * Rotate a refresh token: issue a new access and refresh token and revoke the presented one.
+     * <p>
+     * Rotation is checked against the in-memory {@link RefreshTokenRevocationRegistry}, so a valid refresh
+     * costs a single user query; the token row is only read for a family this node has not seen yet.
+     * Presenting a token that was already rotated or revoked is treated as theft and revokes its whole family.
+     * Not transactional: with a warm user snapshot a refresh does not need a connection at all.
      */
-    @Transactional
-    public AuthResponse refresh(String refreshToken) {
+    public AuthResponse refresh(String refreshToken, ClientInfo clientInfo) {
         log.debug("Refreshing token");
 
         // Validate refresh token
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
-            throw new UnauthorizedException("Invalid refresh token");
-        }
+        JwtClaims claims = jwtTokenProvider.resolveClaims(refreshToken)
+                .filter(c -> SecurityConstants.TOKEN_TYPE_REFRESH.equals(c.getType()))
+                .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
 
+        String email = claims.getSubject();
         String tokenHash = hashToken(refreshToken);
-        RefreshTokenEntity tokenEntity = refreshTokenRepository.findByTokenHash(tokenHash)
-                .orElseThrow(() -> new UnauthorizedException("Refresh token not found"));
+        OffsetDateTime now = OffsetDateTime.now();
 
-        if (!tokenEntity.isValid()) {
+        if (revocationRegistry.isFamilyRevoked(claims.getFamilyId())) {
+            throw new UnauthorizedException("Refresh token is expired or revoked");
+        }
+        // Tokens issued before rotation have no family; they start one now
+        UUID familyId = claims.getFamilyId() != null ? claims.getFamilyId() : UUID.randomUUID();
+        String newRefreshToken = jwtTokenProvider.generateRefreshToken(email, familyId);
+        FamilyToken successor = familyToken(familyId, newRefreshToken, now);
+
+        boolean rotated;
+        if (claims.getFamilyId() != null) {
+            FamilyToken presented = new FamilyToken(familyId, tokenHash,
+                    claims.getIssuedAt().atOffset(ZoneOffset.UTC), claims.getExpiresAt().atOffset(ZoneOffset.UTC));
+            rotated = revocationRegistry.tryRotate(presented, successor);
+        } else {
+            rotated = rotateWithoutFamily(tokenHash, claims, successor);
+        }
+        if (!rotated) {
+            if (claims.getFamilyId() != null) {
+                revokeFamily(familyId, now);
+                log.warn("Refresh token reuse detected for user {}, revoked token family {}", email, familyId);
+            }
             throw new UnauthorizedException("Refresh token is expired or revoked");
         }
+        refreshTokenWriteBehind.revoke(tokenHash, now);
 
-        // Get user and generate new access token
-        String email = jwtTokenProvider.extractUsername(refreshToken);
-        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-        UserEntity user = userDetailsService.getUserByEmail(email);
+        // Get user (usually from the snapshot cache) and generate new tokens
+        UserSnapshot user = userDetailsService.findUserSnapshot(email)
+                .filter(UserSnapshot::isActive)
+                .orElseThrow(() -> new UnauthorizedException("User account is inactive or does not exist"));
 
-        String newAccessToken = jwtTokenProvider.generateAccessToken(userDetails);
+        String newAccessToken = generateAccessToken(user);
+        saveRefreshToken(user.getId(), successor, clientInfo);
 
         log.info("Token refreshed for user: {}", email);
 
         return AuthResponse.builder()
                 .accessToken(newAccessToken)
-                .refreshToken(refreshToken) // Return the same refresh token
+                .refreshToken(newRefreshToken)
                 .tokenType("Bearer")
                 .expiresIn(accessTokenExpiration / 1000)
                 .user(mapToUserInfo(user))
@@ -151,47 +195,109 @@ public class AuthService {
     }
 
     /**
-     * Logout user by revoking refresh token
+     * Logout user by revoking refresh token; the session ends with the token's rotation family
      */
-    @Transactional
     public void logout(String refreshToken) {
         if (refreshToken == null || refreshToken.isBlank()) {
             throw new BadRequestException("Refresh token is required");
         }
 
         String tokenHash = hashToken(refreshToken);
-        refreshTokenRepository.revokeToken(tokenHash, OffsetDateTime.now());
+        OffsetDateTime now = OffsetDateTime.now();
+        Optional<JwtClaims> claims = jwtTokenProvider.resolveClaims(refreshToken);
+        refreshTokenWriteBehind.revoke(tokenHash, now);
+        UUID familyId = claims.map(JwtClaims::getFamilyId).orElse(null);
+        if (familyId != null) {
+            revokeFamily(familyId, now);
+        } else {
+            revocationRegistry.markRevoked(tokenHash, claims
+                    .map(c -> c.getExpiresAt().atOffset(ZoneOffset.UTC))
+                    .orElse(now.plusSeconds(refreshTokenExpiration / 1000)));
+        }
 
         log.info("User logged out, refresh token revoked");
     }
 
     /**
-     * Logout from all devices by revoking all refresh tokens
+     * Logout from all devices by revoking all refresh tokens.
+     * Rows are revoked rather than deleted so other nodes pick them up on their next revocation sync;
+     * the expiry purge removes them later. Pending token writes are flushed first so none are missed.
      */
     @Transactional
     public void logoutAll(String email) {
+        refreshTokenWriteBehind.flush();
         UserEntity user = userDetailsService.getUserByEmail(email);
-        refreshTokenRepository.deleteAllByUserId(user.getId());
+        OffsetDateTime now = OffsetDateTime.now();
+        List<TokenExpiry> activeTokens = refreshTokenRepository.findActiveTokensByUserId(user.getId(), now);
+        refreshTokenRepository.revokeAllByUserId(user.getId(), now);
+        activeTokens.stream()
+                .filter(token -> token.getFamilyId() == null)
+                .forEach(token -> revocationRegistry.markRevoked(token.getTokenHash(), token.getExpiresAt()));
+        activeTokens.stream()
+                .map(TokenExpiry::getFamilyId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(familyId -> revokeFamily(familyId, now));
+        userSnapshotCache.evict(email);
 
         log.info("User logged out from all devices: {}", email);
     }
 
     /**
-     * Save refresh token to database
+     * Re-encode the password with the current algorithm and cost when the stored hash is outdated.
+     * Only possible right after a successful login, while the raw password is at hand.
      */
-    private void saveRefreshToken(UserEntity user, String refreshToken, HttpServletRequest request) {
-        String tokenHash = hashToken(refreshToken);
-        OffsetDateTime expiresAt = OffsetDateTime.now().plusSeconds(refreshTokenExpiration / 1000);
-
-        RefreshTokenEntity tokenEntity = RefreshTokenEntity.builder()
-                .user(user)
-                .tokenHash(tokenHash)
-                .expiresAt(expiresAt)
-                .ipAddress(getClientIp(request))
-                .userAgent(request.getHeader("User-Agent"))
-                .build();
+    private void rehashIfNeeded(UserEntity user, String rawPassword) {
+        if (!passwordEncoderRegistry.needsRehash(user.getPasswordAlgo(), user.getPasswordHash())) {
+            return;
+        }
+        String previousAlgo = user.getPasswordAlgo();
+        user.setPasswordHash(passwordEncoderRegistry.encode(rawPassword));
+        user.setPasswordAlgo(passwordEncoderRegistry.getTargetAlgorithm());
+        log.info("Rehashed password for user {} ({} -> {})", user.getEmail(), previousAlgo, user.getPasswordAlgo());
+    }
+
+    private String generateAccessToken(UserSnapshot user) {
+        return jwtTokenProvider.generateAccessToken(
+                user.getId(), user.getEmail(), user.getDisplayName(), user.getRoles(), user.getUpdatedAt());
+    }
+
+    /**
+     * Rotate a token issued before rotation into a new family, once
+     */
+    private boolean rotateWithoutFamily(String tokenHash, JwtClaims claims, FamilyToken successor) {
+        if (!revocationRegistry.isReady()) {
+            refreshTokenRepository.findByTokenHash(tokenHash)
+                    .filter(RefreshTokenEntity::isRevoked)
+                    .ifPresent(token -> revocationRegistry.markRevoked(tokenHash, token.getExpiresAt()));
+        }
+        if (!revocationRegistry.tryMarkRevoked(tokenHash, claims.getExpiresAt().atOffset(ZoneOffset.UTC))) {
+            return false;
+        }
+        revocationRegistry.markIssued(successor);
+        return true;
+    }
+
+    private FamilyToken familyToken(UUID familyId, String refreshToken, OffsetDateTime issuedAt) {
+        return new FamilyToken(familyId, hashToken(refreshToken), issuedAt,
+                issuedAt.plusSeconds(refreshTokenExpiration / 1000));
+    }
+
+    /**
+     * Queue the refresh token row for the write-behind batcher
+     */
+    private void saveRefreshToken(Long userId, FamilyToken token, ClientInfo clientInfo) {
+        refreshTokenWriteBehind.insert(userId, token.tokenHash(), token.familyId(), token.expiresAt(),
+                clientInfo.getIpAddress(), clientInfo.getUserAgent());
+    }
 
-        refreshTokenRepository.save(tokenEntity);
+    /**
+     * Revoke every token of a rotation family, here and (via the batcher) in the database
+     */
+    private void revokeFamily(UUID familyId, OffsetDateTime now) {
+        OffsetDateTime expiresAt = now.plusSeconds(refreshTokenExpiration / 1000);
+        revocationRegistry.markFamilyRevoked(familyId, expiresAt);
+        refreshTokenWriteBehind.revokeFamily(familyId, now, expiresAt);
     }
 
     /**
@@ -207,17 +313,6 @@ public class AuthService {
         }
     }
 
-    /**
-     * Get client IP address from request
-     */
-    private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-        return request.getRemoteAddr();
-    }
-
     /**
      * Map UserEntity to UserInfo DTO
      */
@@ -226,19 +321,31 @@ public class AuthService {
                 .id(user.getId())
                 .email(user.getEmail())
                 .displayName(user.getDisplayName())
-                .roles(user.getUserRoles().stream()
-                        .map(ur -> ur.getRole().getName())
-                        .collect(Collectors.toList()))
+                .roles(roleNames(user))
                 .build();
     }
 
+    private UserInfo mapToUserInfo(UserSnapshot user) {
+        return UserInfo.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .displayName(user.getDisplayName())
+                .roles(user.getRoles())
+                .build();
+    }
+
+    private List<String> roleNames(UserEntity user) {
+        return user.getUserRoles().stream()
+                .map(ur -> ur.getRole().getName())
+                .collect(Collectors.toList());
+    }
+
     /**
-     * Clean up expired refresh tokens (scheduled task can call this)
+     * Clean up expired refresh tokens now; normally {@link RefreshTokenPurgeJob} does this on its schedule.
+     * Not transactional, so every chunk commits on its own.
      */
-    @Transactional
     public void cleanupExpiredTokens() {
-        refreshTokenRepository.deleteAllExpiredTokens(OffsetDateTime.now());
-        log.info("Cleaned up expired refresh tokens");
+        long purged = refreshTokenPurgeJob.purge();
+        log.info("Cleaned up expired refresh tokens: {}", purged < 0 ? "skipped, running on another node" : purged);
     }
 }
-
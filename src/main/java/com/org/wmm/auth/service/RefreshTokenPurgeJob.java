@@ -0,0 +1,175 @@
+package com.org.wmm.auth.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes expired rows from {@code auth_refresh_tokens} in small chunks, each in its own short transaction,
+ * so the purge never holds long row locks or produces one huge burst of dead tuples.
+ * <p>
+ * Only one replica runs at a time: the job takes a session-level {@code pg_try_advisory_lock} and performs
+ * all chunks on that same connection. Replicas that do not get the lock skip the run.
+ * <p>
+ * Expired rows of {@code auth_refresh_token_family_revocations} are deleted in the same run.
+ */
+@Slf4j
+@Component
+public class RefreshTokenPurgeJob {
+
+    /**
+     * Advisory lock key, unique to this job
+     */
+    static final long LOCK_KEY = 0x776d6d_7266_7075L;
+
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(?)";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(?)";
+    // Walks idx_refresh_tokens_expires_at from the oldest token
+    private static final String DELETE_CHUNK_SQL = """
+            DELETE FROM auth_refresh_tokens
+            WHERE id IN (
+                SELECT id FROM auth_refresh_tokens
+                WHERE expires_at < ?
+                ORDER BY expires_at
+                LIMIT ?
+            )
+            """;
+    // A handful of rows (revoked sessions), deleted in one statement
+    private static final String DELETE_FAMILY_REVOCATIONS_SQL =
+            "DELETE FROM auth_refresh_token_family_revocations WHERE expires_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RefreshTokenRevocationRegistry revocationRegistry;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final long maxRuntimeMs;
+    private final Counter purgedCounter;
+    private final Timer chunkTimer;
+
+    public RefreshTokenPurgeJob(
+            JdbcTemplate jdbcTemplate,
+            RefreshTokenRevocationRegistry revocationRegistry,
+            @Value("${auth.refresh-tokens.purge.chunk-size:1000}") int chunkSize,
+            @Value("${auth.refresh-tokens.purge.pause:100}") long pauseMs,
+            @Value("${auth.refresh-tokens.purge.max-runtime:300000}") long maxRuntimeMs,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.revocationRegistry = revocationRegistry;
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.maxRuntimeMs = maxRuntimeMs;
+        this.purgedCounter = Counter.builder("auth.refresh_tokens.purged")
+                .description("Expired refresh tokens deleted")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("auth.refresh_tokens.purge.chunk")
+                .description("Time to delete one chunk of expired refresh tokens")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${auth.refresh-tokens.purge.cron:0 0 * * * *}")
+    public void scheduledPurge() {
+        purge();
+    }
+
+    /**
+     * Purge expired tokens if no other replica is doing so
+     *
+     * @return number of rows deleted, or -1 if another replica holds the lock
+     */
+    public long purge() {
+        OffsetDateTime now = OffsetDateTime.now();
+        Long purged = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            if (!tryLock(connection)) {
+                log.debug("Refresh token purge is running on another node, skipping");
+                return -1L;
+            }
+            try {
+                long deleted = deleteInChunks(connection, now);
+                try (PreparedStatement statement = connection.prepareStatement(DELETE_FAMILY_REVOCATIONS_SQL)) {
+                    statement.setObject(1, now);
+                    statement.executeUpdate();
+                }
+                return deleted;
+            } finally {
+                unlock(connection);
+            }
+        });
+        revocationRegistry.purgeExpired(now);
+        return purged == null ? -1 : purged;
+    }
+
+    private long deleteInChunks(Connection connection, OffsetDateTime cutoff) throws SQLException {
+        long startedAt = System.currentTimeMillis();
+        long total = 0;
+        int chunks = 0;
+        try (PreparedStatement delete = connection.prepareStatement(DELETE_CHUNK_SQL)) {
+            delete.setObject(1, cutoff);
+            delete.setInt(2, chunkSize);
+            while (true) {
+                long chunkStart = System.nanoTime();
+                int deleted = delete.executeUpdate();
+                chunkTimer.record(System.nanoTime() - chunkStart, TimeUnit.NANOSECONDS);
+                purgedCounter.increment(deleted);
+                total += deleted;
+                chunks++;
+
+                if (deleted < chunkSize) {
+                    break;
+                }
+                if (System.currentTimeMillis() - startedAt >= maxRuntimeMs) {
+                    log.info("Refresh token purge reached its max runtime, the rest is left for the next run");
+                    break;
+                }
+                if (!pause()) {
+                    break;
+                }
+            }
+        }
+        log.info("Purged {} expired refresh tokens in {} chunks ({} ms)",
+                total, chunks, System.currentTimeMillis() - startedAt);
+        return total;
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(TRY_LOCK_SQL)) {
+            statement.setLong(1, LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(UNLOCK_SQL)) {
+            statement.setLong(1, LOCK_KEY);
+            statement.executeQuery().close();
+        }
+    }
+}
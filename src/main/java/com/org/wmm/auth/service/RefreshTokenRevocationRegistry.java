@@ -0,0 +1,193 @@
+package com.org.wmm.auth.service;
+
+import com.org.wmm.auth.domain.RefreshTokenEntity;
+import com.org.wmm.auth.repository.RefreshTokenFamilyRepository;
+import com.org.wmm.auth.repository.RefreshTokenFamilyRepository.FamilyRevocation;
+import com.org.wmm.auth.repository.RefreshTokenFamilyRepository.FamilyToken;
+import com.org.wmm.auth.repository.RefreshTokenRepository;
+import com.org.wmm.auth.repository.RefreshTokenRepository.TokenExpiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory rotation state of refresh tokens, so a refresh for a token that is clearly valid does not need to
+ * read {@code auth_refresh_tokens}.
+ * <p>
+ * For every rotation family only the current (newest) token is kept: a presented token that is not its
+ * family's current one has been rotated already and is being reused. This holds one entry per active session,
+ * however often tokens are refreshed. Revoked families (reuse detection, logout) are kept until the last token
+ * they could contain expires; they are persisted in {@code auth_refresh_token_family_revocations}, so other
+ * nodes and restarts see them too. Revoked tokens without a family, issued before rotation, are kept by hash
+ * until they expire.
+ * <p>
+ * Built from the tables once the application is ready and then kept current by this node's refreshes and
+ * logouts and by a periodic sync of tokens issued and families revoked on other nodes. A family this node has
+ * not seen yet is checked against its token row once (see {@link #tryRotate}).
+ */
+@Slf4j
+@Component
+public class RefreshTokenRevocationRegistry {
+
+    /**
+     * Rows are written with the application clock before commit, so re-read a small window on every sync
+     */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenFamilyRepository familyRepository;
+    private final Map<UUID, FamilyToken> currentTokens = new ConcurrentHashMap<>();
+    private final Map<UUID, OffsetDateTime> revokedFamilies = new ConcurrentHashMap<>();
+    private final Map<String, OffsetDateTime> revokedTokens = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+    private volatile OffsetDateTime lastSync;
+
+    public RefreshTokenRevocationRegistry(RefreshTokenRepository refreshTokenRepository,
+                                          RefreshTokenFamilyRepository familyRepository,
+                                          MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.familyRepository = familyRepository;
+        Gauge.builder("auth.refresh_tokens.families.cached", currentTokens, Map::size)
+                .description("Active refresh token families held in memory")
+                .register(meterRegistry);
+        Gauge.builder("auth.refresh_tokens.revoked.cached", this, registry -> registry.revokedFamilies.size()
+                        + registry.revokedTokens.size())
+                .description("Revoked refresh token families and tokens without a family held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether the state has been loaded; until then callers must check the database for tokens without a family
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Record a newly issued token as its family's current one, unless a newer token is already known
+     */
+    public void markIssued(FamilyToken token) {
+        currentTokens.merge(token.familyId(), token,
+                (known, issued) -> issued.issuedAt().isAfter(known.issuedAt()) ? issued : known);
+    }
+
+    /**
+     * Atomically replace the family's current token by its successor.
+     * <p>
+     * When the family is unknown here (issued on another node since the last sync, or before the state was
+     * loaded), the presented token's row decides: revoked there means it was already rotated.
+     *
+     * @return false if {@code presented} is not the family's current token, i.e. it is being reused
+     */
+    public boolean tryRotate(FamilyToken presented, FamilyToken successor) {
+        UUID familyId = presented.familyId();
+        FamilyToken current = currentTokens.get(familyId);
+        if (current == null) {
+            boolean rotatedElsewhere = refreshTokenRepository.findByTokenHash(presented.tokenHash())
+                    .filter(RefreshTokenEntity::isRevoked)
+                    .isPresent();
+            if (rotatedElsewhere) {
+                return false;
+            }
+            FamilyToken known = currentTokens.putIfAbsent(familyId, presented);
+            current = known != null ? known : presented;
+        }
+        return current.tokenHash().equals(presented.tokenHash())
+                && currentTokens.replace(familyId, current, successor);
+    }
+
+    public boolean isFamilyRevoked(UUID familyId) {
+        return familyId != null && revokedFamilies.containsKey(familyId);
+    }
+
+    /**
+     * Revoke a whole rotation family until {@code expiresAt}, the latest expiry any of its tokens can have
+     */
+    public void markFamilyRevoked(UUID familyId, OffsetDateTime expiresAt) {
+        revokedFamilies.merge(familyId, expiresAt, (known, revoked) -> revoked.isAfter(known) ? revoked : known);
+        currentTokens.remove(familyId);
+    }
+
+    public boolean isRevoked(String tokenHash) {
+        return revokedTokens.containsKey(tokenHash);
+    }
+
+    /**
+     * Revoke a token without a family
+     */
+    public void markRevoked(String tokenHash, OffsetDateTime expiresAt) {
+        revokedTokens.put(tokenHash, expiresAt);
+    }
+
+    /**
+     * Atomically revoke a token without a family that is being rotated into a new family
+     *
+     * @return false if the token was already revoked, i.e. it is being reused
+     */
+    public boolean tryMarkRevoked(String tokenHash, OffsetDateTime expiresAt) {
+        return revokedTokens.putIfAbsent(tokenHash, expiresAt) == null;
+    }
+
+    /**
+     * Forget tokens and families that have expired; they can no longer pass JWT validation
+     */
+    public void purgeExpired(OffsetDateTime now) {
+        currentTokens.values().removeIf(token -> !token.expiresAt().isAfter(now));
+        revokedFamilies.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<FamilyToken> current = familyRepository.findCurrentTokens(now);
+        List<FamilyRevocation> revokedFamilyRows = familyRepository.findRevokedFamilies(now);
+        List<TokenExpiry> revokedWithoutFamily = refreshTokenRepository.findRevokedWithoutFamily(now);
+        current.forEach(this::markIssued);
+        apply(revokedFamilyRows, revokedWithoutFamily);
+        lastSync = now;
+        ready = true;
+
+        log.info("Loaded {} refresh token families, {} revoked families and {} revoked tokens without a family",
+                current.size(), revokedFamilyRows.size(), revokedWithoutFamily.size());
+    }
+
+    /**
+     * Pick up tokens issued and revoked by other nodes since the last sync
+     */
+    @Scheduled(fixedDelayString = "${auth.refresh-tokens.revocation-sync-interval:30000}")
+    public void sync() {
+        if (!ready) {
+            return;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime since = lastSync.minus(SYNC_OVERLAP);
+        List<FamilyToken> issued = familyRepository.findIssuedSince(since, now);
+        List<FamilyRevocation> revokedFamilyRows = familyRepository.findRevokedFamiliesSince(since, now);
+        List<TokenExpiry> revokedWithoutFamily = refreshTokenRepository.findRevokedWithoutFamilySince(since, now);
+        issued.forEach(this::markIssued);
+        apply(revokedFamilyRows, revokedWithoutFamily);
+        purgeExpired(now);
+        lastSync = now;
+
+        log.debug("Synced {} issued refresh tokens, {} revoked families and {} revoked tokens without a family",
+                issued.size(), revokedFamilyRows.size(), revokedWithoutFamily.size());
+    }
+
+    private void apply(List<FamilyRevocation> revokedFamilyRows, List<TokenExpiry> revokedWithoutFamily) {
+        revokedFamilyRows.forEach(family -> markFamilyRevoked(family.familyId(), family.expiresAt()));
+        revokedWithoutFamily.forEach(token -> markRevoked(token.getTokenHash(), token.getExpiresAt()));
+    }
+}
@@ -0,0 +1,312 @@
+package com.org.wmm.auth.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind queue for {@code auth_refresh_tokens}. Logins and refreshes enqueue their inserts and
+ * revocations; a single writer thread drains them in JDBC batches (one transaction per batch), flushing
+ * when {@code hibernate.jdbc.batch_size} writes are pending or the flush interval has passed.
+ * <p>
+ * Inserts issued inside a transaction are only enqueued after it commits, so a token is never persisted
+ * for a rolled-back login or before the user row of a registration is visible. Revocations are also put
+ * into {@link RefreshTokenRevocationRegistry} by the caller, so checks on this node never wait for a flush.
+ */
+@Slf4j
+@Component
+public class RefreshTokenWriteBehind {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO auth_refresh_tokens (user_id, token_hash, family_id, expires_at, ip_address, user_agent, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (token_hash) DO NOTHING
+            """;
+    private static final String REVOKE_SQL =
+            "UPDATE auth_refresh_tokens SET revoked_at = ? WHERE token_hash = ? AND revoked_at IS NULL";
+    private static final String REVOKE_FAMILY_SQL =
+            "UPDATE auth_refresh_tokens SET revoked_at = ? WHERE family_id = ? AND revoked_at IS NULL";
+    private static final String FAMILY_REVOCATION_SQL = """
+            INSERT INTO auth_refresh_token_family_revocations (family_id, revoked_at, expires_at)
+            VALUES (?, ?, ?)
+            ON CONFLICT (family_id) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingWrite> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final Thread writer;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+
+    private volatile boolean running = true;
+
+    public RefreshTokenWriteBehind(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:20}") int batchSize,
+            @Value("${auth.refresh-tokens.write-behind.flush-interval:200}") long flushIntervalMs,
+            @Value("${auth.refresh-tokens.write-behind.queue-capacity:10000}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = flushIntervalMs;
+
+        Gauge.builder("auth.refresh_tokens.write_behind.pending", queue, BlockingQueue::size)
+                .description("Refresh token writes waiting to be flushed")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("auth.refresh_tokens.write_behind.written")
+                .description("Refresh token writes flushed to the database")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("auth.refresh_tokens.write_behind.failed")
+                .description("Refresh token writes that could not be flushed")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("auth.refresh_tokens.write_behind.flush")
+                .description("Time to write one batch")
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::run, "refresh-token-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queue a new token row
+     */
+    public void insert(Long userId, String tokenHash, UUID familyId, OffsetDateTime expiresAt,
+                       String ipAddress, String userAgent) {
+        submit(new Insert(userId, tokenHash, familyId, expiresAt, ipAddress, userAgent, OffsetDateTime.now()));
+    }
+
+    /**
+     * Queue revocation of a single token
+     */
+    public void revoke(String tokenHash, OffsetDateTime revokedAt) {
+        submit(new Revoke(tokenHash, revokedAt));
+    }
+
+    /**
+     * Queue revocation of every token in a rotation family, recorded for other nodes until {@code expiresAt}
+     */
+    public void revokeFamily(UUID familyId, OffsetDateTime revokedAt, OffsetDateTime expiresAt) {
+        submit(new RevokeFamily(familyId, revokedAt, expiresAt));
+    }
+
+    /**
+     * Block until everything queued so far has been written
+     */
+    public void flush() {
+        if (!running) {
+            return;
+        }
+        FlushMarker marker = new FlushMarker(new CountDownLatch(1));
+        enqueue(marker);
+        try {
+            if (!marker.done().await(30, TimeUnit.SECONDS)) {
+                log.warn("Timed out waiting for refresh token writes to flush");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Not interrupted: that could abort a JDBC batch in flight. The writer notices within one flush interval.
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} refresh token writes were not flushed before shutdown", queue.size());
+        }
+    }
+
+    /**
+     * Inserts wait for the surrounding transaction to commit; revocations are queued once it completes either
+     * way, since a refresh rejected for token reuse rolls back but must still revoke the family.
+     */
+    private void submit(PendingWrite write) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(write);
+            return;
+        }
+        boolean onCommitOnly = write instanceof Insert;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED || !onCommitOnly) {
+                    enqueue(write);
+                }
+            }
+        });
+    }
+
+    /**
+     * Blocks the caller when the queue is full, so a stalled database slows logins down instead of losing tokens.
+     * Once the writer has stopped, writes are done on the calling thread.
+     */
+    private void enqueue(PendingWrite write) {
+        if (!running) {
+            write(List.of(write));
+            return;
+        }
+        if (!queue.offer(write)) {
+            log.warn("Refresh token write queue is full, waiting for the writer");
+            try {
+                while (!queue.offer(write, flushIntervalMs, TimeUnit.MILLISECONDS)) {
+                    if (!running) {
+                        write(List.of(write));
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while queueing refresh token write", e);
+            }
+        }
+        // Raced with shutdown after the writer's last poll: take the write back unless the writer picked it up
+        if (!running && queue.remove(write)) {
+            write(List.of(write));
+        }
+    }
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = running ? queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS) : queue.poll();
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize && !(batch.get(batch.size() - 1) instanceof FlushMarker)) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite next = running && remaining > 0
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Nothing interrupts the writer on purpose; write what was collected and carry on
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> batch) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> revokes = new ArrayList<>();
+        List<Object[]> familyRevokes = new ArrayList<>();
+        List<Object[]> familyRevocations = new ArrayList<>();
+        List<FlushMarker> markers = new ArrayList<>();
+
+        for (PendingWrite write : batch) {
+            if (write instanceof Insert insert) {
+                inserts.add(new Object[]{
+                        insert.userId(), insert.tokenHash(), insert.familyId(), insert.expiresAt(),
+                        insert.ipAddress(), insert.userAgent(), insert.createdAt()});
+            } else if (write instanceof Revoke revoke) {
+                revokes.add(new Object[]{revoke.revokedAt(), revoke.tokenHash()});
+            } else if (write instanceof RevokeFamily family) {
+                familyRevokes.add(new Object[]{family.revokedAt(), family.familyId()});
+                familyRevocations.add(new Object[]{family.familyId(), family.revokedAt(), family.expiresAt()});
+            } else if (write instanceof FlushMarker marker) {
+                markers.add(marker);
+            }
+        }
+
+        int rows = inserts.size() + revokes.size() + familyRevokes.size() + familyRevocations.size();
+        try {
+            if (rows > 0) {
+                // Inserts first, so a token created and rotated within one batch is still revoked
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                    batchUpdate(INSERT_SQL, inserts);
+                    batchUpdate(REVOKE_SQL, revokes);
+                    batchUpdate(REVOKE_FAMILY_SQL, familyRevokes);
+                    batchUpdate(FAMILY_REVOCATION_SQL, familyRevocations);
+                }));
+                writtenCounter.increment(rows);
+            }
+        } catch (RuntimeException e) {
+            // Not only DataAccessException (e.g. a failed commit): the writer thread must survive any batch
+            log.warn("Batch of {} refresh token writes failed, retrying one by one: {}", rows, e.getMessage());
+            writeIndividually(INSERT_SQL, inserts);
+            writeIndividually(REVOKE_SQL, revokes);
+            writeIndividually(REVOKE_FAMILY_SQL, familyRevokes);
+            writeIndividually(FAMILY_REVOCATION_SQL, familyRevocations);
+        } finally {
+            markers.forEach(marker -> marker.done().countDown());
+        }
+    }
+
+    private void batchUpdate(String sql, List<Object[]> args) {
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, args);
+        }
+    }
+
+    private void writeIndividually(String sql, List<Object[]> args) {
+        for (Object[] row : args) {
+            try {
+                jdbcTemplate.update(sql, row);
+                writtenCounter.increment();
+            } catch (DataAccessException e) {
+                failedCounter.increment();
+                log.error("Dropping refresh token write: {}", e.getMessage());
+            }
+        }
+    }
+
+    private sealed interface PendingWrite permits Insert, Revoke, RevokeFamily, FlushMarker {
+    }
+
+    private record Insert(Long userId, String tokenHash, UUID familyId, OffsetDateTime expiresAt,
+                          String ipAddress, String userAgent, OffsetDateTime createdAt) implements PendingWrite {
+    }
+
+    private record Revoke(String tokenHash, OffsetDateTime revokedAt) implements PendingWrite {
+    }
+
+    private record RevokeFamily(UUID familyId, OffsetDateTime revokedAt, OffsetDateTime expiresAt)
+            implements PendingWrite {
+    }
+
+    private record FlushMarker(CountDownLatch done) implements PendingWrite {
+    }
+}
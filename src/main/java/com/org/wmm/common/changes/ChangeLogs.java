@@ -0,0 +1,30 @@
+package com.org.wmm.common.changes;
+
+import org.springframework.jdbc.core.JdbcOperations;
+
+/**
+ * Trigger-fed change logs ({@code navigation_changes}, {@code item_changes}) are read by transaction id.
+ * A follower remembers the watermark it has read up to and next reads {@code [watermark, current)}, so
+ * changes of transactions that commit late are never skipped.
+ */
+public final class ChangeLogs {
+
+    /**
+     * Condition on {@code tx_id} for the named parameters {@code :fromTx} (inclusive) and {@code :toTx}
+     */
+    public static final String TX_RANGE_CONDITION =
+            "tx_id >= CAST(CAST(:fromTx AS text) AS xid8) AND tx_id < CAST(CAST(:toTx AS text) AS xid8)";
+
+    private ChangeLogs() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Oldest transaction still running; every change logged by an older transaction is already visible.
+     */
+    public static long currentWatermark(JdbcOperations jdbcOperations) {
+        Long xmin = jdbcOperations.queryForObject("SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint",
+                Long.class);
+        return xmin == null ? 0 : xmin;
+    }
+}
@@ -10,6 +10,10 @@ public final class SecurityConstants {
     public static final String BEARER_PREFIX = "Bearer ";
     public static final String ROLE_PREFIX = "ROLE_";
 
+    // JWT "type" claim values
+    public static final String TOKEN_TYPE_ACCESS = "access";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+
     // Roles
     public static final String ROLE_ADMIN = "ROLE_ADMIN";
     public static final String ROLE_EDITOR = "ROLE_EDITOR";
@@ -23,6 +27,8 @@ public final class SecurityConstants {
             "/auth/login",
             "/auth/**",
             "/public/**",
+            "/media/**",
+            "/.well-known/jwks.json",
             "/v3/api-docs/**",
             "/swagger-ui/**",
             "/swagger-ui.html"
@@ -33,6 +39,8 @@ public final class SecurityConstants {
             "/admin/**"
     };
 
+    // Password hashing algorithms (users.password_algo)
     public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
 }
 
@@ -3,6 +3,7 @@ package com.org.wmm.common.error;
 import com.org.wmm.common.dto.ApiError;
 import com.org.wmm.common.dto.BaseResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -65,6 +66,22 @@ public class GlobalExceptionHandler {
                 .body(BaseResponse.error(error));
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<BaseResponse<Void>> handleServiceUnavailable(ServiceUnavailableException ex) {
+        log.warn("Service unavailable: {}", ex.getMessage());
+
+        ApiError error = ApiError.builder()
+                .message(ex.getMessage())
+                .code("SERVICE_UNAVAILABLE")
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .build();
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(BaseResponse.error(error));
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<BaseResponse<Void>> handleAccessDenied(AccessDeniedException ex) {
         log.error("Access denied: {}", ex.getMessage());
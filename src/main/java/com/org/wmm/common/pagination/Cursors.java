@@ -0,0 +1,48 @@
+package com.org.wmm.common.pagination;
+
+import com.org.wmm.common.error.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursors: the sort key of the last row, joined and base64url-encoded.
+ * Clients must treat the value as a token; only the endpoint that issued it can read it.
+ */
+public final class Cursors {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private Cursors() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static String encode(Object... keyParts) {
+        StringBuilder raw = new StringBuilder(VERSION);
+        for (Object part : keyParts) {
+            raw.append(SEPARATOR).append(part);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor into its key parts
+     *
+     * @throws BadRequestException if the cursor is malformed or has a different number of parts
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != expectedParts + 1 || !VERSION.equals(parts[0])) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            String[] keyParts = new String[expectedParts];
+            System.arraycopy(parts, 1, keyParts, 0, expectedParts);
+            return keyParts;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
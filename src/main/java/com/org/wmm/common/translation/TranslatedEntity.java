@@ -0,0 +1,44 @@
+package com.org.wmm.common.translation;
+
+import java.util.List;
+
+/**
+ * Content tables with a sibling {@code *_translations} table, and the translatable columns of each.
+ * Only names listed here ever reach SQL.
+ */
+public enum TranslatedEntity {
+
+    ITEM("item_translations", "item_id",
+            "title", "subtitle", "excerpt", "description", "meta_title", "meta_description", "meta_keywords"),
+    CATEGORY("category_translations", "category_id", "title", "description", "meta_title", "meta_description"),
+    TOPIC("topic_translations", "topic_id", "title", "subtitle", "description", "meta_title", "meta_description"),
+    SUBTOPIC("subtopic_translations", "subtopic_id",
+            "title", "subtitle", "description", "meta_title", "meta_description"),
+    PARTNER("partner_translations", "partner_id", "name", "description"),
+    FLAVOR("flavor_translations", "flavor_id", "name", "description"),
+    IMAGE("image_translations", "image_id", "alt_text", "caption"),
+    TASTING_NOTE("tasting_note_translations", "tasting_note_id",
+            "aroma_notes", "taste_notes", "finish_notes", "overall_impression");
+
+    private final String table;
+    private final String ownerColumn;
+    private final List<String> columns;
+
+    TranslatedEntity(String table, String ownerColumn, String... columns) {
+        this.table = table;
+        this.ownerColumn = ownerColumn;
+        this.columns = List.of(columns);
+    }
+
+    public String table() {
+        return table;
+    }
+
+    public String ownerColumn() {
+        return ownerColumn;
+    }
+
+    public List<String> columns() {
+        return columns;
+    }
+}
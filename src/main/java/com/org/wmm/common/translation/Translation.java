@@ -0,0 +1,30 @@
+package com.org.wmm.common.translation;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Translated columns of one entity, taken from a single translation row: either the requested language
+ * or, if the entity has no row in it, the default language. Columns are never mixed between languages.
+ */
+@Value
+@Builder
+public class Translation {
+
+    Long entityId;
+    /**
+     * Language the values are in
+     */
+    String languageCode;
+    /**
+     * True if the requested language was missing and the default language was used
+     */
+    boolean fallback;
+    Map<String, String> values;
+
+    public String get(String column) {
+        return values.get(column);
+    }
+}
@@ -0,0 +1,102 @@
+package com.org.wmm.common.translation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves translations for a batch of entities of one type in a single query per batch, instead of a
+ * lookup (plus a fallback lookup) per entity.
+ * <p>
+ * For each id the query keeps one row with {@code DISTINCT ON}: the requested language if present,
+ * otherwise the default language ({@code languages.is_default}). Ids with neither are absent from the result.
+ */
+@Component
+@RequiredArgsConstructor
+public class TranslationResolver {
+
+    /**
+     * Ids per statement; keeps the IN list well under the driver's bind parameter limit
+     */
+    static final int BATCH_SIZE = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * All translatable columns of the given entities
+     *
+     * @param lang requested language code; null resolves the default language
+     */
+    public Map<Long, Translation> resolve(TranslatedEntity entity, Collection<Long> ids, String lang) {
+        return resolve(entity, ids, lang, entity.columns());
+    }
+
+    /**
+     * Only the given columns of the given entities
+     *
+     * @throws IllegalArgumentException if a column is not translatable for this entity
+     */
+    public Map<Long, Translation> resolve(TranslatedEntity entity, Collection<Long> ids, String lang,
+                                          List<String> columns) {
+        for (String column : columns) {
+            if (!entity.columns().contains(column)) {
+                throw new IllegalArgumentException("Column " + column + " is not translatable for " + entity);
+            }
+        }
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        String sql = buildSql(entity, columns);
+        RowMapper<Translation> mapper = (rs, rowNum) -> {
+            Map<String, String> values = new HashMap<>();
+            for (String column : columns) {
+                values.put(column, rs.getString(column));
+            }
+            String code = rs.getString("language_code");
+            return Translation.builder()
+                    .entityId(rs.getLong("entity_id"))
+                    .languageCode(code)
+                    .fallback(!code.equals(lang))
+                    .values(values)
+                    .build();
+        };
+
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Translation> result = new HashMap<>(distinctIds.size() * 2);
+        for (int from = 0; from < distinctIds.size(); from += BATCH_SIZE) {
+            List<Long> batch = distinctIds.subList(from, Math.min(from + BATCH_SIZE, distinctIds.size()));
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("ids", batch)
+                    .addValue("lang", lang);
+            jdbcTemplate.query(sql, params, mapper).forEach(t -> result.put(t.getEntityId(), t));
+        }
+        return result;
+    }
+
+    static String buildSql(TranslatedEntity entity, List<String> columns) {
+        StringBuilder sql = new StringBuilder("SELECT DISTINCT ON (t.")
+                .append(entity.ownerColumn()).append(") t.")
+                .append(entity.ownerColumn()).append(" AS entity_id, l.code AS language_code");
+        for (String column : columns) {
+            sql.append(", t.").append(column);
+        }
+        return sql.append(" FROM ").append(entity.table()).append(" t")
+                .append(" JOIN languages l ON l.id = t.language_id")
+                .append(" WHERE t.").append(entity.ownerColumn()).append(" IN (:ids)")
+                .append(" AND (l.code = :lang OR l.is_default)")
+                // Requested language first; a null lang never matches, leaving only the default row
+                .append(" ORDER BY t.").append(entity.ownerColumn())
+                .append(", CASE WHEN l.code = :lang THEN 0 ELSE 1 END")
+                .toString();
+    }
+}
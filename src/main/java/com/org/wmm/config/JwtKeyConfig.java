@@ -0,0 +1,31 @@
+package com.org.wmm.config;
+
+import com.org.wmm.security.JwtKeySet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Configuration
+public class JwtKeyConfig {
+
+    /**
+     * Signing key from {@code jwt.signing.key-file} (ES256/EdDSA) or, if unset, the HMAC {@code jwt.secret}.
+     * {@code jwt.verification.key-files} lists previous public keys that are still accepted.
+     */
+    @Bean
+    public JwtKeySet jwtKeySet(
+            @Value("${jwt.secret:}") String secret,
+            @Value("${jwt.signing.key-file:}") String signingKeyFile,
+            @Value("${jwt.signing.key-id:}") String signingKeyId,
+            @Value("${jwt.verification.key-files:}") String verificationKeyFiles
+    ) {
+        List<String> files = Arrays.stream(verificationKeyFiles.split(","))
+                .map(String::trim)
+                .filter(file -> !file.isEmpty())
+                .toList();
+        return JwtKeySet.load(signingKeyFile, signingKeyId, files, secret);
+    }
+}
@@ -0,0 +1,36 @@
+package com.org.wmm.items.controller;
+
+import com.org.wmm.common.dto.BaseResponse;
+import com.org.wmm.items.service.ItemCardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/item-cards")
+@RequiredArgsConstructor
+@Tag(name = "Admin items", description = "Item maintenance")
+public class AdminItemCardController {
+
+    private final ItemCardService itemCardService;
+
+    @Operation(summary = "Rebuild item cards", description = "Recomputes the listing cards of all items. "
+            + "Cards are normally kept current by database triggers; use this for recovery.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Cards rebuilt"),
+            @ApiResponse(responseCode = "403", description = "Requires ROLE_ADMIN")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/rebuild")
+    public ResponseEntity<BaseResponse<Integer>> rebuild() {
+        int written = itemCardService.rebuildAll();
+        return ResponseEntity.ok(BaseResponse.success(written, "Rebuilt " + written + " item cards"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.org.wmm.items.controller;
+
+import com.org.wmm.common.dto.BaseResponse;
+import com.org.wmm.common.dto.CursorPageResponse;
+import com.org.wmm.items.dto.FacetCounts;
+import com.org.wmm.items.dto.ItemDetail;
+import com.org.wmm.items.dto.ItemFilter;
+import com.org.wmm.items.dto.ItemSummary;
+import com.org.wmm.items.dto.SimilarItem;
+import com.org.wmm.items.service.FacetService;
+import com.org.wmm.items.service.ItemDetailService;
+import com.org.wmm.items.service.ItemQueryService;
+import com.org.wmm.items.service.SimilarityService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/public/items")
+@RequiredArgsConstructor
+@Tag(name = "Public items", description = "Published catalogue items")
+public class PublicItemController {
+
+    private final ItemQueryService itemQueryService;
+    private final ItemDetailService itemDetailService;
+    private final FacetService facetService;
+    private final SimilarityService similarityService;
+
+    @Operation(summary = "List items", description = "Published items, newest first, with cursor pagination. "
+            + "Pass nextCursor from the previous page as cursor; filters must stay the same between pages.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page of items"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    })
+    @SecurityRequirement(name = "")
+    @GetMapping
+    public ResponseEntity<BaseResponse<CursorPageResponse<ItemSummary>>> listItems(
+            @Parameter(description = "Language code; untranslated fields fall back to the default language")
+            @RequestParam(required = false) String lang,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String topic,
+            @RequestParam(required = false) String subtopic,
+            @RequestParam(required = false) String partner,
+            @RequestParam(required = false) Boolean featured,
+            @Parameter(description = "Opaque cursor from the previous page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ItemQueryService.DEFAULT_PAGE_SIZE) int size,
+            @Parameter(description = "Include an approximate total from planner statistics")
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        ItemFilter filter = ItemFilter.builder()
+                .lang(lang)
+                .category(category)
+                .topic(topic)
+                .subtopic(subtopic)
+                .partner(partner)
+                .featured(featured)
+                .build();
+
+        return ResponseEntity.ok(BaseResponse.success(itemQueryService.listPublished(filter, cursor, size, includeTotal)));
+    }
+
+    @Operation(summary = "Facet counts", description = "Counts of published items per facet value for the "
+            + "current selection. Facets: category, topic, partner, abv, vintage, volume, price, intensity, aroma, "
+            + "taste, finish; repeat a parameter or separate values with commas to select several. Values of one "
+            + "facet are OR-ed, facets are AND-ed, and each facet is counted ignoring its own selection.")
+    @ApiResponse(responseCode = "200", description = "Facet counts")
+    @SecurityRequirement(name = "")
+    @GetMapping("/facets")
+    public ResponseEntity<BaseResponse<FacetCounts>> getFacets(
+            @Parameter(hidden = true) @RequestParam MultiValueMap<String, String> params
+    ) {
+        return ResponseEntity.ok(BaseResponse.success(facetService.getCounts(params)));
+    }
+
+    @Operation(summary = "Item details", description = "Published item with its translation, images, tasting note "
+            + "and flavor profile. Texts fall back to the default language when not translated.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Item found"),
+            @ApiResponse(responseCode = "404", description = "No published item with this slug")
+    })
+    @SecurityRequirement(name = "")
+    @GetMapping("/{slug}")
+    public ResponseEntity<BaseResponse<ItemDetail>> getItem(
+            @PathVariable String slug,
+            @Parameter(description = "Language code; untranslated texts fall back to the default language")
+            @RequestParam(required = false) String lang
+    ) {
+        return ResponseEntity.ok(BaseResponse.success(itemDetailService.getBySlug(slug, lang)));
+    }
+
+    @Operation(summary = "Similar items", description = "Published items with the most similar flavor profile "
+            + "(aroma, taste and finish flavors weighted by intensity), best first. Empty when the item has no "
+            + "flavors.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Similar items"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit"),
+            @ApiResponse(responseCode = "404", description = "No published item with this slug")
+    })
+    @SecurityRequirement(name = "")
+    @GetMapping("/{slug}/similar")
+    public ResponseEntity<BaseResponse<List<SimilarItem>>> getSimilarItems(
+            @PathVariable String slug,
+            @Parameter(description = "Language code; untranslated fields fall back to the default language")
+            @RequestParam(required = false) String lang,
+            @RequestParam(defaultValue = "" + SimilarityService.DEFAULT_LIMIT) int limit
+    ) {
+        return ResponseEntity.ok(BaseResponse.success(similarityService.findSimilar(slug, lang, limit)));
+    }
+}
@@ -0,0 +1,95 @@
+package com.org.wmm.items.controller;
+
+import com.org.wmm.common.dto.BaseResponse;
+import com.org.wmm.items.dto.ItemSummary;
+import com.org.wmm.items.service.LeaderboardScope;
+import com.org.wmm.items.service.LeaderboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/public/leaderboards")
+@RequiredArgsConstructor
+@Tag(name = "Public leaderboards", description = "Top-rated published items by tasting note overall score")
+public class PublicLeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    @Operation(summary = "Top-rated items", description = "Best rated published items overall, best first")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Leaderboard"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    @SecurityRequirement(name = "")
+    @GetMapping
+    public ResponseEntity<BaseResponse<List<ItemSummary>>> getGlobal(
+            @Parameter(description = "Language code; untranslated fields fall back to the default language")
+            @RequestParam(required = false) String lang,
+            @RequestParam(defaultValue = "" + LeaderboardService.DEFAULT_LIMIT) int limit
+    ) {
+        return leaderboard(LeaderboardScope.GLOBAL, null, lang, limit);
+    }
+
+    @Operation(summary = "Top-rated items of a category")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Leaderboard; empty for unknown categories"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    @SecurityRequirement(name = "")
+    @GetMapping("/categories/{slug}")
+    public ResponseEntity<BaseResponse<List<ItemSummary>>> getByCategory(
+            @PathVariable String slug,
+            @RequestParam(required = false) String lang,
+            @RequestParam(defaultValue = "" + LeaderboardService.DEFAULT_LIMIT) int limit
+    ) {
+        return leaderboard(LeaderboardScope.CATEGORY, slug, lang, limit);
+    }
+
+    @Operation(summary = "Top-rated items of a topic")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Leaderboard; empty for unknown topics"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    @SecurityRequirement(name = "")
+    @GetMapping("/topics/{slug}")
+    public ResponseEntity<BaseResponse<List<ItemSummary>>> getByTopic(
+            @PathVariable String slug,
+            @RequestParam(required = false) String lang,
+            @RequestParam(defaultValue = "" + LeaderboardService.DEFAULT_LIMIT) int limit
+    ) {
+        return leaderboard(LeaderboardScope.TOPIC, slug, lang, limit);
+    }
+
+    @Operation(summary = "Top-rated items of a partner")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Leaderboard; empty for unknown partners"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    @SecurityRequirement(name = "")
+    @GetMapping("/partners/{slug}")
+    public ResponseEntity<BaseResponse<List<ItemSummary>>> getByPartner(
+            @PathVariable String slug,
+            @RequestParam(required = false) String lang,
+            @RequestParam(defaultValue = "" + LeaderboardService.DEFAULT_LIMIT) int limit
+    ) {
+        return leaderboard(LeaderboardScope.PARTNER, slug, lang, limit);
+    }
+
+    private ResponseEntity<BaseResponse<List<ItemSummary>>> leaderboard(LeaderboardScope scope, String slug,
+                                                                        String lang, int limit) {
+        return ResponseEntity.ok(BaseResponse.success(leaderboardService.getLeaderboard(scope, slug, lang, limit)));
+    }
+}
@@ -0,0 +1,49 @@
+package com.org.wmm.items.controller;
+
+import com.org.wmm.common.dto.BaseResponse;
+import com.org.wmm.common.dto.CursorPageResponse;
+import com.org.wmm.items.dto.ItemSearchHit;
+import com.org.wmm.items.service.ItemSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/public/search")
+@RequiredArgsConstructor
+@Tag(name = "Public search", description = "Full-text catalogue search")
+public class PublicSearchController {
+
+    private final ItemSearchService itemSearchService;
+
+    @Operation(summary = "Search items", description = "Published items whose translation in the given language "
+            + "matches all terms, best match first, with highlighted snippets and cursor pagination.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page of matches"),
+            @ApiResponse(responseCode = "400", description = "Empty or too long query, invalid cursor or page size")
+    })
+    @SecurityRequirement(name = "")
+    @GetMapping
+    public ResponseEntity<BaseResponse<CursorPageResponse<ItemSearchHit>>> search(
+            @Parameter(description = "Search text", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Language code; defaults to the default language")
+            @RequestParam(required = false) String lang,
+            @Parameter(description = "Match the last word as a prefix (search-as-you-type)")
+            @RequestParam(defaultValue = "false") boolean prefix,
+            @Parameter(description = "Opaque cursor from the previous page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ItemSearchService.DEFAULT_PAGE_SIZE) int size
+    ) {
+        return ResponseEntity.ok(BaseResponse.success(itemSearchService.search(q, lang, prefix, cursor, size)));
+    }
+}
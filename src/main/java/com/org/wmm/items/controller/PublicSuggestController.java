@@ -0,0 +1,55 @@
+package com.org.wmm.items.controller;
+
+import com.org.wmm.common.dto.BaseResponse;
+import com.org.wmm.items.dto.Suggestion;
+import com.org.wmm.items.service.SuggestService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/public/suggest")
+@Tag(name = "Public search", description = "Full-text catalogue search")
+public class PublicSuggestController {
+
+    private final SuggestService suggestService;
+    private final CacheControl cacheControl;
+
+    public PublicSuggestController(SuggestService suggestService, @Value("${suggest.cache.ttl:60000}") long ttlMs) {
+        this.suggestService = suggestService;
+        this.cacheControl = CacheControl.maxAge(Duration.ofMillis(ttlMs)).cachePublic();
+    }
+
+    @Operation(summary = "Autocomplete", description = "Item titles and flavor names similar to the typed text, "
+            + "tolerating typos and matching inside words. Queries shorter than the minimum length return no suggestions.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Suggestions, best first"),
+            @ApiResponse(responseCode = "400", description = "Query too long or invalid limit")
+    })
+    @SecurityRequirement(name = "")
+    @GetMapping
+    public ResponseEntity<BaseResponse<List<Suggestion>>> suggest(
+            @Parameter(description = "Typed text", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Language code; defaults to the default language")
+            @RequestParam(required = false) String lang,
+            @RequestParam(defaultValue = "" + SuggestService.DEFAULT_LIMIT) int limit
+    ) {
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .body(BaseResponse.success(suggestService.suggest(q, lang, limit)));
+    }
+}
@@ -0,0 +1,25 @@
+package com.org.wmm.items.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Facet counts for the current selection")
+public class FacetCounts {
+
+    @Schema(description = "Published items matching the whole selection", example = "342")
+    private long total;
+
+    @Schema(description = "Values per facet (category, topic, partner, abv, vintage, volume, price, intensity, "
+            + "aroma, taste, finish); values without matches are omitted unless selected")
+    private Map<String, List<FacetValue>> facets;
+}
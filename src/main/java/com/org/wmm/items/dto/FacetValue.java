@@ -0,0 +1,23 @@
+package com.org.wmm.items.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One value of a facet")
+public class FacetValue {
+
+    @Schema(example = "40-46")
+    private String value;
+
+    @Schema(description = "Items that would match if this value were (also) selected", example = "128")
+    private long count;
+
+    private boolean selected;
+}
@@ -0,0 +1,28 @@
+package com.org.wmm.items.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Flavor noted in the aroma, taste or finish")
+public class FlavorNote {
+
+    @Schema(example = "peat-smoke")
+    private String slug;
+
+    private String name;
+
+    private String icon;
+
+    @Schema(example = "#6b4f3a")
+    private String color;
+
+    @Schema(description = "1 light, 2 medium, 3 bold", example = "2")
+    private int intensity;
+}
@@ -0,0 +1,25 @@
+package com.org.wmm.items.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Downscaled copy of an image")
+public class ImageVariant {
+
+    @Schema(example = "480")
+    private Integer width;
+
+    private Integer height;
+
+    private String filePath;
+
+    @Schema(example = "image/jpeg")
+    private String mimeType;
+}
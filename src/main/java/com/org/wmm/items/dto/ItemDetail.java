@@ -0,0 +1,72 @@
+package com.org.wmm.items.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Item with its translation, images and tasting note")
+public class ItemDetail {
+
+    @Schema(description = "Item ID", example = "42")
+    private Long id;
+
+    @Schema(example = "ardbeg-10")
+    private String slug;
+
+    @Schema(description = "Language of the texts; differs from the requested one if the item is not translated")
+    private String lang;
+
+    private String title;
+
+    private String subtitle;
+
+    private String excerpt;
+
+    private String description;
+
+    private String metaTitle;
+
+    private String metaDescription;
+
+    private String metaKeywords;
+
+    private String categorySlug;
+
+    private String topicSlug;
+
+    private String subtopicSlug;
+
+    private String partnerSlug;
+
+    private String partnerName;
+
+    private BigDecimal abv;
+
+    private Integer vintage;
+
+    private Integer volumeMl;
+
+    private BigDecimal pricePln;
+
+    private boolean featured;
+
+    private OffsetDateTime publishedAt;
+
+    private OffsetDateTime updatedAt;
+
+    @Builder.Default
+    private List<ItemImage> images = new ArrayList<>();
+
+    private TastingNoteDetail tastingNote;
+}
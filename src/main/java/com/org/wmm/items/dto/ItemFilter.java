@@ -0,0 +1,22 @@
+package com.org.wmm.items.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters of the public item listing; taxonomy and partner are matched by slug, null means "any"
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemFilter {
+    private String lang;
+    private String category;
+    private String topic;
+    private String subtopic;
+    private String partner;
+    private Boolean featured;
+}
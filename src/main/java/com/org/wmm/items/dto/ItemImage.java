@@ -0,0 +1,42 @@
+package com.org.wmm.items.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Image of an item")
+public class ItemImage {
+
+    private Long id;
+
+    @Schema(description = "Path of the original upload")
+    private String filePath;
+
+    @Schema(description = "Path to show on the item page: the smallest variant wide enough for it, or the original")
+    private String displayPath;
+
+    private String mimeType;
+
+    private Integer width;
+
+    private Integer height;
+
+    private boolean primary;
+
+    private String altText;
+
+    private String caption;
+
+    @Schema(description = "Downscaled variants, narrowest first; empty until they have been generated")
+    @Builder.Default
+    private List<ImageVariant> variants = new ArrayList<>();
+}
@@ -0,0 +1,37 @@
+package com.org.wmm.items.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Item matching a search query")
+public class ItemSearchHit {
+
+    @Schema(description = "Item ID", example = "42")
+    private Long id;
+
+    @Schema(example = "ardbeg-10")
+    private String slug;
+
+    private String title;
+
+    private String subtitle;
+
+    @Schema(description = "Excerpt or description fragment with matches wrapped in <mark>…</mark>")
+    private String snippet;
+
+    private String categorySlug;
+
+    private String topicSlug;
+
+    private String imagePath;
+
+    @Schema(description = "Relevance; higher is better")
+    private float rank;
+}
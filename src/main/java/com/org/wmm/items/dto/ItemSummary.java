@@ -0,0 +1,59 @@
+package com.org.wmm.items.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Item as shown in listings")
+public class ItemSummary {
+
+    @Schema(description = "Item ID", example = "42")
+    private Long id;
+
+    @Schema(description = "URL slug", example = "ardbeg-10")
+    private String slug;
+
+    @Schema(description = "Title in the requested language, or the default language if not translated")
+    private String title;
+
+    private String subtitle;
+
+    private String excerpt;
+
+    @Schema(example = "whisky")
+    private String categorySlug;
+
+    @Schema(example = "islay")
+    private String topicSlug;
+
+    private String subtopicSlug;
+
+    private String partnerSlug;
+
+    private BigDecimal abv;
+
+    private Integer vintage;
+
+    private Integer volumeMl;
+
+    private BigDecimal pricePln;
+
+    @Schema(description = "Overall tasting score", example = "87.50")
+    private BigDecimal overallScore;
+
+    private boolean featured;
+
+    @Schema(description = "Path of the primary image, as its smallest variant wide enough for a card once generated")
+    private String imagePath;
+
+    private OffsetDateTime publishedAt;
+}
@@ -0,0 +1,20 @@
+package com.org.wmm.items.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Item with a similar flavor profile")
+public class SimilarItem {
+
+    @Schema(description = "Cosine similarity of the flavor profiles, 0-1", example = "0.83")
+    private double similarity;
+
+    private ItemSummary item;
+}
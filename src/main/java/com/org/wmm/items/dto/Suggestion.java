@@ -0,0 +1,27 @@
+package com.org.wmm.items.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Autocomplete suggestion")
+public class Suggestion {
+
+    @Schema(description = "What the suggestion refers to", allowableValues = {"item", "flavor"})
+    private String type;
+
+    @Schema(description = "Item title or flavor name", example = "Glenfiddich 12")
+    private String text;
+
+    @Schema(example = "glenfiddich-12")
+    private String slug;
+
+    @Schema(description = "Trigram word similarity to the query, 0..1")
+    private float score;
+}
@@ -0,0 +1,52 @@
+package com.org.wmm.items.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Tasting note with scores and flavor profile")
+public class TastingNoteDetail {
+
+    private BigDecimal overallScore;
+
+    private BigDecimal aromaScore;
+
+    private BigDecimal tasteScore;
+
+    private BigDecimal finishScore;
+
+    @Schema(description = "1 light, 2 medium, 3 bold")
+    private Integer intensity;
+
+    private LocalDate tastingDate;
+
+    private String tastedBy;
+
+    private String aromaNotes;
+
+    private String tasteNotes;
+
+    private String finishNotes;
+
+    private String overallImpression;
+
+    @Builder.Default
+    private List<FlavorNote> aroma = new ArrayList<>();
+
+    @Builder.Default
+    private List<FlavorNote> taste = new ArrayList<>();
+
+    @Builder.Default
+    private List<FlavorNote> finish = new ArrayList<>();
+}
@@ -0,0 +1,105 @@
+package com.org.wmm.items.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Facet attributes of published items for the in-memory facet index. Lookups take {@code null} ids to
+ * mean "all published items".
+ */
+@Repository
+@RequiredArgsConstructor
+public class FacetRepository {
+
+    private static final String ITEMS_SQL = """
+            SELECT i.id, c.slug AS category, t.slug AS topic, p.slug AS partner,
+                   i.abv, i.vintage, i.volume_ml, i.price_pln, tn.intensity
+            FROM items i
+            JOIN categories c ON c.id = i.category_id
+            JOIN topics t ON t.id = i.topic_id
+            LEFT JOIN partners p ON p.id = i.partner_id AND p.is_active
+            LEFT JOIN tasting_notes tn ON tn.item_id = i.id
+            WHERE i.status = 'published' AND i.published_at IS NOT NULL
+            """;
+
+    private static final String FLAVORS_SQL = """
+            SELECT tn.item_id, l.stage, f.slug
+            FROM (
+                SELECT 'aroma' AS stage, tasting_note_id, flavor_id FROM aroma_flavors
+                UNION ALL
+                SELECT 'taste', tasting_note_id, flavor_id FROM taste_flavors
+                UNION ALL
+                SELECT 'finish', tasting_note_id, flavor_id FROM finish_flavors
+            ) l
+            JOIN tasting_notes tn ON tn.id = l.tasting_note_id
+            JOIN flavors f ON f.id = l.flavor_id AND f.is_active
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Facet attributes, flavors included, of the given published items (two statements)
+     */
+    public List<ItemFacets> findItemFacets(Collection<Long> itemIds) {
+        if (itemIds != null && itemIds.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", itemIds);
+        String itemFilter = itemIds == null ? "" : " AND i.id IN (:ids)";
+        String flavorFilter = itemIds == null ? "" : " WHERE tn.item_id IN (:ids)";
+
+        Map<Long, FlavorSets> flavors = new HashMap<>();
+        jdbcTemplate.query(FLAVORS_SQL + flavorFilter, params, (RowCallbackHandler) rs -> {
+            FlavorSets sets = flavors.computeIfAbsent(rs.getLong("item_id"), id -> new FlavorSets());
+            String slug = rs.getString("slug");
+            switch (rs.getString("stage")) {
+                case "aroma" -> sets.aroma().add(slug);
+                case "taste" -> sets.taste().add(slug);
+                default -> sets.finish().add(slug);
+            }
+        });
+
+        return jdbcTemplate.query(ITEMS_SQL + itemFilter, params, (rs, rowNum) -> {
+            long id = rs.getLong("id");
+            FlavorSets sets = flavors.getOrDefault(id, FlavorSets.EMPTY);
+            return new ItemFacets(
+                    id,
+                    rs.getString("category"),
+                    rs.getString("topic"),
+                    rs.getString("partner"),
+                    rs.getBigDecimal("abv"),
+                    rs.getObject("vintage", Integer.class),
+                    rs.getObject("volume_ml", Integer.class),
+                    rs.getBigDecimal("price_pln"),
+                    rs.getObject("intensity", Integer.class),
+                    Set.copyOf(sets.aroma()),
+                    Set.copyOf(sets.taste()),
+                    Set.copyOf(sets.finish()));
+        });
+    }
+
+    public record ItemFacets(long itemId, String category, String topic, String partner, BigDecimal abv,
+                             Integer vintage, Integer volumeMl, BigDecimal pricePln, Integer intensity,
+                             Set<String> aroma, Set<String> taste, Set<String> finish) {
+    }
+
+    private record FlavorSets(Set<String> aroma, Set<String> taste, Set<String> finish) {
+
+        static final FlavorSets EMPTY = new FlavorSets(Set.of(), Set.of(), Set.of());
+
+        FlavorSets() {
+            this(new HashSet<>(), new HashSet<>(), new HashSet<>());
+        }
+    }
+}
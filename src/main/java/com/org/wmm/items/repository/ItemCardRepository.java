@@ -0,0 +1,26 @@
+package com.org.wmm.items.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Maintenance of the {@code item_cards} projection. Day-to-day the cards are kept current by database
+ * triggers (see V7 migration); this is for recovery after bulk loads or manual edits with triggers disabled.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ItemCardRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Recompute every card in one transaction
+     *
+     * @return number of cards written
+     */
+    public int rebuildAll() {
+        Integer written = jdbcTemplate.queryForObject("SELECT refresh_item_cards(NULL)", Integer.class);
+        return written == null ? 0 : written;
+    }
+}
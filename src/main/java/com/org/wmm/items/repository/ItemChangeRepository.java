@@ -0,0 +1,44 @@
+package com.org.wmm.items.repository;
+
+import com.org.wmm.common.changes.ChangeLogs;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * The trigger-fed {@code item_changes} log shared by the in-memory item indexes (facets, similarity,
+ * leaderboards). Each index follows it with its own transaction id watermark, see {@link ChangeLogs}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ItemChangeRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * See {@link ChangeLogs#currentWatermark}
+     */
+    public long currentChangeWatermark() {
+        return ChangeLogs.currentWatermark(jdbcTemplate.getJdbcTemplate());
+    }
+
+    /**
+     * Items changed by transactions in {@code [fromTx, toTx)}; a {@code null} element means "reload all"
+     */
+    public List<Long> findChangedItemIds(long fromTx, long toTx) {
+        return jdbcTemplate.query("""
+                        SELECT DISTINCT item_id FROM item_changes
+                        WHERE """ + ChangeLogs.TX_RANGE_CONDITION,
+                new MapSqlParameterSource().addValue("fromTx", fromTx).addValue("toTx", toTx),
+                (rs, rowNum) -> rs.getObject("item_id", Long.class));
+    }
+
+    public int deleteChangesBefore(OffsetDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM item_changes WHERE changed_at < :cutoff",
+                new MapSqlParameterSource("cutoff", cutoff));
+    }
+}
@@ -0,0 +1,181 @@
+package com.org.wmm.items.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.wmm.items.dto.FlavorNote;
+import com.org.wmm.items.dto.ItemDetail;
+import com.org.wmm.items.dto.ImageVariant;
+import com.org.wmm.items.dto.ItemImage;
+import com.org.wmm.items.dto.TastingNoteDetail;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based loading of the item detail aggregate: each method reads one table (or one UNION) for a whole
+ * batch of items, so the number of statements does not depend on how many images or flavors there are.
+ * Texts are resolved separately with {@link com.org.wmm.common.translation.TranslationResolver}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ItemDetailRepository {
+
+    // tasting_notes is 1:1 with items, so it is joined here instead of loaded separately
+    private static final String ITEMS_SQL = """
+            SELECT i.id, i.slug, i.abv, i.vintage, i.volume_ml, i.price_pln, i.is_featured, i.published_at, i.updated_at,
+                   c.slug AS category_slug, t.slug AS topic_slug, s.slug AS subtopic_slug,
+                   p.id AS partner_id, p.slug AS partner_slug,
+                   tn.id AS tasting_note_id, tn.overall_score, tn.aroma_score, tn.taste_score, tn.finish_score,
+                   tn.intensity, tn.tasting_date, tn.tasted_by
+            FROM items i
+            JOIN categories c ON c.id = i.category_id
+            JOIN topics t ON t.id = i.topic_id
+            LEFT JOIN subtopics s ON s.id = i.subtopic_id
+            LEFT JOIN partners p ON p.id = i.partner_id AND p.is_active
+            LEFT JOIN tasting_notes tn ON tn.item_id = i.id
+            WHERE i.slug IN (:slugs) AND i.status = 'published' AND i.published_at IS NOT NULL
+            """;
+
+    // Variants are folded into their image's row as a JSON array, so they cost no extra statement
+    private static final String IMAGES_SQL = """
+            SELECT img.id, img.item_id, img.file_path, img.mime_type, img.width, img.height, img.is_primary,
+                   (SELECT json_agg(json_build_object('width', v.width, 'height', v.height,
+                                                      'filePath', v.file_path, 'mimeType', v.mime_type)
+                                    ORDER BY v.width)
+                    FROM image_variants v WHERE v.image_id = img.id) AS variants
+            FROM images img
+            WHERE img.item_id IN (:itemIds)
+            ORDER BY img.item_id, img.is_primary DESC, img.display_order, img.id
+            """;
+
+    private static final TypeReference<List<ImageVariant>> VARIANT_LIST = new TypeReference<>() {
+    };
+
+    private static final String FLAVOR_LINKS_SQL = """
+            SELECT l.stage, l.tasting_note_id, l.intensity, f.id AS flavor_id, f.slug, f.icon, f.color
+            FROM (
+                SELECT 'aroma' AS stage, tasting_note_id, flavor_id, intensity, display_order
+                FROM aroma_flavors WHERE tasting_note_id IN (:noteIds)
+                UNION ALL
+                SELECT 'taste', tasting_note_id, flavor_id, intensity, display_order
+                FROM taste_flavors WHERE tasting_note_id IN (:noteIds)
+                UNION ALL
+                SELECT 'finish', tasting_note_id, flavor_id, intensity, display_order
+                FROM finish_flavors WHERE tasting_note_id IN (:noteIds)
+            ) l
+            JOIN flavors f ON f.id = l.flavor_id AND f.is_active
+            ORDER BY l.tasting_note_id, l.stage, l.display_order, f.id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Published items with the given slugs; texts, images and flavors are not filled in yet
+     */
+    public List<ItemRow> findPublishedBySlugs(Collection<String> slugs) {
+        if (slugs.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(ITEMS_SQL, new MapSqlParameterSource("slugs", slugs), (rs, rowNum) -> {
+            Long tastingNoteId = rs.getObject("tasting_note_id", Long.class);
+            TastingNoteDetail tastingNote = tastingNoteId == null ? null : TastingNoteDetail.builder()
+                    .overallScore(rs.getBigDecimal("overall_score"))
+                    .aromaScore(rs.getBigDecimal("aroma_score"))
+                    .tasteScore(rs.getBigDecimal("taste_score"))
+                    .finishScore(rs.getBigDecimal("finish_score"))
+                    .intensity(rs.getObject("intensity", Integer.class))
+                    .tastingDate(rs.getObject("tasting_date", LocalDate.class))
+                    .tastedBy(rs.getString("tasted_by"))
+                    .build();
+            ItemDetail item = ItemDetail.builder()
+                    .id(rs.getLong("id"))
+                    .slug(rs.getString("slug"))
+                    .categorySlug(rs.getString("category_slug"))
+                    .topicSlug(rs.getString("topic_slug"))
+                    .subtopicSlug(rs.getString("subtopic_slug"))
+                    .partnerSlug(rs.getString("partner_slug"))
+                    .abv(rs.getBigDecimal("abv"))
+                    .vintage(rs.getObject("vintage", Integer.class))
+                    .volumeMl(rs.getObject("volume_ml", Integer.class))
+                    .pricePln(rs.getBigDecimal("price_pln"))
+                    .featured(rs.getBoolean("is_featured"))
+                    .publishedAt(rs.getObject("published_at", OffsetDateTime.class))
+                    .updatedAt(rs.getObject("updated_at", OffsetDateTime.class))
+                    .tastingNote(tastingNote)
+                    .build();
+            return new ItemRow(item, rs.getObject("partner_id", Long.class), tastingNoteId);
+        });
+    }
+
+    /**
+     * Images of all given items, primary first, then in display order
+     */
+    public List<ImageRow> findImages(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(IMAGES_SQL, new MapSqlParameterSource("itemIds", itemIds), (rs, rowNum) ->
+                new ImageRow(rs.getLong("item_id"), ItemImage.builder()
+                        .id(rs.getLong("id"))
+                        .filePath(rs.getString("file_path"))
+                        .mimeType(rs.getString("mime_type"))
+                        .width(rs.getObject("width", Integer.class))
+                        .height(rs.getObject("height", Integer.class))
+                        .primary(rs.getBoolean("is_primary"))
+                        .variants(readVariants(rs.getString("variants")))
+                        .build()));
+    }
+
+    private List<ImageVariant> readVariants(String json) {
+        if (json == null) {
+            return new ArrayList<>();
+        }
+        try {
+            return objectMapper.readValue(json, VARIANT_LIST);
+        } catch (JsonProcessingException e) {
+            throw new DataRetrievalFailureException("Unreadable image variants: " + json, e);
+        }
+    }
+
+    /**
+     * Aroma, taste and finish flavors of all given tasting notes, in one statement
+     */
+    public List<FlavorLinkRow> findFlavorLinks(Collection<Long> tastingNoteIds) {
+        if (tastingNoteIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(FLAVOR_LINKS_SQL, new MapSqlParameterSource("noteIds", tastingNoteIds), (rs, rowNum) ->
+                new FlavorLinkRow(
+                        rs.getLong("tasting_note_id"),
+                        rs.getString("stage"),
+                        rs.getLong("flavor_id"),
+                        FlavorNote.builder()
+                                .slug(rs.getString("slug"))
+                                .icon(rs.getString("icon"))
+                                .color(rs.getString("color"))
+                                .intensity(rs.getInt("intensity"))
+                                .build()));
+    }
+
+    public record ItemRow(ItemDetail item, Long partnerId, Long tastingNoteId) {
+    }
+
+    public record ImageRow(long itemId, ItemImage image) {
+    }
+
+    /**
+     * @param stage {@code aroma}, {@code taste} or {@code finish}
+     */
+    public record FlavorLinkRow(long tastingNoteId, String stage, long flavorId, FlavorNote flavor) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.org.wmm.items.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.wmm.items.dto.ItemFilter;
+import com.org.wmm.items.dto.ItemSummary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-only JDBC queries for public item listings, served from the precomputed {@code item_cards}
+ * projection. Pages are selected by keyset ({@code published_at DESC, item_id DESC}), never by OFFSET.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ItemReadRepository {
+
+    private static final String SELECT_SUMMARY = """
+            SELECT ic.item_id, ic.slug, ic.title, ic.subtitle, ic.excerpt, ic.image_path, ic.overall_score,
+                   ic.abv, ic.vintage, ic.volume_ml, ic.price_pln, ic.is_featured, ic.published_at,
+                   ic.category_slug, ic.topic_slug, ic.subtopic_slug, ic.partner_slug
+            FROM item_cards ic
+            """;
+
+    private static final String SELECT_LOCALIZED_SUMMARY = """
+            SELECT ic.item_id, ic.slug, ic.title, ic.subtitle, ic.excerpt, ic.image_path, ic.overall_score,
+                   ic.abv, ic.vintage, ic.volume_ml, ic.price_pln, ic.is_featured, ic.published_at,
+                   ic.category_slug, ic.topic_slug, ic.subtopic_slug, ic.partner_slug, l.code, l.is_default
+            FROM item_cards ic
+            JOIN languages l ON l.id = ic.language_id
+            WHERE ic.item_id IN (:ids)
+            """;
+
+    /**
+     * Cards of one language: the requested one if active, otherwise the default (InitPlan, evaluated once)
+     */
+    private static final String LANGUAGE_CONDITION = """
+             WHERE ic.language_id = (
+                SELECT id FROM languages WHERE is_active AND (code = :lang OR is_default) ORDER BY is_default, id LIMIT 1)
+            """;
+
+    private static final RowMapper<ItemSummary> SUMMARY_MAPPER = (rs, rowNum) -> ItemSummary.builder()
+            .id(rs.getLong("item_id"))
+            .slug(rs.getString("slug"))
+            .title(rs.getString("title"))
+            .subtitle(rs.getString("subtitle"))
+            .excerpt(rs.getString("excerpt"))
+            .categorySlug(rs.getString("category_slug"))
+            .topicSlug(rs.getString("topic_slug"))
+            .subtopicSlug(rs.getString("subtopic_slug"))
+            .partnerSlug(rs.getString("partner_slug"))
+            .abv(rs.getBigDecimal("abv"))
+            .vintage(rs.getObject("vintage", Integer.class))
+            .volumeMl(rs.getObject("volume_ml", Integer.class))
+            .pricePln(rs.getBigDecimal("price_pln"))
+            .overallScore(rs.getBigDecimal("overall_score"))
+            .featured(rs.getBoolean("is_featured"))
+            .imagePath(rs.getString("image_path"))
+            .publishedAt(rs.getObject("published_at", OffsetDateTime.class))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Up to {@code limit} published items after the given key (exclusive), newest first.
+     * {@code afterPublishedAt}/{@code afterId} are null for the first page.
+     */
+    public List<ItemSummary> findPublishedPage(ItemFilter filter, OffsetDateTime afterPublishedAt, Long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("lang", filter.getLang())
+                .addValue("limit", limit);
+        StringBuilder sql = new StringBuilder(SELECT_SUMMARY);
+        appendFilters(sql, params, filter);
+
+        if (afterPublishedAt != null) {
+            // Row comparison matches the (language_id, [filter,] published_at DESC, item_id DESC) indexes
+            sql.append(" AND (ic.published_at, ic.item_id) < (:afterPublishedAt, :afterId)");
+            params.addValue("afterPublishedAt", afterPublishedAt).addValue("afterId", afterId);
+        }
+        sql.append(" ORDER BY ic.published_at DESC, ic.item_id DESC LIMIT :limit");
+
+        return jdbcTemplate.query(sql.toString(), params, SUMMARY_MAPPER);
+    }
+
+    /**
+     * Cards of the given items in one language, in no particular order; unpublished items are left out
+     */
+    public List<ItemSummary> findPublishedByIds(Collection<Long> itemIds, String lang) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("lang", lang)
+                .addValue("ids", itemIds);
+        return jdbcTemplate.query(SELECT_SUMMARY + LANGUAGE_CONDITION + " AND ic.item_id IN (:ids)", params,
+                SUMMARY_MAPPER);
+    }
+
+    /**
+     * Cards of the given items in every active language, for callers that keep them in memory
+     */
+    public List<LocalizedSummary> findCardsInAllLanguages(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(SELECT_LOCALIZED_SUMMARY, new MapSqlParameterSource("ids", itemIds),
+                (rs, rowNum) -> new LocalizedSummary(rs.getString("code"), rs.getBoolean("is_default"),
+                        SUMMARY_MAPPER.mapRow(rs, rowNum)));
+    }
+
+    /**
+     * Planner estimate of matching items, from table statistics ({@code pg_class.reltuples} and
+     * {@code pg_statistic}); costs no table scan, but may be off after large changes until the next ANALYZE.
+     */
+    public long estimatePublishedCount(ItemFilter filter) {
+        MapSqlParameterSource params = new MapSqlParameterSource("lang", filter.getLang());
+        StringBuilder sql = new StringBuilder("EXPLAIN (FORMAT JSON) SELECT 1 FROM item_cards ic");
+        appendFilters(sql, params, filter);
+
+        String plan = jdbcTemplate.queryForObject(sql.toString(), params, String.class);
+        try {
+            JsonNode root = objectMapper.readTree(plan);
+            return root.path(0).path("Plan").path("Plan Rows").asLong();
+        } catch (Exception e) {
+            log.warn("Could not read row estimate from query plan: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private void appendFilters(StringBuilder sql, MapSqlParameterSource params, ItemFilter filter) {
+        // Cards only exist for published items
+        sql.append(LANGUAGE_CONDITION);
+        appendEquals(sql, params, "category_slug", "category", filter.getCategory());
+        appendEquals(sql, params, "topic_slug", "topic", filter.getTopic());
+        appendEquals(sql, params, "subtopic_slug", "subtopic", filter.getSubtopic());
+        appendEquals(sql, params, "partner_slug", "partner", filter.getPartner());
+        appendEquals(sql, params, "is_featured", "featured", filter.getFeatured());
+    }
+
+    private void appendEquals(StringBuilder sql, MapSqlParameterSource params, String column, String param, Object value) {
+        if (value != null) {
+            sql.append(" AND ic.").append(column).append(" = :").append(param);
+            params.addValue(param, value);
+        }
+    }
+
+    /**
+     * A card and the language it was built for
+     */
+    public record LocalizedSummary(String languageCode, boolean defaultLanguage, ItemSummary summary) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.org.wmm.items.repository;
+
+import com.org.wmm.items.dto.ItemSearchHit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Full-text search over {@code item_translations.search_vector} of one language, ranked with
+ * {@code ts_rank_cd} and paged by keyset on (rank, item id).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ItemSearchRepository {
+
+    /**
+     * The language and its text search config are picked once (InitPlans), so the tsquery is a constant
+     * for the planner and the GIN index on search_vector can be used. Unknown codes fall back to the default.
+     */
+    private static final String RANKED = """
+            WITH lang AS (
+                SELECT id, search_config_for(code) AS config FROM languages
+                WHERE is_active AND (code = :lang OR is_default)
+                ORDER BY is_default, id
+                LIMIT 1
+            ), ranked AS (
+                SELECT t.id AS translation_id, t.item_id,
+                       ts_rank_cd(t.search_vector, to_tsquery((SELECT config FROM lang), :query)) AS rank
+                FROM item_translations t
+                JOIN items i ON i.id = t.item_id
+                WHERE t.language_id = (SELECT id FROM lang)
+                  AND t.search_vector @@ to_tsquery((SELECT config FROM lang), :query)
+                  AND i.status = 'published' AND i.published_at IS NOT NULL
+            )
+            """;
+
+    /**
+     * Snippets are only built for the rows of the page; ts_headline re-parses the text and is the
+     * most expensive part of the query. Card fields come from the precomputed item_cards row.
+     */
+    private static final String PAGE = """
+            SELECT p.item_id, p.rank, ic.slug, ic.title, ic.subtitle,
+                   ts_headline(t.search_config, coalesce(t.excerpt, t.description, ''),
+                               to_tsquery(t.search_config, :query),
+                               'StartSel=<mark>, StopSel=</mark>, MaxWords=30, MinWords=10, MaxFragments=2') AS snippet,
+                   ic.category_slug, ic.topic_slug, ic.image_path
+            FROM page p
+            JOIN item_translations t ON t.id = p.translation_id
+            JOIN item_cards ic ON ic.item_id = p.item_id AND ic.language_id = (SELECT id FROM lang)
+            ORDER BY p.rank DESC, p.item_id DESC
+            """;
+
+    private static final RowMapper<ItemSearchHit> HIT_MAPPER = (rs, rowNum) -> ItemSearchHit.builder()
+            .id(rs.getLong("item_id"))
+            .rank(rs.getFloat("rank"))
+            .slug(rs.getString("slug"))
+            .title(rs.getString("title"))
+            .subtitle(rs.getString("subtitle"))
+            .snippet(rs.getString("snippet"))
+            .categorySlug(rs.getString("category_slug"))
+            .topicSlug(rs.getString("topic_slug"))
+            .imagePath(rs.getString("image_path"))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Up to {@code limit} matches ranked below the given key (exclusive)
+     *
+     * @param tsQuery query in {@code to_tsquery} syntax, built from sanitized terms only
+     */
+    public List<ItemSearchHit> search(String lang, String tsQuery, Float afterRank, Long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("lang", lang)
+                .addValue("query", tsQuery)
+                .addValue("limit", limit);
+
+        StringBuilder sql = new StringBuilder(RANKED).append(", page AS (SELECT * FROM ranked");
+        if (afterRank != null) {
+            sql.append(" WHERE (rank, item_id) < (CAST(:afterRank AS real), :afterId)");
+            params.addValue("afterRank", afterRank).addValue("afterId", afterId);
+        }
+        sql.append(" ORDER BY rank DESC, item_id DESC LIMIT :limit)\n").append(PAGE);
+
+        return jdbcTemplate.query(sql.toString(), params, HIT_MAPPER);
+    }
+}
@@ -0,0 +1,47 @@
+package com.org.wmm.items.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Scores of published items for the in-memory leaderboards, read from {@code item_cards} (scores and
+ * slugs are the same in every language, so one card per item is enough). Items without an overall score
+ * are not ranked. Lookups take {@code null} ids to mean "all published items".
+ */
+@Repository
+@RequiredArgsConstructor
+public class LeaderboardRepository {
+
+    private static final String RANKED_SQL = """
+            SELECT DISTINCT ON (ic.item_id)
+                   ic.item_id, ic.overall_score, ic.category_slug, ic.topic_slug, ic.partner_slug
+            FROM item_cards ic
+            WHERE ic.overall_score IS NOT NULL
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<RankedItem> findRanked(Collection<Long> itemIds) {
+        if (itemIds != null && itemIds.isEmpty()) {
+            return List.of();
+        }
+        String filter = itemIds == null ? "" : " AND ic.item_id IN (:ids)";
+        return jdbcTemplate.query(RANKED_SQL + filter + " ORDER BY ic.item_id",
+                new MapSqlParameterSource("ids", itemIds),
+                (rs, rowNum) -> new RankedItem(
+                        rs.getLong("item_id"),
+                        rs.getBigDecimal("overall_score"),
+                        rs.getString("category_slug"),
+                        rs.getString("topic_slug"),
+                        rs.getString("partner_slug")));
+    }
+
+    public record RankedItem(long itemId, BigDecimal score, String category, String topic, String partner) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.org.wmm.items.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flavor profiles of published items for the in-memory similarity index. Lookups take {@code null} ids
+ * to mean "all published items"; items without a tasting note come back with an empty profile.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SimilarityRepository {
+
+    private static final String ITEMS_SQL = """
+            SELECT i.id, i.slug, tn.aroma_score, tn.taste_score, tn.finish_score
+            FROM items i
+            LEFT JOIN tasting_notes tn ON tn.item_id = i.id
+            WHERE i.status = 'published' AND i.published_at IS NOT NULL
+            """;
+
+    private static final String FLAVORS_SQL = """
+            SELECT tn.item_id, l.phase, l.flavor_id, l.intensity
+            FROM (
+                SELECT 0 AS phase, tasting_note_id, flavor_id, intensity FROM aroma_flavors
+                UNION ALL
+                SELECT 1, tasting_note_id, flavor_id, intensity FROM taste_flavors
+                UNION ALL
+                SELECT 2, tasting_note_id, flavor_id, intensity FROM finish_flavors
+            ) l
+            JOIN tasting_notes tn ON tn.id = l.tasting_note_id
+            JOIN flavors f ON f.id = l.flavor_id AND f.is_active
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Profiles of the given published items (two statements)
+     */
+    public List<FlavorProfile> findProfiles(Collection<Long> itemIds) {
+        if (itemIds != null && itemIds.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", itemIds);
+        String itemFilter = itemIds == null ? "" : " AND i.id IN (:ids)";
+        String flavorFilter = itemIds == null ? "" : " WHERE tn.item_id IN (:ids)";
+
+        Map<Long, List<FlavorWeight>> flavors = new HashMap<>();
+        jdbcTemplate.query(FLAVORS_SQL + flavorFilter, params, (RowCallbackHandler) rs ->
+                flavors.computeIfAbsent(rs.getLong("item_id"), id -> new ArrayList<>()).add(new FlavorWeight(
+                        FlavorPhase.values()[rs.getInt("phase")],
+                        rs.getLong("flavor_id"),
+                        rs.getInt("intensity"))));
+
+        return jdbcTemplate.query(ITEMS_SQL + itemFilter, params, (rs, rowNum) -> {
+            long id = rs.getLong("id");
+            return new FlavorProfile(
+                    id,
+                    rs.getString("slug"),
+                    rs.getBigDecimal("aroma_score"),
+                    rs.getBigDecimal("taste_score"),
+                    rs.getBigDecimal("finish_score"),
+                    List.copyOf(flavors.getOrDefault(id, List.of())));
+        });
+    }
+
+    public enum FlavorPhase {
+        AROMA, TASTE, FINISH
+    }
+
+    /**
+     * One linked flavor with its intensity (1-3)
+     */
+    public record FlavorWeight(FlavorPhase phase, long flavorId, int intensity) {
+    }
+
+    /**
+     * Phase scores are 0-100 or null
+     */
+    public record FlavorProfile(long itemId, String slug, BigDecimal aromaScore, BigDecimal tasteScore,
+                                BigDecimal finishScore, List<FlavorWeight> flavors) {
+    }
+}
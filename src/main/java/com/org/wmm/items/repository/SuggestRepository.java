@@ -0,0 +1,68 @@
+package com.org.wmm.items.repository;
+
+import com.org.wmm.items.dto.Suggestion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Autocomplete over item titles and flavor names of one language, using the pg_trgm indexes.
+ * A name matches if the query is similar to one of its words ({@code <%}, tolerates typos) or occurs
+ * anywhere in it ({@code ILIKE}, mid-word matches); both predicates are served by the trigram GIN index.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SuggestRepository {
+
+    private static final String SUGGEST_SQL = """
+            WITH lang AS (
+                SELECT id FROM languages
+                WHERE is_active AND (code = :lang OR is_default)
+                ORDER BY is_default, id
+                LIMIT 1
+            )
+            (SELECT 'item' AS type, t.title AS text, i.slug, word_similarity(:query, t.title) AS score
+             FROM item_translations t
+             JOIN items i ON i.id = t.item_id
+             WHERE t.language_id = (SELECT id FROM lang)
+               AND i.status = 'published' AND i.published_at IS NOT NULL
+               AND (:query <% t.title OR t.title ILIKE :pattern)
+             ORDER BY score DESC, t.title
+             LIMIT :limit)
+            UNION ALL
+            (SELECT 'flavor' AS type, ft.name AS text, f.slug, word_similarity(:query, ft.name) AS score
+             FROM flavor_translations ft
+             JOIN flavors f ON f.id = ft.flavor_id
+             WHERE ft.language_id = (SELECT id FROM lang)
+               AND f.is_active
+               AND (:query <% ft.name OR ft.name ILIKE :pattern)
+             ORDER BY score DESC, ft.name
+             LIMIT :limit)
+            ORDER BY score DESC, text
+            LIMIT :limit
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<Suggestion> suggest(String lang, String query, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("lang", lang)
+                .addValue("query", query)
+                .addValue("pattern", "%" + escapeLike(query) + "%")
+                .addValue("limit", limit);
+
+        return jdbcTemplate.query(SUGGEST_SQL, params, (rs, rowNum) -> Suggestion.builder()
+                .type(rs.getString("type"))
+                .text(rs.getString("text"))
+                .slug(rs.getString("slug"))
+                .score(rs.getFloat("score"))
+                .build());
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
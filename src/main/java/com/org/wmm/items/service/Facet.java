@@ -0,0 +1,83 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.items.repository.FacetRepository.ItemFacets;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Facets of the item browser. Each maps an item to the facet values it has (none, one, or several for
+ * flavors); numeric attributes are bucketed into ranges such as {@code 40-46} or {@code 60+}.
+ */
+public enum Facet {
+
+    CATEGORY(false, item -> single(item.category())),
+    TOPIC(false, item -> single(item.topic())),
+    PARTNER(false, item -> single(item.partner())),
+    ABV(true, item -> single(Buckets.of(item.abv(), Buckets.ABV))),
+    VINTAGE(true, item -> single(item.vintage())),
+    VOLUME(true, item -> single(item.volumeMl())),
+    PRICE(true, item -> single(Buckets.of(item.pricePln(), Buckets.PRICE))),
+    INTENSITY(true, item -> single(item.intensity())),
+    AROMA(false, ItemFacets::aroma),
+    TASTE(false, ItemFacets::taste),
+    FINISH(false, ItemFacets::finish);
+
+    private final boolean numeric;
+    private final Function<ItemFacets, Set<String>> values;
+
+    Facet(boolean numeric, Function<ItemFacets, Set<String>> values) {
+        this.numeric = numeric;
+        this.values = values;
+    }
+
+    /**
+     * Name used in query parameters and responses
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Values are numbers or numeric ranges, listed in ascending order rather than by count
+     */
+    boolean numeric() {
+        return numeric;
+    }
+
+    Set<String> valuesOf(ItemFacets item) {
+        return values.apply(item);
+    }
+
+    private static Set<String> single(Object value) {
+        return value == null ? Set.of() : Set.of(value.toString());
+    }
+
+    static final class Buckets {
+
+        static final int[] ABV = {20, 40, 46, 50, 60};
+        static final int[] PRICE = {100, 200, 500, 1000, 2500};
+
+        private Buckets() {
+        }
+
+        /**
+         * Range label for the value: {@code lower-upper} (upper exclusive) or {@code last+}
+         */
+        static String of(BigDecimal value, int[] bounds) {
+            if (value == null) {
+                return null;
+            }
+            int lower = 0;
+            for (int bound : bounds) {
+                if (value.compareTo(BigDecimal.valueOf(bound)) < 0) {
+                    return lower + "-" + bound;
+                }
+                lower = bound;
+            }
+            return lower + "+";
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.items.dto.FacetCounts;
+import com.org.wmm.items.dto.FacetValue;
+import com.org.wmm.items.repository.FacetRepository.ItemFacets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable bitmap index over published items: every item gets a dense position and every facet value a
+ * {@code long[]} bitmap of the items having it. Counting is bitwise AND plus popcount over those words,
+ * so one query touches no objects per item and costs roughly {@code values × items / 64} word operations.
+ */
+final class FacetIndex {
+
+    private static final Comparator<String> NUMERIC_ORDER =
+            Comparator.comparingLong(FacetIndex::leadingNumber).thenComparing(Comparator.naturalOrder());
+
+    private final int words;
+    private final long[] all;
+    private final Map<Facet, Map<String, long[]>> bitmaps;
+
+    private FacetIndex(int size, Map<Facet, Map<String, long[]>> bitmaps) {
+        this.words = (size + 63) >>> 6;
+        this.all = new long[words];
+        for (int position = 0; position < size; position++) {
+            all[position >>> 6] |= 1L << position;
+        }
+        this.bitmaps = bitmaps;
+    }
+
+    static FacetIndex build(Collection<ItemFacets> items) {
+        List<ItemFacets> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingLong(ItemFacets::itemId));
+        int words = (sorted.size() + 63) >>> 6;
+
+        Map<Facet, Map<String, long[]>> bitmaps = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            Map<String, long[]> byValue = new HashMap<>();
+            for (int position = 0; position < sorted.size(); position++) {
+                for (String value : facet.valuesOf(sorted.get(position))) {
+                    byValue.computeIfAbsent(value, v -> new long[words])[position >>> 6] |= 1L << position;
+                }
+            }
+            bitmaps.put(facet, ordered(facet, byValue));
+        }
+        return new FacetIndex(sorted.size(), bitmaps);
+    }
+
+    /**
+     * Counts for a selection: values of one facet are OR-ed, facets are AND-ed. Each facet is counted
+     * against the selection of all <em>other</em> facets, so its counts say how many items picking that
+     * value would add or leave. Values without matches are omitted unless selected.
+     */
+    FacetCounts count(Map<Facet, Set<String>> selection) {
+        Map<Facet, long[]> selected = new EnumMap<>(Facet.class);
+        selection.forEach((facet, values) -> {
+            if (!values.isEmpty()) {
+                selected.put(facet, union(bitmaps.get(facet), values));
+            }
+        });
+        long[] matching = intersection(selected, null);
+
+        Map<String, List<FacetValue>> facets = new LinkedHashMap<>();
+        for (Facet facet : Facet.values()) {
+            Set<String> chosen = selection.getOrDefault(facet, Set.of());
+            long[] base = selected.containsKey(facet) ? intersection(selected, facet) : matching;
+            List<FacetValue> values = new ArrayList<>();
+            bitmaps.get(facet).forEach((value, bitmap) -> {
+                long count = andCount(base, bitmap);
+                boolean isSelected = chosen.contains(value);
+                if (count > 0 || isSelected) {
+                    values.add(new FacetValue(value, count, isSelected));
+                }
+            });
+            // Selected values the index does not know still show up, with no matches
+            chosen.stream()
+                    .filter(value -> !bitmaps.get(facet).containsKey(value))
+                    .sorted()
+                    .forEach(value -> values.add(new FacetValue(value, 0, true)));
+            if (!facet.numeric()) {
+                values.sort(Comparator.comparingLong(FacetValue::getCount).reversed()
+                        .thenComparing(FacetValue::getValue));
+            }
+            facets.put(facet.key(), values);
+        }
+        return FacetCounts.builder()
+                .total(cardinality(matching))
+                .facets(facets)
+                .build();
+    }
+
+    int size() {
+        return (int) cardinality(all);
+    }
+
+    private long[] union(Map<String, long[]> values, Set<String> keys) {
+        long[] result = new long[words];
+        for (String key : keys) {
+            long[] bitmap = values.get(key);
+            if (bitmap != null) {
+                for (int i = 0; i < words; i++) {
+                    result[i] |= bitmap[i];
+                }
+            }
+        }
+        return result;
+    }
+
+    private long[] intersection(Map<Facet, long[]> selected, Facet excluded) {
+        long[] result = all.clone();
+        selected.forEach((facet, bitmap) -> {
+            if (facet != excluded) {
+                for (int i = 0; i < words; i++) {
+                    result[i] &= bitmap[i];
+                }
+            }
+        });
+        return result;
+    }
+
+    private long andCount(long[] a, long[] b) {
+        long count = 0;
+        for (int i = 0; i < words; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+
+    private static long cardinality(long[] bitmap) {
+        return Arrays.stream(bitmap).map(Long::bitCount).sum();
+    }
+
+    /**
+     * Numeric facets keep ascending order in responses; others are re-sorted by count per query
+     */
+    private static Map<String, long[]> ordered(Facet facet, Map<String, long[]> byValue) {
+        if (!facet.numeric()) {
+            return Map.copyOf(byValue);
+        }
+        Map<String, long[]> ordered = new LinkedHashMap<>();
+        byValue.keySet().stream()
+                .sorted(NUMERIC_ORDER)
+                .forEach(value -> ordered.put(value, byValue.get(value)));
+        return ordered;
+    }
+
+    private static long leadingNumber(String value) {
+        int end = 0;
+        while (end < value.length() && Character.isDigit(value.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? Long.MAX_VALUE : Long.parseLong(value.substring(0, Math.min(end, 18)));
+    }
+}
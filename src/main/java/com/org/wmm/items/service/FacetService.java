@@ -0,0 +1,151 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.items.dto.FacetCounts;
+import com.org.wmm.items.repository.FacetRepository;
+import com.org.wmm.items.repository.FacetRepository.ItemFacets;
+import com.org.wmm.items.repository.ItemChangeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MultiValueMap;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Facet counts for the public item browser, served from an in-memory {@link FacetIndex} of all published
+ * items, so a query costs no database round trip.
+ * <p>
+ * Like the navigation tree, the index is loaded once and then kept current by a poller reading the
+ * {@code item_changes} log: changed items are reloaded and the index is rebuilt from memory. Changes to
+ * shared rows (category, partner or flavor slugs) or large batches reload everything.
+ */
+@Slf4j
+@Service
+public class FacetService {
+
+    private final FacetRepository repository;
+    private final ItemChangeFollower changes;
+    private final Timer queryTimer;
+
+    // Source rows; only touched by the thread holding the monitor
+    private final Map<Long, ItemFacets> items = new HashMap<>();
+
+    private volatile FacetIndex index;
+
+    public FacetService(
+            FacetRepository repository,
+            ItemChangeRepository changeRepository,
+            MeterRegistry meterRegistry
+    ) {
+        this.repository = repository;
+        this.queryTimer = Timer.builder("items.facets.query")
+                .description("Time to count facets for one selection")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.changes = new ItemChangeFollower(changeRepository, Timer.builder("items.facets.rebuild")
+                .description("Time to apply item changes and rebuild the facet index")
+                .register(meterRegistry));
+        Gauge.builder("items.facets.items", this, service -> service.index == null ? 0 : service.index.size())
+                .description("Published items in the facet index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts for the selection in the request parameters. Each facet (see {@link Facet#key()}) may be given
+     * several times or as a comma separated list; other parameters are ignored.
+     */
+    public FacetCounts getCounts(MultiValueMap<String, String> params) {
+        FacetIndex current = index;
+        if (current == null) {
+            refresh();
+            current = index;
+        }
+        Map<Facet, Set<String>> selection = parseSelection(params);
+        FacetIndex snapshot = current;
+        return queryTimer.record(() -> snapshot.count(selection));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            log.warn("Could not load facet index at startup, will retry on first request: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${items.facets.refresh-interval:5000}",
+            initialDelayString = "${items.facets.refresh-interval:5000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            log.warn("Facet index refresh failed, serving the previous index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply logged changes since the last refresh, or load everything on first use
+     */
+    public synchronized void refresh() {
+        if (index == null) {
+            changes.loadAll(this::loadAll);
+        } else {
+            changes.refresh(this::loadAll, this::apply);
+        }
+    }
+
+    private void loadAll() {
+        items.clear();
+        repository.findItemFacets(null).forEach(item -> items.put(item.itemId(), item));
+        index = FacetIndex.build(items.values());
+        log.info("Loaded facet index with {} published items", items.size());
+    }
+
+    /**
+     * Items that were requested but not returned are no longer published
+     */
+    private void apply(Set<Long> itemIds) {
+        itemIds.forEach(items::remove);
+        repository.findItemFacets(itemIds).forEach(item -> items.put(item.itemId(), item));
+        index = FacetIndex.build(items.values());
+        log.debug("Applied changes of {} items to the facet index", itemIds.size());
+    }
+
+    static Map<Facet, Set<String>> parseSelection(MultiValueMap<String, String> params) {
+        Map<Facet, Set<String>> selection = new EnumMap<>(Facet.class);
+        if (params == null) {
+            return selection;
+        }
+        for (Facet facet : Facet.values()) {
+            List<String> raw = params.get(facet.key());
+            if (raw == null) {
+                continue;
+            }
+            Set<String> values = new LinkedHashSet<>();
+            raw.stream()
+                    .filter(Objects::nonNull)
+                    .flatMap(value -> Arrays.stream(value.split(",")))
+                    .map(String::trim)
+                    .filter(value -> !value.isEmpty())
+                    .forEach(values::add);
+            if (!values.isEmpty()) {
+                selection.put(facet, values);
+            }
+        }
+        return selection;
+    }
+}
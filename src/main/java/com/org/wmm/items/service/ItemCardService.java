@@ -0,0 +1,26 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.items.repository.ItemCardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemCardService {
+
+    private final ItemCardRepository itemCardRepository;
+
+    /**
+     * Rebuild the whole {@code item_cards} projection from the source tables
+     */
+    @Transactional
+    public int rebuildAll() {
+        long startedAt = System.currentTimeMillis();
+        int written = itemCardRepository.rebuildAll();
+        log.info("Rebuilt {} item cards in {} ms", written, System.currentTimeMillis() - startedAt);
+        return written;
+    }
+}
@@ -0,0 +1,66 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.items.repository.ItemChangeRepository;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * One in-memory item index's position in the {@code item_changes} log. The index supplies a full load and an
+ * incremental apply; the follower decides which one a refresh needs and keeps the transaction id watermark.
+ * <p>
+ * Not thread-safe: the owning index calls it while holding its own monitor.
+ */
+final class ItemChangeFollower {
+
+    /**
+     * Above this many changed items one full load is cheaper than an IN list
+     */
+    static final int MAX_INCREMENTAL_CHANGES = 1000;
+
+    private final ItemChangeRepository repository;
+    private final Timer rebuildTimer;
+    private long watermark;
+
+    ItemChangeFollower(ItemChangeRepository repository, Timer rebuildTimer) {
+        this.repository = repository;
+        this.rebuildTimer = rebuildTimer;
+    }
+
+    /**
+     * Load everything and follow the log from here
+     */
+    void loadAll(Runnable load) {
+        rebuildTimer.record(() -> {
+            // Taken before reading, so changes committed while loading are applied (again) by the next refresh
+            long to = repository.currentChangeWatermark();
+            load.run();
+            watermark = to;
+        });
+    }
+
+    /**
+     * Hand the items changed since the last call to {@code apply}. Changes to shared rows (logged as a
+     * {@code null} item) or large batches go to {@code load} instead. Items that {@code apply} cannot find
+     * any more are no longer published.
+     */
+    void refresh(Runnable load, Consumer<Set<Long>> apply) {
+        long to = repository.currentChangeWatermark();
+        if (to <= watermark) {
+            return;
+        }
+        List<Long> changed = repository.findChangedItemIds(watermark, to);
+        if (!changed.isEmpty()) {
+            if (changed.stream().anyMatch(Objects::isNull) || changed.size() > MAX_INCREMENTAL_CHANGES) {
+                loadAll(load);
+                return;
+            }
+            rebuildTimer.record(() -> apply.accept(new HashSet<>(changed)));
+        }
+        watermark = to;
+    }
+}
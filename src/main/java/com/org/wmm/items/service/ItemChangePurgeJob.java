@@ -0,0 +1,38 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.items.repository.ItemChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Deletes old rows of the {@code item_changes} log. Every item index (facets, similarity, leaderboards)
+ * follows the log, so the retention must exceed the longest of their refresh intervals.
+ */
+@Slf4j
+@Component
+public class ItemChangePurgeJob {
+
+    private final ItemChangeRepository repository;
+    private final long retentionMs;
+
+    public ItemChangePurgeJob(
+            ItemChangeRepository repository,
+            @Value("${items.changes.retention:86400000}") long retentionMs
+    ) {
+        this.repository = repository;
+        this.retentionMs = retentionMs;
+    }
+
+    @Scheduled(cron = "${items.changes.purge.cron:0 20 * * * *}")
+    public void purge() {
+        int deleted = repository.deleteChangesBefore(OffsetDateTime.now().minus(retentionMs, ChronoUnit.MILLIS));
+        if (deleted > 0) {
+            log.debug("Deleted {} old item changes", deleted);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.common.error.ResourceNotFoundException;
+import com.org.wmm.common.translation.TranslatedEntity;
+import com.org.wmm.common.translation.Translation;
+import com.org.wmm.common.translation.TranslationResolver;
+import com.org.wmm.items.dto.FlavorNote;
+import com.org.wmm.items.dto.ImageVariant;
+import com.org.wmm.items.dto.ItemDetail;
+import com.org.wmm.items.dto.ItemImage;
+import com.org.wmm.items.dto.TastingNoteDetail;
+import com.org.wmm.items.repository.ItemDetailRepository;
+import com.org.wmm.items.repository.ItemDetailRepository.FlavorLinkRow;
+import com.org.wmm.items.repository.ItemDetailRepository.ImageRow;
+import com.org.wmm.items.repository.ItemDetailRepository.ItemRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Assembles {@link ItemDetail}s for a batch of items with a fixed number of statements: one per child
+ * table and one per translated entity type, at most eight in total, however many images or flavors the
+ * items have. Steps with nothing to load (no images, no tasting notes) are skipped.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemDetailService {
+
+    /**
+     * Width the item page shows its images at
+     */
+    static final int DETAIL_IMAGE_WIDTH = 1200;
+
+    private final ItemDetailRepository itemDetailRepository;
+    private final TranslationResolver translationResolver;
+
+    public ItemDetail getBySlug(String slug, String lang) {
+        ItemDetail item = getBySlugs(List.of(slug), lang).get(slug);
+        if (item == null) {
+            throw new ResourceNotFoundException("Item", "slug", slug);
+        }
+        return item;
+    }
+
+    /**
+     * Published items by slug, in the order of the given slugs; unknown or unpublished slugs are left out
+     */
+    public Map<String, ItemDetail> getBySlugs(Collection<String> slugs, String lang) {
+        List<ItemRow> rows = itemDetailRepository.findPublishedBySlugs(slugs);
+        if (rows.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, ItemDetail> items = new HashMap<>();
+        Map<Long, TastingNoteDetail> notes = new HashMap<>();
+        for (ItemRow row : rows) {
+            items.put(row.item().getId(), row.item());
+            if (row.tastingNoteId() != null) {
+                notes.put(row.tastingNoteId(), row.item().getTastingNote());
+            }
+        }
+
+        applyItemTranslations(items, lang);
+        applyPartnerNames(rows, lang);
+        applyImages(items, lang);
+        applyTastingNotes(notes, lang);
+
+        Map<String, ItemDetail> loaded = new HashMap<>();
+        items.values().forEach(item -> loaded.put(item.getSlug(), item));
+        Map<String, ItemDetail> bySlug = new LinkedHashMap<>();
+        slugs.stream().filter(loaded::containsKey).forEach(slug -> bySlug.put(slug, loaded.get(slug)));
+        return bySlug;
+    }
+
+    private void applyItemTranslations(Map<Long, ItemDetail> items, String lang) {
+        Map<Long, Translation> translations = translationResolver.resolve(TranslatedEntity.ITEM, items.keySet(), lang);
+        translations.forEach((itemId, t) -> {
+            ItemDetail item = items.get(itemId);
+            item.setLang(t.getLanguageCode());
+            item.setTitle(t.get("title"));
+            item.setSubtitle(t.get("subtitle"));
+            item.setExcerpt(t.get("excerpt"));
+            item.setDescription(t.get("description"));
+            item.setMetaTitle(t.get("meta_title"));
+            item.setMetaDescription(t.get("meta_description"));
+            item.setMetaKeywords(t.get("meta_keywords"));
+        });
+    }
+
+    private void applyPartnerNames(List<ItemRow> rows, String lang) {
+        List<Long> partnerIds = rows.stream().map(ItemRow::partnerId).filter(Objects::nonNull).distinct().toList();
+        if (partnerIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Translation> names =
+                translationResolver.resolve(TranslatedEntity.PARTNER, partnerIds, lang, List.of("name"));
+        for (ItemRow row : rows) {
+            Translation name = row.partnerId() == null ? null : names.get(row.partnerId());
+            if (name != null) {
+                row.item().setPartnerName(name.get("name"));
+            }
+        }
+    }
+
+    private void applyImages(Map<Long, ItemDetail> items, String lang) {
+        List<ImageRow> images = itemDetailRepository.findImages(items.keySet());
+        if (images.isEmpty()) {
+            return;
+        }
+        Map<Long, Translation> texts = translationResolver.resolve(TranslatedEntity.IMAGE,
+                images.stream().map(row -> row.image().getId()).toList(), lang);
+        for (ImageRow row : images) {
+            ItemImage image = row.image();
+            image.setDisplayPath(displayPath(image));
+            Translation text = texts.get(image.getId());
+            if (text != null) {
+                image.setAltText(text.get("alt_text"));
+                image.setCaption(text.get("caption"));
+            }
+            items.get(row.itemId()).getImages().add(image);
+        }
+    }
+
+    /**
+     * The smallest variant at least {@value #DETAIL_IMAGE_WIDTH}px wide; the original if there is none,
+     * since variants are only made narrower than the original
+     */
+    static String displayPath(ItemImage image) {
+        return image.getVariants().stream()
+                .filter(variant -> variant.getWidth() != null && variant.getWidth() >= DETAIL_IMAGE_WIDTH)
+                .min(Comparator.comparing(ImageVariant::getWidth))
+                .map(ImageVariant::getFilePath)
+                .orElse(image.getFilePath());
+    }
+
+    private void applyTastingNotes(Map<Long, TastingNoteDetail> notes, String lang) {
+        if (notes.isEmpty()) {
+            return;
+        }
+        translationResolver.resolve(TranslatedEntity.TASTING_NOTE, notes.keySet(), lang).forEach((noteId, t) -> {
+            TastingNoteDetail note = notes.get(noteId);
+            note.setAromaNotes(t.get("aroma_notes"));
+            note.setTasteNotes(t.get("taste_notes"));
+            note.setFinishNotes(t.get("finish_notes"));
+            note.setOverallImpression(t.get("overall_impression"));
+        });
+
+        List<FlavorLinkRow> links = itemDetailRepository.findFlavorLinks(notes.keySet());
+        if (links.isEmpty()) {
+            return;
+        }
+        Map<Long, Translation> names = translationResolver.resolve(TranslatedEntity.FLAVOR,
+                links.stream().map(FlavorLinkRow::flavorId).distinct().toList(), lang, List.of("name"));
+        for (FlavorLinkRow link : links) {
+            FlavorNote flavor = link.flavor();
+            Translation name = names.get(link.flavorId());
+            flavor.setName(name != null ? name.get("name") : flavor.getSlug());
+
+            TastingNoteDetail note = notes.get(link.tastingNoteId());
+            switch (link.stage()) {
+                case "aroma" -> note.getAroma().add(flavor);
+                case "taste" -> note.getTaste().add(flavor);
+                case "finish" -> note.getFinish().add(flavor);
+                default -> log.warn("Unknown flavor stage: {}", link.stage());
+            }
+        }
+    }
+}
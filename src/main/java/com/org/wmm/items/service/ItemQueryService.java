@@ -0,0 +1,66 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.common.dto.CursorPageResponse;
+import com.org.wmm.common.error.BadRequestException;
+import com.org.wmm.common.pagination.Cursors;
+import com.org.wmm.items.dto.ItemFilter;
+import com.org.wmm.items.dto.ItemSummary;
+import com.org.wmm.items.repository.ItemReadRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemQueryService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final ItemReadRepository itemReadRepository;
+
+    /**
+     * One page of published items, newest first. Fetches one extra row to know whether another page exists,
+     * so no count query is needed; the total is only estimated when asked for.
+     */
+    public CursorPageResponse<ItemSummary> listPublished(ItemFilter filter, String cursor, int size, boolean includeTotal) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        OffsetDateTime afterPublishedAt = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] key = Cursors.decode(cursor, 2);
+            try {
+                afterPublishedAt = OffsetDateTime.parse(key[0]);
+                afterId = Long.parseLong(key[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        List<ItemSummary> rows = itemReadRepository.findPublishedPage(filter, afterPublishedAt, afterId, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<ItemSummary> content = hasMore ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ItemSummary last = content.get(content.size() - 1);
+            nextCursor = Cursors.encode(last.getPublishedAt(), last.getId());
+        }
+
+        return CursorPageResponse.<ItemSummary>builder()
+                .content(List.copyOf(content))
+                .size(content.size())
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .approximateTotal(includeTotal ? itemReadRepository.estimatePublishedCount(filter) : null)
+                .build();
+    }
+}
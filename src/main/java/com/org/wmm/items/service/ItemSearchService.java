@@ -0,0 +1,104 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.common.dto.CursorPageResponse;
+import com.org.wmm.common.error.BadRequestException;
+import com.org.wmm.common.pagination.Cursors;
+import com.org.wmm.items.dto.ItemSearchHit;
+import com.org.wmm.items.repository.ItemSearchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+public class ItemSearchService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 50;
+    static final int MAX_QUERY_LENGTH = 200;
+    static final int MAX_TERMS = 10;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ItemSearchRepository itemSearchRepository;
+    private final Timer searchTimer;
+
+    public ItemSearchService(ItemSearchRepository itemSearchRepository, MeterRegistry meterRegistry) {
+        this.itemSearchRepository = itemSearchRepository;
+        this.searchTimer = Timer.builder("items.search")
+                .description("Full-text item search")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Published items matching all terms of the query, best match first
+     *
+     * @param prefix match the last term as a prefix, for search-as-you-type
+     */
+    public CursorPageResponse<ItemSearchHit> search(String query, String lang, boolean prefix, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        String tsQuery = toTsQuery(query, prefix);
+
+        Float afterRank = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] key = Cursors.decode(cursor, 2);
+            try {
+                afterRank = Float.parseFloat(key[0]);
+                afterId = Long.parseLong(key[1]);
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        Float rank = afterRank;
+        Long id = afterId;
+        List<ItemSearchHit> rows = searchTimer.record(() -> itemSearchRepository.search(lang, tsQuery, rank, id, size + 1));
+        boolean hasMore = rows.size() > size;
+        List<ItemSearchHit> content = hasMore ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ItemSearchHit last = content.get(content.size() - 1);
+            nextCursor = Cursors.encode(last.getRank(), last.getId());
+        }
+
+        return CursorPageResponse.<ItemSearchHit>builder()
+                .content(List.copyOf(content))
+                .size(content.size())
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Turns free text into a {@code to_tsquery} expression: terms are reduced to letters and digits (so no
+     * tsquery operators get through) and AND-ed; with {@code prefix} the last term gets {@code :*}.
+     */
+    static String toTsQuery(String query, boolean prefix) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query is required");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("Search query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        List<String> terms = Arrays.stream(NON_WORD.split(query.toLowerCase(Locale.ROOT)))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_TERMS)
+                .toList();
+        if (terms.isEmpty()) {
+            throw new BadRequestException("Search query must contain letters or digits");
+        }
+        String joined = String.join(" & ", terms);
+        return prefix ? joined + ":*" : joined;
+    }
+}
@@ -0,0 +1,29 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.items.repository.LeaderboardRepository.RankedItem;
+
+import java.util.function.Function;
+
+/**
+ * What a leaderboard ranks: all items, or the items of one category, topic or partner
+ */
+public enum LeaderboardScope {
+
+    GLOBAL(item -> ""),
+    CATEGORY(RankedItem::category),
+    TOPIC(RankedItem::topic),
+    PARTNER(RankedItem::partner);
+
+    private final Function<RankedItem, String> key;
+
+    LeaderboardScope(Function<RankedItem, String> key) {
+        this.key = key;
+    }
+
+    /**
+     * Slug of the item's board in this scope, or null if the item has none (no partner)
+     */
+    String keyOf(RankedItem item) {
+        return key.apply(item);
+    }
+}
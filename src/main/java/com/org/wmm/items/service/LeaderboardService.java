@@ -0,0 +1,341 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.common.error.BadRequestException;
+import com.org.wmm.items.dto.ItemSummary;
+import com.org.wmm.items.repository.ItemChangeRepository;
+import com.org.wmm.items.repository.ItemReadRepository;
+import com.org.wmm.items.repository.ItemReadRepository.LocalizedSummary;
+import com.org.wmm.items.repository.LeaderboardRepository;
+import com.org.wmm.items.repository.LeaderboardRepository.RankedItem;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Top-rated published items (by tasting note overall score), globally and per category, topic and partner,
+ * answered from memory without touching the database.
+ * <p>
+ * Every board is a bounded top-K list. Boards and the scores of all ranked items are loaded on startup;
+ * afterwards the poller reads the {@code item_changes} log and moves only the changed items in or out of
+ * their boards. A board that loses a member is refilled from the in-memory scores. The cards of board
+ * members are kept in memory in every language, so a request only copies references.
+ */
+@Slf4j
+@Service
+public class LeaderboardService {
+
+    public static final int DEFAULT_LIMIT = 10;
+
+    static final int CARD_BATCH_SIZE = 1000;
+
+    /**
+     * Best score first; ties go to the newer item
+     */
+    private static final Comparator<RankedItem> RANKING = Comparator.comparing(RankedItem::score).reversed()
+            .thenComparing(Comparator.comparingLong(RankedItem::itemId).reversed());
+
+    private final LeaderboardRepository repository;
+    private final ItemChangeFollower changes;
+    private final ItemReadRepository itemReadRepository;
+    private final int size;
+
+    // Scores and boards; only touched by the thread holding the monitor
+    private final Map<Long, RankedItem> ranked = new HashMap<>();
+    private final Map<BoardKey, Board> boards = new HashMap<>();
+
+    // What readers see: board members are published only after their cards are loaded
+    private final Map<BoardKey, List<Long>> published = new ConcurrentHashMap<>();
+    private final Map<Long, Cards> cards = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public LeaderboardService(
+            LeaderboardRepository repository,
+            ItemChangeRepository changeRepository,
+            ItemReadRepository itemReadRepository,
+            @Value("${leaderboards.size:50}") int size,
+            MeterRegistry meterRegistry
+    ) {
+        this.repository = repository;
+        this.changes = new ItemChangeFollower(changeRepository, Timer.builder("leaderboards.rebuild")
+                .description("Time to apply item changes to the leaderboards")
+                .register(meterRegistry));
+        this.itemReadRepository = itemReadRepository;
+        this.size = Math.max(1, size);
+        Gauge.builder("leaderboards.boards", published, Map::size)
+                .description("Non-empty leaderboards held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Best items of one board in the given language (default language for unknown codes).
+     * The slug is ignored for {@link LeaderboardScope#GLOBAL}; unknown slugs have an empty board.
+     */
+    public List<ItemSummary> getLeaderboard(LeaderboardScope scope, String slug, String lang, int limit) {
+        if (limit < 1 || limit > size) {
+            throw new BadRequestException("Limit must be between 1 and " + size);
+        }
+        if (!loaded) {
+            refresh();
+        }
+        List<Long> itemIds = published.getOrDefault(new BoardKey(scope, scope == LeaderboardScope.GLOBAL ? "" : slug),
+                List.of());
+        String code = lang == null ? null : lang.toLowerCase(Locale.ROOT);
+
+        List<ItemSummary> result = new ArrayList<>(Math.min(limit, itemIds.size()));
+        for (Long itemId : itemIds) {
+            if (result.size() == limit) {
+                break;
+            }
+            Cards itemCards = cards.get(itemId);
+            if (itemCards != null) {
+                result.add(itemCards.in(code));
+            }
+        }
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            log.warn("Could not load leaderboards at startup, will retry on first request: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboards.refresh-interval:5000}",
+            initialDelayString = "${leaderboards.refresh-interval:5000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            log.warn("Leaderboard refresh failed, serving the previous boards: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply logged changes since the last refresh, or load everything on first use
+     */
+    public synchronized void refresh() {
+        if (!loaded) {
+            changes.loadAll(this::loadAll);
+        } else {
+            changes.refresh(this::loadAll, this::apply);
+        }
+    }
+
+    private void loadAll() {
+        ranked.clear();
+        boards.clear();
+        for (RankedItem item : repository.findRanked(null)) {
+            ranked.put(item.itemId(), item);
+            for (BoardKey key : keysOf(item)) {
+                boards.computeIfAbsent(key, k -> new Board(size)).offer(item);
+            }
+        }
+        publish(boards.keySet(), ranked.keySet());
+        published.keySet().retainAll(boards.keySet());
+        loaded = true;
+        log.info("Loaded {} leaderboards over {} rated items", boards.size(), ranked.size());
+    }
+
+    /**
+     * Moves each changed item out of its old boards and into its new ones; items that were requested but
+     * not returned are no longer published or rated
+     */
+    private void apply(Set<Long> itemIds) {
+        Map<Long, RankedItem> fresh = repository.findRanked(itemIds).stream()
+                .collect(Collectors.toMap(RankedItem::itemId, item -> item));
+        Set<BoardKey> changedBoards = new HashSet<>();
+        Set<BoardKey> shrunk = new HashSet<>();
+
+        for (Long itemId : itemIds) {
+            RankedItem previous = ranked.remove(itemId);
+            if (previous != null) {
+                for (BoardKey key : keysOf(previous)) {
+                    Board board = boards.get(key);
+                    if (board != null && board.remove(itemId)) {
+                        changedBoards.add(key);
+                        shrunk.add(key);
+                    }
+                }
+            }
+            RankedItem current = fresh.get(itemId);
+            if (current != null) {
+                ranked.put(itemId, current);
+                for (BoardKey key : keysOf(current)) {
+                    if (boards.computeIfAbsent(key, k -> new Board(size)).offer(current)) {
+                        changedBoards.add(key);
+                    }
+                }
+            }
+        }
+
+        // A changed item can take a slot freed by a removal although an unchanged non-member ranks higher.
+        // Unchanged members still outrank every non-member, so that can only happen when the board is short
+        // or a changed item sits at its tail.
+        for (BoardKey key : shrunk) {
+            Board board = boards.get(key);
+            if (board.size() < size || itemIds.contains(board.lastItemId())) {
+                refill(key);
+            }
+        }
+        publish(changedBoards, itemIds);
+        log.debug("Applied changes of {} items to {} leaderboards", itemIds.size(), changedBoards.size());
+    }
+
+    /**
+     * Rebuild a board that lost members from the scores of its scope
+     */
+    private void refill(BoardKey key) {
+        Board board = new Board(size);
+        ranked.values().stream()
+                .filter(item -> key.slug().equals(key.scope().keyOf(item)))
+                .forEach(board::offer);
+        if (board.size() == 0) {
+            boards.remove(key);
+        } else {
+            boards.put(key, board);
+        }
+    }
+
+    /**
+     * Load cards of new members (and of changed items still on a board), then swap in the changed boards
+     */
+    private void publish(Collection<BoardKey> changedBoards, Collection<Long> changedItems) {
+        Set<Long> members = boards.values().stream()
+                .flatMap(board -> board.itemIds().stream())
+                .collect(Collectors.toSet());
+        List<Long> toLoad = members.stream()
+                .filter(itemId -> !cards.containsKey(itemId) || changedItems.contains(itemId))
+                .toList();
+        loadCards(toLoad);
+
+        for (BoardKey key : List.copyOf(changedBoards)) {
+            Board board = boards.get(key);
+            if (board == null) {
+                published.remove(key);
+            } else {
+                published.put(key, board.itemIds());
+            }
+        }
+        cards.keySet().retainAll(members);
+    }
+
+    private void loadCards(List<Long> itemIds) {
+        for (int from = 0; from < itemIds.size(); from += CARD_BATCH_SIZE) {
+            List<Long> batch = itemIds.subList(from, Math.min(itemIds.size(), from + CARD_BATCH_SIZE));
+            Map<Long, List<LocalizedSummary>> byItem = itemReadRepository.findCardsInAllLanguages(batch).stream()
+                    .collect(Collectors.groupingBy(card -> card.summary().getId()));
+            for (Long itemId : batch) {
+                List<LocalizedSummary> localized = byItem.get(itemId);
+                if (localized == null) {
+                    cards.remove(itemId);
+                } else {
+                    cards.put(itemId, Cards.of(localized));
+                }
+            }
+        }
+    }
+
+    private static List<BoardKey> keysOf(RankedItem item) {
+        List<BoardKey> keys = new ArrayList<>(LeaderboardScope.values().length);
+        for (LeaderboardScope scope : LeaderboardScope.values()) {
+            String slug = scope.keyOf(item);
+            if (slug != null) {
+                keys.add(new BoardKey(scope, slug));
+            }
+        }
+        return keys;
+    }
+
+    private record BoardKey(LeaderboardScope scope, String slug) {
+    }
+
+    /**
+     * Bounded top-K list in {@link #RANKING} order; K is small, so a sorted array list is enough
+     */
+    private static final class Board {
+
+        private final int capacity;
+        private final List<RankedItem> items = new ArrayList<>();
+
+        Board(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * @return whether the item made it onto the board
+         */
+        boolean offer(RankedItem item) {
+            int at = -Collections.binarySearch(items, item, RANKING) - 1;
+            if (at < 0 || at >= capacity) {
+                return false;
+            }
+            items.add(at, item);
+            if (items.size() > capacity) {
+                items.remove(capacity);
+            }
+            return true;
+        }
+
+        boolean remove(long itemId) {
+            return items.removeIf(item -> item.itemId() == itemId);
+        }
+
+        int size() {
+            return items.size();
+        }
+
+        long lastItemId() {
+            return items.get(items.size() - 1).itemId();
+        }
+
+        List<Long> itemIds() {
+            return items.stream().map(RankedItem::itemId).toList();
+        }
+    }
+
+    /**
+     * One item's cards by lower-case language code
+     */
+    private record Cards(Map<String, ItemSummary> byLanguage, ItemSummary fallback) {
+
+        static Cards of(List<LocalizedSummary> localized) {
+            Map<String, ItemSummary> byLanguage = new HashMap<>();
+            ItemSummary fallback = localized.get(0).summary();
+            for (LocalizedSummary card : localized) {
+                byLanguage.put(card.languageCode().toLowerCase(Locale.ROOT), card.summary());
+                if (card.defaultLanguage()) {
+                    fallback = card.summary();
+                }
+            }
+            return new Cards(Map.copyOf(byLanguage), fallback);
+        }
+
+        ItemSummary in(String code) {
+            ItemSummary card = code == null ? null : byLanguage.get(code);
+            return card != null ? card : fallback;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.items.repository.SimilarityRepository.FlavorPhase;
+import com.org.wmm.items.repository.SimilarityRepository.FlavorProfile;
+import com.org.wmm.items.repository.SimilarityRepository.FlavorWeight;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable sparse vector index of flavor profiles, stored as primitive arrays (compressed rows).
+ * <p>
+ * Every (flavor, phase) pair is one dimension weighted by its intensity (1-3); the three phase scores are
+ * three more dimensions scaled to 0-1, so they only break ties between equally close profiles. Candidates
+ * sharing no flavor with the query are skipped. Scoring is a single pass over the arrays, split into
+ * chunks on a fork/join pool for large catalogues.
+ */
+final class SimilarityIndex {
+
+    /**
+     * Below this many items, splitting the scan costs more than it saves
+     */
+    static final int PARALLEL_THRESHOLD = 20_000;
+
+    private static final int SCORE_DIMENSIONS = FlavorPhase.values().length;
+    private static final float SCORE_SCALE = 100f;
+
+    private final long[] itemIds;
+    private final Map<Long, Integer> positions;
+    // Row p holds dims[offsets[p]..offsets[p+1]) with ascending dimensions, phase scores first
+    private final int[] offsets;
+    private final int[] dims;
+    private final float[] weights;
+    // Zero for items without flavors, which are never matched
+    private final float[] norms;
+    private final int dimensions;
+
+    private SimilarityIndex(long[] itemIds, int[] offsets, int[] dims, float[] weights, int dimensions) {
+        this.itemIds = itemIds;
+        this.offsets = offsets;
+        this.dims = dims;
+        this.weights = weights;
+        this.dimensions = dimensions;
+        this.positions = new HashMap<>(itemIds.length * 2);
+        this.norms = new float[itemIds.length];
+        for (int position = 0; position < itemIds.length; position++) {
+            positions.put(itemIds[position], position);
+            boolean hasFlavors = false;
+            double sum = 0;
+            for (int j = offsets[position]; j < offsets[position + 1]; j++) {
+                hasFlavors |= dims[j] >= SCORE_DIMENSIONS;
+                sum += (double) weights[j] * weights[j];
+            }
+            norms[position] = hasFlavors ? (float) Math.sqrt(sum) : 0f;
+        }
+    }
+
+    static SimilarityIndex build(Collection<FlavorProfile> profiles) {
+        List<FlavorProfile> sorted = new ArrayList<>(profiles);
+        sorted.sort(Comparator.comparingLong(FlavorProfile::itemId));
+
+        Map<Long, Integer> dimensionByKey = new HashMap<>();
+        long[] itemIds = new long[sorted.size()];
+        int[] offsets = new int[sorted.size() + 1];
+        int entries = sorted.stream().mapToInt(profile -> profile.flavors().size() + SCORE_DIMENSIONS).sum();
+        int[] dims = new int[entries];
+        float[] weights = new float[entries];
+
+        int next = 0;
+        for (int position = 0; position < sorted.size(); position++) {
+            FlavorProfile profile = sorted.get(position);
+            itemIds[position] = profile.itemId();
+
+            TreeMap<Integer, Float> row = new TreeMap<>();
+            putScore(row, FlavorPhase.AROMA, profile.aromaScore());
+            putScore(row, FlavorPhase.TASTE, profile.tasteScore());
+            putScore(row, FlavorPhase.FINISH, profile.finishScore());
+            for (FlavorWeight flavor : profile.flavors()) {
+                long key = flavor.flavorId() * SCORE_DIMENSIONS + flavor.phase().ordinal();
+                int dimension = dimensionByKey.computeIfAbsent(key, k -> SCORE_DIMENSIONS + dimensionByKey.size());
+                row.merge(dimension, (float) flavor.intensity(), Float::sum);
+            }
+            for (Map.Entry<Integer, Float> entry : row.entrySet()) {
+                dims[next] = entry.getKey();
+                weights[next] = entry.getValue();
+                next++;
+            }
+            offsets[position + 1] = next;
+        }
+        return new SimilarityIndex(itemIds, offsets, dims, weights, SCORE_DIMENSIONS + dimensionByKey.size());
+    }
+
+    private static void putScore(Map<Integer, Float> row, FlavorPhase phase, BigDecimal score) {
+        if (score != null && score.signum() > 0) {
+            row.put(phase.ordinal(), score.floatValue() / SCORE_SCALE);
+        }
+    }
+
+    int size() {
+        return itemIds.length;
+    }
+
+    boolean contains(long itemId) {
+        return positions.containsKey(itemId);
+    }
+
+    /**
+     * Up to {@code k} items most similar to the given one, best first; empty if it has no flavors.
+     * With a {@code pool} and a large index, chunks of the index are scored in parallel.
+     */
+    List<Hit> mostSimilar(long itemId, int k, ForkJoinPool pool) {
+        Integer self = positions.get(itemId);
+        if (self == null || norms[self] == 0f || k < 1) {
+            return List.of();
+        }
+        float[] query = new float[dimensions];
+        for (int j = offsets[self]; j < offsets[self + 1]; j++) {
+            query[dims[j]] = weights[j];
+        }
+        float queryNorm = norms[self];
+
+        int n = itemIds.length;
+        TopK best;
+        if (pool == null || n < PARALLEL_THRESHOLD) {
+            best = score(query, queryNorm, self, 0, n, k);
+        } else {
+            int chunks = pool.getParallelism() * 4;
+            int chunkSize = (n + chunks - 1) / chunks;
+            best = pool.submit(() -> IntStream.range(0, chunks)
+                            .parallel()
+                            .mapToObj(chunk -> score(query, queryNorm, self,
+                                    chunk * chunkSize, Math.min(n, (chunk + 1) * chunkSize), k))
+                            .reduce(TopK::merge)
+                            .orElseGet(() -> new TopK(k)))
+                    .join();
+        }
+        return best.hits();
+    }
+
+    private TopK score(float[] query, float queryNorm, int self, int from, int to, int k) {
+        TopK best = new TopK(k);
+        for (int position = from; position < to; position++) {
+            if (position == self || norms[position] == 0f) {
+                continue;
+            }
+            float flavorDot = 0f;
+            float scoreDot = 0f;
+            for (int j = offsets[position]; j < offsets[position + 1]; j++) {
+                int dimension = dims[j];
+                if (dimension < SCORE_DIMENSIONS) {
+                    scoreDot += weights[j] * query[dimension];
+                } else {
+                    flavorDot += weights[j] * query[dimension];
+                }
+            }
+            if (flavorDot > 0f) {
+                best.offer(position, (flavorDot + scoreDot) / (norms[position] * queryNorm));
+            }
+        }
+        return best;
+    }
+
+    record Hit(long itemId, float similarity) {
+    }
+
+    /**
+     * Bounded list of the best positions, kept sorted by similarity (ties: lower position first)
+     */
+    private final class TopK {
+
+        private final int[] found;
+        private final float[] similarities;
+        private int size;
+
+        TopK(int k) {
+            this.found = new int[k];
+            this.similarities = new float[k];
+        }
+
+        void offer(int position, float similarity) {
+            if (size == found.length && !better(similarity, position, similarities[size - 1], found[size - 1])) {
+                return;
+            }
+            int i = size == found.length ? size - 1 : size++;
+            while (i > 0 && better(similarity, position, similarities[i - 1], found[i - 1])) {
+                found[i] = found[i - 1];
+                similarities[i] = similarities[i - 1];
+                i--;
+            }
+            found[i] = position;
+            similarities[i] = similarity;
+        }
+
+        TopK merge(TopK other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.found[i], other.similarities[i]);
+            }
+            return this;
+        }
+
+        List<Hit> hits() {
+            List<Hit> hits = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                hits.add(new Hit(itemIds[found[i]], Math.min(1f, similarities[i])));
+            }
+            return hits;
+        }
+
+        private boolean better(float similarity, int position, float otherSimilarity, int otherPosition) {
+            return similarity > otherSimilarity || (similarity == otherSimilarity && position < otherPosition);
+        }
+    }
+}
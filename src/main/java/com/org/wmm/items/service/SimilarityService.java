@@ -0,0 +1,181 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.common.error.BadRequestException;
+import com.org.wmm.common.error.ResourceNotFoundException;
+import com.org.wmm.items.dto.ItemSummary;
+import com.org.wmm.items.dto.SimilarItem;
+import com.org.wmm.items.repository.ItemChangeRepository;
+import com.org.wmm.items.repository.ItemReadRepository;
+import com.org.wmm.items.repository.SimilarityRepository;
+import com.org.wmm.items.repository.SimilarityRepository.FlavorProfile;
+import com.org.wmm.items.service.SimilarityIndex.Hit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * "More like this" by flavor profile, served from an in-memory {@link SimilarityIndex} of all published
+ * items; only the cards of the hits are read from the database.
+ * <p>
+ * The index follows the {@code item_changes} log like the facet index: items whose tasting note or flavor
+ * links changed are reloaded and the arrays rebuilt from memory; changes to flavors themselves reload all.
+ */
+@Slf4j
+@Service
+public class SimilarityService {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private final SimilarityRepository repository;
+    private final ItemChangeFollower changes;
+    private final ItemReadRepository itemReadRepository;
+    private final ForkJoinPool pool;
+    private final Timer queryTimer;
+
+    // Source rows; only touched by the thread holding the monitor
+    private final Map<Long, FlavorProfile> profiles = new HashMap<>();
+
+    private volatile Snapshot snapshot;
+
+    public SimilarityService(
+            SimilarityRepository repository,
+            ItemChangeRepository changeRepository,
+            ItemReadRepository itemReadRepository,
+            @Value("${items.similar.parallelism:0}") int parallelism,
+            MeterRegistry meterRegistry
+    ) {
+        this.repository = repository;
+        this.changes = new ItemChangeFollower(changeRepository, Timer.builder("items.similar.rebuild")
+                .description("Time to apply item changes and rebuild the similarity index")
+                .register(meterRegistry));
+        this.itemReadRepository = itemReadRepository;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.queryTimer = Timer.builder("items.similar.query")
+                .description("Time to score the index for one item")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("items.similar.items", this,
+                        service -> service.snapshot == null ? 0 : service.snapshot.index().size())
+                .description("Published items in the similarity index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Published items with the most similar flavor profile, best first. Items without flavors have no
+     * similar items.
+     *
+     * @throws ResourceNotFoundException if no published item has this slug
+     */
+    public List<SimilarItem> findSimilar(String slug, String lang, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        Snapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        Long itemId = current.itemIdBySlug().get(slug);
+        if (itemId == null) {
+            throw new ResourceNotFoundException("Item", "slug", slug);
+        }
+
+        SimilarityIndex index = current.index();
+        List<Hit> hits = queryTimer.record(() -> index.mostSimilar(itemId, limit, pool));
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ItemSummary> cards = itemReadRepository
+                .findPublishedByIds(hits.stream().map(Hit::itemId).toList(), lang).stream()
+                .collect(Collectors.toMap(ItemSummary::getId, Function.identity()));
+
+        List<SimilarItem> result = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            ItemSummary card = cards.get(hit.itemId());
+            // Unpublished since the last refresh
+            if (card != null) {
+                result.add(SimilarItem.builder().similarity(hit.similarity()).item(card).build());
+            }
+        }
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            log.warn("Could not load similarity index at startup, will retry on first request: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${items.similar.refresh-interval:5000}",
+            initialDelayString = "${items.similar.refresh-interval:5000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            log.warn("Similarity index refresh failed, serving the previous index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply logged changes since the last refresh, or load everything on first use
+     */
+    public synchronized void refresh() {
+        if (snapshot == null) {
+            changes.loadAll(this::loadAll);
+        } else {
+            changes.refresh(this::loadAll, this::apply);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private void loadAll() {
+        profiles.clear();
+        repository.findProfiles(null).forEach(profile -> profiles.put(profile.itemId(), profile));
+        rebuild();
+        log.info("Loaded similarity index with {} published items", profiles.size());
+    }
+
+    /**
+     * Items that were requested but not returned are no longer published
+     */
+    private void apply(Set<Long> itemIds) {
+        itemIds.forEach(profiles::remove);
+        repository.findProfiles(itemIds).forEach(profile -> profiles.put(profile.itemId(), profile));
+        rebuild();
+        log.debug("Applied changes of {} items to the similarity index", itemIds.size());
+    }
+
+    private void rebuild() {
+        Map<String, Long> itemIdBySlug = new HashMap<>(profiles.size() * 2);
+        profiles.values().forEach(profile -> itemIdBySlug.put(profile.slug(), profile.itemId()));
+        snapshot = new Snapshot(SimilarityIndex.build(profiles.values()), itemIdBySlug);
+    }
+
+    private record Snapshot(SimilarityIndex index, Map<String, Long> itemIdBySlug) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.org.wmm.items.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.org.wmm.common.error.BadRequestException;
+import com.org.wmm.items.dto.Suggestion;
+import com.org.wmm.items.repository.SuggestRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Autocomplete suggestions, cached per (language, normalized query, limit). Search-as-you-type sends the
+ * same short prefixes over and over, from one user and from many, so each distinct prefix costs one query
+ * until the entry expires.
+ */
+@Slf4j
+@Service
+public class SuggestService {
+
+    public static final int DEFAULT_LIMIT = 8;
+    public static final int MAX_LIMIT = 20;
+    static final int MAX_QUERY_LENGTH = 100;
+
+    private final SuggestRepository suggestRepository;
+    private final int minQueryLength;
+    private final Cache<CacheKey, List<Suggestion>> cache;
+
+    public SuggestService(
+            SuggestRepository suggestRepository,
+            @Value("${suggest.min-length:3}") int minQueryLength,
+            @Value("${suggest.cache.max-size:10000}") long maxSize,
+            @Value("${suggest.cache.ttl:60000}") long ttlMs,
+            MeterRegistry meterRegistry
+    ) {
+        this.suggestRepository = suggestRepository;
+        this.minQueryLength = minQueryLength;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "items.suggest");
+    }
+
+    /**
+     * Best matching item titles and flavor names; queries shorter than the minimum length return nothing,
+     * since one or two characters match too much to be useful and cannot use the trigram index
+     */
+    public List<Suggestion> suggest(String query, String lang, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        String normalized = normalize(query);
+        if (normalized.length() < minQueryLength) {
+            return List.of();
+        }
+        if (normalized.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("Query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        String language = lang == null ? null : lang.toLowerCase(Locale.ROOT);
+        return cache.get(new CacheKey(language, normalized, limit),
+                key -> List.copyOf(suggestRepository.suggest(key.lang(), key.query(), key.limit())));
+    }
+
+    /**
+     * Trigram matching ignores case and extra whitespace, so "Glenf " and "glenf" share one cache entry
+     */
+    static String normalize(String query) {
+        return query == null ? "" : query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private record CacheKey(String lang, String query, int limit) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.org.wmm.media.controller;
+
+import com.org.wmm.common.dto.BaseResponse;
+import com.org.wmm.media.dto.UploadedImage;
+import com.org.wmm.media.service.MediaUploadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/admin/items/{itemId}/images")
+@RequiredArgsConstructor
+@Tag(name = "Admin media", description = "Item image uploads")
+public class AdminItemImageController {
+
+    private final MediaUploadService mediaUploadService;
+
+    @Operation(summary = "Upload an item image", description = "Send the raw image bytes as the request body "
+            + "(not multipart), with the image content type or application/octet-stream. The body is streamed "
+            + "to storage; identical content is stored once. Width and height are read from the image header.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(
+                    mediaType = MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                    schema = @Schema(type = "string", format = "binary"))))
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Image stored"),
+            @ApiResponse(responseCode = "400", description = "Empty, too large or not a JPEG, PNG, GIF or WebP image"),
+            @ApiResponse(responseCode = "404", description = "Item not found")
+    })
+    @PostMapping(consumes = {"image/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<BaseResponse<UploadedImage>> upload(
+            @PathVariable long itemId,
+            @Parameter(description = "Original file name") @RequestParam(required = false) String fileName,
+            @RequestParam(defaultValue = "false") boolean primary,
+            @RequestParam(defaultValue = "0") int displayOrder,
+            HttpServletRequest request
+    ) throws IOException {
+        UploadedImage image = mediaUploadService.uploadItemImage(itemId, request.getInputStream(),
+                request.getContentLengthLong(), fileName, primary, displayOrder);
+        String message = image.isDeduplicated() ? "Image stored, existing file reused" : "Image stored";
+        return ResponseEntity.status(HttpStatus.CREATED).body(BaseResponse.success(image, message));
+    }
+}
@@ -0,0 +1,176 @@
+package com.org.wmm.media.controller;
+
+import com.org.wmm.media.service.MediaFile;
+import com.org.wmm.media.service.MediaFileService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Serves locally stored media under {@code /media}, the prefix of {@code media.storage.base-url}.
+ * <p>
+ * Files are content-addressed, so responses are cacheable forever ({@code immutable}) and the ETag is the
+ * hash. Small files come from an in-memory cache; larger ones are handed to Tomcat's sendfile support, so
+ * the bytes go from the page cache to the socket without passing through the heap and the servlet thread
+ * is released before they are sent. Without sendfile (other containers, TLS without it), the file channel
+ * is transferred to the response channel. A single byte range is honoured; multiple ranges get the whole
+ * file.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/media")
+@ConditionalOnProperty(name = "media.storage.type", havingValue = "local", matchIfMissing = true)
+@Tag(name = "Media", description = "Stored images")
+public class MediaController {
+
+    static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final MediaFileService mediaFileService;
+    private final String cacheControl;
+
+    public MediaController(MediaFileService mediaFileService,
+                           @Value("${media.serve.max-age:31536000}") long maxAgeSeconds) {
+        this.mediaFileService = mediaFileService;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+                .cachePublic()
+                .immutable()
+                .getHeaderValue();
+    }
+
+    @Operation(summary = "Stored image", description = "Image file by its storage path. Supports Range, "
+            + "If-Range, If-None-Match and If-Modified-Since; responses are immutable.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Image"),
+            @ApiResponse(responseCode = "206", description = "Requested byte range"),
+            @ApiResponse(responseCode = "304", description = "Not modified"),
+            @ApiResponse(responseCode = "404", description = "No such file"),
+            @ApiResponse(responseCode = "416", description = "Range not satisfiable")
+    })
+    @SecurityRequirement(name = "")
+    @GetMapping("/{shard}/{subShard}/{fileName}")
+    public void serve(
+            @PathVariable String shard,
+            @PathVariable String subShard,
+            @PathVariable String fileName,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        MediaFile file = mediaFileService.find(shard + "/" + subShard + "/" + fileName);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        // Sets ETag and Last-Modified, and the 304 status when the client's copy is current
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        if (webRequest.checkNotModified(file.etag(), file.lastModified().toEpochMilli())) {
+            return;
+        }
+        response.setContentType(file.contentType().toString());
+
+        long start = 0;
+        long end = file.size() - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request, file)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(file.size());
+                    end = ranges.get(0).getRangeEnd(file.size());
+                    if (start >= file.size()) {
+                        throw new IllegalArgumentException("Range starts after the end of the file");
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.size());
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (ranges.size() == 1) {
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + file.size());
+            }
+        }
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        byte[] cached = mediaFileService.cachedContent(file);
+        if (cached != null) {
+            response.getOutputStream().write(cached, (int) start, (int) length);
+        } else if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+        } else {
+            transfer(file, start, length, response);
+        }
+    }
+
+    /**
+     * A Range with an If-Range that names another version is ignored and the whole file is sent
+     */
+    private boolean ifRangeMatches(HttpServletRequest request, MediaFile file) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null || ifRange.equals(file.etag())) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return false;
+        }
+        try {
+            return file.lastModified().toEpochMilli() / 1000 <= request.getDateHeader(HttpHeaders.IF_RANGE) / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void transfer(MediaFile file, long start, long length, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.file(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.org.wmm.media.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Image stored for an item")
+public class UploadedImage {
+
+    private Long id;
+
+    private Long itemId;
+
+    @Schema(description = "Path relative to the media root; the file name is the SHA-256 of the content",
+            example = "3f/a2/3fa2...c9.jpg")
+    private String filePath;
+
+    @Schema(description = "Public URL of the file")
+    private String url;
+
+    @Schema(description = "Original file name", example = "laphroaig-10.jpg")
+    private String fileName;
+
+    private long fileSizeBytes;
+
+    @Schema(example = "image/jpeg")
+    private String mimeType;
+
+    private Integer width;
+
+    private Integer height;
+
+    @Schema(description = "Hex SHA-256 of the content")
+    private String sha256;
+
+    private boolean primary;
+
+    @Schema(description = "The same content had been uploaded before and its file was reused")
+    private boolean deduplicated;
+}
@@ -0,0 +1,85 @@
+package com.org.wmm.media.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * JDBC access to {@code images} rows written by uploads
+ */
+@Repository
+@RequiredArgsConstructor
+public class ImageRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public boolean itemExists(long itemId) {
+        Boolean exists = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM items WHERE id = :itemId)",
+                new MapSqlParameterSource("itemId", itemId), Boolean.class);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    /**
+     * The item's image with this file, if the same content was uploaded for it before
+     */
+    public Optional<ImageRow> findByItemAndPath(long itemId, String filePath) {
+        return jdbcTemplate.query("""
+                        SELECT id, item_id, file_path, file_name, file_size_bytes, mime_type, width, height, is_primary
+                        FROM images WHERE item_id = :itemId AND file_path = :filePath
+                        ORDER BY id LIMIT 1
+                        """,
+                new MapSqlParameterSource().addValue("itemId", itemId).addValue("filePath", filePath),
+                (rs, rowNum) -> new ImageRow(
+                        rs.getLong("id"),
+                        rs.getLong("item_id"),
+                        rs.getString("file_path"),
+                        rs.getString("file_name"),
+                        rs.getLong("file_size_bytes"),
+                        rs.getString("mime_type"),
+                        rs.getObject("width", Integer.class),
+                        rs.getObject("height", Integer.class),
+                        rs.getBoolean("is_primary")))
+                .stream().findFirst();
+    }
+
+    /**
+     * Only one image per item may be primary ({@code idx_images_item_primary})
+     */
+    public void clearPrimary(long itemId) {
+        jdbcTemplate.update("UPDATE images SET is_primary = FALSE, updated_at = CURRENT_TIMESTAMP "
+                + "WHERE item_id = :itemId AND is_primary", new MapSqlParameterSource("itemId", itemId));
+    }
+
+    public ImageRow insert(ImageRow image, int displayOrder) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update("""
+                        INSERT INTO images (item_id, file_path, file_name, file_size_bytes, mime_type, width, height,
+                                            is_primary, display_order)
+                        VALUES (:itemId, :filePath, :fileName, :fileSizeBytes, :mimeType, :width, :height,
+                                :primary, :displayOrder)
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("itemId", image.itemId())
+                        .addValue("filePath", image.filePath())
+                        .addValue("fileName", image.fileName())
+                        .addValue("fileSizeBytes", image.fileSizeBytes())
+                        .addValue("mimeType", image.mimeType())
+                        .addValue("width", image.width())
+                        .addValue("height", image.height())
+                        .addValue("primary", image.primary())
+                        .addValue("displayOrder", displayOrder),
+                keys, new String[]{"id"});
+        Number id = keys.getKey();
+        return new ImageRow(id == null ? null : id.longValue(), image.itemId(), image.filePath(), image.fileName(),
+                image.fileSizeBytes(), image.mimeType(), image.width(), image.height(), image.primary());
+    }
+
+    public record ImageRow(Long id, long itemId, String filePath, String fileName, long fileSizeBytes,
+                           String mimeType, Integer width, Integer height, boolean primary) {
+    }
+}
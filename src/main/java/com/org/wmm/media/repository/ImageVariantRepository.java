@@ -0,0 +1,135 @@
+package com.org.wmm.media.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * JDBC access to {@code image_variant_jobs} and {@code image_variants}. Jobs are queued by a trigger on
+ * {@code images}; see {@code V10__image_variants.sql} for the lease semantics of {@code run_after}.
+ * <p>
+ * A claim is identified by the {@code attempts} and {@code run_after} it set. Results of a claim that is no
+ * longer current are discarded: the lease expired and another worker took the job, or the image file was
+ * replaced, which deletes the variants and queues the job again.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ImageVariantRepository {
+
+    // Rows locked by another worker's claim are skipped instead of waited for
+    private static final String CLAIM_SQL = """
+            UPDATE image_variant_jobs j
+            SET attempts = j.attempts + 1,
+                run_after = CURRENT_TIMESTAMP + make_interval(secs => :leaseSeconds)
+            FROM (
+                SELECT id FROM image_variant_jobs
+                WHERE failed_at IS NULL AND run_after <= CURRENT_TIMESTAMP
+                ORDER BY run_after, id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            ) due, images img
+            WHERE j.id = due.id AND img.id = j.image_id
+            RETURNING j.id, j.image_id, j.attempts, j.run_after, img.file_path
+            """;
+    // Waits for a file replacement in flight and keeps one from starting until the variants are committed
+    private static final String LOCK_SOURCE_SQL =
+            "SELECT id FROM images WHERE id = :imageId AND file_path = :filePath FOR SHARE";
+    private static final String CLAIM_CONDITION = "id = :id AND attempts = :attempts AND run_after = :leaseUntil";
+
+    private static final String INSERT_VARIANT_SQL = """
+            INSERT INTO image_variants (image_id, width, height, file_path, file_size_bytes, mime_type)
+            VALUES (:imageId, :width, :height, :filePath, :fileSizeBytes, :mimeType)
+            ON CONFLICT (image_id, width) DO NOTHING
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Claim up to {@code limit} due jobs for {@code lease}; they are not handed out again before it expires
+     */
+    public List<VariantJob> claim(int limit, Duration lease) {
+        return jdbcTemplate.query(CLAIM_SQL,
+                new MapSqlParameterSource()
+                        .addValue("limit", limit)
+                        .addValue("leaseSeconds", lease.toSeconds()),
+                (rs, rowNum) -> new VariantJob(
+                        rs.getLong("id"),
+                        rs.getLong("image_id"),
+                        rs.getString("file_path"),
+                        rs.getInt("attempts"),
+                        rs.getObject("run_after", OffsetDateTime.class)));
+    }
+
+    /**
+     * Record the variants of the job's image and remove the job; call in one transaction
+     *
+     * @return false, writing nothing, if the claim is no longer current or the image file has been replaced
+     */
+    public boolean complete(VariantJob job, List<VariantRow> variants) {
+        boolean sourceCurrent = !jdbcTemplate.queryForList(LOCK_SOURCE_SQL, new MapSqlParameterSource()
+                .addValue("imageId", job.imageId())
+                .addValue("filePath", job.filePath()), Long.class).isEmpty();
+        if (!sourceCurrent || jdbcTemplate.update("DELETE FROM image_variant_jobs WHERE " + CLAIM_CONDITION,
+                claim(job)) == 0) {
+            return false;
+        }
+        if (!variants.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_VARIANT_SQL, variants.stream()
+                    .map(variant -> (SqlParameterSource) new MapSqlParameterSource()
+                            .addValue("imageId", job.imageId())
+                            .addValue("width", variant.width())
+                            .addValue("height", variant.height())
+                            .addValue("filePath", variant.filePath())
+                            .addValue("fileSizeBytes", variant.fileSizeBytes())
+                            .addValue("mimeType", variant.mimeType()))
+                    .toArray(SqlParameterSource[]::new));
+        }
+        return true;
+    }
+
+    /**
+     * Make the job due again after {@code delay}, unless the claim is no longer current
+     */
+    public boolean retry(VariantJob job, Duration delay, String error) {
+        return jdbcTemplate.update("""
+                        UPDATE image_variant_jobs
+                        SET run_after = CURRENT_TIMESTAMP + make_interval(secs => :delaySeconds), last_error = :error
+                        WHERE """ + CLAIM_CONDITION,
+                claim(job)
+                        .addValue("delaySeconds", delay.toSeconds())
+                        .addValue("error", error)) > 0;
+    }
+
+    /**
+     * Stop retrying the job, unless the claim is no longer current; it stays in the table for inspection
+     */
+    public boolean fail(VariantJob job, String error) {
+        return jdbcTemplate.update("""
+                        UPDATE image_variant_jobs SET failed_at = CURRENT_TIMESTAMP, last_error = :error
+                        WHERE """ + CLAIM_CONDITION,
+                claim(job).addValue("error", error)) > 0;
+    }
+
+    private static MapSqlParameterSource claim(VariantJob job) {
+        return new MapSqlParameterSource()
+                .addValue("id", job.id())
+                .addValue("attempts", job.attempts())
+                .addValue("leaseUntil", job.leaseUntil());
+    }
+
+    /**
+     * @param attempts   number of times the job has been claimed, including this one
+     * @param leaseUntil end of this claim's lease; with {@code attempts} it identifies the claim
+     */
+    public record VariantJob(long id, long imageId, String filePath, int attempts, OffsetDateTime leaseUntil) {
+    }
+
+    public record VariantRow(int width, int height, String filePath, long fileSizeBytes, String mimeType) {
+    }
+}
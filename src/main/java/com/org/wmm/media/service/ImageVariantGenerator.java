@@ -0,0 +1,140 @@
+package com.org.wmm.media.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Downscales an image to the configured widths ({@code media.variants.widths}), never upscaling.
+ * Opaque images become JPEG, images with transparency PNG.
+ * <p>
+ * Large originals are subsampled while decoding, down to twice the largest target width, so a 6000px
+ * photo does not have to be fully decoded into memory. The widths are then produced from the largest
+ * down, each by repeated halving from the previous one, which keeps bilinear scaling sharp.
+ */
+@Component
+public class ImageVariantGenerator {
+
+    private final int[] widths;
+    private final float jpegQuality;
+
+    public ImageVariantGenerator(
+            @Value("${media.variants.widths:160,480,1200}") int[] widths,
+            @Value("${media.variants.jpeg-quality:0.82}") float jpegQuality
+    ) {
+        this.widths = Arrays.stream(widths).filter(width -> width > 0).distinct().sorted().toArray();
+        this.jpegQuality = jpegQuality;
+    }
+
+    /**
+     * Variants narrower than the image, widest first; empty if the image is not wider than any target
+     *
+     * @throws IllegalArgumentException if the image cannot be decoded (no reader for its format)
+     */
+    public List<GeneratedVariant> generate(InputStream original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("No image decoder for this format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int originalWidth = reader.getWidth(0);
+                int originalHeight = reader.getHeight(0);
+                int[] targets = Arrays.stream(widths).filter(width -> width < originalWidth).toArray();
+                if (targets.length == 0) {
+                    return List.of();
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, originalWidth / (2 * targets[targets.length - 1]));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage image = reader.read(0, param);
+
+                boolean alpha = image.getColorModel().hasAlpha();
+                List<GeneratedVariant> variants = new ArrayList<>(targets.length);
+                for (int i = targets.length - 1; i >= 0; i--) {
+                    int width = targets[i];
+                    int height = Math.max(1, Math.round((float) originalHeight * width / originalWidth));
+                    image = scale(image, width, height, alpha);
+                    variants.add(alpha
+                            ? new GeneratedVariant(width, height, "image/png", encodePng(image))
+                            : new GeneratedVariant(width, height, "image/jpeg", encodeJpeg(image)));
+                }
+                return variants;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage image, int width, int height, boolean alpha) {
+        BufferedImage current = image;
+        while (true) {
+            int stepWidth = Math.max(width, current.getWidth() / 2);
+            int stepHeight = Math.max(height, current.getHeight() / 2);
+            current = draw(current, stepWidth, stepHeight, alpha);
+            if (stepWidth == width && stepHeight == height) {
+                return current;
+            }
+        }
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, boolean alpha) {
+        BufferedImage target = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    public record GeneratedVariant(int width, int height, String mimeType, byte[] content) {
+    }
+}
@@ -0,0 +1,223 @@
+package com.org.wmm.media.service;
+
+import com.org.wmm.common.error.BadRequestException;
+import com.org.wmm.media.repository.ImageVariantRepository;
+import com.org.wmm.media.repository.ImageVariantRepository.VariantJob;
+import com.org.wmm.media.repository.ImageVariantRepository.VariantRow;
+import com.org.wmm.media.service.ImageVariantGenerator.GeneratedVariant;
+import com.org.wmm.media.storage.MediaStorage;
+import com.org.wmm.media.storage.StoredMedia;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates image variants for the jobs in {@code image_variant_jobs} on a fixed pool of one thread per
+ * core (decoding and scaling are CPU-bound).
+ * <p>
+ * Backpressure: the poller only claims as many jobs as there are free threads and queue slots, so the
+ * pool never rejects work and unclaimed jobs simply wait in the database, where other replicas may take
+ * them. A job claimed here is leased; if the node stops before finishing it, the job becomes due again
+ * when the lease expires. Failures are retried with exponential backoff up to {@code max-attempts}. Results
+ * are only recorded while the claim is current (see {@link ImageVariantRepository}).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "media.variants.enabled", havingValue = "true", matchIfMissing = true)
+public class ImageVariantWorker {
+
+    private final ImageVariantRepository variantRepository;
+    private final ImageVariantGenerator generator;
+    private final MediaStorage storage;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final int capacity;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer jobTimer;
+    private final Counter generatedCounter;
+    private final Counter failedCounter;
+
+    public ImageVariantWorker(
+            ImageVariantRepository variantRepository,
+            ImageVariantGenerator generator,
+            MediaStorage storage,
+            PlatformTransactionManager transactionManager,
+            @Value("${media.variants.threads:0}") int threads,
+            @Value("${media.variants.queue-capacity:16}") int queueCapacity,
+            @Value("${media.variants.lease:300000}") long leaseMs,
+            @Value("${media.variants.max-attempts:5}") int maxAttempts,
+            @Value("${media.variants.retry-delay:30000}") long retryDelayMs,
+            MeterRegistry meterRegistry
+    ) {
+        this.variantRepository = variantRepository;
+        this.generator = generator;
+        this.storage = storage;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                new VariantThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.capacity = poolSize + Math.max(1, queueCapacity);
+        this.lease = Duration.ofMillis(leaseMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelay = Duration.ofMillis(retryDelayMs);
+
+        Gauge.builder("media.variants.in_flight", inFlight, AtomicInteger::get)
+                .description("Claimed variant jobs queued or running on this node")
+                .register(meterRegistry);
+        this.jobTimer = Timer.builder("media.variants.job")
+                .description("Time to generate and store the variants of one image")
+                .register(meterRegistry);
+        this.generatedCounter = Counter.builder("media.variants.generated")
+                .description("Image variants written")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("media.variants.failed")
+                .description("Variant jobs that gave up")
+                .register(meterRegistry);
+
+        log.info("Image variant worker started with {} threads, queue capacity {}", poolSize, queueCapacity);
+    }
+
+    @Scheduled(fixedDelayString = "${media.variants.poll-interval:2000}")
+    public void scheduledPoll() {
+        try {
+            poll();
+        } catch (DataAccessException e) {
+            log.warn("Could not claim image variant jobs: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Claim as many due jobs as this node has room for and hand them to the pool
+     *
+     * @return number of jobs claimed
+     */
+    public int poll() {
+        int free = capacity - inFlight.get();
+        if (free <= 0 || executor.isShutdown()) {
+            return 0;
+        }
+        List<VariantJob> jobs = variantRepository.claim(free, lease);
+        for (VariantJob job : jobs) {
+            inFlight.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    jobTimer.record(() -> process(job));
+                } catch (DataAccessException e) {
+                    // The lease expires and the job is claimed again
+                    log.warn("Could not record result of variant job {}: {}", job.id(), e.getMessage());
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+        return jobs.size();
+    }
+
+    void process(VariantJob job) {
+        try {
+            List<GeneratedVariant> generated;
+            try (InputStream original = storage.open(job.filePath())) {
+                generated = generator.generate(original);
+            }
+            List<VariantRow> variants = new ArrayList<>(generated.size());
+            for (GeneratedVariant variant : generated) {
+                StoredMedia stored = storage.store(new ByteArrayInputStream(variant.content()), Long.MAX_VALUE);
+                variants.add(new VariantRow(variant.width(), variant.height(), stored.path(), stored.sizeBytes(),
+                        variant.mimeType()));
+            }
+            if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> variantRepository.complete(job, variants)))) {
+                // Stored files are content-addressed and may be shared, so they are left in place
+                log.info("Discarding variants of image {}: its file was replaced or the job was claimed again",
+                        job.imageId());
+                return;
+            }
+            generatedCounter.increment(variants.size());
+            log.debug("Generated {} variants of image {}", variants.size(), job.imageId());
+        } catch (IllegalArgumentException | BadRequestException e) {
+            // The original cannot be decoded (e.g. WebP, which ImageIO has no reader for); retrying will not help
+            giveUp(job, e);
+        } catch (IOException | RuntimeException e) {
+            if (job.attempts() >= maxAttempts) {
+                giveUp(job, e);
+                return;
+            }
+            Duration delay = retryDelay.multipliedBy(1L << Math.min(job.attempts() - 1, 10));
+            log.warn("Variants of image {} failed (attempt {}), retrying in {}s: {}",
+                    job.imageId(), job.attempts(), delay.toSeconds(), e.getMessage());
+            if (!variantRepository.retry(job, delay, describe(e))) {
+                log.debug("Not retrying variant job {}: claimed again or queued anew", job.id());
+            }
+        }
+    }
+
+    private void giveUp(VariantJob job, Exception e) {
+        if (!variantRepository.fail(job, describe(e))) {
+            log.debug("Not failing variant job {}: claimed again or queued anew", job.id());
+            return;
+        }
+        failedCounter.increment();
+        log.error("Giving up on variants of image {} after {} attempts: {}", job.imageId(), job.attempts(),
+                e.getMessage());
+    }
+
+    private static String describe(Exception e) {
+        return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    /**
+     * Jobs still queued or running are abandoned; their leases expire and they are claimed again later
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class VariantThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "image-variant-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.org.wmm.media.service;
+
+import org.springframework.http.MediaType;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * A stored file about to be served
+ *
+ * @param etag strong ETag, the content hash in the file name
+ */
+public record MediaFile(String path, Path file, long size, Instant lastModified, String etag, MediaType contentType) {
+}
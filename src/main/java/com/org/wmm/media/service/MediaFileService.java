@@ -0,0 +1,93 @@
+package com.org.wmm.media.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.org.wmm.media.storage.LocalMediaStorage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Looks up locally stored media for serving and keeps the content of small files (thumbnails) in memory.
+ * <p>
+ * Stored files are named by their content hash and never change, so cached bytes never go stale and the
+ * hash doubles as a strong ETag. The cache is bounded by total bytes ({@code media.serve.cache.max-bytes});
+ * files above {@code media.serve.cache.max-file-size} are always sent from disk.
+ */
+@Service
+@ConditionalOnProperty(name = "media.storage.type", havingValue = "local", matchIfMissing = true)
+public class MediaFileService {
+
+    private final LocalMediaStorage storage;
+    private final long maxCachedFileSize;
+    private final Cache<String, byte[]> smallFiles;
+
+    public MediaFileService(
+            LocalMediaStorage storage,
+            @Value("${media.serve.cache.max-file-size:65536}") long maxCachedFileSize,
+            @Value("${media.serve.cache.max-bytes:33554432}") long maxCachedBytes,
+            MeterRegistry meterRegistry
+    ) {
+        this.storage = storage;
+        this.maxCachedFileSize = maxCachedFileSize;
+        this.smallFiles = Caffeine.newBuilder()
+                .maximumWeight(maxCachedBytes)
+                .weigher((String path, byte[] content) -> content.length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, smallFiles, "media.small_files");
+    }
+
+    /**
+     * The stored file at this path, or null if there is none
+     */
+    public MediaFile find(String path) {
+        Path file = storage.resolve(path);
+        if (file == null) {
+            return null;
+        }
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read attributes of " + path, e);
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+        String fileName = file.getFileName().toString();
+        String hash = fileName.substring(0, fileName.lastIndexOf('.'));
+        MediaType contentType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        return new MediaFile(path, file, attributes.size(), attributes.lastModifiedTime().toInstant(),
+                "\"" + hash + "\"", contentType);
+    }
+
+    /**
+     * Content of a small file from memory (read on first use), or null if the file is too large to cache
+     */
+    public byte[] cachedContent(MediaFile file) {
+        if (file.size() > maxCachedFileSize) {
+            return null;
+        }
+        return smallFiles.get(file.path(), path -> {
+            try {
+                return Files.readAllBytes(file.file());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + path, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,134 @@
+package com.org.wmm.media.service;
+
+import com.org.wmm.common.error.BadRequestException;
+import com.org.wmm.common.error.ResourceNotFoundException;
+import com.org.wmm.media.dto.UploadedImage;
+import com.org.wmm.media.repository.ImageRepository;
+import com.org.wmm.media.repository.ImageRepository.ImageRow;
+import com.org.wmm.media.storage.MediaStorage;
+import com.org.wmm.media.storage.StoredMedia;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Item image uploads: the body is streamed into {@link MediaStorage} before any transaction is opened, so
+ * slow clients never hold a database connection; only the {@code images} row is written transactionally.
+ * Files are shared by content, so a failed insert leaves at most an unreferenced file behind.
+ */
+@Slf4j
+@Service
+public class MediaUploadService {
+
+    private static final int MAX_FILE_NAME_LENGTH = 255;
+
+    private final MediaStorage storage;
+    private final ImageRepository imageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxBytes;
+    private final String baseUrl;
+    private final Counter deduplicatedCounter;
+    private final DistributionSummary sizeSummary;
+
+    public MediaUploadService(
+            MediaStorage storage,
+            ImageRepository imageRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${media.upload.max-size:10485760}") long maxBytes,
+            @Value("${media.storage.base-url:http://localhost:8080/media}") String baseUrl,
+            MeterRegistry meterRegistry
+    ) {
+        this.storage = storage;
+        this.imageRepository = imageRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBytes = maxBytes;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.deduplicatedCounter = Counter.builder("media.uploads.deduplicated")
+                .description("Uploads whose content was already stored")
+                .register(meterRegistry);
+        this.sizeSummary = DistributionSummary.builder("media.uploads.size")
+                .description("Size of uploaded images")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Store an image for the item and add it to the item's images
+     *
+     * @param contentLength declared body length, or -1 if unknown
+     * @throws ResourceNotFoundException if the item does not exist
+     * @throws BadRequestException       if the body is empty, too large or not a supported image
+     */
+    public UploadedImage uploadItemImage(long itemId, InputStream content, long contentLength, String fileName,
+                                         boolean primary, int displayOrder) {
+        if (contentLength > maxBytes) {
+            throw new BadRequestException("File is larger than " + maxBytes + " bytes");
+        }
+        if (!imageRepository.itemExists(itemId)) {
+            throw new ResourceNotFoundException("Item", "id", itemId);
+        }
+
+        StoredMedia stored;
+        try {
+            stored = storage.store(content, maxBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store upload for item " + itemId, e);
+        }
+        sizeSummary.record(stored.sizeBytes());
+        if (stored.existing()) {
+            deduplicatedCounter.increment();
+        }
+
+        ImageRow row = transactionTemplate.execute(status -> {
+            ImageRow existing = imageRepository.findByItemAndPath(itemId, stored.path()).orElse(null);
+            if (existing != null) {
+                return existing;
+            }
+            if (primary) {
+                imageRepository.clearPrimary(itemId);
+            }
+            return imageRepository.insert(new ImageRow(null, itemId, stored.path(), cleanFileName(fileName),
+                    stored.sizeBytes(), stored.header().mimeType(), stored.header().width(),
+                    stored.header().height(), primary), displayOrder);
+        });
+        log.info("Stored image {} for item {} ({} bytes{})", stored.path(), itemId, stored.sizeBytes(),
+                stored.existing() ? ", deduplicated" : "");
+
+        return UploadedImage.builder()
+                .id(row.id())
+                .itemId(itemId)
+                .filePath(row.filePath())
+                .url(baseUrl + "/" + row.filePath())
+                .fileName(row.fileName())
+                .fileSizeBytes(row.fileSizeBytes())
+                .mimeType(row.mimeType())
+                .width(row.width())
+                .height(row.height())
+                .sha256(stored.sha256())
+                .primary(row.primary())
+                .deduplicated(stored.existing())
+                .build();
+    }
+
+    /**
+     * Base name of the uploaded file without directories or control characters
+     */
+    static String cleanFileName(String fileName) {
+        String name = fileName == null ? null : StringUtils.getFilename(fileName.replace('\\', '/'));
+        name = name == null ? "" : name.replaceAll("\\p{Cntrl}", "").strip();
+        if (name.isEmpty()) {
+            return "upload";
+        }
+        return name.length() > MAX_FILE_NAME_LENGTH ? name.substring(name.length() - MAX_FILE_NAME_LENGTH) : name;
+    }
+}
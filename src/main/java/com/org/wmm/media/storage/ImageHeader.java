@@ -0,0 +1,157 @@
+package com.org.wmm.media.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Format and pixel size of an image, read from its header only (a few dozen bytes; for JPEG, the segment
+ * headers up to the first frame header). The image data is never decoded.
+ */
+public record ImageHeader(String mimeType, String extension, int width, int height) {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int JPEG_MAX_SEGMENTS = 1000;
+
+    /**
+     * Header of the image in the channel, or null if it is not a JPEG, PNG, GIF or WebP image
+     */
+    public static ImageHeader read(SeekableByteChannel channel) throws IOException {
+        ByteBuffer start = readAt(channel, 0, 30);
+        if (start.remaining() < 12) {
+            return null;
+        }
+        if (startsWith(start, PNG_SIGNATURE)) {
+            return png(start);
+        }
+        if (start.get(0) == 'G' && start.get(1) == 'I' && start.get(2) == 'F') {
+            return gif(start);
+        }
+        if ((start.get(0) & 0xFF) == 0xFF && (start.get(1) & 0xFF) == 0xD8) {
+            return jpeg(channel);
+        }
+        if (startsWith(start, "RIFF".getBytes(StandardCharsets.US_ASCII)) && start.getInt(8) == fourCc("WEBP")) {
+            return webp(start);
+        }
+        return null;
+    }
+
+    private static ImageHeader png(ByteBuffer start) {
+        // IHDR is always the first chunk: length(4) type(4) width(4) height(4)
+        if (start.remaining() < 24 || start.getInt(12) != fourCc("IHDR")) {
+            return null;
+        }
+        return valid("image/png", "png", start.getInt(16), start.getInt(20));
+    }
+
+    private static ImageHeader gif(ByteBuffer start) {
+        start.order(ByteOrder.LITTLE_ENDIAN);
+        return valid("image/gif", "gif", start.getShort(6) & 0xFFFF, start.getShort(8) & 0xFFFF);
+    }
+
+    private static ImageHeader webp(ByteBuffer start) {
+        if (start.remaining() < 30) {
+            return null;
+        }
+        int chunk = start.getInt(12);
+        start.order(ByteOrder.LITTLE_ENDIAN);
+        if (chunk == fourCc("VP8 ")) {
+            // Lossy: frame tag(3) start code(3) then 14-bit width and height
+            return valid("image/webp", "webp", start.getShort(26) & 0x3FFF, start.getShort(28) & 0x3FFF);
+        }
+        if (chunk == fourCc("VP8L")) {
+            // Lossless: signature byte, then 14 bits width-1 and 14 bits height-1
+            int bits = start.getInt(21);
+            return valid("image/webp", "webp", (bits & 0x3FFF) + 1, ((bits >>> 14) & 0x3FFF) + 1);
+        }
+        if (chunk == fourCc("VP8X")) {
+            // Extended: flags(4) then 24-bit canvas width-1 and height-1
+            return valid("image/webp", "webp", uint24(start, 24) + 1, uint24(start, 27) + 1);
+        }
+        return null;
+    }
+
+    /**
+     * Walks the marker segments, skipping each by its length, until a start-of-frame header
+     */
+    private static ImageHeader jpeg(SeekableByteChannel channel) throws IOException {
+        long position = 2;
+        for (int segment = 0; segment < JPEG_MAX_SEGMENTS; segment++) {
+            ByteBuffer marker = readAt(channel, position, 2);
+            if (marker.remaining() < 2 || (marker.get(0) & 0xFF) != 0xFF) {
+                return null;
+            }
+            int type = marker.get(1) & 0xFF;
+            if (type == 0xFF) {
+                // Fill byte
+                position++;
+                continue;
+            }
+            if (type == 0xD8 || type == 0x01 || (type >= 0xD0 && type <= 0xD7)) {
+                // Markers without a length
+                position += 2;
+                continue;
+            }
+            if (type == 0xD9 || type == 0xDA) {
+                // End of image or start of scan before any frame header
+                return null;
+            }
+            ByteBuffer header = readAt(channel, position + 2, 7);
+            if (header.remaining() < 2) {
+                return null;
+            }
+            int length = header.getShort(0) & 0xFFFF;
+            if (isStartOfFrame(type)) {
+                if (header.remaining() < 7) {
+                    return null;
+                }
+                return valid("image/jpeg", "jpg", header.getShort(5) & 0xFFFF, header.getShort(3) & 0xFFFF);
+            }
+            if (length < 2) {
+                return null;
+            }
+            position += 2 + length;
+        }
+        return null;
+    }
+
+    private static boolean isStartOfFrame(int type) {
+        // C4 (huffman tables), C8 (reserved) and CC (arithmetic coding) share the range but are not frames
+        return type >= 0xC0 && type <= 0xCF && type != 0xC4 && type != 0xC8 && type != 0xCC;
+    }
+
+    private static ImageHeader valid(String mimeType, String extension, int width, int height) {
+        return width > 0 && height > 0 ? new ImageHeader(mimeType, extension, width, height) : null;
+    }
+
+    private static ByteBuffer readAt(SeekableByteChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        channel.position(position);
+        while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+            // keep reading until full or end of file
+        }
+        return buffer.flip();
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, byte[] prefix) {
+        if (buffer.remaining() < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int fourCc(String code) {
+        return (code.charAt(0) << 24) | (code.charAt(1) << 16) | (code.charAt(2) << 8) | code.charAt(3);
+    }
+
+    private static int uint24(ByteBuffer buffer, int index) {
+        return (buffer.get(index) & 0xFF) | (buffer.get(index + 1) & 0xFF) << 8 | (buffer.get(index + 2) & 0xFF) << 16;
+    }
+}
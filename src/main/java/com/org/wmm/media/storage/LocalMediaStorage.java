@@ -0,0 +1,145 @@
+package com.org.wmm.media.storage;
+
+import com.org.wmm.common.error.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Stores media under {@code media.storage.local.base-path} as {@code ab/cd/<sha256>.<ext>}.
+ * <p>
+ * Uploads are copied from the request stream to a temporary file through one fixed-size buffer, which also
+ * feeds the SHA-256 digest, so each upload needs the same small amount of memory whatever its size. The
+ * image header is then read from the file and the file is moved to its content-addressed name; if that
+ * name exists, the upload is a duplicate and the temporary file is dropped.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "media.storage.type", havingValue = "local", matchIfMissing = true)
+public class LocalMediaStorage implements MediaStorage {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+    private static final String TEMP_DIRECTORY = ".incoming";
+    private static final Pattern STORED_PATH =
+            Pattern.compile("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.(jpg|png|gif|webp)");
+
+    private final Path basePath;
+    private final Path tempPath;
+
+    public LocalMediaStorage(@Value("${media.storage.local.base-path:./uploads}") String basePath) throws IOException {
+        this.basePath = Path.of(basePath).toAbsolutePath().normalize();
+        this.tempPath = this.basePath.resolve(TEMP_DIRECTORY);
+        Files.createDirectories(tempPath);
+        log.info("Local media storage at {}", this.basePath);
+    }
+
+    @Override
+    public StoredMedia store(InputStream content, long maxBytes) throws IOException {
+        Path temp = tempPath.resolve(UUID.randomUUID() + ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = copy(content, temp, digest, maxBytes);
+            ImageHeader header;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ)) {
+                header = ImageHeader.read(channel);
+            }
+            if (header == null) {
+                throw new BadRequestException("Unsupported image format, expected JPEG, PNG, GIF or WebP");
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            String path = sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/"
+                    + sha256 + "." + header.extension();
+            boolean existing = !moveIfAbsent(temp, basePath.resolve(path));
+            return new StoredMedia(path, sha256, size, header, existing);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream open(String path) throws IOException {
+        Path file = resolve(path);
+        if (file == null) {
+            throw new NoSuchFileException(path);
+        }
+        return Files.newInputStream(file);
+    }
+
+    /**
+     * Location of a stored file, or null if the path is not one this storage writes (so requests can never
+     * reach other files under the base path, or outside it)
+     */
+    public Path resolve(String path) {
+        if (path == null || !STORED_PATH.matcher(path).matches()) {
+            return null;
+        }
+        return basePath.resolve(path);
+    }
+
+    private long copy(InputStream content, Path target, MessageDigest digest, long maxBytes) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+        long size = 0;
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                size += read;
+                if (size > maxBytes) {
+                    throw new BadRequestException("File is larger than " + maxBytes + " bytes");
+                }
+                digest.update(buffer, 0, read);
+                wrapped.clear().limit(read);
+                while (wrapped.hasRemaining()) {
+                    channel.write(wrapped);
+                }
+            }
+        }
+        if (size == 0) {
+            throw new BadRequestException("File is empty");
+        }
+        return size;
+    }
+
+    /**
+     * @return false if a file with this name (and therefore this content) already exists
+     */
+    private boolean moveIfAbsent(Path source, Path target) throws IOException {
+        if (Files.exists(target)) {
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // A concurrent upload of the same content may win the race; the bytes are identical either way
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.org.wmm.media.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Content-addressed storage for uploaded images
+ */
+public interface MediaStorage {
+
+    /**
+     * Stream the content into storage, hashing it on the way; identical content is stored once.
+     *
+     * @throws com.org.wmm.common.error.BadRequestException if the content exceeds {@code maxBytes} or is not
+     *                                                      a supported image
+     */
+    StoredMedia store(InputStream content, long maxBytes) throws IOException;
+
+    /**
+     * Read a stored file
+     *
+     * @param path path returned by {@link #store}
+     * @throws java.nio.file.NoSuchFileException if nothing is stored under the path
+     */
+    InputStream open(String path) throws IOException;
+}
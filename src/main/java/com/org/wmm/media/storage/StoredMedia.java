@@ -0,0 +1,10 @@
+package com.org.wmm.media.storage;
+
+/**
+ * A stored file, named by its content hash
+ *
+ * @param path     path relative to the storage root, as kept in {@code images.file_path}
+ * @param existing the same content was already stored, the upload was discarded
+ */
+public record StoredMedia(String path, String sha256, long sizeBytes, ImageHeader header, boolean existing) {
+}
@@ -0,0 +1,56 @@
+package com.org.wmm.navigation.controller;
+
+import com.org.wmm.common.dto.BaseResponse;
+import com.org.wmm.navigation.dto.NavigationTree;
+import com.org.wmm.navigation.service.NavigationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/public/navigation")
+@Tag(name = "Public navigation", description = "Category, topic and subtopic tree")
+public class NavigationController {
+
+    private final NavigationService navigationService;
+    private final CacheControl cacheControl;
+
+    public NavigationController(NavigationService navigationService,
+                                @Value("${navigation.max-age:60}") long maxAgeSeconds) {
+        this.navigationService = navigationService;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+    }
+
+    @Operation(summary = "Navigation tree", description = "Published categories with their topics and subtopics. "
+            + "Supports If-None-Match and If-Modified-Since.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Navigation tree"),
+            @ApiResponse(responseCode = "304", description = "Not modified")
+    })
+    @SecurityRequirement(name = "")
+    @GetMapping
+    public ResponseEntity<BaseResponse<NavigationTree>> getNavigation(
+            @Parameter(description = "Language code; defaults to the default language")
+            @RequestParam(required = false) String lang
+    ) {
+        NavigationTree tree = navigationService.getTree(lang);
+        // A matching If-None-Match / If-Modified-Since turns this into a 304 without a body
+        return ResponseEntity.ok()
+                .eTag(tree.getEtag())
+                .lastModified(tree.getLastModified())
+                .cacheControl(cacheControl)
+                .body(BaseResponse.success(tree));
+    }
+}
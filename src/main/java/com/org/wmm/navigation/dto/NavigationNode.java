@@ -0,0 +1,27 @@
+package com.org.wmm.navigation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@Schema(description = "Category, topic or subtopic in the navigation tree")
+public class NavigationNode {
+
+    @Schema(example = "whisky")
+    String slug;
+
+    @Schema(description = "Title in the requested language, or the default language if not translated")
+    String title;
+
+    String subtitle;
+
+    String icon;
+
+    List<NavigationNode> children;
+}
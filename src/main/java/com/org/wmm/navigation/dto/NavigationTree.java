@@ -0,0 +1,29 @@
+package com.org.wmm.navigation.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Published navigation tree of one language. Built once per change and shared by all requests.
+ */
+@Value
+@Builder(toBuilder = true)
+@Schema(description = "Published categories with their topics and subtopics")
+public class NavigationTree {
+
+    @Schema(example = "pl")
+    String lang;
+
+    List<NavigationNode> categories;
+
+    @JsonIgnore
+    String etag;
+
+    @JsonIgnore
+    Instant lastModified;
+}
@@ -0,0 +1,44 @@
+package com.org.wmm.navigation.repository;
+
+/**
+ * Levels of the navigation hierarchy and the tables behind them
+ */
+public enum NavigationLevel {
+
+    CATEGORY("categories", null, "category_translations", "category_id", false),
+    TOPIC("topics", "category_id", "topic_translations", "topic_id", true),
+    SUBTOPIC("subtopics", "topic_id", "subtopic_translations", "subtopic_id", true);
+
+    private final String table;
+    private final String parentColumn;
+    private final String translationTable;
+    private final String translationOwnerColumn;
+    private final boolean hasSubtitle;
+
+    NavigationLevel(String table, String parentColumn, String translationTable, String translationOwnerColumn,
+                    boolean hasSubtitle) {
+        this.table = table;
+        this.parentColumn = parentColumn;
+        this.translationTable = translationTable;
+        this.translationOwnerColumn = translationOwnerColumn;
+        this.hasSubtitle = hasSubtitle;
+    }
+
+    public String table() {
+        return table;
+    }
+
+    public String translationTable() {
+        return translationTable;
+    }
+
+    String nodeColumns() {
+        return "id, " + (parentColumn == null ? "NULL::bigint" : parentColumn) + " AS parent_id, "
+                + "slug, icon, display_order, is_active, status, updated_at";
+    }
+
+    String translationColumns() {
+        return "id, " + translationOwnerColumn + " AS node_id, language_id, title, "
+                + (hasSubtitle ? "subtitle" : "NULL") + " AS subtitle, updated_at";
+    }
+}
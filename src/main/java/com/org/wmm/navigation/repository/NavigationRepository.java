@@ -0,0 +1,112 @@
+package com.org.wmm.navigation.repository;
+
+import com.org.wmm.common.changes.ChangeLogs;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC access to the category/topic/subtopic tables and their change log ({@code navigation_changes}).
+ * Node and translation lookups take {@code null} ids to mean "all rows".
+ */
+@Repository
+@RequiredArgsConstructor
+public class NavigationRepository {
+
+    private static final RowMapper<NodeRow> NODE_MAPPER = (rs, rowNum) -> new NodeRow(
+            rs.getLong("id"),
+            rs.getObject("parent_id", Long.class),
+            rs.getString("slug"),
+            rs.getString("icon"),
+            rs.getInt("display_order"),
+            rs.getBoolean("is_active") && "published".equals(rs.getString("status")),
+            rs.getObject("updated_at", OffsetDateTime.class));
+
+    private static final RowMapper<TranslationRow> TRANSLATION_MAPPER = (rs, rowNum) -> new TranslationRow(
+            rs.getLong("id"),
+            rs.getLong("node_id"),
+            rs.getLong("language_id"),
+            rs.getString("title"),
+            rs.getString("subtitle"),
+            rs.getObject("updated_at", OffsetDateTime.class));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * See {@link ChangeLogs#currentWatermark}
+     */
+    public long currentChangeWatermark() {
+        return ChangeLogs.currentWatermark(jdbcTemplate.getJdbcTemplate());
+    }
+
+    /**
+     * Changes logged by transactions in {@code [fromTx, toTx)}
+     */
+    public List<Change> findChanges(long fromTx, long toTx) {
+        return jdbcTemplate.query("""
+                        SELECT table_name, row_id, changed_at FROM navigation_changes
+                        WHERE """ + ChangeLogs.TX_RANGE_CONDITION,
+                new MapSqlParameterSource().addValue("fromTx", fromTx).addValue("toTx", toTx),
+                (rs, rowNum) -> new Change(
+                        rs.getString("table_name"),
+                        rs.getLong("row_id"),
+                        rs.getObject("changed_at", OffsetDateTime.class)));
+    }
+
+    public int deleteChangesBefore(OffsetDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM navigation_changes WHERE changed_at < :cutoff",
+                new MapSqlParameterSource("cutoff", cutoff));
+    }
+
+    public List<LanguageRow> findLanguages() {
+        return jdbcTemplate.getJdbcTemplate().query(
+                "SELECT id, code, is_default, is_active FROM languages ORDER BY display_order, id",
+                (rs, rowNum) -> new LanguageRow(
+                        rs.getLong("id"),
+                        rs.getString("code"),
+                        rs.getBoolean("is_default"),
+                        rs.getBoolean("is_active")));
+    }
+
+    public List<NodeRow> findNodes(NavigationLevel level, Collection<Long> ids) {
+        return query("SELECT " + level.nodeColumns() + " FROM " + level.table(), ids, NODE_MAPPER);
+    }
+
+    public List<TranslationRow> findTranslations(NavigationLevel level, Collection<Long> ids) {
+        return query("SELECT " + level.translationColumns() + " FROM " + level.translationTable(), ids,
+                TRANSLATION_MAPPER);
+    }
+
+    private <T> List<T> query(String select, Collection<Long> ids, RowMapper<T> mapper) {
+        if (ids == null) {
+            return jdbcTemplate.getJdbcTemplate().query(select, mapper);
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(select + " WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids), mapper);
+    }
+
+    public record Change(String tableName, long rowId, OffsetDateTime changedAt) {
+    }
+
+    public record LanguageRow(long id, String code, boolean isDefault, boolean active) {
+    }
+
+    /**
+     * A category, topic or subtopic; {@code visible} means active and published
+     */
+    public record NodeRow(long id, Long parentId, String slug, String icon, int displayOrder, boolean visible,
+                          OffsetDateTime updatedAt) {
+    }
+
+    public record TranslationRow(long id, long nodeId, long languageId, String title, String subtitle,
+                                 OffsetDateTime updatedAt) {
+    }
+}
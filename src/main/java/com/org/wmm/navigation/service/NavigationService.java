@@ -0,0 +1,310 @@
+package com.org.wmm.navigation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.wmm.navigation.dto.NavigationNode;
+import com.org.wmm.navigation.dto.NavigationTree;
+import com.org.wmm.navigation.repository.NavigationLevel;
+import com.org.wmm.navigation.repository.NavigationRepository;
+import com.org.wmm.navigation.repository.NavigationRepository.Change;
+import com.org.wmm.navigation.repository.NavigationRepository.LanguageRow;
+import com.org.wmm.navigation.repository.NavigationRepository.NodeRow;
+import com.org.wmm.navigation.repository.NavigationRepository.TranslationRow;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the published navigation tree (category → topic → subtopic) of every active language in memory,
+ * so serving it costs no database queries.
+ * <p>
+ * All rows are loaded once; afterwards a poller reads the {@code navigation_changes} log written by
+ * triggers, reloads only the rows that changed and re-assembles the trees from memory. A language's tree
+ * keeps its ETag and Last-Modified unless its content actually changed, so editing one translation does
+ * not invalidate cached trees of other languages.
+ */
+@Slf4j
+@Service
+public class NavigationService {
+
+    private static final Comparator<NodeRow> DISPLAY_ORDER =
+            Comparator.comparingInt(NodeRow::displayOrder).thenComparingLong(NodeRow::id);
+
+    private final NavigationRepository repository;
+    private final ObjectMapper objectMapper;
+    private final long changeRetentionMs;
+    private final Timer rebuildTimer;
+
+    // Source rows; only touched by the thread holding the monitor
+    private final Map<NavigationLevel, Map<Long, NodeRow>> nodes = new EnumMap<>(NavigationLevel.class);
+    private final Map<NavigationLevel, Map<Long, TranslationRow>> translations = new EnumMap<>(NavigationLevel.class);
+    private Map<Long, LanguageRow> languages = Map.of();
+    private long watermark;
+
+    private volatile Trees trees;
+
+    public NavigationService(
+            NavigationRepository repository,
+            ObjectMapper objectMapper,
+            @Value("${navigation.changes.retention:86400000}") long changeRetentionMs,
+            MeterRegistry meterRegistry
+    ) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.changeRetentionMs = changeRetentionMs;
+        this.rebuildTimer = Timer.builder("navigation.rebuild")
+                .description("Time to apply navigation changes and rebuild the trees")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tree for the given language; unknown or missing codes get the default language
+     */
+    public NavigationTree getTree(String lang) {
+        Trees current = trees;
+        if (current == null) {
+            refresh();
+            current = trees;
+        }
+        NavigationTree tree = lang == null ? null : current.byLanguage().get(lang.toLowerCase(Locale.ROOT));
+        return tree != null ? tree : current.fallback();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            log.warn("Could not load navigation tree at startup, will retry on first request: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${navigation.refresh-interval:5000}",
+            initialDelayString = "${navigation.refresh-interval:5000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            log.warn("Navigation refresh failed, serving the previous tree: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply logged changes since the last refresh, or load everything on first use
+     */
+    public synchronized void refresh() {
+        if (trees == null) {
+            rebuildTimer.record(this::loadAll);
+            return;
+        }
+        long to = repository.currentChangeWatermark();
+        if (to <= watermark) {
+            return;
+        }
+        List<Change> changes = repository.findChanges(watermark, to);
+        if (!changes.isEmpty()) {
+            rebuildTimer.record(() -> apply(changes));
+        }
+        watermark = to;
+    }
+
+    @Scheduled(cron = "${navigation.changes.purge.cron:0 15 * * * *}")
+    public void purgeChanges() {
+        int deleted = repository.deleteChangesBefore(OffsetDateTime.now().minus(changeRetentionMs, ChronoUnit.MILLIS));
+        if (deleted > 0) {
+            log.debug("Deleted {} old navigation changes", deleted);
+        }
+    }
+
+    private void loadAll() {
+        // Taken before reading, so changes committed while loading are applied (again) by the next refresh
+        long to = repository.currentChangeWatermark();
+        languages = index(repository.findLanguages(), LanguageRow::id);
+        for (NavigationLevel level : NavigationLevel.values()) {
+            nodes.put(level, index(repository.findNodes(level, null), NodeRow::id));
+            translations.put(level, index(repository.findTranslations(level, null), TranslationRow::id));
+        }
+        watermark = to;
+
+        Instant lastModified = Stream.concat(
+                        nodes.values().stream().flatMap(rows -> rows.values().stream()).map(NodeRow::updatedAt),
+                        translations.values().stream().flatMap(rows -> rows.values().stream()).map(TranslationRow::updatedAt))
+                .filter(Objects::nonNull)
+                .map(OffsetDateTime::toInstant)
+                .max(Comparator.naturalOrder())
+                .orElseGet(Instant::now);
+        rebuild(lastModified);
+        log.info("Loaded navigation tree for {} languages", trees.byLanguage().size());
+    }
+
+    private void apply(List<Change> changes) {
+        Map<String, Set<Long>> idsByTable = changes.stream()
+                .collect(Collectors.groupingBy(Change::tableName, Collectors.mapping(Change::rowId, Collectors.toSet())));
+
+        if (idsByTable.containsKey("languages")) {
+            languages = index(repository.findLanguages(), LanguageRow::id);
+        }
+        for (NavigationLevel level : NavigationLevel.values()) {
+            Set<Long> nodeIds = idsByTable.get(level.table());
+            if (nodeIds != null) {
+                replace(nodes.get(level), nodeIds, repository.findNodes(level, nodeIds), NodeRow::id);
+            }
+            Set<Long> translationIds = idsByTable.get(level.translationTable());
+            if (translationIds != null) {
+                replace(translations.get(level), translationIds, repository.findTranslations(level, translationIds),
+                        TranslationRow::id);
+            }
+        }
+
+        Instant changedAt = changes.stream()
+                .map(Change::changedAt)
+                .filter(Objects::nonNull)
+                .map(OffsetDateTime::toInstant)
+                .max(Comparator.naturalOrder())
+                .orElseGet(Instant::now);
+        rebuild(changedAt);
+        log.debug("Applied {} navigation changes", changes.size());
+    }
+
+    private void rebuild(Instant changedAt) {
+        Instant lastModified = changedAt.truncatedTo(ChronoUnit.SECONDS);
+        Trees previous = trees;
+        TreeAssembler assembler = new TreeAssembler();
+        Long defaultLanguageId = languages.values().stream()
+                .filter(LanguageRow::isDefault)
+                .map(LanguageRow::id)
+                .findFirst()
+                .orElse(null);
+
+        Map<String, NavigationTree> byLanguage = new HashMap<>();
+        NavigationTree fallback = null;
+        for (LanguageRow language : languages.values()) {
+            if (!language.active()) {
+                continue;
+            }
+            String code = language.code().toLowerCase(Locale.ROOT);
+            NavigationTree tree = NavigationTree.builder()
+                    .lang(language.code())
+                    .categories(assembler.children(NavigationLevel.CATEGORY, null, language.id(), defaultLanguageId))
+                    .build();
+            String etag = etagOf(tree);
+            NavigationTree unchanged = previous == null ? null : previous.byLanguage().get(code);
+            if (unchanged == null || !unchanged.getEtag().equals(etag)) {
+                tree = tree.toBuilder().etag(etag).lastModified(lastModified).build();
+            } else {
+                tree = unchanged;
+            }
+            byLanguage.put(code, tree);
+            if (fallback == null || Objects.equals(language.id(), defaultLanguageId)) {
+                fallback = tree;
+            }
+        }
+        if (fallback == null) {
+            NavigationTree empty = NavigationTree.builder().categories(List.of()).build();
+            fallback = empty.toBuilder().etag(etagOf(empty)).lastModified(lastModified).build();
+        }
+        trees = new Trees(Map.copyOf(byLanguage), fallback);
+    }
+
+    private String etagOf(NavigationTree tree) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(tree)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize navigation tree", e);
+        }
+    }
+
+    private static <T> Map<Long, T> index(List<T> rows, Function<T, Long> id) {
+        Map<Long, T> indexed = new HashMap<>();
+        rows.forEach(row -> indexed.put(id.apply(row), row));
+        return indexed;
+    }
+
+    /**
+     * Rows that were requested but not returned have been deleted
+     */
+    private static <T> void replace(Map<Long, T> target, Set<Long> ids, List<T> rows, Function<T, Long> id) {
+        ids.forEach(target::remove);
+        rows.forEach(row -> target.put(id.apply(row), row));
+    }
+
+    /**
+     * Indexes of the current source rows, shared by the trees of all languages in one rebuild
+     */
+    private final class TreeAssembler {
+
+        private final Map<NavigationLevel, Map<Long, List<NodeRow>>> visibleByParent = new EnumMap<>(NavigationLevel.class);
+        private final Map<NavigationLevel, Map<Long, Map<Long, TranslationRow>>> translationsByNode =
+                new EnumMap<>(NavigationLevel.class);
+
+        TreeAssembler() {
+            for (NavigationLevel level : NavigationLevel.values()) {
+                Map<Long, List<NodeRow>> byParent = new HashMap<>();
+                nodes.get(level).values().stream()
+                        .filter(NodeRow::visible)
+                        .forEach(node -> byParent.computeIfAbsent(parentKey(node), k -> new ArrayList<>()).add(node));
+                byParent.values().forEach(children -> children.sort(DISPLAY_ORDER));
+                visibleByParent.put(level, byParent);
+
+                Map<Long, Map<Long, TranslationRow>> byNode = new HashMap<>();
+                translations.get(level).values()
+                        .forEach(t -> byNode.computeIfAbsent(t.nodeId(), k -> new HashMap<>()).put(t.languageId(), t));
+                translationsByNode.put(level, byNode);
+            }
+        }
+
+        List<NavigationNode> children(NavigationLevel level, Long parentId, long languageId, Long defaultLanguageId) {
+            List<NodeRow> rows = visibleByParent.get(level).getOrDefault(parentId == null ? 0L : parentId, List.of());
+            NavigationLevel childLevel = level == NavigationLevel.CATEGORY ? NavigationLevel.TOPIC
+                    : level == NavigationLevel.TOPIC ? NavigationLevel.SUBTOPIC : null;
+
+            List<NavigationNode> result = new ArrayList<>(rows.size());
+            for (NodeRow row : rows) {
+                Map<Long, TranslationRow> byLanguage = translationsByNode.get(level).getOrDefault(row.id(), Map.of());
+                TranslationRow translation = byLanguage.get(languageId);
+                if (translation == null && defaultLanguageId != null) {
+                    translation = byLanguage.get(defaultLanguageId);
+                }
+                result.add(NavigationNode.builder()
+                        .slug(row.slug())
+                        .title(translation != null ? translation.title() : row.slug())
+                        .subtitle(translation != null ? translation.subtitle() : null)
+                        .icon(row.icon())
+                        .children(childLevel == null ? List.of()
+                                : children(childLevel, row.id(), languageId, defaultLanguageId))
+                        .build());
+            }
+            return List.copyOf(result);
+        }
+
+        private Long parentKey(NodeRow node) {
+            return node.parentId() == null ? 0L : node.parentId();
+        }
+    }
+
+    private record Trees(Map<String, NavigationTree> byLanguage, NavigationTree fallback) {
+    }
+}
@@ -8,18 +8,11 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Component
@@ -38,30 +31,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (jwt != null && jwtTokenProvider.validateToken(jwt)) {
-                String username = jwtTokenProvider.extractUsername(jwt);
-                List<String> roles = jwtTokenProvider.extractRoles(jwt);
+            JwtClaims claims = jwt == null ? null : jwtTokenProvider.resolveClaims(jwt).orElse(null);
 
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = User.builder()
-                            .username(username)
-                            .password("") // Password not needed for JWT authentication
-                            .authorities(roles.stream()
-                                    .map(SimpleGrantedAuthority::new)
-                                    .collect(Collectors.toList()))
-                            .build();
-
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
+            // Only access tokens authenticate requests; refresh tokens are valid only at the refresh endpoint,
+            // where rotation and revocation are enforced
+            if (claims != null && !SecurityConstants.TOKEN_TYPE_ACCESS.equals(claims.getType())) {
+                log.debug("Ignoring bearer token of type {}", claims.getType());
+                claims = null;
+            }
 
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (claims != null && claims.getSubject() != null
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(claims));
 
-                    log.debug("Set Authentication for user: {}", username);
+                if (log.isDebugEnabled()) {
+                    log.debug("Set Authentication for user: {}", claims.getSubject());
                 }
             }
         } catch (Exception ex) {
@@ -0,0 +1,76 @@
+package com.org.wmm.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Immutable {@link Authentication} for a request carrying a verified access token.
+ * The principal is the token subject (user email) and authorities are the interned role list
+ * from {@link JwtClaims}, so building one costs a single small allocation.
+ */
+public final class JwtAuthenticationToken implements Authentication {
+
+    private final JwtClaims claims;
+
+    public JwtAuthenticationToken(JwtClaims claims) {
+        this.claims = claims;
+    }
+
+    public JwtClaims getClaims() {
+        return claims;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return claims.getAuthorities();
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return claims.getSubject();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return true;
+    }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        if (!isAuthenticated) {
+            throw new IllegalArgumentException("JwtAuthenticationToken is immutable");
+        }
+    }
+
+    @Override
+    public String getName() {
+        return claims.getSubject();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof JwtAuthenticationToken token && claims.equals(token.claims);
+    }
+
+    @Override
+    public int hashCode() {
+        return claims.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "JwtAuthenticationToken[principal=" + claims.getSubject() + ", authorities=" + claims.getAuthorities() + "]";
+    }
+}
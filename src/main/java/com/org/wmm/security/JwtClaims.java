@@ -0,0 +1,53 @@
+package com.org.wmm.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable view of a token whose signature and expiry have already been verified.
+ * Instances are cached by {@link JwtTokenProvider} and shared between requests.
+ */
+@Getter
+public final class JwtClaims {
+
+    private final String subject;
+    private final String type;
+    private final String tokenId;
+    /**
+     * Refresh token family (rotation chain); null for access tokens
+     */
+    private final UUID familyId;
+    /**
+     * Profile claims of access tokens; null for refresh tokens and tokens issued before they were added
+     */
+    private final Long userId;
+    private final String displayName;
+    private final Instant userVersion;
+    private final List<String> roles;
+    private final List<GrantedAuthority> authorities;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+
+    JwtClaims(String subject, String type, String tokenId, UUID familyId, Long userId, String displayName,
+              Instant userVersion, List<String> roles, Instant issuedAt, Instant expiresAt) {
+        this.subject = subject;
+        this.type = type;
+        this.tokenId = tokenId;
+        this.familyId = familyId;
+        this.userId = userId;
+        this.displayName = displayName;
+        this.userVersion = userVersion;
+        this.roles = roles == null ? List.of() : List.copyOf(roles);
+        this.authorities = RoleAuthorities.of(this.roles);
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,129 @@
+package com.org.wmm.security;
+
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.jsonwebtoken.security.PublicJwk;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Reads signing and verification keys from local files: PEM ({@code PRIVATE KEY} / {@code PUBLIC KEY}),
+ * a single JWK or a JWK set. EC (P-256, for ES256) and Ed25519 (EdDSA) keys are supported.
+ * Keys without a {@code kid} get their RFC 7638 thumbprint as id.
+ */
+final class JwtKeyFiles {
+
+    private static final String[] KEY_ALGORITHMS = {"EC", "Ed25519"};
+
+    private JwtKeyFiles() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Read a private signing key; {@code keyId} overrides the id from the file if not blank
+     */
+    static PrivateJwk<?, ?, ?> readPrivate(Path path, String keyId) {
+        String content = read(path);
+        Jwk<?> jwk;
+        if (isJson(content)) {
+            jwk = Jwks.parser().build().parse(content);
+        } else {
+            PrivateKey key = generate(path, pemBody(path, content, "PRIVATE KEY"), true);
+            jwk = Jwks.builder().key(key).idFromThumbprint().build();
+        }
+        if (!(jwk instanceof PrivateJwk<?, ?, ?> privateJwk)) {
+            throw new IllegalStateException("JWT signing key file does not contain a private key: " + path);
+        }
+        if (keyId != null && !keyId.isBlank()) {
+            return (PrivateJwk<?, ?, ?>) Jwks.builder().key(privateJwk.toKey()).id(keyId).build();
+        }
+        return privateJwk.getId() != null ? privateJwk
+                : (PrivateJwk<?, ?, ?>) Jwks.builder().key(privateJwk.toKey()).idFromThumbprint().build();
+    }
+
+    /**
+     * Read verification keys; private keys in the file are reduced to their public part
+     */
+    static List<PublicJwk<?>> readPublic(Path path) {
+        String content = read(path);
+        List<Jwk<?>> jwks = new ArrayList<>();
+        if (!isJson(content)) {
+            PublicKey key = generate(path, pemBody(path, content, "PUBLIC KEY"), false);
+            jwks.add(Jwks.builder().key(key).idFromThumbprint().build());
+        } else if (content.contains("\"keys\"")) {
+            jwks.addAll(Jwks.setParser().build().parse(content).getKeys());
+        } else {
+            jwks.add(Jwks.parser().build().parse(content));
+        }
+
+        List<PublicJwk<?>> result = new ArrayList<>(jwks.size());
+        for (Jwk<?> jwk : jwks) {
+            PublicJwk<?> publicJwk;
+            if (jwk instanceof PrivateJwk<?, ?, ?> privateJwk) {
+                publicJwk = privateJwk.toPublicJwk();
+            } else if (jwk instanceof PublicJwk<?> pub) {
+                publicJwk = pub;
+            } else {
+                throw new IllegalStateException("Unsupported JWT verification key (" + jwk.getType() + ") in " + path);
+            }
+            if (publicJwk.getId() == null) {
+                publicJwk = (PublicJwk<?>) Jwks.builder().key(publicJwk.toKey()).idFromThumbprint().build();
+            }
+            result.add(publicJwk);
+        }
+        return result;
+    }
+
+    private static String read(Path path) {
+        try {
+            return Files.readString(path, StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read JWT key file " + path, e);
+        }
+    }
+
+    private static boolean isJson(String content) {
+        return content.startsWith("{");
+    }
+
+    private static byte[] pemBody(Path path, String content, String type) {
+        String begin = "-----BEGIN " + type + "-----";
+        String end = "-----END " + type + "-----";
+        int start = content.indexOf(begin);
+        int stop = content.indexOf(end);
+        if (start < 0 || stop < start) {
+            throw new IllegalStateException("Expected a PEM '" + type + "' block (PKCS#8 / X.509) in " + path);
+        }
+        String base64 = content.substring(start + begin.length(), stop).replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> K generate(Path path, byte[] der, boolean privateKey) {
+        for (String algorithm : KEY_ALGORITHMS) {
+            try {
+                KeyFactory factory = KeyFactory.getInstance(algorithm);
+                return (K) (privateKey
+                        ? factory.generatePrivate(new PKCS8EncodedKeySpec(der))
+                        : factory.generatePublic(new X509EncodedKeySpec(der)));
+            } catch (GeneralSecurityException e) {
+                // try the next key type
+            }
+        }
+        throw new IllegalStateException("Unsupported JWT key in " + path + ", expected an EC or Ed25519 key");
+    }
+}
@@ -0,0 +1,132 @@
+package com.org.wmm.security;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.jsonwebtoken.security.PublicJwk;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Keys used by {@link JwtTokenProvider}: one signing key plus every key still accepted for verification.
+ * <p>
+ * With an asymmetric signing key (ES256 or EdDSA), tokens carry a {@code kid} header and are verified with
+ * the public key of that id. Rotation: configure the new key for signing and keep the previous public key
+ * in the verification list until the last token signed with it has expired. Tokens without {@code kid}
+ * are verified with the HMAC secret, if one is configured, so HS256 tokens keep working during migration.
+ */
+@Slf4j
+public final class JwtKeySet {
+
+    private final String signingKeyId;
+    private final Key signingKey;
+    private final SecretKey hmacKey;
+    private final Map<String, Key> verificationKeys;
+    private final String jwksJson;
+
+    private JwtKeySet(PrivateJwk<?, ?, ?> signingJwk, SecretKey hmacKey, List<PublicJwk<?>> verificationJwks) {
+        this.signingKeyId = signingJwk == null ? null : signingJwk.getId();
+        this.signingKey = signingJwk == null ? hmacKey : signingJwk.toKey();
+        this.hmacKey = hmacKey;
+
+        Map<String, Key> keys = new LinkedHashMap<>();
+        List<PublicJwk<?>> published = new ArrayList<>();
+        if (signingJwk != null) {
+            keys.put(signingJwk.getId(), signingJwk.toPublicJwk().toKey());
+            published.add(signingJwk.toPublicJwk());
+        }
+        for (PublicJwk<?> jwk : verificationJwks) {
+            if (keys.putIfAbsent(jwk.getId(), jwk.toKey()) == null) {
+                published.add(jwk);
+            }
+        }
+        this.verificationKeys = Collections.unmodifiableMap(keys);
+        this.jwksJson = published.stream()
+                .map(Jwks::json)
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+    }
+
+    /**
+     * HMAC-only key set (HS256 from a shared secret), the original behaviour
+     */
+    public static JwtKeySet hmac(String secret) {
+        return new JwtKeySet(null, Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), List.of());
+    }
+
+    /**
+     * Load keys from files; the HMAC secret is optional once an asymmetric signing key is configured
+     */
+    public static JwtKeySet load(String signingKeyFile, String signingKeyId,
+                                 List<String> verificationKeyFiles, String hmacSecret) {
+        boolean hasSecret = hmacSecret != null && !hmacSecret.isBlank();
+        SecretKey hmacKey = hasSecret ? Keys.hmacShaKeyFor(hmacSecret.getBytes(StandardCharsets.UTF_8)) : null;
+
+        if (signingKeyFile == null || signingKeyFile.isBlank()) {
+            if (hmacKey == null) {
+                throw new IllegalStateException("Either jwt.signing.key-file or jwt.secret must be configured");
+            }
+            log.info("JWT signing with HMAC secret (HS256)");
+            return new JwtKeySet(null, hmacKey, List.of());
+        }
+
+        PrivateJwk<?, ?, ?> signingJwk = JwtKeyFiles.readPrivate(Path.of(signingKeyFile), signingKeyId);
+        List<PublicJwk<?>> verificationJwks = verificationKeyFiles.stream()
+                .map(file -> JwtKeyFiles.readPublic(Path.of(file)))
+                .flatMap(List::stream)
+                .toList();
+        JwtKeySet keySet = new JwtKeySet(signingJwk, hmacKey, verificationJwks);
+        log.info("JWT signing with {} key {} ({} verification keys{})", signingJwk.toKey().getAlgorithm(),
+                keySet.signingKeyId, keySet.verificationKeys.size(), hmacKey != null ? " + HMAC for tokens without kid" : "");
+        return keySet;
+    }
+
+    /**
+     * Sign the token, adding the {@code kid} header for asymmetric keys
+     */
+    JwtBuilder sign(JwtBuilder builder) {
+        if (signingKeyId == null) {
+            return builder.signWith(signingKey);
+        }
+        return builder.header().keyId(signingKeyId).and().signWith((PrivateKey) signingKey);
+    }
+
+    /**
+     * Resolves the verification key from the {@code kid} header. jjwt then checks that the key type
+     * matches the token's {@code alg}, so an HS256 token cannot be verified with a public key.
+     */
+    LocatorAdapter<Key> keyLocator() {
+        return new LocatorAdapter<>() {
+            @Override
+            protected Key locate(ProtectedHeader header) {
+                String keyId = header.getKeyId();
+                Key key = keyId == null ? hmacKey : verificationKeys.get(keyId);
+                if (key == null) {
+                    throw new UnsupportedJwtException(keyId == null ? "Token has no key id" : "Unknown key id " + keyId);
+                }
+                return key;
+            }
+        };
+    }
+
+    /**
+     * Public verification keys as a JWK set document (RFC 7517); empty for HMAC-only key sets
+     */
+    public String toJwksJson() {
+        return jwksJson;
+    }
+}
@@ -1,20 +1,32 @@
 package com.org.wmm.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.org.wmm.common.constants.SecurityConstants;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.MalformedJwtException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -22,45 +34,112 @@ import java.util.stream.Collectors;
 @Component
 public class JwtTokenProvider {
 
-    private final SecretKey secretKey;
+    private static final String FAMILY_CLAIM = "fid";
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String DISPLAY_NAME_CLAIM = "name";
+    private static final String USER_VERSION_CLAIM = "uv";
+
+    private final JwtKeySet keySet;
+    private final JwtParser jwtParser;
     private final long accessTokenExpiration;
     private final long refreshTokenExpiration;
     private final String issuer;
 
+    /**
+     * Verified claims keyed by the token's signature segment. Entries expire together with the token.
+     */
+    private final Cache<String, CachedClaims> claimsCache;
+
+    @Autowired
     public JwtTokenProvider(
-            @Value("${jwt.secret}") String secret,
+            JwtKeySet keySet,
             @Value("${jwt.access-token-expiration}") long accessTokenExpiration,
             @Value("${jwt.refresh-token-expiration}") long refreshTokenExpiration,
-            @Value("${jwt.issuer}") String issuer
+            @Value("${jwt.issuer}") String issuer,
+            @Value("${jwt.claims-cache.max-size:10000}") long claimsCacheMaxSize
     ) {
-        this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.keySet = keySet;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(keySet.keyLocator())
+                .build();
         this.accessTokenExpiration = accessTokenExpiration;
         this.refreshTokenExpiration = refreshTokenExpiration;
         this.issuer = issuer;
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
+
+    /**
+     * HMAC-signed provider, for tests and benchmarks
+     */
+    public JwtTokenProvider(String secret, long accessTokenExpiration, long refreshTokenExpiration,
+                            String issuer, long claimsCacheMaxSize) {
+        this(JwtKeySet.hmac(secret), accessTokenExpiration, refreshTokenExpiration, issuer, claimsCacheMaxSize);
     }
 
     /**
      * Generate access token for user
      */
     public String generateAccessToken(UserDetails userDetails) {
-        Map<String, Object> claims = new HashMap<>();
         List<String> roles = userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
-        claims.put("roles", roles);
-        claims.put("type", "access");
 
-        return createToken(claims, userDetails.getUsername(), accessTokenExpiration);
+        return generateAccessToken(userDetails.getUsername(), roles);
+    }
+
+    /**
+     * Generate access token for a user whose roles are already known
+     */
+    public String generateAccessToken(String username, Collection<String> roles) {
+        return createToken(accessClaims(roles), username, accessTokenExpiration);
+    }
+
+    /**
+     * Generate access token that also carries the user profile (id, display name and the user row's
+     * {@code updated_at}), so {@code /users/me} can be answered from the token alone
+     */
+    public String generateAccessToken(Long userId, String username, String displayName,
+                                      Collection<String> roles, OffsetDateTime userUpdatedAt) {
+        Map<String, Object> claims = accessClaims(roles);
+        claims.put(USER_ID_CLAIM, userId);
+        if (displayName != null) {
+            claims.put(DISPLAY_NAME_CLAIM, displayName);
+        }
+        if (userUpdatedAt != null) {
+            claims.put(USER_VERSION_CLAIM, userUpdatedAt.toInstant().toEpochMilli());
+        }
+
+        return createToken(claims, username, accessTokenExpiration);
+    }
+
+    private Map<String, Object> accessClaims(Collection<String> roles) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("roles", List.copyOf(roles));
+        claims.put("type", SecurityConstants.TOKEN_TYPE_ACCESS);
+        return claims;
     }
 
     /**
-     * Generate refresh token for user
+     * Generate refresh token for user, starting a new rotation family
      */
     public String generateRefreshToken(UserDetails userDetails) {
+        return generateRefreshToken(userDetails.getUsername(), UUID.randomUUID());
+    }
+
+    /**
+     * Generate refresh token in the given rotation family. Each token gets a unique id,
+     * so two tokens issued within the same second never collide.
+     */
+    public String generateRefreshToken(String username, UUID familyId) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "refresh");
+        claims.put("type", SecurityConstants.TOKEN_TYPE_REFRESH);
+        claims.put(FAMILY_CLAIM, familyId.toString());
+        claims.put(Claims.ID, UUID.randomUUID().toString());
 
-        return createToken(claims, userDetails.getUsername(), refreshTokenExpiration);
+        return createToken(claims, username, refreshTokenExpiration);
     }
 
     /**
@@ -70,89 +149,148 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .claims(claims)
                 .subject(subject)
                 .issuer(issuer)
                 .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(secretKey)
-                .compact();
+                .expiration(expiryDate);
+        return keySet.sign(builder).compact();
+    }
+
+    /**
+     * Verify the token once and return its claims. Repeated calls for the same token are served from
+     * the claims cache until the token expires.
+     *
+     * @throws JwtException if the signature is invalid, the token is malformed or expired
+     */
+    public JwtClaims parseClaims(String token) {
+        String signature = signatureOf(token);
+        Instant now = Instant.now();
+
+        CachedClaims cached = claimsCache.getIfPresent(signature);
+        if (cached != null && cached.token().equals(token) && !cached.claims().isExpired(now)) {
+            return cached.claims();
+        }
+
+        JwtClaims claims = toJwtClaims(jwtParser.parseSignedClaims(token).getPayload());
+        if (!claims.isExpired(now)) {
+            claimsCache.put(signature, new CachedClaims(token, claims));
+        }
+        return claims;
+    }
+
+    /**
+     * Verify the token and return its claims, or empty if the token is not valid
+     */
+    public Optional<JwtClaims> resolveClaims(String token) {
+        try {
+            return Optional.of(parseClaims(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Token validation failed: {}", e.getMessage());
+            return Optional.empty();
+        }
     }
 
     /**
      * Extract username (email) from token
      */
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseClaims(token).getSubject();
     }
 
     /**
      * Extract expiration date from token
      */
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return Date.from(parseClaims(token).getExpiresAt());
     }
 
     /**
      * Extract all roles from token
      */
-    @SuppressWarnings("unchecked")
     public List<String> extractRoles(String token) {
-        Claims claims = extractAllClaims(token);
-        return (List<String>) claims.get("roles");
+        return parseClaims(token).getRoles();
     }
 
     /**
      * Extract a specific claim from token
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = jwtParser.parseSignedClaims(token).getPayload();
         return claimsResolver.apply(claims);
     }
 
     /**
-     * Extract all claims from token
+     * Validate token against user details
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public boolean validateToken(String token, UserDetails userDetails) {
+        return resolveClaims(token)
+                .map(claims -> claims.getSubject().equals(userDetails.getUsername()))
+                .orElse(false);
     }
 
     /**
-     * Check if token is expired
+     * Validate token (basic check)
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean validateToken(String token) {
+        return resolveClaims(token).isPresent();
     }
 
     /**
-     * Validate token against user details
+     * The signature covers header and payload, so it identifies the token without hashing it again
      */
-    public boolean validateToken(String token, UserDetails userDetails) {
-        try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-        } catch (Exception e) {
-            log.error("Token validation failed: {}", e.getMessage());
-            return false;
+    private String signatureOf(String token) {
+        int separator = token == null ? -1 : token.lastIndexOf('.');
+        if (separator < 0 || separator == token.length() - 1) {
+            throw new MalformedJwtException("Token has no signature");
         }
+        return token.substring(separator + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private JwtClaims toJwtClaims(Claims claims) {
+        if (claims.getExpiration() == null) {
+            throw new MalformedJwtException("Token has no expiration");
+        }
+        String familyId = claims.get(FAMILY_CLAIM, String.class);
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        Number userVersion = claims.get(USER_VERSION_CLAIM, Number.class);
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.get("type", String.class),
+                claims.getId(),
+                familyId == null ? null : UUID.fromString(familyId),
+                userId == null ? null : userId.longValue(),
+                claims.get(DISPLAY_NAME_CLAIM, String.class),
+                userVersion == null ? null : Instant.ofEpochMilli(userVersion.longValue()),
+                (List<String>) claims.get("roles"),
+                claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant()
+        );
+    }
+
+    private record CachedClaims(String token, JwtClaims claims) {
     }
 
     /**
-     * Validate token (basic check)
+     * Evicts cached claims at the token's {@code exp}
      */
-    public boolean validateToken(String token) {
-        try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            log.error("Token validation failed: {}", e.getMessage());
-            return false;
+    private static final class TokenExpiry implements Expiry<String, CachedClaims> {
+
+        @Override
+        public long expireAfterCreate(String signature, CachedClaims cached, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), cached.claims().getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String signature, CachedClaims cached, long currentTime, long currentDuration) {
+            return expireAfterCreate(signature, cached, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String signature, CachedClaims cached, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
-
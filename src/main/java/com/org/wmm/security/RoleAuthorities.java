@@ -0,0 +1,59 @@
+package com.org.wmm.security;
+
+import com.org.wmm.common.constants.SecurityConstants;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interned authority lists for role claims. There are only a handful of roles, so every token with the
+ * same role set shares one immutable list instead of allocating new authorities per request.
+ */
+final class RoleAuthorities {
+
+    private static final int MAX_INTERNED_SETS = 64;
+
+    private static final Map<String, GrantedAuthority> KNOWN_ROLES = Map.of(
+            SecurityConstants.ROLE_ADMIN, new SimpleGrantedAuthority(SecurityConstants.ROLE_ADMIN),
+            SecurityConstants.ROLE_EDITOR, new SimpleGrantedAuthority(SecurityConstants.ROLE_EDITOR),
+            SecurityConstants.ROLE_VIEWER, new SimpleGrantedAuthority(SecurityConstants.ROLE_VIEWER)
+    );
+
+    private static final Map<List<String>, List<GrantedAuthority>> INTERNED = new ConcurrentHashMap<>();
+
+    private RoleAuthorities() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Return the shared authority list for the given (immutable) role list
+     */
+    static List<GrantedAuthority> of(List<String> roles) {
+        if (roles.isEmpty()) {
+            return List.of();
+        }
+        List<GrantedAuthority> authorities = INTERNED.get(roles);
+        if (authorities != null) {
+            return authorities;
+        }
+        authorities = build(roles);
+        if (INTERNED.size() < MAX_INTERNED_SETS) {
+            List<GrantedAuthority> existing = INTERNED.putIfAbsent(roles, authorities);
+            return existing != null ? existing : authorities;
+        }
+        return authorities;
+    }
+
+    private static List<GrantedAuthority> build(List<String> roles) {
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (String role : roles) {
+            GrantedAuthority known = KNOWN_ROLES.get(role);
+            authorities.add(known != null ? known : new SimpleGrantedAuthority(role));
+        }
+        return List.copyOf(authorities);
+    }
+}
@@ -0,0 +1,22 @@
+package com.org.wmm.security.password;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Spring {@link User} that also carries the hashing algorithm of its stored password
+ */
+@Getter
+public class AccountUserDetails extends User {
+
+    private final String passwordAlgo;
+
+    public AccountUserDetails(String username, String password, String passwordAlgo, boolean enabled,
+                              boolean accountNonLocked, Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, true, true, accountNonLocked, authorities);
+        this.passwordAlgo = passwordAlgo;
+    }
+}
@@ -0,0 +1,40 @@
+package com.org.wmm.security.password;
+
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+/**
+ * {@link DaoAuthenticationProvider} that verifies the password with the encoder registered for the
+ * user's {@code password_algo} instead of a single global encoder
+ */
+public class AlgorithmAwareAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final PasswordEncoderRegistry passwordEncoderRegistry;
+
+    public AlgorithmAwareAuthenticationProvider(UserDetailsService userDetailsService,
+                                                PasswordEncoderRegistry passwordEncoderRegistry) {
+        super(passwordEncoderRegistry.getTargetEncoder());
+        setUserDetailsService(userDetailsService);
+        this.passwordEncoderRegistry = passwordEncoderRegistry;
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication) {
+        if (authentication.getCredentials() == null) {
+            throw new BadCredentialsException(messages.getMessage(
+                    "AbstractUserDetailsAuthenticationProvider.badCredentials", "Bad credentials"));
+        }
+
+        String algorithm = userDetails instanceof AccountUserDetails account ? account.getPasswordAlgo() : null;
+        String presentedPassword = authentication.getCredentials().toString();
+
+        if (!passwordEncoderRegistry.matches(algorithm, presentedPassword, userDetails.getPassword())) {
+            throw new BadCredentialsException(messages.getMessage(
+                    "AbstractUserDetailsAuthenticationProvider.badCredentials", "Bad credentials"));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.org.wmm.security.password;
+
+import com.org.wmm.common.constants.SecurityConstants;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Argon2id with tunable memory (KiB), iterations and parallelism.
+ * Hashes embed their parameters: {@code $argon2id$v=19$m=19456,t=2,p=1$<salt>$<hash>}.
+ */
+public class Argon2HashAlgorithm implements PasswordHashAlgorithm {
+
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+
+    private final String parameters;
+    private final Argon2PasswordEncoder encoder;
+
+    public Argon2HashAlgorithm(int memoryKib, int iterations, int parallelism) {
+        this.parameters = "m=" + memoryKib + ",t=" + iterations + ",p=" + parallelism;
+        this.encoder = new Argon2PasswordEncoder(SALT_LENGTH, HASH_LENGTH, parallelism, memoryKib, iterations);
+    }
+
+    @Override
+    public String getId() {
+        return SecurityConstants.ARGON2;
+    }
+
+    @Override
+    public PasswordEncoder getEncoder() {
+        return encoder;
+    }
+
+    @Override
+    public boolean hasTargetCost(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        String[] parts = encodedPassword.split("\\$");
+        // ["", "argon2id", "v=19", "m=..,t=..,p=..", salt, hash]
+        return parts.length == 6 && "argon2id".equals(parts[1]) && parameters.equals(parts[3]);
+    }
+
+    @Override
+    public String toString() {
+        return "argon2id(" + parameters + ")";
+    }
+}
@@ -0,0 +1,50 @@
+package com.org.wmm.security.password;
+
+import com.org.wmm.common.constants.SecurityConstants;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * BCrypt with a tunable log2 cost ({@code $2a$<cost>$...})
+ */
+public class BCryptHashAlgorithm implements PasswordHashAlgorithm {
+
+    private final int strength;
+    private final BCryptPasswordEncoder encoder;
+
+    public BCryptHashAlgorithm(int strength) {
+        this.strength = strength;
+        this.encoder = new BCryptPasswordEncoder(strength);
+    }
+
+    @Override
+    public String getId() {
+        return SecurityConstants.BCRYPT;
+    }
+
+    @Override
+    public PasswordEncoder getEncoder() {
+        return encoder;
+    }
+
+    @Override
+    public boolean hasTargetCost(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return false;
+        }
+        int costStart = encodedPassword.indexOf('$', 1) + 1;
+        if (costStart <= 0 || costStart + 2 > encodedPassword.length()) {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(costStart, costStart + 2)) == strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "bcrypt(strength=" + strength + ")";
+    }
+}
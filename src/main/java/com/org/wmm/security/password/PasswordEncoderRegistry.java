@@ -0,0 +1,93 @@
+package com.org.wmm.security.password;
+
+import com.org.wmm.common.constants.SecurityConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Password encoders keyed by {@code users.password_algo}, in the spirit of Spring's
+ * {@code DelegatingPasswordEncoder} but without a prefix in the stored hash.
+ * New hashes are always produced with the target algorithm and cost; older hashes stay verifiable
+ * and are upgraded on the next successful login (see {@link #needsRehash}).
+ */
+@Slf4j
+@Component
+public class PasswordEncoderRegistry {
+
+    private final Map<String, PasswordEncoder> encoders = new HashMap<>();
+    private final PasswordHashAlgorithm target;
+
+    @Autowired
+    public PasswordEncoderRegistry(
+            @Value("${auth.password.algorithm:bcrypt}") String targetAlgorithm,
+            @Value("${auth.password.bcrypt.strength:10}") int bcryptStrength,
+            @Value("${auth.password.argon2.memory-kib:19456}") int argon2MemoryKib,
+            @Value("${auth.password.argon2.iterations:2}") int argon2Iterations,
+            @Value("${auth.password.argon2.parallelism:1}") int argon2Parallelism,
+            MeterRegistry meterRegistry
+    ) {
+        this(List.of(
+                new BCryptHashAlgorithm(bcryptStrength),
+                new Argon2HashAlgorithm(argon2MemoryKib, argon2Iterations, argon2Parallelism)
+        ), targetAlgorithm, meterRegistry);
+    }
+
+    public PasswordEncoderRegistry(List<PasswordHashAlgorithm> algorithms, String targetAlgorithm,
+                                   MeterRegistry meterRegistry) {
+        PasswordHashAlgorithm selected = null;
+        for (PasswordHashAlgorithm algorithm : algorithms) {
+            encoders.put(algorithm.getId(),
+                    new TimedPasswordEncoder(algorithm.getEncoder(), algorithm.getId(), meterRegistry));
+            if (algorithm.getId().equals(targetAlgorithm)) {
+                selected = algorithm;
+            }
+        }
+        if (selected == null) {
+            throw new IllegalStateException("Unknown password hashing algorithm: " + targetAlgorithm);
+        }
+        this.target = selected;
+        log.info("Password hashing target: {}", target);
+    }
+
+    public String getTargetAlgorithm() {
+        return target.getId();
+    }
+
+    /**
+     * Encoder for new hashes (target algorithm and cost)
+     */
+    public PasswordEncoder getTargetEncoder() {
+        return encoders.get(target.getId());
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return getTargetEncoder().encode(rawPassword);
+    }
+
+    /**
+     * Check a password against a hash stored with the given algorithm. Rows without an algorithm are treated as BCrypt.
+     */
+    public boolean matches(String algorithm, CharSequence rawPassword, String encodedPassword) {
+        PasswordEncoder encoder = encoders.get(algorithm == null ? SecurityConstants.BCRYPT : algorithm);
+        if (encoder == null) {
+            log.warn("No password encoder registered for algorithm: {}", algorithm);
+            return false;
+        }
+        return encoder.matches(rawPassword, encodedPassword);
+    }
+
+    /**
+     * Whether a hash should be replaced because its algorithm or cost differs from the target
+     */
+    public boolean needsRehash(String algorithm, String encodedPassword) {
+        return !target.getId().equals(algorithm) || !target.hasTargetCost(encodedPassword);
+    }
+}
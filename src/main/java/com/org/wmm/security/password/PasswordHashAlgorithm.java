@@ -0,0 +1,21 @@
+package com.org.wmm.security.password;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * A password hashing scheme stored under one {@code users.password_algo} value
+ */
+public interface PasswordHashAlgorithm {
+
+    /**
+     * Value stored in {@code users.password_algo}
+     */
+    String getId();
+
+    PasswordEncoder getEncoder();
+
+    /**
+     * Whether the stored hash was produced with the currently configured cost parameters
+     */
+    boolean hasTargetCost(String encodedPassword);
+}
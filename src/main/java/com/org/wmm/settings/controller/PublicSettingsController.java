@@ -0,0 +1,51 @@
+package com.org.wmm.settings.controller;
+
+import com.org.wmm.common.dto.BaseResponse;
+import com.org.wmm.settings.dto.PublicSettings;
+import com.org.wmm.settings.service.SettingsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/public/settings")
+@Tag(name = "Public settings", description = "Site settings marked as public")
+public class PublicSettingsController {
+
+    private final SettingsService settingsService;
+    private final CacheControl cacheControl;
+
+    public PublicSettingsController(SettingsService settingsService,
+                                    @Value("${settings.max-age:60}") long maxAgeSeconds) {
+        this.settingsService = settingsService;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+    }
+
+    @Operation(summary = "Public settings", description = "Typed values of the public settings, by key. "
+            + "Supports If-None-Match and If-Modified-Since.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Public settings"),
+            @ApiResponse(responseCode = "304", description = "Not modified")
+    })
+    @SecurityRequirement(name = "")
+    @GetMapping
+    public ResponseEntity<BaseResponse<PublicSettings>> getSettings() {
+        PublicSettings settings = settingsService.getPublicSettings();
+        // A matching If-None-Match / If-Modified-Since turns this into a 304 without a body
+        return ResponseEntity.ok()
+                .eTag(settings.getEtag())
+                .lastModified(settings.getLastModified())
+                .cacheControl(cacheControl)
+                .body(BaseResponse.success(settings));
+    }
+}
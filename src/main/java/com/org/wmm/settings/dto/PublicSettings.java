@@ -0,0 +1,28 @@
+package com.org.wmm.settings.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Settings marked public, as typed values. Built once per change and shared by all requests.
+ */
+@Value
+@Builder(toBuilder = true)
+@Schema(description = "Public site settings")
+public class PublicSettings {
+
+    @Schema(description = "Values by key: strings, integers, booleans or JSON",
+            example = "{\"site.name\": \"WilliamMacMiron\", \"site.minimum_age\": 18}")
+    Map<String, Object> settings;
+
+    @JsonIgnore
+    String etag;
+
+    @JsonIgnore
+    Instant lastModified;
+}
@@ -0,0 +1,31 @@
+package com.org.wmm.settings.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Reads the {@code settings} table; it holds a few dozen rows, so it is always read whole
+ */
+@Repository
+@RequiredArgsConstructor
+public class SettingsRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<SettingRow> findAll() {
+        return jdbcTemplate.query("SELECT key, value, value_type, is_public, updated_at FROM settings ORDER BY key",
+                (rs, rowNum) -> new SettingRow(
+                        rs.getString("key"),
+                        rs.getString("value"),
+                        rs.getString("value_type"),
+                        rs.getBoolean("is_public"),
+                        rs.getObject("updated_at", OffsetDateTime.class)));
+    }
+
+    public record SettingRow(String key, String value, String valueType, boolean isPublic, OffsetDateTime updatedAt) {
+    }
+}
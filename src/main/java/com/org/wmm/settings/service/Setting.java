@@ -0,0 +1,12 @@
+package com.org.wmm.settings.service;
+
+import java.time.OffsetDateTime;
+
+/**
+ * One parsed row of {@code settings}
+ *
+ * @param value parsed according to {@code type}, see {@link SettingType#parse}; JSON trees are shared by
+ *              all readers and must not be modified
+ */
+public record Setting(String key, SettingType type, Object value, boolean publicSetting, OffsetDateTime updatedAt) {
+}
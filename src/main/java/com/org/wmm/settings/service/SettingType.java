@@ -0,0 +1,61 @@
+package com.org.wmm.settings.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Locale;
+
+/**
+ * Values of {@code settings.value_type} and how each is parsed
+ */
+public enum SettingType {
+
+    STRING,
+    INTEGER,
+    BOOLEAN,
+    JSON;
+
+    /**
+     * @throws IllegalArgumentException if the type is not one of the values allowed by {@code chk_value_type}
+     */
+    public static SettingType of(String valueType) {
+        return valueOf(valueType.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * The stored text as a {@link String}, {@link Long}, {@link Boolean} or
+     * {@link com.fasterxml.jackson.databind.JsonNode}; null stays null
+     *
+     * @throws IllegalArgumentException if the text is not a valid value of this type
+     */
+    Object parse(String value, ObjectMapper objectMapper) {
+        if (value == null) {
+            return null;
+        }
+        return switch (this) {
+            case STRING -> value;
+            case INTEGER -> Long.parseLong(value.strip());
+            case BOOLEAN -> parseBoolean(value.strip());
+            case JSON -> parseJson(value, objectMapper);
+        };
+    }
+
+    // Boolean.parseBoolean would read any typo as false
+    private static Boolean parseBoolean(String value) {
+        if ("true".equalsIgnoreCase(value)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Not a boolean: " + value);
+    }
+
+    private static Object parseJson(String value, ObjectMapper objectMapper) {
+        try {
+            return objectMapper.readTree(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+}
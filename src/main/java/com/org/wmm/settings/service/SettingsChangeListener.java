@@ -0,0 +1,135 @@
+package com.org.wmm.settings.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads {@link SettingsService} when the {@code settings} table changes on any replica, using Postgres
+ * {@code LISTEN settings_changed} (see {@code V11__settings_notify.sql}).
+ * <p>
+ * Listening needs a connection that stays open and idle, so a dedicated connection is opened with the
+ * datasource credentials instead of holding one from the pool. If it drops, the listener reconnects after
+ * {@code settings.listen.reconnect-delay}. Every time LISTEN is registered, including the first, the settings
+ * are reloaded once, since changes committed before that sent no notification to this replica.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "settings.listen.enabled", havingValue = "true", matchIfMissing = true)
+public class SettingsChangeListener {
+
+    static final String CHANNEL = "settings_changed";
+
+    private final SettingsService settingsService;
+    private final DataSourceProperties dataSourceProperties;
+    private final int pollTimeoutMs;
+    private final long reconnectDelayMs;
+    private final Thread listener;
+
+    private volatile boolean running = true;
+    private volatile Connection connection;
+
+    public SettingsChangeListener(
+            SettingsService settingsService,
+            DataSourceProperties dataSourceProperties,
+            @Value("${settings.listen.poll-timeout:10000}") int pollTimeoutMs,
+            @Value("${settings.listen.reconnect-delay:5000}") long reconnectDelayMs
+    ) {
+        this.settingsService = settingsService;
+        this.dataSourceProperties = dataSourceProperties;
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+        this.listener = new Thread(this::run, "settings-listener");
+        this.listener.setDaemon(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        listener.interrupt();
+        closeQuietly(connection);
+        try {
+            listener.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A new connection to the application database, outside the pool
+     */
+    Connection connect() throws SQLException {
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection listening = connect()) {
+                connection = listening;
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Listening for settings changes");
+                // Covers changes committed before LISTEN: since startup loaded the settings, or while disconnected
+                settingsService.reload();
+                PGConnection pgConnection = listening.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications != null && notifications.length > 0) {
+                        log.debug("Settings changed, reloading");
+                        settingsService.reload();
+                    }
+                }
+            } catch (SQLException | DataAccessException e) {
+                if (running) {
+                    log.warn("Settings listener failed, reconnecting in {} ms: {}", reconnectDelayMs, e.getMessage());
+                }
+            } finally {
+                connection = null;
+            }
+            if (running && !pause()) {
+                return;
+            }
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(reconnectDelayMs);
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Could not close settings listener connection: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.org.wmm.settings.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.wmm.settings.dto.PublicSettings;
+import com.org.wmm.settings.repository.SettingsRepository;
+import com.org.wmm.settings.repository.SettingsRepository.SettingRow;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Typed, in-memory view of the {@code settings} table. All rows are parsed once into an immutable
+ * snapshot that readers use without locking or queries; {@link #reload()} builds a new snapshot and swaps
+ * it in, so a reader sees either all old or all new values. Reloads are triggered by
+ * {@link SettingsChangeListener} whenever any replica changes the table.
+ * <p>
+ * Accessors return the default when a setting is missing, null, unparseable or of another type, so a bad
+ * row edited by hand degrades to the built-in behaviour instead of failing requests.
+ */
+@Slf4j
+@Service
+public class SettingsService {
+
+    private final SettingsRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Timer reloadTimer;
+
+    private volatile Snapshot snapshot;
+
+    public SettingsService(SettingsRepository repository, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.reloadTimer = Timer.builder("settings.reload")
+                .description("Time to load and parse all settings")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            reload();
+        } catch (DataAccessException e) {
+            log.warn("Could not load settings at startup, will retry on first use: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Load all settings and replace the snapshot
+     */
+    public synchronized void reload() {
+        reloadTimer.record(() -> snapshot = build(repository.findAll(), snapshot));
+    }
+
+    public Optional<Setting> find(String key) {
+        return Optional.ofNullable(current().settings().get(key));
+    }
+
+    public String getString(String key, String defaultValue) {
+        return value(key, SettingType.STRING, String.class, defaultValue);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        return value(key, SettingType.INTEGER, Long.class, defaultValue);
+    }
+
+    /**
+     * @return the default also when the value does not fit in an int
+     */
+    public int getInt(String key, int defaultValue) {
+        long value = getLong(key, defaultValue);
+        return value == (int) value ? (int) value : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return value(key, SettingType.BOOLEAN, Boolean.class, defaultValue);
+    }
+
+    /**
+     * Pre-parsed JSON value; shared with other readers, so it must not be modified
+     */
+    public Optional<JsonNode> getJson(String key) {
+        return Optional.ofNullable(value(key, SettingType.JSON, JsonNode.class, null));
+    }
+
+    public PublicSettings getPublicSettings() {
+        return current().publicSettings();
+    }
+
+    private <T> T value(String key, SettingType type, Class<T> javaType, T defaultValue) {
+        Setting setting = current().settings().get(key);
+        if (setting == null || setting.type() != type || setting.value() == null) {
+            return defaultValue;
+        }
+        return javaType.cast(setting.value());
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private Snapshot build(List<SettingRow> rows, Snapshot previous) {
+        Map<String, Setting> settings = new HashMap<>();
+        Map<String, Object> publicValues = new TreeMap<>();
+        for (SettingRow row : rows) {
+            Setting setting = parse(row);
+            if (setting == null) {
+                continue;
+            }
+            settings.put(setting.key(), setting);
+            if (setting.publicSetting()) {
+                publicValues.put(setting.key(), setting.value());
+            }
+        }
+
+        PublicSettings publicSettings = PublicSettings.builder()
+                .settings(Collections.unmodifiableMap(publicValues))
+                .build();
+        String etag = etagOf(publicSettings);
+        if (previous != null && previous.publicSettings().getEtag().equals(etag)) {
+            // Unchanged public values keep their validators, so clients keep getting 304s
+            publicSettings = previous.publicSettings();
+        } else {
+            publicSettings = publicSettings.toBuilder()
+                    .etag(etag)
+                    .lastModified(lastModified(rows, previous))
+                    .build();
+        }
+        log.info("Loaded {} settings ({} public)", settings.size(), publicValues.size());
+        return new Snapshot(Map.copyOf(settings), publicSettings);
+    }
+
+    /**
+     * The newest {@code updated_at} of the public rows (kept current by {@code trg_settings_updated_at}), not
+     * the reload time, so every replica sends the same validator. Never earlier than the previous snapshot's,
+     * and later when that did not move (a public row was deleted), so If-Modified-Since alone never gets a
+     * 304 for changed values.
+     */
+    private static Instant lastModified(List<SettingRow> rows, Snapshot previous) {
+        Instant newest = rows.stream()
+                .filter(SettingRow::isPublic)
+                .map(SettingRow::updatedAt)
+                .filter(Objects::nonNull)
+                .map(OffsetDateTime::toInstant)
+                .max(Comparator.naturalOrder())
+                .orElse(Instant.EPOCH)
+                .truncatedTo(ChronoUnit.SECONDS);
+        if (previous == null) {
+            return newest;
+        }
+        Instant before = previous.publicSettings().getLastModified();
+        return newest.isAfter(before) ? newest : before.plusSeconds(1);
+    }
+
+    private Setting parse(SettingRow row) {
+        try {
+            SettingType type = SettingType.of(row.valueType());
+            return new Setting(row.key(), type, type.parse(row.value(), objectMapper), row.isPublic(), row.updatedAt());
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring setting {} of type {}: {}", row.key(), row.valueType(), e.getMessage());
+            return null;
+        }
+    }
+
+    private String etagOf(PublicSettings settings) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(settings)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize public settings", e);
+        }
+    }
+
+    private record Snapshot(Map<String, Setting> settings, PublicSettings publicSettings) {
+    }
+}
@@ -2,7 +2,9 @@ package com.org.wmm.users.controller;
 
 import com.org.wmm.auth.dto.UserInfo;
 import com.org.wmm.common.dto.BaseResponse;
-import com.org.wmm.users.entity.UserEntity;
+import com.org.wmm.security.JwtAuthenticationToken;
+import com.org.wmm.security.JwtClaims;
+import com.org.wmm.users.dto.UserSnapshot;
 import com.org.wmm.users.service.CustomUserDetailsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,6 +12,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,7 +20,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.stream.Collectors;
+import java.time.Instant;
 
 @Slf4j
 @RestController
@@ -29,31 +32,60 @@ public class UserController {
     private final CustomUserDetailsService userDetailsService;
 
     /**
-     * GET /users/me - Get current authenticated user info
+     * GET /users/me - Get current authenticated user info.
+     * Answered from the access token claims; only tokens issued before the profile claims existed fall back
+     * to the (cached) user snapshot. Spring turns a matching If-None-Match into a 304.
      */
-    @Operation(summary = "Get current user", description = "Returns profile of the currently authenticated user (from JWT).")
+    @Operation(summary = "Get current user", description = "Returns profile of the currently authenticated user (from JWT). "
+            + "Reflects the user as of token issue; send If-None-Match with the returned ETag to get 304 when unchanged.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "User info"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag"),
             @ApiResponse(responseCode = "401", description = "Not authenticated")
     })
     @GetMapping("/me")
     public ResponseEntity<BaseResponse<UserInfo>> getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
 
+        if (authentication instanceof JwtAuthenticationToken token && token.getClaims().getUserId() != null) {
+            JwtClaims claims = token.getClaims();
+            UserInfo userInfo = UserInfo.builder()
+                    .id(claims.getUserId())
+                    .email(claims.getSubject())
+                    .displayName(claims.getDisplayName())
+                    .roles(claims.getRoles())
+                    .build();
+            return profileResponse(userInfo, claims.getUserVersion());
+        }
+
+        String email = authentication.getName();
         log.debug("Getting current user info for: {}", email);
 
-        UserEntity user = userDetailsService.getUserByEmail(email);
+        UserSnapshot user = userDetailsService.getUserSnapshot(email);
 
         UserInfo userInfo = UserInfo.builder()
                 .id(user.getId())
                 .email(user.getEmail())
                 .displayName(user.getDisplayName())
-                .roles(user.getUserRoles().stream()
-                        .map(ur -> ur.getRole().getName())
-                        .collect(Collectors.toList()))
+                .roles(user.getRoles())
                 .build();
+        return profileResponse(userInfo, user.getUpdatedAt() == null ? null : user.getUpdatedAt().toInstant());
+    }
 
-        return ResponseEntity.ok(BaseResponse.success(userInfo));
+    private ResponseEntity<BaseResponse<UserInfo>> profileResponse(UserInfo userInfo, Instant userVersion) {
+        return ResponseEntity.ok()
+                .eTag(etagOf(userInfo, userVersion))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(BaseResponse.success(userInfo));
+    }
+
+    /**
+     * Strong ETag from the user's updated_at. Role assignments do not touch users.updated_at,
+     * so the role list is folded in as well.
+     */
+    static String etagOf(UserInfo userInfo, Instant userVersion) {
+        long version = userVersion == null ? 0 : userVersion.toEpochMilli();
+        return "\"" + userInfo.getId() + "-" + Long.toHexString(version)
+                + "-" + Integer.toHexString(userInfo.getRoles().hashCode()) + "\"";
     }
 }
@@ -0,0 +1,47 @@
+package com.org.wmm.users.dto;
+
+import com.org.wmm.users.entity.UserEntity;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Immutable, detached copy of the user fields needed on hot paths (refresh, /users/me).
+ * Held in {@link com.org.wmm.users.service.UserSnapshotCache}; never contains the password hash.
+ */
+@Value
+@Builder
+public class UserSnapshot {
+
+    Long id;
+    String email;
+    String displayName;
+    boolean active;
+    OffsetDateTime lockedUntil;
+    List<String> roles;
+    OffsetDateTime updatedAt;
+
+    public boolean isLocked(OffsetDateTime now) {
+        return lockedUntil != null && lockedUntil.isAfter(now);
+    }
+
+    /**
+     * Copy a user whose roles are already loaded
+     */
+    public static UserSnapshot from(UserEntity user) {
+        return UserSnapshot.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .displayName(user.getDisplayName())
+                .active(Boolean.TRUE.equals(user.getIsActive()))
+                .lockedUntil(user.getLockedUntil())
+                .roles(user.getUserRoles().stream()
+                        .map(userRole -> userRole.getRole().getName())
+                        .sorted()
+                        .toList())
+                .updatedAt(user.getUpdatedAt())
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.org.wmm.users.entity;
 
+import com.org.wmm.audit.domain.AuditLogged;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -11,6 +12,7 @@ import java.time.OffsetDateTime;
 @Getter
 @Setter
 @Entity
+@AuditLogged(value = "role", ignore = "createdAt")
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,5 +1,7 @@
 package com.org.wmm.users.entity;
 
+import com.org.wmm.audit.domain.AuditLogged;
+import com.org.wmm.users.service.UserSnapshotEvictionListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -15,6 +17,9 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
+@AuditLogged(value = "user", ignore = {"createdAt", "updatedAt", "lastLoginAt", "failedLoginAttempts"},
+        mask = "passwordHash")
+@EntityListeners(UserSnapshotEvictionListener.class)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -81,7 +86,7 @@ public class UserEntity {
     @Column(name = "updated_at")
     private OffsetDateTime updatedAt;
 
-    @OneToMany(mappedBy = "user", fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "user", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @Builder.Default
     private Set<UserRoleEntity> userRoles = new HashSet<>();
 }
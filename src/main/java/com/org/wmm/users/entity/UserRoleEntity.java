@@ -1,5 +1,6 @@
 package com.org.wmm.users.entity;
 
+import com.org.wmm.users.service.UserSnapshotEvictionListener;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -9,6 +10,7 @@ import java.time.OffsetDateTime;
 @Getter
 @Setter
 @Entity
+@EntityListeners(UserSnapshotEvictionListener.class)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
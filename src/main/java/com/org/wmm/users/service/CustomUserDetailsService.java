@@ -1,18 +1,20 @@
 package com.org.wmm.users.service;
 
 import com.org.wmm.common.error.ResourceNotFoundException;
+import com.org.wmm.security.password.AccountUserDetails;
+import com.org.wmm.users.dto.UserSnapshot;
 import com.org.wmm.users.entity.UserEntity;
 import com.org.wmm.users.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -21,6 +23,7 @@ import java.util.stream.Collectors;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserSnapshotCache userSnapshotCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -30,21 +33,23 @@ public class CustomUserDetailsService implements UserDetailsService {
         UserEntity user = userRepository.findByEmailWithRoles(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
+        // The roles are loaded anyway, so warm the snapshot cache for the refreshes that follow
+        userSnapshotCache.put(UserSnapshot.from(user));
+
         if (!user.getIsActive()) {
             throw new UsernameNotFoundException("User account is inactive");
         }
 
-        return User.builder()
-                .username(user.getEmail())
-                .password(user.getPasswordHash())
-                .authorities(user.getUserRoles().stream()
+        return new AccountUserDetails(
+                user.getEmail(),
+                user.getPasswordHash(),
+                user.getPasswordAlgo(),
+                user.getIsActive(),
+                user.getLockedUntil() == null || !user.getLockedUntil().isAfter(java.time.OffsetDateTime.now()),
+                user.getUserRoles().stream()
                         .map(userRole -> new SimpleGrantedAuthority(userRole.getRole().getName()))
-                        .collect(Collectors.toList()))
-                .accountExpired(false)
-                .accountLocked(user.getLockedUntil() != null && user.getLockedUntil().isAfter(java.time.OffsetDateTime.now()))
-                .credentialsExpired(false)
-                .disabled(!user.getIsActive())
-                .build();
+                        .collect(Collectors.toList())
+        );
     }
 
     @Transactional(readOnly = true)
@@ -52,5 +57,17 @@ public class CustomUserDetailsService implements UserDetailsService {
         return userRepository.findByEmailWithRoles(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
     }
+
+    /**
+     * Cached, read-only view of the user; only a cache miss touches the database
+     */
+    public Optional<UserSnapshot> findUserSnapshot(String email) {
+        return userSnapshotCache.get(email, key -> userRepository.findByEmailWithRoles(key).map(UserSnapshot::from));
+    }
+
+    public UserSnapshot getUserSnapshot(String email) {
+        return findUserSnapshot(email)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
+    }
 }
 
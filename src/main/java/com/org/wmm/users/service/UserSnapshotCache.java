@@ -0,0 +1,78 @@
+package com.org.wmm.users.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.org.wmm.users.dto.UserSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache of {@link UserSnapshot}s keyed by email.
+ * <p>
+ * Entries are evicted when a user or one of their role assignments changes (see
+ * {@link UserSnapshotEvictionListener}) and on logout-all. An eviction inside a transaction is repeated after
+ * commit, so a concurrent reader cannot re-cache the pre-commit row. The TTL bounds staleness for changes
+ * made outside JPA (manual SQL, other nodes).
+ */
+@Slf4j
+@Component
+public class UserSnapshotCache {
+
+    private final Cache<String, UserSnapshot> cache;
+
+    public UserSnapshotCache(
+            @Value("${users.snapshot-cache.max-size:10000}") long maxSize,
+            @Value("${users.snapshot-cache.ttl:60000}") long ttlMs,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users.snapshot");
+    }
+
+    /**
+     * Cached snapshot, loading it with {@code loader} on a miss. Empty results are not cached.
+     */
+    public Optional<UserSnapshot> get(String email, Function<String, Optional<UserSnapshot>> loader) {
+        return Optional.ofNullable(cache.get(email, key -> loader.apply(key).orElse(null)));
+    }
+
+    public void put(UserSnapshot snapshot) {
+        cache.put(snapshot.getEmail(), snapshot);
+    }
+
+    public void evict(String email) {
+        runNowAndAfterCommit(() -> cache.invalidate(email));
+    }
+
+    /**
+     * Evict by id, for changes (role assignments) that do not carry the email
+     */
+    public void evictByUserId(Long userId) {
+        runNowAndAfterCommit(() -> cache.asMap().values().removeIf(snapshot -> snapshot.getId().equals(userId)));
+    }
+
+    private void runNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.org.wmm.users.service;
+
+import com.org.wmm.users.entity.UserEntity;
+import com.org.wmm.users.entity.UserRoleEntity;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on {@link UserEntity} and {@link UserRoleEntity} that keeps {@link UserSnapshotCache} current.
+ * Hibernate obtains it from Spring's bean container, so it can be injected. JPA allows one method per
+ * callback type, hence the single dispatching method.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserSnapshotEvictionListener {
+
+    private final UserSnapshotCache userSnapshotCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof UserEntity user) {
+            userSnapshotCache.evict(user.getEmail());
+        } else if (entity instanceof UserRoleEntity userRole) {
+            userSnapshotCache.evictByUserId(userRole.getUserId());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+-- WilliamMacMiron Schema V10
+-- image_variants: downscaled copies of uploaded images at fixed widths, generated in the background.
+-- image_variant_jobs: durable work queue for the generator. Workers claim due jobs with
+-- FOR UPDATE SKIP LOCKED and push run_after forward by a lease, so a job whose worker died becomes due
+-- again once the lease runs out. Finished jobs are deleted; jobs out of attempts keep failed_at set.
+
+CREATE TABLE image_variants (
+    id BIGSERIAL PRIMARY KEY,
+    image_id BIGINT NOT NULL REFERENCES images(id) ON DELETE CASCADE,
+    width INTEGER NOT NULL,
+    height INTEGER NOT NULL,
+    file_path VARCHAR(500) NOT NULL,
+    file_size_bytes BIGINT NOT NULL,
+    mime_type VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (image_id, width)
+);
+
+CREATE TABLE image_variant_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    image_id BIGINT NOT NULL UNIQUE REFERENCES images(id) ON DELETE CASCADE,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    run_after TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error TEXT,
+    failed_at TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_image_variant_jobs_due ON image_variant_jobs(run_after, id) WHERE failed_at IS NULL;
+
+-- Queue a job in the transaction that adds the image, so no upload is ever left without one.
+-- A replaced file invalidates the variants of the old one.
+CREATE FUNCTION queue_image_variant_job() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        DELETE FROM image_variants WHERE image_id = NEW.id;
+    END IF;
+    INSERT INTO image_variant_jobs (image_id) VALUES (NEW.id)
+    ON CONFLICT (image_id) DO UPDATE
+        SET attempts = 0, run_after = CURRENT_TIMESTAMP, last_error = NULL, failed_at = NULL;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_images_insert_variant_jobs AFTER INSERT ON images
+    FOR EACH ROW EXECUTE FUNCTION queue_image_variant_job();
+CREATE TRIGGER trg_images_update_variant_jobs AFTER UPDATE OF file_path ON images
+    FOR EACH ROW WHEN (OLD.file_path IS DISTINCT FROM NEW.file_path)
+    EXECUTE FUNCTION queue_image_variant_job();
+
+-- Cards show the primary image as the smallest variant at least 480px wide (the listing card width),
+-- or the original until such a variant exists
+CREATE OR REPLACE FUNCTION refresh_item_cards(p_item_ids BIGINT[]) RETURNS INTEGER AS $$
+DECLARE
+    written INTEGER;
+BEGIN
+    DELETE FROM item_cards WHERE p_item_ids IS NULL OR item_id = ANY(p_item_ids);
+
+    INSERT INTO item_cards (item_id, language_id, slug, title, subtitle, excerpt, image_path, overall_score,
+                            abv, vintage, volume_ml, price_pln, is_featured,
+                            category_id, category_slug, topic_id, topic_slug, subtopic_id, subtopic_slug,
+                            partner_id, partner_slug, published_at)
+    SELECT DISTINCT ON (i.id, l.id)
+           i.id, l.id, i.slug, tr.title, tr.subtitle, tr.excerpt, COALESCE(card_img.file_path, img.file_path),
+           tn.overall_score, i.abv, i.vintage, i.volume_ml, i.price_pln, i.is_featured,
+           c.id, c.slug, t.id, t.slug, s.id, s.slug, p.id, p.slug, i.published_at
+    FROM items i
+    CROSS JOIN languages l
+    JOIN item_translations tr ON tr.item_id = i.id
+         AND (tr.language_id = l.id
+              OR tr.language_id = (SELECT id FROM languages WHERE is_default ORDER BY id LIMIT 1))
+    JOIN categories c ON c.id = i.category_id
+    JOIN topics t ON t.id = i.topic_id
+    LEFT JOIN subtopics s ON s.id = i.subtopic_id
+    LEFT JOIN partners p ON p.id = i.partner_id
+    LEFT JOIN images img ON img.item_id = i.id AND img.is_primary
+    LEFT JOIN LATERAL (
+        SELECT v.file_path FROM image_variants v
+        WHERE v.image_id = img.id AND v.width >= 480
+        ORDER BY v.width
+        LIMIT 1
+    ) card_img ON TRUE
+    LEFT JOIN tasting_notes tn ON tn.item_id = i.id
+    WHERE l.is_active
+      AND i.status = 'published' AND i.published_at IS NOT NULL
+      AND (p_item_ids IS NULL OR i.id = ANY(p_item_ids))
+    ORDER BY i.id, l.id, (tr.language_id = l.id) DESC;
+
+    GET DIAGNOSTICS written = ROW_COUNT;
+    RETURN written;
+END;
+$$ LANGUAGE plpgsql;
+
+-- One refresh per statement: a job inserts all variants of an image at once
+CREATE FUNCTION item_cards_on_variant_change() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM refresh_item_cards(ARRAY(
+        SELECT DISTINCT img.item_id FROM new_variants v JOIN images img ON img.id = v.image_id));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_image_variants_item_cards AFTER INSERT ON image_variants
+    REFERENCING NEW TABLE AS new_variants
+    FOR EACH STATEMENT EXECUTE FUNCTION item_cards_on_variant_change();
+
+-- Images uploaded before this migration
+INSERT INTO image_variant_jobs (image_id) SELECT id FROM images;
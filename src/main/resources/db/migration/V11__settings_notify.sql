@@ -0,0 +1,14 @@
+-- WilliamMacMiron Schema V11
+-- Settings are held in memory by every replica; any change to the table notifies them on the
+-- settings_changed channel. NOTIFY is delivered on commit and duplicates within one transaction are
+-- folded, so a statement touching several settings causes one reload.
+
+CREATE FUNCTION notify_settings_changed() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('settings_changed', '');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_settings_notify AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON settings
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_settings_changed();
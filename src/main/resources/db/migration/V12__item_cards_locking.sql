@@ -0,0 +1,57 @@
+-- WilliamMacMiron Schema V12
+-- refresh_item_cards, as of V10, with two fixes:
+-- * It locks the items it refreshes. Edits of translations, images and tasting notes hold only FOR KEY SHARE
+--   on items, so two transactions could delete and re-insert the same cards concurrently and the second
+--   commit failed on the item_cards primary key. FOR NO KEY UPDATE does not conflict with those FK locks,
+--   so it cannot deadlock with them; items are locked in id order so concurrent refreshes cannot deadlock
+--   either. Once the lock is granted, the INSERT takes a new snapshot and sees the other transaction's edit.
+-- * Items without a translation in the card's or the default language keep a card (without texts), as
+--   they were listed before V7.
+
+CREATE OR REPLACE FUNCTION refresh_item_cards(p_item_ids BIGINT[]) RETURNS INTEGER AS $$
+DECLARE
+    written INTEGER;
+BEGIN
+    PERFORM 1 FROM items
+    WHERE p_item_ids IS NULL OR id = ANY(p_item_ids)
+    ORDER BY id
+    FOR NO KEY UPDATE;
+
+    DELETE FROM item_cards WHERE p_item_ids IS NULL OR item_id = ANY(p_item_ids);
+
+    INSERT INTO item_cards (item_id, language_id, slug, title, subtitle, excerpt, image_path, overall_score,
+                            abv, vintage, volume_ml, price_pln, is_featured,
+                            category_id, category_slug, topic_id, topic_slug, subtopic_id, subtopic_slug,
+                            partner_id, partner_slug, published_at)
+    SELECT DISTINCT ON (i.id, l.id)
+           i.id, l.id, i.slug, tr.title, tr.subtitle, tr.excerpt, COALESCE(card_img.file_path, img.file_path),
+           tn.overall_score, i.abv, i.vintage, i.volume_ml, i.price_pln, i.is_featured,
+           c.id, c.slug, t.id, t.slug, s.id, s.slug, p.id, p.slug, i.published_at
+    FROM items i
+    CROSS JOIN languages l
+    LEFT JOIN item_translations tr ON tr.item_id = i.id
+         AND (tr.language_id = l.id
+              OR tr.language_id = (SELECT id FROM languages WHERE is_default ORDER BY id LIMIT 1))
+    JOIN categories c ON c.id = i.category_id
+    JOIN topics t ON t.id = i.topic_id
+    LEFT JOIN subtopics s ON s.id = i.subtopic_id
+    LEFT JOIN partners p ON p.id = i.partner_id
+    LEFT JOIN images img ON img.item_id = i.id AND img.is_primary
+    LEFT JOIN LATERAL (
+        SELECT v.file_path FROM image_variants v
+        WHERE v.image_id = img.id AND v.width >= 480
+        ORDER BY v.width
+        LIMIT 1
+    ) card_img ON TRUE
+    LEFT JOIN tasting_notes tn ON tn.item_id = i.id
+    WHERE l.is_active
+      AND i.status = 'published' AND i.published_at IS NOT NULL
+      AND (p_item_ids IS NULL OR i.id = ANY(p_item_ids))
+    ORDER BY i.id, l.id, (tr.language_id = l.id) DESC NULLS LAST;
+
+    GET DIAGNOSTICS written = ROW_COUNT;
+    RETURN written;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT refresh_item_cards(NULL);
@@ -0,0 +1,16 @@
+-- WilliamMacMiron Schema V13
+-- Revoked refresh token families (reuse detection, logout), so every replica and every restart knows them.
+-- revoked_at on the token rows cannot tell a revoked family from ordinary rotation.
+-- Rows are kept until expires_at, the latest expiry a token of the family can have.
+
+CREATE TABLE auth_refresh_token_family_revocations (
+    family_id UUID PRIMARY KEY,
+    revoked_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_refresh_token_family_revocations_revoked_at ON auth_refresh_token_family_revocations(revoked_at);
+CREATE INDEX idx_refresh_token_family_revocations_expires_at ON auth_refresh_token_family_revocations(expires_at);
+
+-- Revocation sync picks up tokens issued on other nodes
+CREATE INDEX idx_refresh_tokens_created_at ON auth_refresh_tokens(created_at);
@@ -0,0 +1,20 @@
+-- WilliamMacMiron Schema V14
+-- Refresh item_cards when variants are deleted. Replacing an image's file deletes its variants in
+-- trg_images_update_variant_jobs, which fires after trg_images_item_cards (triggers run in name order), so the
+-- card was refreshed while the old variants still existed and kept pointing at a deleted file.
+-- Variants deleted with their image (ON DELETE CASCADE) no longer join to it; trg_images_item_cards covers those.
+
+CREATE FUNCTION item_cards_on_variant_delete() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM refresh_item_cards(ARRAY(
+        SELECT DISTINCT img.item_id FROM old_variants v JOIN images img ON img.id = v.image_id));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_image_variants_delete_item_cards AFTER DELETE ON image_variants
+    REFERENCING OLD TABLE AS old_variants
+    FOR EACH STATEMENT EXECUTE FUNCTION item_cards_on_variant_delete();
+
+-- Cards left pointing at variants deleted before this migration
+SELECT refresh_item_cards(NULL);
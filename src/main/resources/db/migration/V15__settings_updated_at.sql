@@ -0,0 +1,14 @@
+-- WilliamMacMiron Schema V15
+-- Keep settings.updated_at current on every change, so the Last-Modified of /public/settings (the newest
+-- updated_at of the public rows) moves whenever a value does, not only when a row is inserted.
+
+CREATE FUNCTION touch_settings_updated_at() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at = CURRENT_TIMESTAMP;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_settings_updated_at BEFORE UPDATE ON settings
+    FOR EACH ROW WHEN (OLD IS DISTINCT FROM NEW)
+    EXECUTE FUNCTION touch_settings_updated_at();
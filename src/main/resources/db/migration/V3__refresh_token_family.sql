@@ -0,0 +1,7 @@
+-- WilliamMacMiron Schema V3
+-- Refresh token rotation: every token issued from one login shares a family,
+-- so reuse of a rotated token can revoke the whole chain.
+
+ALTER TABLE auth_refresh_tokens ADD COLUMN family_id UUID;
+
+CREATE INDEX idx_refresh_tokens_family_id ON auth_refresh_tokens(family_id);
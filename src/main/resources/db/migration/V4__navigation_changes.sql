@@ -0,0 +1,43 @@
+-- WilliamMacMiron Schema V4
+-- Change log for the navigation tree: every insert, update or delete of a category, topic,
+-- subtopic, their translations or a language is recorded, so application nodes can reload
+-- only the rows that changed (deletes included) instead of polling whole tables.
+-- Readers page by transaction id rather than by the serial id: a transaction that took a lower id
+-- may commit later, but every change below the oldest running transaction is final.
+
+CREATE TABLE navigation_changes (
+    id BIGSERIAL PRIMARY KEY,
+    table_name VARCHAR(50) NOT NULL,
+    row_id BIGINT NOT NULL,
+    tx_id XID8 NOT NULL DEFAULT pg_current_xact_id(),
+    changed_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_navigation_changes_tx_id ON navigation_changes(tx_id);
+CREATE INDEX idx_navigation_changes_changed_at ON navigation_changes(changed_at);
+
+CREATE FUNCTION record_navigation_change() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO navigation_changes (table_name, row_id) VALUES (TG_TABLE_NAME, OLD.id);
+        RETURN OLD;
+    END IF;
+    INSERT INTO navigation_changes (table_name, row_id) VALUES (TG_TABLE_NAME, NEW.id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_categories_navigation AFTER INSERT OR UPDATE OR DELETE ON categories
+    FOR EACH ROW EXECUTE FUNCTION record_navigation_change();
+CREATE TRIGGER trg_category_translations_navigation AFTER INSERT OR UPDATE OR DELETE ON category_translations
+    FOR EACH ROW EXECUTE FUNCTION record_navigation_change();
+CREATE TRIGGER trg_topics_navigation AFTER INSERT OR UPDATE OR DELETE ON topics
+    FOR EACH ROW EXECUTE FUNCTION record_navigation_change();
+CREATE TRIGGER trg_topic_translations_navigation AFTER INSERT OR UPDATE OR DELETE ON topic_translations
+    FOR EACH ROW EXECUTE FUNCTION record_navigation_change();
+CREATE TRIGGER trg_subtopics_navigation AFTER INSERT OR UPDATE OR DELETE ON subtopics
+    FOR EACH ROW EXECUTE FUNCTION record_navigation_change();
+CREATE TRIGGER trg_subtopic_translations_navigation AFTER INSERT OR UPDATE OR DELETE ON subtopic_translations
+    FOR EACH ROW EXECUTE FUNCTION record_navigation_change();
+CREATE TRIGGER trg_languages_navigation AFTER INSERT OR UPDATE OR DELETE ON languages
+    FOR EACH ROW EXECUTE FUNCTION record_navigation_change();
@@ -0,0 +1,68 @@
+-- WilliamMacMiron Schema V5
+-- Stored, weighted full-text vector for item translations.
+-- A generated column cannot look up languages.code, so the text search configuration of each row is
+-- kept in search_config (set by trigger from the row's language) and the vector is generated from it.
+
+CREATE FUNCTION search_config_for(language_code VARCHAR) RETURNS REGCONFIG AS $$
+    SELECT CASE lower(split_part(language_code, '-', 1))
+        WHEN 'en' THEN 'english'
+        WHEN 'de' THEN 'german'
+        WHEN 'fr' THEN 'french'
+        WHEN 'es' THEN 'spanish'
+        WHEN 'it' THEN 'italian'
+        WHEN 'pt' THEN 'portuguese'
+        WHEN 'nl' THEN 'dutch'
+        WHEN 'sv' THEN 'swedish'
+        WHEN 'da' THEN 'danish'
+        WHEN 'no' THEN 'norwegian'
+        WHEN 'fi' THEN 'finnish'
+        WHEN 'hu' THEN 'hungarian'
+        WHEN 'ro' THEN 'romanian'
+        WHEN 'ru' THEN 'russian'
+        WHEN 'tr' THEN 'turkish'
+        -- No built-in stemmer (e.g. Polish): index words as written
+        ELSE 'simple'
+    END::regconfig
+$$ LANGUAGE sql IMMUTABLE;
+
+ALTER TABLE item_translations ADD COLUMN search_config REGCONFIG NOT NULL DEFAULT 'simple';
+
+UPDATE item_translations t
+SET search_config = search_config_for(l.code)
+FROM languages l
+WHERE l.id = t.language_id;
+
+CREATE FUNCTION set_item_translation_search_config() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_config := search_config_for((SELECT code FROM languages WHERE id = NEW.language_id));
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Generated columns are computed after BEFORE triggers, so the vector uses the new config
+CREATE TRIGGER trg_item_translations_search_config BEFORE INSERT OR UPDATE OF language_id ON item_translations
+    FOR EACH ROW EXECUTE FUNCTION set_item_translation_search_config();
+
+CREATE FUNCTION refresh_item_translation_search_config() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE item_translations SET search_config = search_config_for(NEW.code) WHERE language_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_languages_search_config AFTER UPDATE OF code ON languages
+    FOR EACH ROW WHEN (OLD.code IS DISTINCT FROM NEW.code)
+    EXECUTE FUNCTION refresh_item_translation_search_config();
+
+-- Weights: title A, subtitle and editorial keywords B, excerpt C, description D
+ALTER TABLE item_translations ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector(search_config, coalesce(title, '')), 'A') ||
+    setweight(to_tsvector(search_config, coalesce(subtitle, '')), 'B') ||
+    setweight(to_tsvector(search_config, coalesce(meta_keywords, '')), 'B') ||
+    setweight(to_tsvector(search_config, coalesce(excerpt, '')), 'C') ||
+    setweight(to_tsvector(search_config, coalesce(description, '')), 'D')
+) STORED;
+
+-- Replaces the unused expression index, which recomputed to_tsvector on every index update
+DROP INDEX idx_item_translations_search;
+CREATE INDEX idx_item_translations_search_vector ON item_translations USING gin(search_vector);
@@ -0,0 +1,7 @@
+-- WilliamMacMiron Schema V6
+-- Trigram indexes for autocomplete: match partial words and tolerate typos ("glenf", "glenfidich").
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_item_translations_title_trgm ON item_translations USING gin(title gin_trgm_ops);
+CREATE INDEX idx_flavor_translations_name_trgm ON flavor_translations USING gin(name gin_trgm_ops);
@@ -0,0 +1,140 @@
+-- WilliamMacMiron Schema V7
+-- item_cards: precomputed listing card per (published item, active language), so listings read one
+-- table through one index instead of joining items, translations, images, tasting notes and taxonomy.
+-- Texts come from one translation row: the card's language, or the default language if missing.
+-- Kept current by the triggers below; refresh_item_cards(NULL) rebuilds everything.
+
+CREATE TABLE item_cards (
+    item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+    language_id BIGINT NOT NULL REFERENCES languages(id) ON DELETE CASCADE,
+    slug VARCHAR(200) NOT NULL,
+    title VARCHAR(255),
+    subtitle VARCHAR(255),
+    excerpt TEXT,
+    image_path VARCHAR(500),
+    overall_score DECIMAL(4,2),
+    abv DECIMAL(5,2),
+    vintage INTEGER,
+    volume_ml INTEGER,
+    price_pln DECIMAL(10,2),
+    is_featured BOOLEAN NOT NULL,
+    category_id BIGINT NOT NULL,
+    category_slug VARCHAR(150) NOT NULL,
+    topic_id BIGINT NOT NULL,
+    topic_slug VARCHAR(150) NOT NULL,
+    subtopic_id BIGINT,
+    subtopic_slug VARCHAR(150),
+    partner_id BIGINT,
+    partner_slug VARCHAR(150),
+    published_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    refreshed_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (language_id, item_id)
+);
+
+-- Keyset order of the listing, unfiltered and by the most common filters
+CREATE INDEX idx_item_cards_listing ON item_cards(language_id, published_at DESC, item_id DESC);
+CREATE INDEX idx_item_cards_category ON item_cards(language_id, category_slug, published_at DESC, item_id DESC);
+CREATE INDEX idx_item_cards_topic ON item_cards(language_id, topic_slug, published_at DESC, item_id DESC);
+CREATE INDEX idx_item_cards_item_id ON item_cards(item_id);
+
+-- Recompute the cards of the given items, or of all items when p_item_ids is NULL
+CREATE FUNCTION refresh_item_cards(p_item_ids BIGINT[]) RETURNS INTEGER AS $$
+DECLARE
+    written INTEGER;
+BEGIN
+    DELETE FROM item_cards WHERE p_item_ids IS NULL OR item_id = ANY(p_item_ids);
+
+    INSERT INTO item_cards (item_id, language_id, slug, title, subtitle, excerpt, image_path, overall_score,
+                            abv, vintage, volume_ml, price_pln, is_featured,
+                            category_id, category_slug, topic_id, topic_slug, subtopic_id, subtopic_slug,
+                            partner_id, partner_slug, published_at)
+    SELECT DISTINCT ON (i.id, l.id)
+           i.id, l.id, i.slug, tr.title, tr.subtitle, tr.excerpt, img.file_path, tn.overall_score,
+           i.abv, i.vintage, i.volume_ml, i.price_pln, i.is_featured,
+           c.id, c.slug, t.id, t.slug, s.id, s.slug, p.id, p.slug, i.published_at
+    FROM items i
+    CROSS JOIN languages l
+    JOIN item_translations tr ON tr.item_id = i.id
+         AND (tr.language_id = l.id
+              OR tr.language_id = (SELECT id FROM languages WHERE is_default ORDER BY id LIMIT 1))
+    JOIN categories c ON c.id = i.category_id
+    JOIN topics t ON t.id = i.topic_id
+    LEFT JOIN subtopics s ON s.id = i.subtopic_id
+    LEFT JOIN partners p ON p.id = i.partner_id
+    LEFT JOIN images img ON img.item_id = i.id AND img.is_primary
+    LEFT JOIN tasting_notes tn ON tn.item_id = i.id
+    WHERE l.is_active
+      AND i.status = 'published' AND i.published_at IS NOT NULL
+      AND (p_item_ids IS NULL OR i.id = ANY(p_item_ids))
+    ORDER BY i.id, l.id, (tr.language_id = l.id) DESC;
+
+    GET DIAGNOSTICS written = ROW_COUNT;
+    RETURN written;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION item_cards_on_item_change() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM refresh_item_cards(ARRAY[NEW.id]);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Deleted items lose their cards through ON DELETE CASCADE
+CREATE TRIGGER trg_items_item_cards AFTER INSERT OR UPDATE ON items
+    FOR EACH ROW EXECUTE FUNCTION item_cards_on_item_change();
+
+-- Translations, images and tasting notes reference the item through item_id
+CREATE FUNCTION item_cards_on_child_change() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        PERFORM refresh_item_cards(ARRAY[OLD.item_id]);
+    END IF;
+    IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND NEW.item_id <> OLD.item_id) THEN
+        PERFORM refresh_item_cards(ARRAY[NEW.item_id]);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_item_translations_item_cards AFTER INSERT OR UPDATE OR DELETE ON item_translations
+    FOR EACH ROW EXECUTE FUNCTION item_cards_on_child_change();
+CREATE TRIGGER trg_images_item_cards AFTER INSERT OR UPDATE OR DELETE ON images
+    FOR EACH ROW EXECUTE FUNCTION item_cards_on_child_change();
+CREATE TRIGGER trg_tasting_notes_item_cards AFTER INSERT OR UPDATE OR DELETE ON tasting_notes
+    FOR EACH ROW EXECUTE FUNCTION item_cards_on_child_change();
+
+-- Taxonomy and partner slugs are copied into the cards; TG_ARGV: slug column, id column of item_cards
+CREATE FUNCTION item_cards_on_slug_change() RETURNS TRIGGER AS $$
+BEGIN
+    EXECUTE format('UPDATE item_cards SET %I = $1 WHERE %I = $2', TG_ARGV[0], TG_ARGV[1])
+        USING NEW.slug, NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_categories_item_cards AFTER UPDATE OF slug ON categories
+    FOR EACH ROW WHEN (OLD.slug IS DISTINCT FROM NEW.slug)
+    EXECUTE FUNCTION item_cards_on_slug_change('category_slug', 'category_id');
+CREATE TRIGGER trg_topics_item_cards AFTER UPDATE OF slug ON topics
+    FOR EACH ROW WHEN (OLD.slug IS DISTINCT FROM NEW.slug)
+    EXECUTE FUNCTION item_cards_on_slug_change('topic_slug', 'topic_id');
+CREATE TRIGGER trg_subtopics_item_cards AFTER UPDATE OF slug ON subtopics
+    FOR EACH ROW WHEN (OLD.slug IS DISTINCT FROM NEW.slug)
+    EXECUTE FUNCTION item_cards_on_slug_change('subtopic_slug', 'subtopic_id');
+CREATE TRIGGER trg_partners_item_cards AFTER UPDATE OF slug ON partners
+    FOR EACH ROW WHEN (OLD.slug IS DISTINCT FROM NEW.slug)
+    EXECUTE FUNCTION item_cards_on_slug_change('partner_slug', 'partner_id');
+
+-- Activating a language or changing the default affects every card; this is rare, so rebuild all
+CREATE FUNCTION item_cards_on_language_change() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM refresh_item_cards(NULL);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_languages_item_cards AFTER INSERT OR UPDATE OF is_active, is_default ON languages
+    FOR EACH STATEMENT EXECUTE FUNCTION item_cards_on_language_change();
+
+SELECT refresh_item_cards(NULL);
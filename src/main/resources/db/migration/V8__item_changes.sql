@@ -0,0 +1,62 @@
+-- WilliamMacMiron Schema V8
+-- Change log for in-memory item indexes (facets): the id of every item whose facet attributes may have
+-- changed, or NULL when a shared row (category, topic, partner, flavor) changed and everything must be
+-- reloaded. Read by transaction id like navigation_changes.
+
+CREATE TABLE item_changes (
+    id BIGSERIAL PRIMARY KEY,
+    item_id BIGINT,
+    tx_id XID8 NOT NULL DEFAULT pg_current_xact_id(),
+    changed_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_item_changes_tx_id ON item_changes(tx_id);
+CREATE INDEX idx_item_changes_changed_at ON item_changes(changed_at);
+
+CREATE FUNCTION record_item_change() RETURNS TRIGGER AS $$
+DECLARE
+    row_data RECORD;
+BEGIN
+    IF TG_LEVEL = 'STATEMENT' THEN
+        INSERT INTO item_changes (item_id) VALUES (NULL);
+        RETURN NULL;
+    END IF;
+    IF TG_OP = 'DELETE' THEN
+        row_data := OLD;
+    ELSE
+        row_data := NEW;
+    END IF;
+
+    IF TG_TABLE_NAME = 'items' THEN
+        INSERT INTO item_changes (item_id) VALUES (row_data.id);
+    ELSIF TG_TABLE_NAME = 'tasting_notes' THEN
+        INSERT INTO item_changes (item_id) VALUES (row_data.item_id);
+    ELSE
+        -- Flavor links; nothing is recorded when the tasting note itself is being deleted, its own trigger covers it
+        INSERT INTO item_changes (item_id)
+        SELECT item_id FROM tasting_notes WHERE id = row_data.tasting_note_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_items_item_changes AFTER INSERT OR UPDATE OR DELETE ON items
+    FOR EACH ROW EXECUTE FUNCTION record_item_change();
+CREATE TRIGGER trg_tasting_notes_item_changes AFTER INSERT OR UPDATE OR DELETE ON tasting_notes
+    FOR EACH ROW EXECUTE FUNCTION record_item_change();
+CREATE TRIGGER trg_aroma_flavors_item_changes AFTER INSERT OR UPDATE OR DELETE ON aroma_flavors
+    FOR EACH ROW EXECUTE FUNCTION record_item_change();
+CREATE TRIGGER trg_taste_flavors_item_changes AFTER INSERT OR UPDATE OR DELETE ON taste_flavors
+    FOR EACH ROW EXECUTE FUNCTION record_item_change();
+CREATE TRIGGER trg_finish_flavors_item_changes AFTER INSERT OR UPDATE OR DELETE ON finish_flavors
+    FOR EACH ROW EXECUTE FUNCTION record_item_change();
+
+-- Shared rows: one full-reload marker per statement
+CREATE TRIGGER trg_categories_item_changes AFTER UPDATE OF slug ON categories
+    FOR EACH STATEMENT EXECUTE FUNCTION record_item_change();
+CREATE TRIGGER trg_topics_item_changes AFTER UPDATE OF slug ON topics
+    FOR EACH STATEMENT EXECUTE FUNCTION record_item_change();
+CREATE TRIGGER trg_partners_item_changes AFTER UPDATE OF slug, is_active ON partners
+    FOR EACH STATEMENT EXECUTE FUNCTION record_item_change();
+CREATE TRIGGER trg_flavors_item_changes AFTER UPDATE OF slug, is_active ON flavors
+    FOR EACH STATEMENT EXECUTE FUNCTION record_item_change();
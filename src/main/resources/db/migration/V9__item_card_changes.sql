@@ -0,0 +1,27 @@
+-- WilliamMacMiron Schema V9
+-- Log every change of item_cards to item_changes, so in-memory indexes that serve cards (leaderboards)
+-- also see edits of translations and images. Statement-level triggers with transition tables write one
+-- row per item and statement; a statement touching many items (a full card rebuild) logs a single
+-- reload marker instead.
+
+CREATE FUNCTION record_item_card_change() RETURNS TRIGGER AS $$
+BEGIN
+    IF (SELECT count(DISTINCT item_id) FROM changed_cards) > 1000 THEN
+        INSERT INTO item_changes (item_id) VALUES (NULL);
+    ELSE
+        INSERT INTO item_changes (item_id) SELECT DISTINCT item_id FROM changed_cards;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables allow only one event per trigger
+CREATE TRIGGER trg_item_cards_insert_item_changes AFTER INSERT ON item_cards
+    REFERENCING NEW TABLE AS changed_cards
+    FOR EACH STATEMENT EXECUTE FUNCTION record_item_card_change();
+CREATE TRIGGER trg_item_cards_update_item_changes AFTER UPDATE ON item_cards
+    REFERENCING NEW TABLE AS changed_cards
+    FOR EACH STATEMENT EXECUTE FUNCTION record_item_card_change();
+CREATE TRIGGER trg_item_cards_delete_item_changes AFTER DELETE ON item_cards
+    REFERENCING OLD TABLE AS changed_cards
+    FOR EACH STATEMENT EXECUTE FUNCTION record_item_card_change();
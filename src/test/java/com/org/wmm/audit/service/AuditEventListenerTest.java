@@ -0,0 +1,124 @@
+package com.org.wmm.audit.service;
+
+import com.org.wmm.audit.domain.AuditAction;
+import com.org.wmm.audit.domain.AuditEntry;
+import com.org.wmm.audit.service.AuditEventListener.AuditedType;
+import com.org.wmm.users.entity.RoleEntity;
+import com.org.wmm.users.entity.UserEntity;
+import com.org.wmm.users.entity.UserRoleEntity;
+import org.hibernate.type.Type;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuditEventListenerTest {
+
+    private static final String[] NAMES = {"email", "passwordHash", "displayName", "updatedAt", "userRoles"};
+
+    private final AuditedType userType = AuditedType.of(UserEntity.class);
+    private AuditEventListener listener;
+    private Type[] types;
+
+    @BeforeEach
+    void setUp() {
+        listener = new AuditEventListener(null, mock(AuditWriter.class));
+        Type basic = mock(Type.class);
+        Type collection = mock(Type.class);
+        when(collection.isAssociationType()).thenReturn(true);
+        types = new Type[]{basic, basic, basic, basic, collection};
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Nested
+    @DisplayName("diff()")
+    class Diff {
+
+        @Test
+        @DisplayName("Should record only the changed attributes of an update")
+        void shouldRecordChangedAttributes() {
+            AuditEntry entry = listener.diff(userType, NAMES, types, 7, AuditAction.UPDATE,
+                    new Object[]{"a@test.com", "hash", "Old", "t1", null},
+                    new Object[]{"a@test.com", "hash", "New", "t2", null});
+
+            assertThat(entry.entityType()).isEqualTo("user");
+            assertThat(entry.entityId()).isEqualTo(7);
+            assertThat(entry.oldValues()).containsExactly(entry("displayName", "Old"));
+            assertThat(entry.newValues()).containsExactly(entry("displayName", "New"));
+        }
+
+        @Test
+        @DisplayName("Should record that a masked attribute changed without its values")
+        void shouldMaskSecrets() {
+            AuditEntry entry = listener.diff(userType, NAMES, types, 7, AuditAction.UPDATE,
+                    new Object[]{"a@test.com", "old-hash", "Name", "t1", null},
+                    new Object[]{"a@test.com", "new-hash", "Name", "t1", null});
+
+            assertThat(entry.oldValues()).containsExactly(entry("passwordHash", AuditEventListener.MASK));
+            assertThat(entry.newValues()).containsExactly(entry("passwordHash", AuditEventListener.MASK));
+        }
+
+        @Test
+        @DisplayName("Should skip updates that only touch ignored attributes")
+        void shouldSkipIgnoredChanges() {
+            assertThat(listener.diff(userType, NAMES, types, 7, AuditAction.UPDATE,
+                    new Object[]{"a@test.com", "hash", "Name", "t1", null},
+                    new Object[]{"a@test.com", "hash", "Name", "t2", null})).isNull();
+        }
+
+        @Test
+        @DisplayName("Should record the non-null attributes of a create and a delete")
+        void shouldRecordCreateAndDelete() {
+            Object[] state = {"a@test.com", "hash", null, "t1", null};
+
+            AuditEntry created = listener.diff(userType, NAMES, types, 7, AuditAction.CREATE, null, state);
+            AuditEntry deleted = listener.diff(userType, NAMES, types, 7, AuditAction.DELETE, state, null);
+
+            assertThat(created.oldValues()).isNull();
+            assertThat(created.newValues()).containsOnlyKeys("email", "passwordHash")
+                    .containsEntry("passwordHash", AuditEventListener.MASK);
+            assertThat(deleted.newValues()).isNull();
+            assertThat(deleted.oldValues()).containsOnlyKeys("email", "passwordHash");
+        }
+
+        @Test
+        @DisplayName("Should take the address and user agent from the current request")
+        void shouldCaptureClient() {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader("X-Forwarded-For", "203.0.113.9, 10.0.0.1");
+            request.addHeader("User-Agent", "admin-panel");
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+            AuditEntry entry = listener.diff(userType, NAMES, types, 7, AuditAction.DELETE,
+                    new Object[]{"a@test.com", "hash", null, null, null}, null);
+
+            assertThat(entry.ipAddress()).isEqualTo("203.0.113.9");
+            assertThat(entry.userAgent()).isEqualTo("admin-panel");
+            assertThat(entry.userId()).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("AuditedType.of()")
+    class Of {
+
+        @Test
+        @DisplayName("Should audit only entities annotated with @AuditLogged")
+        void shouldReadAnnotation() {
+            assertThat(AuditedType.of(RoleEntity.class).entityType()).isEqualTo("role");
+            assertThat(AuditedType.of(UserRoleEntity.class)).isSameAs(AuditedType.NOT_AUDITED);
+            assertThat(userType.masked()).containsExactly("passwordHash");
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.org.wmm.audit.service;
+
+import com.org.wmm.audit.domain.AuditAction;
+import com.org.wmm.audit.domain.AuditEntry;
+import com.org.wmm.audit.repository.AuditLogRepository;
+import com.org.wmm.audit.service.AuditWriter.OverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditWriterTest {
+
+    @Mock
+    private AuditLogRepository repository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Every insert call's entries, copied: the writer reuses its batch list
+    private final List<List<AuditEntry>> inserts = Collections.synchronizedList(new ArrayList<>());
+    private AuditWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(repository.insert(anyList())).thenAnswer(invocation -> {
+            List<AuditEntry> batch = List.copyOf(invocation.getArgument(0));
+            inserts.add(batch);
+            return batch.size();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    private AuditWriter writer(int capacity, OverflowPolicy policy, int batchSize) {
+        writer = new AuditWriter(repository, capacity, policy, batchSize, 50, 5000, meterRegistry);
+        return writer;
+    }
+
+    private static AuditEntry entry(long entityId) {
+        return new AuditEntry(1L, "user", entityId, AuditAction.UPDATE, Map.of("displayName", "a"),
+                Map.of("displayName", "b"), "127.0.0.1", "test", OffsetDateTime.now());
+    }
+
+    private List<Long> writtenIds() {
+        synchronized (inserts) {
+            return inserts.stream().flatMap(List::stream).map(AuditEntry::entityId).toList();
+        }
+    }
+
+    /**
+     * Makes inserts wait until the returned latch is released
+     */
+    private CountDownLatch blockInserts() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.insert(anyList())).thenAnswer(invocation -> {
+            List<AuditEntry> batch = List.copyOf(invocation.getArgument(0));
+            release.await(5, TimeUnit.SECONDS);
+            inserts.add(batch);
+            return batch.size();
+        });
+        return release;
+    }
+
+    @Nested
+    @DisplayName("submit()")
+    class Submit {
+
+        @Test
+        @DisplayName("Should write entries in multi-row batches of at most the batch size")
+        void shouldWriteInBatches() {
+            AuditWriter writer = writer(100, OverflowPolicy.BLOCK, 3);
+
+            LongStream.rangeClosed(1, 10).forEach(id -> writer.submit(entry(id)));
+            writer.shutdown();
+
+            assertThat(writtenIds()).containsExactlyElementsOf(LongStream.rangeClosed(1, 10).boxed().toList());
+            assertThat(inserts).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(3));
+            assertThat(meterRegistry.counter("audit.entries.written").count()).isEqualTo(10);
+        }
+
+        @Test
+        @DisplayName("Should drop new entries while the buffer is full when the policy is DROP")
+        void shouldDropWhenFull() throws InterruptedException {
+            CountDownLatch release = blockInserts();
+            AuditWriter writer = writer(2, OverflowPolicy.DROP, 1);
+            writer.submit(entry(1));
+            verify(repository, timeout(1000)).insert(anyList());
+
+            writer.submit(entry(2));
+            writer.submit(entry(3));
+            writer.submit(entry(4));
+            release.countDown();
+            writer.shutdown();
+
+            assertThat(writtenIds()).containsExactly(1L, 2L, 3L);
+            assertThat(meterRegistry.counter("audit.entries.dropped").count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should make the caller wait while the buffer is full when the policy is BLOCK")
+        void shouldBlockWhenFull() throws Exception {
+            CountDownLatch release = blockInserts();
+            AuditWriter writer = writer(2, OverflowPolicy.BLOCK, 1);
+            writer.submit(entry(1));
+            verify(repository, timeout(1000)).insert(anyList());
+            writer.submit(entry(2));
+            writer.submit(entry(3));
+
+            CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> writer.submit(entry(4)));
+            Thread.sleep(200);
+            assertThat(blocked).isNotDone();
+
+            release.countDown();
+            blocked.get(5, TimeUnit.SECONDS);
+            writer.shutdown();
+
+            assertThat(writtenIds()).containsExactly(1L, 2L, 3L, 4L);
+            assertThat(meterRegistry.counter("audit.entries.dropped").count()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should retry a failed batch row by row and drop only the rows that fail")
+        void shouldIsolateFailingRows() {
+            when(repository.insert(anyList())).thenAnswer(invocation -> {
+                List<AuditEntry> batch = List.copyOf(invocation.getArgument(0));
+                if (batch.stream().anyMatch(entry -> entry.entityId() == 2)) {
+                    throw new DataIntegrityViolationException("bad row");
+                }
+                inserts.add(batch);
+                return batch.size();
+            });
+            AuditWriter writer = writer(100, OverflowPolicy.BLOCK, 10);
+
+            LongStream.rangeClosed(1, 4).forEach(id -> writer.submit(entry(id)));
+            writer.shutdown();
+
+            assertThat(writtenIds()).containsExactlyInAnyOrder(1L, 3L, 4L);
+            assertThat(meterRegistry.counter("audit.entries.failed").count()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("shutdown()")
+    class Shutdown {
+
+        @Test
+        @DisplayName("Should write every buffered entry before returning")
+        void shouldDrainBuffer() {
+            when(repository.insert(anyList())).thenAnswer(invocation -> {
+                List<AuditEntry> batch = List.copyOf(invocation.getArgument(0));
+                Thread.sleep(5);
+                inserts.add(batch);
+                return batch.size();
+            });
+            AuditWriter writer = writer(10_000, OverflowPolicy.BLOCK, 25);
+
+            LongStream.rangeClosed(1, 2_000).forEach(id -> writer.submit(entry(id)));
+            writer.shutdown();
+
+            assertThat(writtenIds()).hasSize(2_000).doesNotHaveDuplicates();
+        }
+
+        @Test
+        @DisplayName("Should write entries submitted after shutdown on the calling thread")
+        void shouldWriteLateEntriesSynchronously() {
+            AuditWriter writer = writer(100, OverflowPolicy.BLOCK, 10);
+            writer.shutdown();
+
+            writer.submit(entry(1));
+
+            assertThat(writtenIds()).containsExactly(1L);
+        }
+
+        @Test
+        @DisplayName("Should release callers blocked on a full buffer by writing their entries themselves")
+        void shouldReleaseBlockedCallers() throws Exception {
+            CountDownLatch release = blockInserts();
+            AuditWriter writer = writer(1, OverflowPolicy.BLOCK, 1);
+            writer.submit(entry(1));
+            verify(repository, timeout(1000)).insert(anyList());
+            writer.submit(entry(2));
+            CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> writer.submit(entry(3)));
+            Thread.sleep(100);
+
+            CompletableFuture<Void> stopping = CompletableFuture.runAsync(writer::shutdown);
+            release.countDown();
+            stopping.get(5, TimeUnit.SECONDS);
+            blocked.get(5, TimeUnit.SECONDS);
+
+            assertThat(writtenIds()).containsExactlyInAnyOrder(1L, 2L, 3L);
+        }
+    }
+}
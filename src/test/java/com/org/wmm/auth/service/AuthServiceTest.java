@@ -0,0 +1,211 @@
+package com.org.wmm.auth.service;
+
+import com.org.wmm.auth.domain.RefreshTokenEntity;
+import com.org.wmm.auth.dto.AuthResponse;
+import com.org.wmm.auth.dto.ClientInfo;
+import com.org.wmm.auth.repository.RefreshTokenFamilyRepository;
+import com.org.wmm.auth.repository.RefreshTokenFamilyRepository.FamilyRevocation;
+import com.org.wmm.auth.repository.RefreshTokenRepository;
+import com.org.wmm.common.error.UnauthorizedException;
+import com.org.wmm.security.JwtClaims;
+import com.org.wmm.security.JwtTokenProvider;
+import com.org.wmm.security.password.PasswordEncoderRegistry;
+import com.org.wmm.users.dto.UserSnapshot;
+import com.org.wmm.users.repository.UserRepository;
+import com.org.wmm.users.service.CustomUserDetailsService;
+import com.org.wmm.users.service.UserSnapshotCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    private static final String EMAIL = "editor@test.com";
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private RefreshTokenFamilyRepository familyRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PasswordEncoderRegistry passwordEncoderRegistry;
+    @Mock
+    private RefreshTokenWriteBehind writeBehind;
+    @Mock
+    private RefreshTokenPurgeJob purgeJob;
+    @Mock
+    private UserSnapshotCache userSnapshotCache;
+
+    private JwtTokenProvider jwtTokenProvider;
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshTokenRevocationRegistry revocationRegistry;
+    private AuthService service;
+    private ClientInfo clientInfo;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = new JwtTokenProvider(
+                "test-secret-key-that-is-long-enough-for-hmac-sha-256", 900_000, 604_800_000, "wmm-test", 100);
+        meterRegistry = new SimpleMeterRegistry();
+        revocationRegistry = new RefreshTokenRevocationRegistry(refreshTokenRepository, familyRepository, meterRegistry);
+        revocationRegistry.rebuild();
+
+        service = new AuthService(authenticationManager, jwtTokenProvider, userDetailsService,
+                refreshTokenRepository, userRepository, passwordEncoderRegistry, revocationRegistry, writeBehind, purgeJob,
+                userSnapshotCache);
+        ReflectionTestUtils.setField(service, "refreshTokenExpiration", 604_800_000L);
+        ReflectionTestUtils.setField(service, "accessTokenExpiration", 900_000L);
+        clientInfo = ClientInfo.builder().ipAddress("127.0.0.1").userAgent("test").build();
+
+        UserSnapshot user = UserSnapshot.builder()
+                .id(1L)
+                .email(EMAIL)
+                .active(true)
+                .roles(List.of("ROLE_EDITOR"))
+                .build();
+        lenient().when(userDetailsService.findUserSnapshot(EMAIL)).thenReturn(Optional.of(user));
+    }
+
+    @Nested
+    @DisplayName("refresh()")
+    class Refresh {
+
+        @Test
+        @DisplayName("Should issue a new refresh token in the same family and revoke the old one")
+        void shouldRotateWithinFamily() {
+            UUID familyId = UUID.randomUUID();
+            String token = jwtTokenProvider.generateRefreshToken(EMAIL, familyId);
+
+            AuthResponse response = service.refresh(token, clientInfo);
+
+            assertThat(response.getRefreshToken()).isNotEqualTo(token);
+            JwtClaims rotated = jwtTokenProvider.parseClaims(response.getRefreshToken());
+            assertThat(rotated.getFamilyId()).isEqualTo(familyId);
+            assertThat(rotated.getSubject()).isEqualTo(EMAIL);
+
+            verify(writeBehind).revoke(anyString(), any());
+            verify(writeBehind).insert(eq(1L), anyString(), eq(familyId), any(), eq("127.0.0.1"), eq("test"));
+        }
+
+        @Test
+        @DisplayName("Should revoke the whole family when a rotated token is reused")
+        void shouldRevokeFamilyOnReuse() {
+            UUID familyId = UUID.randomUUID();
+            String token = jwtTokenProvider.generateRefreshToken(EMAIL, familyId);
+            String successor = service.refresh(token, clientInfo).getRefreshToken();
+
+            assertThatThrownBy(() -> service.refresh(token, clientInfo))
+                    .isInstanceOf(UnauthorizedException.class);
+            verify(writeBehind).revokeFamily(eq(familyId), any(), any());
+
+            // The legitimate successor is now rejected as well
+            assertThatThrownBy(() -> service.refresh(successor, clientInfo))
+                    .isInstanceOf(UnauthorizedException.class);
+        }
+
+        @Test
+        @DisplayName("Should keep only the current token of a family however often it is rotated")
+        void shouldTrackOnlyCurrentToken() {
+            String token = jwtTokenProvider.generateRefreshToken(EMAIL, UUID.randomUUID());
+            for (int i = 0; i < 5; i++) {
+                token = service.refresh(token, clientInfo).getRefreshToken();
+            }
+
+            assertThat(meterRegistry.get("auth.refresh_tokens.families.cached").gauge().value()).isEqualTo(1);
+            assertThat(meterRegistry.get("auth.refresh_tokens.revoked.cached").gauge().value()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should treat a token of an unknown family as reused when its row is already revoked")
+        void shouldCheckRowOfUnknownFamily() {
+            UUID familyId = UUID.randomUUID();
+            String token = jwtTokenProvider.generateRefreshToken(EMAIL, familyId);
+            when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(
+                    RefreshTokenEntity.builder().revokedAt(OffsetDateTime.now()).build()));
+
+            assertThatThrownBy(() -> service.refresh(token, clientInfo))
+                    .isInstanceOf(UnauthorizedException.class);
+            verify(writeBehind).revokeFamily(eq(familyId), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should reject tokens of a family revoked on another node after the next sync")
+        void shouldRejectFamilyRevokedElsewhere() {
+            UUID familyId = UUID.randomUUID();
+            String token = jwtTokenProvider.generateRefreshToken(EMAIL, familyId);
+            when(familyRepository.findRevokedFamiliesSince(any(), any())).thenReturn(List.of(
+                    new FamilyRevocation(familyId, OffsetDateTime.now().plusDays(7))));
+
+            revocationRegistry.sync();
+
+            assertThatThrownBy(() -> service.refresh(token, clientInfo))
+                    .isInstanceOf(UnauthorizedException.class);
+            verify(writeBehind, never()).insert(any(), any(), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should reject tokens of a revoked family after a restart")
+        void shouldLoadRevokedFamilies() {
+            UUID familyId = UUID.randomUUID();
+            String token = jwtTokenProvider.generateRefreshToken(EMAIL, familyId);
+            when(familyRepository.findRevokedFamilies(any())).thenReturn(List.of(
+                    new FamilyRevocation(familyId, OffsetDateTime.now().plusDays(7))));
+
+            revocationRegistry.rebuild();
+
+            assertThatThrownBy(() -> service.refresh(token, clientInfo))
+                    .isInstanceOf(UnauthorizedException.class);
+        }
+
+        @Test
+        @DisplayName("Should reject an access token")
+        void shouldRejectAccessToken() {
+            String accessToken = jwtTokenProvider.generateAccessToken(EMAIL, List.of("ROLE_EDITOR"));
+
+            assertThatThrownBy(() -> service.refresh(accessToken, clientInfo))
+                    .isInstanceOf(UnauthorizedException.class);
+            verifyNoInteractions(writeBehind);
+        }
+    }
+
+    @Nested
+    @DisplayName("logout()")
+    class Logout {
+
+        @Test
+        @DisplayName("Should revoke the token's family, here and in the database")
+        void shouldRevokeFamily() {
+            UUID familyId = UUID.randomUUID();
+            String token = jwtTokenProvider.generateRefreshToken(EMAIL, familyId);
+            String successor = service.refresh(token, clientInfo).getRefreshToken();
+
+            service.logout(successor);
+
+            verify(writeBehind).revokeFamily(eq(familyId), any(), any());
+            assertThatThrownBy(() -> service.refresh(successor, clientInfo))
+                    .isInstanceOf(UnauthorizedException.class);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.org.wmm.auth.service;
+
+import com.org.wmm.auth.repository.RefreshTokenFamilyRepository;
+import com.org.wmm.auth.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenPurgeJobTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private Connection connection;
+    @Mock
+    private PreparedStatement lockStatement;
+    @Mock
+    private PreparedStatement unlockStatement;
+    @Mock
+    private PreparedStatement deleteStatement;
+    @Mock
+    private PreparedStatement familyDeleteStatement;
+    @Mock
+    private RefreshTokenFamilyRepository familyRepository;
+    @Mock
+    private ResultSet lockResult;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshTokenPurgeJob job;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        RefreshTokenRevocationRegistry registry =
+                new RefreshTokenRevocationRegistry(refreshTokenRepository, familyRepository, meterRegistry);
+        job = new RefreshTokenPurgeJob(jdbcTemplate, registry, 100, 0, 60_000, meterRegistry);
+
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+        when(connection.prepareStatement(contains("pg_try_advisory_lock"))).thenReturn(lockStatement);
+        when(lockStatement.executeQuery()).thenReturn(lockResult);
+        when(lockResult.next()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Should delete chunks until a partial chunk and release the lock")
+    void shouldDeleteInChunks() throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        when(connection.prepareStatement(contains("DELETE"))).thenReturn(deleteStatement);
+        when(connection.prepareStatement(contains("family_revocations"))).thenReturn(familyDeleteStatement);
+        when(connection.prepareStatement(contains("pg_advisory_unlock"))).thenReturn(unlockStatement);
+        when(unlockStatement.executeQuery()).thenReturn(mock(ResultSet.class));
+        when(deleteStatement.executeUpdate()).thenReturn(100, 100, 42);
+
+        assertThat(job.purge()).isEqualTo(242);
+
+        verify(deleteStatement, times(3)).executeUpdate();
+        verify(familyDeleteStatement).executeUpdate();
+        verify(unlockStatement).executeQuery();
+        assertThat(meterRegistry.get("auth.refresh_tokens.purged").counter().count()).isEqualTo(242);
+        assertThat(meterRegistry.get("auth.refresh_tokens.purge.chunk").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should skip the run when another node holds the lock")
+    void shouldSkipWhenLocked() throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(false);
+
+        assertThat(job.purge()).isEqualTo(-1);
+
+        verify(connection, never()).prepareStatement(contains("DELETE"));
+        verify(connection, never()).prepareStatement(contains("pg_advisory_unlock"));
+    }
+}
@@ -0,0 +1,114 @@
+package com.org.wmm.auth.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenWriteBehindTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // Token hashes of every insert batch, in order
+    private final List<String> inserted = Collections.synchronizedList(new ArrayList<>());
+    private RefreshTokenWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        writeBehind = new RefreshTokenWriteBehind(jdbcTemplate, transactionManager, 20, 50, 100,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.shutdown();
+    }
+
+    private void insert(String tokenHash) {
+        writeBehind.insert(1L, tokenHash, UUID.randomUUID(), OffsetDateTime.now().plusDays(7), "127.0.0.1", "test");
+    }
+
+    private void recordInserts() {
+        lenient().when(jdbcTemplate.batchUpdate(contains("INSERT INTO auth_refresh_tokens"), anyList()))
+                .thenAnswer(invocation -> {
+                    List<Object[]> rows = invocation.getArgument(1);
+                    rows.forEach(row -> inserted.add((String) row[1]));
+                    return new int[rows.size()];
+                });
+    }
+
+    @Test
+    @DisplayName("Should let a batch in flight finish on shutdown instead of interrupting it")
+    void shouldNotInterruptBatchOnShutdown() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbcTemplate.batchUpdate(contains("INSERT INTO auth_refresh_tokens"), anyList()))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    // An interrupt would end this wait early, as it would abort a JDBC call
+                    if (!release.await(5, TimeUnit.SECONDS) || Thread.currentThread().isInterrupted()) {
+                        throw new IllegalStateException("Batch did not finish undisturbed");
+                    }
+                    List<Object[]> rows = invocation.getArgument(1);
+                    rows.forEach(row -> inserted.add((String) row[1]));
+                    return new int[rows.size()];
+                });
+        insert("first");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> shutdown = CompletableFuture.runAsync(writeBehind::shutdown);
+        Thread.sleep(100);
+        release.countDown();
+        shutdown.get(5, TimeUnit.SECONDS);
+
+        assertThat(inserted).containsExactly("first");
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should drain queued writes on shutdown")
+    void shouldDrainQueueOnShutdown() {
+        recordInserts();
+        insert("first");
+        insert("second");
+
+        writeBehind.shutdown();
+
+        assertThat(inserted).containsExactly("first", "second");
+    }
+
+    @Test
+    @DisplayName("Should write on the calling thread after shutdown")
+    void shouldWriteDirectlyAfterShutdown() {
+        recordInserts();
+        writeBehind.shutdown();
+
+        insert("late");
+
+        assertThat(inserted).containsExactly("late");
+    }
+}
@@ -0,0 +1,105 @@
+package com.org.wmm.common.translation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TranslationResolverTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private TranslationResolver resolver;
+
+    @Nested
+    @DisplayName("resolve()")
+    class Resolve {
+
+        @Test
+        @DisplayName("Should fetch requested and default language in one DISTINCT ON query")
+        void shouldUseSingleQuery() {
+            when(jdbcTemplate.query(anyString(), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                    .thenReturn(List.of());
+
+            resolver.resolve(TranslatedEntity.PARTNER, List.of(1L, 2L, 2L), "en");
+
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+            verify(jdbcTemplate, times(1)).query(sql.capture(), params.capture(), any(RowMapper.class));
+            assertThat(sql.getValue())
+                    .startsWith("SELECT DISTINCT ON (t.partner_id)")
+                    .contains("FROM partner_translations t", "t.name", "t.description", "l.is_default");
+            assertThat(params.getValue().getValue("ids")).isEqualTo(List.of(1L, 2L));
+            assertThat(params.getValue().getValue("lang")).isEqualTo("en");
+        }
+
+        @Test
+        @DisplayName("Should mark rows in another language as fallback")
+        @SuppressWarnings("unchecked")
+        void shouldMapRows() throws Exception {
+            when(jdbcTemplate.query(anyString(), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                    .thenAnswer(invocation -> {
+                        RowMapper<Translation> mapper = invocation.getArgument(2);
+                        ResultSet rs = mock(ResultSet.class);
+                        when(rs.getLong("entity_id")).thenReturn(7L, 8L);
+                        when(rs.getString("language_code")).thenReturn("en", "pl");
+                        when(rs.getString("alt_text")).thenReturn("Bottle", "Butelka");
+                        return List.of(mapper.mapRow(rs, 0), mapper.mapRow(rs, 1));
+                    });
+
+            Map<Long, Translation> result = resolver.resolve(TranslatedEntity.IMAGE, List.of(7L, 8L), "en",
+                    List.of("alt_text"));
+
+            assertThat(result.get(7L).isFallback()).isFalse();
+            assertThat(result.get(7L).get("alt_text")).isEqualTo("Bottle");
+            assertThat(result.get(8L).isFallback()).isTrue();
+            assertThat(result.get(8L).getLanguageCode()).isEqualTo("pl");
+        }
+
+        @Test
+        @DisplayName("Should split large id lists into batches")
+        void shouldBatchLargeIdLists() {
+            when(jdbcTemplate.query(anyString(), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                    .thenReturn(List.of());
+            List<Long> ids = LongStream.range(0, TranslationResolver.BATCH_SIZE + 1).boxed().toList();
+
+            resolver.resolve(TranslatedEntity.ITEM, ids, "pl");
+
+            verify(jdbcTemplate, times(2)).query(anyString(), any(MapSqlParameterSource.class), any(RowMapper.class));
+        }
+
+        @Test
+        @DisplayName("Should not query for an empty id list")
+        void shouldSkipEmptyIds() {
+            assertThat(resolver.resolve(TranslatedEntity.ITEM, List.of(), "pl")).isEmpty();
+            verifyNoInteractions(jdbcTemplate);
+        }
+
+        @Test
+        @DisplayName("Should reject a column the entity does not translate")
+        void shouldRejectUnknownColumn() {
+            assertThatThrownBy(() -> resolver.resolve(TranslatedEntity.FLAVOR, List.of(1L), "pl",
+                    List.of("title; DROP TABLE items")))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.org.wmm.items.repository;
+
+import com.org.wmm.media.repository.ImageVariantRepository;
+import com.org.wmm.media.repository.ImageVariantRepository.VariantJob;
+import com.org.wmm.media.repository.ImageVariantRepository.VariantRow;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs the migrations against a real Postgres and checks the {@code item_cards} triggers. Needs a throwaway
+ * database, which is wiped: set {@code WMM_TEST_DB_URL} (and {@code WMM_TEST_DB_USERNAME} /
+ * {@code WMM_TEST_DB_PASSWORD}) to enable.
+ */
+@EnabledIfEnvironmentVariable(named = "WMM_TEST_DB_URL", matches = ".+")
+class ItemCardsMigrationTest {
+
+    private static final String CARDS_SQL = """
+            SELECT l.code, c.title, c.image_path
+            FROM item_cards c JOIN languages l ON l.id = c.language_id
+            WHERE c.item_id = ?
+            ORDER BY l.code
+            """;
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private static DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private long categoryId;
+    private long topicId;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new DriverManagerDataSource(System.getenv("WMM_TEST_DB_URL"),
+                System.getenv("WMM_TEST_DB_USERNAME"), System.getenv("WMM_TEST_DB_PASSWORD"));
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .cleanDisabled(false)
+                .load();
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        int n = SEQUENCE.incrementAndGet();
+        categoryId = jdbcTemplate.queryForObject(
+                "INSERT INTO categories (slug) VALUES (?) RETURNING id", Long.class, "category-" + n);
+        topicId = jdbcTemplate.queryForObject(
+                "INSERT INTO topics (category_id, slug) VALUES (?, ?) RETURNING id", Long.class,
+                categoryId, "topic-" + n);
+    }
+
+    private long publishedItem() {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO items (category_id, topic_id, slug, status, published_at)
+                VALUES (?, ?, ?, 'published', CURRENT_TIMESTAMP) RETURNING id
+                """, Long.class, categoryId, topicId, "item-" + SEQUENCE.incrementAndGet());
+    }
+
+    private long languageId(String code) {
+        return jdbcTemplate.queryForObject("SELECT id FROM languages WHERE code = ?", Long.class, code);
+    }
+
+    private List<Map<String, Object>> cards(long itemId) {
+        return jdbcTemplate.queryForList(CARDS_SQL, itemId);
+    }
+
+    @Test
+    @DisplayName("Should keep the cards of a published item without a translation in the card or default language")
+    void shouldKeepCardsWithoutTranslation() {
+        jdbcTemplate.update("""
+                INSERT INTO languages (code, name, is_active) VALUES ('de', 'German', FALSE)
+                ON CONFLICT (code) DO NOTHING
+                """);
+        long itemId = publishedItem();
+        jdbcTemplate.update("INSERT INTO item_translations (item_id, language_id, title) VALUES (?, ?, 'Nur Deutsch')",
+                itemId, languageId("de"));
+
+        assertThat(cards(itemId))
+                .extracting(card -> card.get("code"), card -> card.get("title"))
+                .containsExactly(tuple("en", null), tuple("pl", null));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the default language and leave the same cards as a full rebuild")
+    void shouldMatchFullRebuild() {
+        long itemId = publishedItem();
+        jdbcTemplate.update("INSERT INTO item_translations (item_id, language_id, title) VALUES (?, ?, 'Tytuł')",
+                itemId, languageId("pl"));
+        jdbcTemplate.update("""
+                INSERT INTO images (item_id, file_path, file_name, is_primary)
+                VALUES (?, 'a/b/original.jpg', 'original.jpg', TRUE)
+                """, itemId);
+        List<Map<String, Object>> incremental = cards(itemId);
+
+        jdbcTemplate.queryForObject("SELECT refresh_item_cards(NULL)", Integer.class);
+
+        assertThat(incremental)
+                .extracting(card -> card.get("code"), card -> card.get("title"), card -> card.get("image_path"))
+                .containsExactly(tuple("en", "Tytuł", "a/b/original.jpg"), tuple("pl", "Tytuł", "a/b/original.jpg"));
+        assertThat(cards(itemId)).isEqualTo(incremental);
+    }
+
+    @Test
+    @DisplayName("Should show the new original instead of a deleted variant when the image file is replaced")
+    void shouldDropVariantOfReplacedImage() {
+        long itemId = publishedItem();
+        jdbcTemplate.update("INSERT INTO item_translations (item_id, language_id, title) VALUES (?, ?, 'Tytuł')",
+                itemId, languageId("pl"));
+        long imageId = jdbcTemplate.queryForObject("""
+                INSERT INTO images (item_id, file_path, file_name, is_primary)
+                VALUES (?, 'a/b/original.jpg', 'original.jpg', TRUE) RETURNING id
+                """, Long.class, itemId);
+        jdbcTemplate.update("""
+                INSERT INTO image_variants (image_id, width, height, file_path, file_size_bytes, mime_type)
+                VALUES (?, 480, 320, 'a/b/original-480.webp', 1000, 'image/webp')
+                """, imageId);
+        assertThat(cards(itemId)).extracting(card -> card.get("image_path"))
+                .containsOnly("a/b/original-480.webp");
+
+        jdbcTemplate.update("UPDATE images SET file_path = 'a/b/replaced.jpg' WHERE id = ?", imageId);
+
+        assertThat(cards(itemId)).extracting(card -> card.get("image_path"))
+                .containsOnly("a/b/replaced.jpg");
+    }
+
+    @Test
+    @DisplayName("Should discard the variants of a job claimed before the image file was replaced")
+    void shouldDiscardStaleVariantJob() {
+        ImageVariantRepository variants = new ImageVariantRepository(new NamedParameterJdbcTemplate(dataSource));
+        long itemId = publishedItem();
+        jdbcTemplate.update("INSERT INTO item_translations (item_id, language_id, title) VALUES (?, ?, 'Tytuł')",
+                itemId, languageId("pl"));
+        long imageId = jdbcTemplate.queryForObject("""
+                INSERT INTO images (item_id, file_path, file_name, is_primary)
+                VALUES (?, 'a/b/original.jpg', 'original.jpg', TRUE) RETURNING id
+                """, Long.class, itemId);
+        // Other tests leave due jobs behind; make only this image's job due
+        jdbcTemplate.update("UPDATE image_variant_jobs SET run_after = CURRENT_TIMESTAMP + INTERVAL '1 day'");
+        jdbcTemplate.update("UPDATE image_variant_jobs SET run_after = CURRENT_TIMESTAMP WHERE image_id = ?", imageId);
+        VariantJob stale = variants.claim(1, Duration.ofMinutes(5)).get(0);
+
+        jdbcTemplate.update("UPDATE images SET file_path = 'a/b/replaced.jpg' WHERE id = ?", imageId);
+        boolean completed = variants.complete(stale,
+                List.of(new VariantRow(480, 320, "a/b/original-480.webp", 1000, "image/webp")));
+
+        assertThat(completed).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM image_variants WHERE image_id = ?",
+                Integer.class, imageId)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM image_variant_jobs WHERE image_id = ?",
+                Integer.class, imageId)).isEqualTo(1);
+        assertThat(cards(itemId)).extracting(card -> card.get("image_path")).containsOnly("a/b/replaced.jpg");
+    }
+
+    @Test
+    @DisplayName("Should refresh the cards of one item from two concurrent transactions without conflicts")
+    void shouldSerializeConcurrentRefreshes() throws Exception {
+        long itemId = publishedItem();
+        String insert = "INSERT INTO item_translations (item_id, language_id, title) VALUES (?, ?, ?)";
+
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            first.setAutoCommit(false);
+            second.setAutoCommit(false);
+            execute(first, insert, itemId, languageId("pl"), "Tytuł");
+
+            // Waits in refresh_item_cards for the first transaction's lock on the item
+            CompletableFuture<Void> concurrent = CompletableFuture.runAsync(() -> {
+                try {
+                    execute(second, insert, itemId, languageId("en"), "Title");
+                    second.commit();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(200);
+            assertThat(concurrent).isNotDone();
+
+            first.commit();
+            concurrent.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(cards(itemId))
+                .extracting(card -> card.get("code"), card -> card.get("title"))
+                .containsExactly(tuple("en", "Title"), tuple("pl", "Tytuł"));
+    }
+
+    private static void execute(Connection connection, String sql, Object... args) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            statement.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.items.dto.FacetCounts;
+import com.org.wmm.items.repository.FacetRepository.ItemFacets;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Facet counting over 100k synthetic published items with realistic cardinalities (a few hundred flavors,
+ * tens of partners and vintages); the target is well under 10 ms per query.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main FacetIndexBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FacetIndexBenchmark {
+
+    private static final int ITEMS = 100_000;
+
+    private FacetIndex index;
+    private Map<Facet, Set<String>> noSelection;
+    private Map<Facet, Set<String>> selection;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<ItemFacets> items = new ArrayList<>(ITEMS);
+        for (long id = 1; id <= ITEMS; id++) {
+            items.add(new ItemFacets(
+                    id,
+                    "category-" + random.nextInt(12),
+                    "topic-" + random.nextInt(80),
+                    "partner-" + random.nextInt(60),
+                    BigDecimal.valueOf(35 + random.nextInt(30)),
+                    1980 + random.nextInt(45),
+                    List.of(50, 200, 500, 700, 1000).get(random.nextInt(5)),
+                    BigDecimal.valueOf(50 + random.nextInt(3000)),
+                    1 + random.nextInt(10),
+                    flavors(random), flavors(random), flavors(random)));
+        }
+        index = FacetIndex.build(items);
+
+        noSelection = Map.of();
+        selection = new EnumMap<>(Facet.class);
+        selection.put(Facet.CATEGORY, Set.of("category-1", "category-2"));
+        selection.put(Facet.ABV, Set.of("40-46"));
+        selection.put(Facet.AROMA, Set.of("flavor-7"));
+    }
+
+    private static Set<String> flavors(Random random) {
+        Set<String> flavors = new HashSet<>();
+        for (int i = random.nextInt(5); i > 0; i--) {
+            flavors.add("flavor-" + random.nextInt(300));
+        }
+        return Set.copyOf(flavors);
+    }
+
+    @Benchmark
+    public FacetCounts withoutSelection() {
+        return index.count(noSelection);
+    }
+
+    @Benchmark
+    public FacetCounts withSelection() {
+        return index.count(selection);
+    }
+}
@@ -0,0 +1,188 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.items.dto.FacetCounts;
+import com.org.wmm.items.dto.FacetValue;
+import com.org.wmm.items.repository.FacetRepository;
+import com.org.wmm.items.repository.FacetRepository.ItemFacets;
+import com.org.wmm.items.repository.ItemChangeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FacetServiceTest {
+
+    @Mock
+    private FacetRepository repository;
+    @Mock
+    private ItemChangeRepository changeRepository;
+
+    private FacetService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new FacetService(repository, changeRepository, new SimpleMeterRegistry());
+
+        lenient().when(changeRepository.currentChangeWatermark()).thenReturn(100L);
+        lenient().when(repository.findItemFacets(null)).thenReturn(List.of(
+                item(1, "whisky", "islay", "42.0", "120", Set.of("smoke", "peat")),
+                item(2, "whisky", "speyside", "40.0", "90", Set.of("honey")),
+                item(3, "gin", "london-dry", "47.0", "80", Set.of("juniper")),
+                item(4, "whisky", "islay", "58.5", "450", Set.of("smoke"))));
+    }
+
+    private static ItemFacets item(long id, String category, String topic, String abv, String price,
+                                   Set<String> aroma) {
+        return new ItemFacets(id, category, topic, null, new BigDecimal(abv), null, 700, new BigDecimal(price),
+                null, aroma, Set.of(), Set.of());
+    }
+
+    private static MultiValueMap<String, String> params(String... keyValues) {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            params.add(keyValues[i], keyValues[i + 1]);
+        }
+        return params;
+    }
+
+    private static List<String> values(FacetCounts counts, String facet) {
+        return counts.getFacets().get(facet).stream()
+                .map(value -> value.getValue() + "=" + value.getCount() + (value.isSelected() ? "*" : ""))
+                .toList();
+    }
+
+    @Nested
+    @DisplayName("getCounts()")
+    class GetCounts {
+
+        @Test
+        @DisplayName("Should count every facet of all published items without a selection")
+        void shouldCountWithoutSelection() {
+            FacetCounts counts = service.getCounts(params());
+
+            assertThat(counts.getTotal()).isEqualTo(4);
+            assertThat(values(counts, "category")).containsExactly("whisky=3", "gin=1");
+            assertThat(values(counts, "abv")).containsExactly("40-46=2", "46-50=1", "50-60=1");
+            assertThat(values(counts, "price")).containsExactly("0-100=2", "100-200=1", "200-500=1");
+            assertThat(values(counts, "volume")).containsExactly("700=4");
+            assertThat(values(counts, "partner")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should AND facets and count each facet without its own selection")
+        void shouldExcludeOwnSelection() {
+            FacetCounts counts = service.getCounts(params("category", "whisky", "aroma", "smoke"));
+
+            assertThat(counts.getTotal()).isEqualTo(2);
+            // Other categories still show how many smoky items they have
+            assertThat(values(counts, "category")).containsExactly("whisky=2*");
+            assertThat(values(counts, "aroma")).containsExactly("smoke=2*", "honey=1", "peat=1");
+            assertThat(values(counts, "topic")).containsExactly("islay=2");
+        }
+
+        @Test
+        @DisplayName("Should OR several values of one facet, given repeated or comma separated")
+        void shouldOrValuesOfOneFacet() {
+            FacetCounts repeated = service.getCounts(params("topic", "islay", "topic", "london-dry"));
+            FacetCounts commaSeparated = service.getCounts(params("topic", "islay,london-dry"));
+
+            assertThat(repeated.getTotal()).isEqualTo(3);
+            assertThat(commaSeparated).isEqualTo(repeated);
+            assertThat(values(repeated, "category")).containsExactly("whisky=2", "gin=1");
+        }
+
+        @Test
+        @DisplayName("Should keep unknown selected values with zero count and ignore unknown parameters")
+        void shouldKeepUnknownSelectedValues() {
+            FacetCounts counts = service.getCounts(params("category", "rum", "lang", "en", "sort", "x"));
+
+            assertThat(counts.getTotal()).isZero();
+            assertThat(counts.getFacets().get("category"))
+                    .extracting(FacetValue::getValue, FacetValue::getCount, FacetValue::isSelected)
+                    .containsExactly(tuple("whisky", 3L, false), tuple("gin", 1L, false), tuple("rum", 0L, true));
+            assertThat(counts.getFacets()).doesNotContainKeys("lang", "sort");
+        }
+
+        @Test
+        @DisplayName("Should count across word boundaries of the bitmaps")
+        void shouldHandleManyItems() {
+            List<ItemFacets> many = new ArrayList<>();
+            for (long id = 1; id <= 1000; id++) {
+                many.add(item(id, id % 3 == 0 ? "gin" : "whisky", "t" + (id % 7), "40", "50",
+                        id % 2 == 0 ? Set.of("smoke") : Set.of()));
+            }
+            when(repository.findItemFacets(null)).thenReturn(many);
+
+            FacetCounts counts = service.getCounts(params("category", "gin", "aroma", "smoke"));
+
+            // Multiples of 6 up to 1000
+            assertThat(counts.getTotal()).isEqualTo(166);
+            assertThat(values(counts, "category")).containsExactly("whisky=334", "gin=166*");
+        }
+    }
+
+    @Nested
+    @DisplayName("refresh()")
+    class Refresh {
+
+        @BeforeEach
+        void loadIndex() {
+            service.refresh();
+        }
+
+        @Test
+        @DisplayName("Should reload only changed items and drop items that are no longer published")
+        void shouldApplyChangedItems() {
+            when(changeRepository.currentChangeWatermark()).thenReturn(110L);
+            when(changeRepository.findChangedItemIds(100L, 110L)).thenReturn(List.of(2L, 3L));
+            when(repository.findItemFacets(anyCollection())).thenReturn(List.of(
+                    item(2, "gin", "old-tom", "40.0", "90", Set.of())));
+
+            service.refresh();
+
+            FacetCounts counts = service.getCounts(params());
+            assertThat(counts.getTotal()).isEqualTo(3);
+            assertThat(values(counts, "category")).containsExactly("whisky=2", "gin=1");
+            assertThat(values(counts, "topic")).containsExactly("islay=2", "old-tom=1");
+            verify(repository).findItemFacets(argThat((Collection<Long> ids) -> ids != null && ids.containsAll(Set.of(2L, 3L))));
+        }
+
+        @Test
+        @DisplayName("Should reload everything when a shared row changed")
+        void shouldReloadAllOnSharedChange() {
+            when(changeRepository.currentChangeWatermark()).thenReturn(110L);
+            when(changeRepository.findChangedItemIds(100L, 110L)).thenReturn(Arrays.asList(2L, null));
+
+            service.refresh();
+
+            verify(repository, times(2)).findItemFacets(null);
+            verify(repository, never()).findItemFacets(anyCollection());
+        }
+
+        @Test
+        @DisplayName("Should not query the change log when the watermark has not moved")
+        void shouldSkipWhenNothingCommitted() {
+            service.refresh();
+
+            verify(changeRepository, never()).findChangedItemIds(anyLong(), anyLong());
+        }
+    }
+}
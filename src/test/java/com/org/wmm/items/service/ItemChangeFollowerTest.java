@@ -0,0 +1,82 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.items.repository.ItemChangeRepository;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemChangeFollowerTest {
+
+    @Mock
+    private ItemChangeRepository repository;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<Set<Long>> applied = new ArrayList<>();
+    private ItemChangeFollower follower;
+
+    @BeforeEach
+    void setUp() {
+        follower = new ItemChangeFollower(repository, Timer.builder("test.rebuild").register(new SimpleMeterRegistry()));
+        when(repository.currentChangeWatermark()).thenReturn(100L);
+        follower.loadAll(loads::incrementAndGet);
+    }
+
+    private void refresh() {
+        follower.refresh(loads::incrementAndGet, applied::add);
+    }
+
+    @Test
+    @DisplayName("Should hand changed items to apply and continue from the new watermark")
+    void shouldApplyChangedItems() {
+        when(repository.currentChangeWatermark()).thenReturn(110L, 120L);
+        when(repository.findChangedItemIds(100L, 110L)).thenReturn(List.of(2L, 3L));
+        when(repository.findChangedItemIds(110L, 120L)).thenReturn(List.of());
+
+        refresh();
+        refresh();
+
+        assertThat(applied).containsExactly(Set.of(2L, 3L));
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should load everything when more items changed than an incremental apply handles")
+    void shouldLoadAllOnLargeBatch() {
+        when(repository.currentChangeWatermark()).thenReturn(110L);
+        when(repository.findChangedItemIds(100L, 110L)).thenReturn(
+                LongStream.rangeClosed(1, ItemChangeFollower.MAX_INCREMENTAL_CHANGES + 1).boxed().toList());
+
+        refresh();
+
+        assertThat(applied).isEmpty();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should keep the watermark taken before a full load")
+    void shouldTakeWatermarkBeforeLoading() {
+        when(repository.currentChangeWatermark()).thenReturn(110L);
+        follower.loadAll(() -> when(repository.currentChangeWatermark()).thenReturn(115L));
+
+        refresh();
+
+        verify(repository).findChangedItemIds(110L, 115L);
+        verify(repository, never()).findChangedItemIds(eq(115L), anyLong());
+    }
+}
@@ -0,0 +1,193 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.common.error.ResourceNotFoundException;
+import com.org.wmm.common.translation.TranslatedEntity;
+import com.org.wmm.common.translation.Translation;
+import com.org.wmm.common.translation.TranslationResolver;
+import com.org.wmm.items.dto.FlavorNote;
+import com.org.wmm.items.dto.ImageVariant;
+import com.org.wmm.items.dto.ItemDetail;
+import com.org.wmm.items.dto.ItemImage;
+import com.org.wmm.items.dto.TastingNoteDetail;
+import com.org.wmm.items.repository.ItemDetailRepository;
+import com.org.wmm.items.repository.ItemDetailRepository.FlavorLinkRow;
+import com.org.wmm.items.repository.ItemDetailRepository.ImageRow;
+import com.org.wmm.items.repository.ItemDetailRepository.ItemRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The read model is plain JDBC, so instead of Hibernate statistics the test counts calls into the
+ * repository and the translation resolver; each call is exactly one SQL statement.
+ */
+@ExtendWith(MockitoExtension.class)
+class ItemDetailServiceTest {
+
+    private static final String[] STAGES = {"aroma", "taste", "finish"};
+
+    @Mock
+    private ItemDetailRepository repository;
+    @Mock
+    private TranslationResolver translationResolver;
+
+    private ItemDetailService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ItemDetailService(repository, translationResolver);
+        lenient().when(translationResolver.resolve(any(), anyCollection(), any())).thenAnswer(invocation -> {
+            TranslatedEntity entity = invocation.getArgument(0);
+            return translate(entity, invocation.getArgument(1), entity.columns());
+        });
+        lenient().when(translationResolver.resolve(any(), anyCollection(), any(), anyList())).thenAnswer(invocation ->
+                translate(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(3)));
+    }
+
+    private static Map<Long, Translation> translate(TranslatedEntity entity, Collection<Long> ids, List<String> columns) {
+        Map<Long, Translation> result = new HashMap<>();
+        for (Long id : ids) {
+            Map<String, String> values = new HashMap<>();
+            columns.forEach(column -> values.put(column, entity + " " + id + " " + column));
+            result.put(id, Translation.builder().entityId(id).languageCode("pl").values(values).build());
+        }
+        return result;
+    }
+
+    /**
+     * Stubs {@code itemCount} items with a partner and a tasting note each, and the given number of
+     * images and flavors per stage for every item
+     */
+    private List<String> givenItems(int itemCount, int imagesPerItem, int flavorsPerStage) {
+        List<String> slugs = new ArrayList<>();
+        List<ItemRow> rows = new ArrayList<>();
+        List<ImageRow> images = new ArrayList<>();
+        List<FlavorLinkRow> links = new ArrayList<>();
+        for (long itemId = 1; itemId <= itemCount; itemId++) {
+            String slug = "item-" + itemId;
+            slugs.add(slug);
+            long noteId = 100 + itemId;
+            rows.add(new ItemRow(ItemDetail.builder().id(itemId).slug(slug)
+                    .tastingNote(TastingNoteDetail.builder().build()).build(), 7L, noteId));
+            for (int i = 0; i < imagesPerItem; i++) {
+                images.add(new ImageRow(itemId, ItemImage.builder().id(itemId * 1000 + i).primary(i == 0).build()));
+            }
+            for (String stage : STAGES) {
+                for (long f = 1; f <= flavorsPerStage; f++) {
+                    links.add(new FlavorLinkRow(noteId, stage, f, FlavorNote.builder().slug("flavor-" + f).build()));
+                }
+            }
+        }
+        when(repository.findPublishedBySlugs(slugs)).thenReturn(rows);
+        when(repository.findImages(anyCollection())).thenReturn(images);
+        when(repository.findFlavorLinks(anyCollection())).thenReturn(links);
+        return slugs;
+    }
+
+    private int statementCount() {
+        return mockingDetails(repository).getInvocations().size()
+                + mockingDetails(translationResolver).getInvocations().size();
+    }
+
+    @Nested
+    @DisplayName("getBySlugs()")
+    class GetBySlugs {
+
+        @Test
+        @DisplayName("Should use the same number of statements for 1 or 50 images and flavors")
+        void shouldUseFixedStatementCount() {
+            service.getBySlugs(givenItems(1, 1, 1), "pl");
+            int small = statementCount();
+
+            clearInvocations(repository, translationResolver);
+            Map<String, ItemDetail> large = service.getBySlugs(givenItems(1, 50, 50), "pl");
+
+            assertThat(statementCount()).isEqualTo(small).isEqualTo(8);
+            ItemDetail item = large.get("item-1");
+            assertThat(item.getImages()).hasSize(50);
+            assertThat(item.getTastingNote().getAroma()).hasSize(50);
+            assertThat(item.getTastingNote().getFinish()).hasSize(50);
+        }
+
+        @Test
+        @DisplayName("Should load a batch of items with the same number of statements as one")
+        void shouldBatchItems() {
+            Map<String, ItemDetail> items = service.getBySlugs(givenItems(20, 3, 2), "pl");
+
+            assertThat(items).hasSize(20);
+            assertThat(items.keySet()).first().isEqualTo("item-1");
+            assertThat(statementCount()).isEqualTo(8);
+        }
+
+        @Test
+        @DisplayName("Should fill texts from the resolved translations")
+        void shouldApplyTranslations() {
+            ItemDetail item = service.getBySlugs(givenItems(1, 1, 1), "en").get("item-1");
+
+            assertThat(item.getLang()).isEqualTo("pl");
+            assertThat(item.getTitle()).isEqualTo("ITEM 1 title");
+            assertThat(item.getPartnerName()).isEqualTo("PARTNER 7 name");
+            assertThat(item.getImages().get(0).getAltText()).isEqualTo("IMAGE 1000 alt_text");
+            assertThat(item.getTastingNote().getAromaNotes()).isEqualTo("TASTING_NOTE 101 aroma_notes");
+            assertThat(item.getTastingNote().getTaste().get(0).getName()).isEqualTo("FLAVOR 1 name");
+        }
+    }
+
+    @Nested
+    @DisplayName("displayPath()")
+    class DisplayPath {
+
+        private ImageVariant variant(int width) {
+            return ImageVariant.builder().width(width).filePath("w" + width + ".jpg").build();
+        }
+
+        @Test
+        @DisplayName("Should pick the smallest variant wide enough for the item page")
+        void shouldPickSmallestSuitableVariant() {
+            ItemImage image = ItemImage.builder().filePath("original.png")
+                    .variants(List.of(variant(160), variant(2000), variant(1200), variant(480))).build();
+
+            assertThat(ItemDetailService.displayPath(image)).isEqualTo("w1200.jpg");
+        }
+
+        @Test
+        @DisplayName("Should fall back to the original while no variant is wide enough")
+        void shouldFallBackToOriginal() {
+            ItemImage image = ItemImage.builder().filePath("original.png")
+                    .variants(List.of(variant(160), variant(480))).build();
+
+            assertThat(ItemDetailService.displayPath(image)).isEqualTo("original.png");
+            assertThat(ItemDetailService.displayPath(ItemImage.builder().filePath("original.png").build()))
+                    .isEqualTo("original.png");
+        }
+    }
+
+    @Nested
+    @DisplayName("getBySlug()")
+    class GetBySlug {
+
+        @Test
+        @DisplayName("Should throw when the item is not published")
+        void shouldThrowWhenMissing() {
+            when(repository.findPublishedBySlugs(List.of("draft"))).thenReturn(List.of());
+
+            assertThatThrownBy(() -> service.getBySlug("draft", "pl"))
+                    .isInstanceOf(ResourceNotFoundException.class);
+            verifyNoInteractions(translationResolver);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.common.dto.CursorPageResponse;
+import com.org.wmm.common.error.BadRequestException;
+import com.org.wmm.common.pagination.Cursors;
+import com.org.wmm.items.dto.ItemFilter;
+import com.org.wmm.items.dto.ItemSummary;
+import com.org.wmm.items.repository.ItemReadRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemQueryServiceTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2024, 5, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Mock
+    private ItemReadRepository itemReadRepository;
+
+    @InjectMocks
+    private ItemQueryService service;
+
+    private final ItemFilter filter = ItemFilter.builder().lang("pl").build();
+
+    private static List<ItemSummary> items(long count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(i -> ItemSummary.builder().id(100 - i).slug("item-" + i).publishedAt(NOW.minusHours(i)).build())
+                .toList();
+    }
+
+    @Nested
+    @DisplayName("listPublished()")
+    class ListPublished {
+
+        @Test
+        @DisplayName("Should fetch one extra row and return a cursor for the last item when more exist")
+        void shouldReturnCursorWhenMoreRowsExist() {
+            when(itemReadRepository.findPublishedPage(filter, null, null, 3)).thenReturn(items(3));
+
+            CursorPageResponse<ItemSummary> page = service.listPublished(filter, null, 2, false);
+
+            assertThat(page.getContent()).hasSize(2);
+            assertThat(page.isHasMore()).isTrue();
+            assertThat(page.getNextCursor()).isEqualTo(Cursors.encode(NOW.minusHours(2), 98L));
+            assertThat(page.getApproximateTotal()).isNull();
+            verify(itemReadRepository, never()).estimatePublishedCount(any());
+        }
+
+        @Test
+        @DisplayName("Should return no cursor on the last page")
+        void shouldReturnNoCursorOnLastPage() {
+            when(itemReadRepository.findPublishedPage(filter, null, null, 21)).thenReturn(items(5));
+
+            CursorPageResponse<ItemSummary> page = service.listPublished(filter, "", 20, false);
+
+            assertThat(page.getContent()).hasSize(5);
+            assertThat(page.isHasMore()).isFalse();
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should continue after the key stored in the cursor")
+        void shouldContinueAfterCursor() {
+            String cursor = Cursors.encode(NOW, 42L);
+            when(itemReadRepository.findPublishedPage(filter, NOW, 42L, 11)).thenReturn(List.of());
+
+            CursorPageResponse<ItemSummary> page = service.listPublished(filter, cursor, 10, false);
+
+            assertThat(page.getContent()).isEmpty();
+            verify(itemReadRepository).findPublishedPage(filter, NOW, 42L, 11);
+        }
+
+        @Test
+        @DisplayName("Should add the estimated total only when requested")
+        void shouldIncludeEstimatedTotal() {
+            when(itemReadRepository.findPublishedPage(eq(filter), isNull(), isNull(), anyInt())).thenReturn(items(1));
+            when(itemReadRepository.estimatePublishedCount(filter)).thenReturn(1234L);
+
+            CursorPageResponse<ItemSummary> page = service.listPublished(filter, null, 20, true);
+
+            assertThat(page.getApproximateTotal()).isEqualTo(1234L);
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed cursor")
+        void shouldRejectMalformedCursor() {
+            assertThatThrownBy(() -> service.listPublished(filter, "not-a-cursor", 20, false))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> service.listPublished(filter, Cursors.encode("yesterday", 1), 20, false))
+                    .isInstanceOf(BadRequestException.class);
+            verifyNoInteractions(itemReadRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject a page size outside 1..100")
+        void shouldRejectInvalidSize() {
+            assertThatThrownBy(() -> service.listPublished(filter, null, 0, false))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> service.listPublished(filter, null, 101, false))
+                    .isInstanceOf(BadRequestException.class);
+        }
+    }
+}
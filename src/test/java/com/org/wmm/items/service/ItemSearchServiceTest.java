@@ -0,0 +1,95 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.common.dto.CursorPageResponse;
+import com.org.wmm.common.error.BadRequestException;
+import com.org.wmm.common.pagination.Cursors;
+import com.org.wmm.items.dto.ItemSearchHit;
+import com.org.wmm.items.repository.ItemSearchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchServiceTest {
+
+    @Mock
+    private ItemSearchRepository itemSearchRepository;
+
+    private ItemSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ItemSearchService(itemSearchRepository, new SimpleMeterRegistry());
+    }
+
+    @Nested
+    @DisplayName("toTsQuery()")
+    class ToTsQuery {
+
+        @Test
+        @DisplayName("Should AND the terms and mark the last one as a prefix")
+        void shouldBuildPrefixQuery() {
+            assertThat(ItemSearchService.toTsQuery("Islay  Single-Malt", true)).isEqualTo("islay & single & malt:*");
+            assertThat(ItemSearchService.toTsQuery("żubrówka", false)).isEqualTo("żubrówka");
+        }
+
+        @Test
+        @DisplayName("Should strip tsquery operators from user input")
+        void shouldStripOperators() {
+            assertThat(ItemSearchService.toTsQuery("gin | !vodka & (rum:*)", false)).isEqualTo("gin & vodka & rum");
+        }
+
+        @Test
+        @DisplayName("Should reject queries without words or over the length limit")
+        void shouldRejectInvalidQueries() {
+            assertThatThrownBy(() -> ItemSearchService.toTsQuery("  ", false)).isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> ItemSearchService.toTsQuery("&|!", false)).isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> ItemSearchService.toTsQuery("a".repeat(ItemSearchService.MAX_QUERY_LENGTH + 1), false))
+                    .isInstanceOf(BadRequestException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("search()")
+    class Search {
+
+        @Test
+        @DisplayName("Should return a (rank, id) cursor when more matches exist and continue from it")
+        void shouldPageByRank() {
+            List<ItemSearchHit> hits = List.of(
+                    ItemSearchHit.builder().id(5L).rank(0.9f).build(),
+                    ItemSearchHit.builder().id(3L).rank(0.45f).build(),
+                    ItemSearchHit.builder().id(9L).rank(0.1f).build());
+            when(itemSearchRepository.search("en", "whisky:*", null, null, 3)).thenReturn(hits);
+
+            CursorPageResponse<ItemSearchHit> page = service.search("whisky", "en", true, null, 2);
+
+            assertThat(page.getContent()).extracting(ItemSearchHit::getId).containsExactly(5L, 3L);
+            assertThat(page.isHasMore()).isTrue();
+            assertThat(page.getNextCursor()).isEqualTo(Cursors.encode(0.45f, 3L));
+
+            when(itemSearchRepository.search(any(), any(), any(), any(), anyInt())).thenReturn(List.of());
+            service.search("whisky", "en", true, page.getNextCursor(), 2);
+            verify(itemSearchRepository).search("en", "whisky:*", 0.45f, 3L, 3);
+        }
+
+        @Test
+        @DisplayName("Should reject a page size above the limit")
+        void shouldRejectLargePage() {
+            assertThatThrownBy(() -> service.search("gin", null, false, null, ItemSearchService.MAX_PAGE_SIZE + 1))
+                    .isInstanceOf(BadRequestException.class);
+            verifyNoInteractions(itemSearchRepository);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.common.error.BadRequestException;
+import com.org.wmm.items.dto.ItemSummary;
+import com.org.wmm.items.repository.ItemChangeRepository;
+import com.org.wmm.items.repository.ItemReadRepository;
+import com.org.wmm.items.repository.ItemReadRepository.LocalizedSummary;
+import com.org.wmm.items.repository.LeaderboardRepository;
+import com.org.wmm.items.repository.LeaderboardRepository.RankedItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderboardServiceTest {
+
+    @Mock
+    private LeaderboardRepository repository;
+    @Mock
+    private ItemChangeRepository changeRepository;
+    @Mock
+    private ItemReadRepository itemReadRepository;
+
+    private LeaderboardService service;
+
+    @BeforeEach
+    void setUp() {
+        // Boards keep the best three
+        service = new LeaderboardService(repository, changeRepository, itemReadRepository, 3, new SimpleMeterRegistry());
+
+        lenient().when(changeRepository.currentChangeWatermark()).thenReturn(100L);
+        lenient().when(repository.findRanked(null)).thenReturn(List.of(
+                ranked(1, "92.5", "whisky", "islay", "partner-a"),
+                ranked(2, "88", "whisky", "speyside", null),
+                ranked(3, "95", "whisky", "islay", null),
+                ranked(4, "90", "gin", "london-dry", "partner-a"),
+                ranked(5, "85", "whisky", "islay", null)));
+        lenient().when(itemReadRepository.findCardsInAllLanguages(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream()
+                    .flatMap(id -> Stream.of(card(id, "pl", true), card(id, "en", false)))
+                    .toList();
+        });
+    }
+
+    private static RankedItem ranked(long id, String score, String category, String topic, String partner) {
+        return new RankedItem(id, new BigDecimal(score), category, topic, partner);
+    }
+
+    private static LocalizedSummary card(long id, String lang, boolean defaultLanguage) {
+        return new LocalizedSummary(lang, defaultLanguage,
+                ItemSummary.builder().id(id).slug("item-" + id).title(lang + "-" + id).build());
+    }
+
+    private List<Long> ids(LeaderboardScope scope, String slug) {
+        return service.getLeaderboard(scope, slug, null, 3).stream().map(ItemSummary::getId).toList();
+    }
+
+    @Nested
+    @DisplayName("getLeaderboard()")
+    class GetLeaderboard {
+
+        @Test
+        @DisplayName("Should rank by score within each scope, bounded to the board size")
+        void shouldRankPerScope() {
+            assertThat(ids(LeaderboardScope.GLOBAL, null)).containsExactly(3L, 1L, 4L);
+            assertThat(ids(LeaderboardScope.CATEGORY, "whisky")).containsExactly(3L, 1L, 2L);
+            assertThat(ids(LeaderboardScope.TOPIC, "islay")).containsExactly(3L, 1L, 5L);
+            assertThat(ids(LeaderboardScope.PARTNER, "partner-a")).containsExactly(1L, 4L);
+            assertThat(ids(LeaderboardScope.CATEGORY, "rum")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should serve cards in the requested language without touching the database again")
+        void shouldServeFromMemory() {
+            service.refresh();
+            clearInvocations(repository, itemReadRepository);
+
+            List<ItemSummary> english = service.getLeaderboard(LeaderboardScope.GLOBAL, null, "EN", 2);
+            List<ItemSummary> fallback = service.getLeaderboard(LeaderboardScope.GLOBAL, null, "de", 2);
+
+            assertThat(english).extracting(ItemSummary::getTitle).containsExactly("en-3", "en-1");
+            assertThat(fallback).extracting(ItemSummary::getTitle).containsExactly("pl-3", "pl-1");
+            verifyNoInteractions(repository, itemReadRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject a limit above the board size")
+        void shouldRejectInvalidLimit() {
+            assertThatThrownBy(() -> service.getLeaderboard(LeaderboardScope.GLOBAL, null, null, 4))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> service.getLeaderboard(LeaderboardScope.GLOBAL, null, null, 0))
+                    .isInstanceOf(BadRequestException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("refresh()")
+    class Refresh {
+
+        @BeforeEach
+        void loadBoards() {
+            service.refresh();
+            when(changeRepository.currentChangeWatermark()).thenReturn(110L);
+        }
+
+        @Test
+        @DisplayName("Should move a re-scored item between positions and boards in place")
+        void shouldApplyScoreChange() {
+            when(changeRepository.findChangedItemIds(100L, 110L)).thenReturn(List.of(5L));
+            when(repository.findRanked(anyCollection())).thenReturn(List.of(ranked(5, "99", "gin", "islay", null)));
+
+            service.refresh();
+
+            assertThat(ids(LeaderboardScope.GLOBAL, null)).containsExactly(5L, 3L, 1L);
+            assertThat(ids(LeaderboardScope.CATEGORY, "gin")).containsExactly(5L, 4L);
+            assertThat(ids(LeaderboardScope.CATEGORY, "whisky")).containsExactly(3L, 1L, 2L);
+            verify(repository, times(1)).findRanked(null);
+            verify(itemReadRepository).findCardsInAllLanguages(List.of(5L));
+        }
+
+        @Test
+        @DisplayName("Should let a better non-member replace a member whose score falls below it")
+        void shouldReplaceDemotedMember() {
+            when(changeRepository.findChangedItemIds(100L, 110L)).thenReturn(List.of(3L));
+            when(repository.findRanked(anyCollection())).thenReturn(List.of(ranked(3, "10", "whisky", "islay", null)));
+
+            service.refresh();
+
+            assertThat(ids(LeaderboardScope.GLOBAL, null)).containsExactly(1L, 4L, 2L);
+            assertThat(ids(LeaderboardScope.CATEGORY, "whisky")).containsExactly(1L, 2L, 5L);
+            assertThat(ids(LeaderboardScope.TOPIC, "islay")).containsExactly(1L, 5L, 3L);
+            verify(repository, times(1)).findRanked(null);
+        }
+
+        @Test
+        @DisplayName("Should refill a board from memory when an unpublished item leaves it")
+        void shouldRefillAfterRemoval() {
+            when(changeRepository.findChangedItemIds(100L, 110L)).thenReturn(List.of(3L));
+            when(repository.findRanked(anyCollection())).thenReturn(List.of());
+
+            service.refresh();
+
+            assertThat(ids(LeaderboardScope.GLOBAL, null)).containsExactly(1L, 4L, 2L);
+            assertThat(ids(LeaderboardScope.TOPIC, "islay")).containsExactly(1L, 5L);
+            verify(repository, times(1)).findRanked(null);
+        }
+
+        @Test
+        @DisplayName("Should reload everything on a reload marker")
+        void shouldReloadAllOnMarker() {
+            when(changeRepository.findChangedItemIds(100L, 110L)).thenReturn(Arrays.asList(1L, null));
+
+            service.refresh();
+
+            verify(repository, times(2)).findRanked(null);
+            verify(repository, never()).findRanked(anyCollection());
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.common.error.BadRequestException;
+import com.org.wmm.common.error.ResourceNotFoundException;
+import com.org.wmm.items.dto.ItemSummary;
+import com.org.wmm.items.dto.SimilarItem;
+import com.org.wmm.items.repository.ItemChangeRepository;
+import com.org.wmm.items.repository.ItemReadRepository;
+import com.org.wmm.items.repository.SimilarityRepository;
+import com.org.wmm.items.repository.SimilarityRepository.FlavorPhase;
+import com.org.wmm.items.repository.SimilarityRepository.FlavorProfile;
+import com.org.wmm.items.repository.SimilarityRepository.FlavorWeight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SimilarityServiceTest {
+
+    private static final long SMOKE = 1;
+    private static final long PEAT = 2;
+    private static final long HONEY = 3;
+    private static final long VANILLA = 4;
+
+    @Mock
+    private SimilarityRepository repository;
+    @Mock
+    private ItemChangeRepository changeRepository;
+    @Mock
+    private ItemReadRepository itemReadRepository;
+
+    private SimilarityService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SimilarityService(repository, changeRepository, itemReadRepository, 2, new SimpleMeterRegistry());
+
+        lenient().when(changeRepository.currentChangeWatermark()).thenReturn(100L);
+        lenient().when(repository.findProfiles(null)).thenReturn(List.of(
+                profile(1, "laphroaig", aroma(SMOKE, 3), aroma(PEAT, 3), finish(SMOKE, 2)),
+                profile(2, "ardbeg", aroma(SMOKE, 3), aroma(PEAT, 2), finish(SMOKE, 3)),
+                profile(3, "talisker", aroma(SMOKE, 1), aroma(HONEY, 2)),
+                profile(4, "glenmorangie", aroma(HONEY, 3), aroma(VANILLA, 3)),
+                profile(5, "no-note")));
+        lenient().when(itemReadRepository.findPublishedByIds(anyCollection(), any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> ItemSummary.builder().id(id).slug("item-" + id).build()).toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private static FlavorProfile profile(long id, String slug, FlavorWeight... flavors) {
+        return new FlavorProfile(id, slug, new BigDecimal("90"), null, null, List.of(flavors));
+    }
+
+    private static FlavorWeight aroma(long flavorId, int intensity) {
+        return new FlavorWeight(FlavorPhase.AROMA, flavorId, intensity);
+    }
+
+    private static FlavorWeight finish(long flavorId, int intensity) {
+        return new FlavorWeight(FlavorPhase.FINISH, flavorId, intensity);
+    }
+
+    @Nested
+    @DisplayName("findSimilar()")
+    class FindSimilar {
+
+        @Test
+        @DisplayName("Should rank items by intensity-weighted flavor overlap and skip unrelated ones")
+        void shouldRankByFlavorOverlap() {
+            List<SimilarItem> similar = service.findSimilar("laphroaig", "en", 10);
+
+            assertThat(similar).extracting(item -> item.getItem().getId()).containsExactly(2L, 3L);
+            assertThat(similar.get(0).getSimilarity()).isGreaterThan(0.9).isLessThanOrEqualTo(1.0);
+            assertThat(similar.get(1).getSimilarity()).isLessThan(similar.get(0).getSimilarity());
+            verify(itemReadRepository).findPublishedByIds(List.of(2L, 3L), "en");
+        }
+
+        @Test
+        @DisplayName("Should treat the same flavor in different phases as different dimensions")
+        void shouldSeparatePhases() {
+            when(repository.findProfiles(null)).thenReturn(List.of(
+                    profile(1, "a", aroma(SMOKE, 3)),
+                    profile(2, "b", finish(SMOKE, 3)),
+                    profile(3, "c", aroma(SMOKE, 1), finish(SMOKE, 3))));
+
+            assertThat(service.findSimilar("a", null, 10)).extracting(item -> item.getItem().getId())
+                    .containsExactly(3L);
+        }
+
+        @Test
+        @DisplayName("Should honour the limit")
+        void shouldHonourLimit() {
+            assertThat(service.findSimilar("talisker", null, 1)).extracting(item -> item.getItem().getId())
+                    .containsExactly(4L);
+        }
+
+        @Test
+        @DisplayName("Should return nothing for an item without flavors")
+        void shouldReturnEmptyWithoutFlavors() {
+            assertThat(service.findSimilar("no-note", null, 10)).isEmpty();
+            verifyNoInteractions(itemReadRepository);
+        }
+
+        @Test
+        @DisplayName("Should drop hits that were unpublished since the last refresh")
+        void shouldDropUnpublishedHits() {
+            when(itemReadRepository.findPublishedByIds(anyCollection(), any()))
+                    .thenReturn(List.of(ItemSummary.builder().id(3L).build()));
+
+            assertThat(service.findSimilar("laphroaig", null, 10)).extracting(item -> item.getItem().getId())
+                    .containsExactly(3L);
+        }
+
+        @Test
+        @DisplayName("Should throw for an unknown slug and reject invalid limits")
+        void shouldValidate() {
+            assertThatThrownBy(() -> service.findSimilar("missing", null, 10))
+                    .isInstanceOf(ResourceNotFoundException.class);
+            assertThatThrownBy(() -> service.findSimilar("laphroaig", null, 0))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> service.findSimilar("laphroaig", null, SimilarityService.MAX_LIMIT + 1))
+                    .isInstanceOf(BadRequestException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("refresh()")
+    class Refresh {
+
+        @Test
+        @DisplayName("Should reload only changed items")
+        void shouldApplyChangedItems() {
+            service.refresh();
+            when(changeRepository.currentChangeWatermark()).thenReturn(110L);
+            when(changeRepository.findChangedItemIds(100L, 110L)).thenReturn(List.of(4L));
+            when(repository.findProfiles(anyCollection())).thenReturn(List.of(
+                    profile(4, "glenmorangie", aroma(SMOKE, 3), aroma(PEAT, 3), finish(SMOKE, 2))));
+
+            service.refresh();
+
+            assertThat(service.findSimilar("laphroaig", null, 1)).extracting(item -> item.getItem().getId())
+                    .containsExactly(4L);
+            verify(repository, times(1)).findProfiles(null);
+        }
+    }
+
+    @Nested
+    @DisplayName("SimilarityIndex")
+    class Index {
+
+        @Test
+        @DisplayName("Should give the same hits when scoring in parallel")
+        void shouldMatchSequentialScoring() {
+            Random random = new Random(7);
+            List<FlavorProfile> profiles = new ArrayList<>();
+            for (long id = 1; id <= SimilarityIndex.PARALLEL_THRESHOLD + 5_000; id++) {
+                List<FlavorWeight> flavors = new ArrayList<>();
+                for (int i = 0; i < 6; i++) {
+                    flavors.add(new FlavorWeight(FlavorPhase.values()[random.nextInt(3)],
+                            random.nextInt(200), 1 + random.nextInt(3)));
+                }
+                profiles.add(new FlavorProfile(id, "item-" + id, null, null, null, flavors));
+            }
+            SimilarityIndex index = SimilarityIndex.build(profiles);
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                assertThat(index.mostSimilar(42, 20, pool)).isEqualTo(index.mostSimilar(42, 20, null)).hasSize(20);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.org.wmm.items.service;
+
+import com.org.wmm.common.error.BadRequestException;
+import com.org.wmm.items.dto.Suggestion;
+import com.org.wmm.items.repository.SuggestRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestServiceTest {
+
+    @Mock
+    private SuggestRepository suggestRepository;
+
+    private SuggestService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SuggestService(suggestRepository, 3, 100, 60_000, new SimpleMeterRegistry());
+    }
+
+    @Nested
+    @DisplayName("suggest()")
+    class Suggest {
+
+        @Test
+        @DisplayName("Should query once per distinct normalized prefix")
+        void shouldCacheByNormalizedQuery() {
+            List<Suggestion> suggestions = List.of(
+                    Suggestion.builder().type("item").text("Glenfiddich 12").slug("glenfiddich-12").score(0.8f).build());
+            when(suggestRepository.suggest("en", "glenf", 8)).thenReturn(suggestions);
+
+            assertThat(service.suggest("Glenf", "EN", 8)).isEqualTo(suggestions);
+            assertThat(service.suggest("  glenf ", "en", 8)).isEqualTo(suggestions);
+
+            verify(suggestRepository, times(1)).suggest(any(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should keep languages and limits apart in the cache")
+        void shouldSeparateCacheKeys() {
+            when(suggestRepository.suggest(any(), eq("gin"), anyInt())).thenReturn(List.of());
+
+            service.suggest("gin", "en", 8);
+            service.suggest("gin", "pl", 8);
+            service.suggest("gin", "pl", 5);
+
+            verify(suggestRepository, times(3)).suggest(any(), eq("gin"), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should return nothing for queries below the minimum length")
+        void shouldSkipShortQueries() {
+            assertThat(service.suggest("gl", null, 8)).isEmpty();
+            assertThat(service.suggest(null, null, 8)).isEmpty();
+            verifyNoInteractions(suggestRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject an invalid limit or an overlong query")
+        void shouldRejectInvalidInput() {
+            assertThatThrownBy(() -> service.suggest("gin", null, SuggestService.MAX_LIMIT + 1))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> service.suggest("g".repeat(SuggestService.MAX_QUERY_LENGTH + 1), null, 8))
+                    .isInstanceOf(BadRequestException.class);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.org.wmm.media.controller;
+
+import com.org.wmm.media.service.MediaFileService;
+import com.org.wmm.media.storage.LocalMediaStorage;
+import com.org.wmm.media.storage.StoredMedia;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MediaControllerTest {
+
+    private static final int CACHEABLE_SIZE = 64 * 1024;
+
+    @TempDir
+    Path basePath;
+
+    private LocalMediaStorage storage;
+    private MediaController controller;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new LocalMediaStorage(basePath.toString());
+        MediaFileService fileService = new MediaFileService(storage, CACHEABLE_SIZE, 1024 * 1024,
+                new SimpleMeterRegistry());
+        controller = new MediaController(fileService, 31_536_000);
+    }
+
+    /**
+     * A PNG padded with random bytes to roughly the given size
+     */
+    private byte[] png(int size) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(8, 8, BufferedImage.TYPE_INT_RGB), "png", out);
+        byte[] padded = Arrays.copyOf(out.toByteArray(), Math.max(size, out.size()));
+        byte[] noise = new byte[padded.length - out.size()];
+        new Random(size).nextBytes(noise);
+        System.arraycopy(noise, 0, padded, out.size(), noise.length);
+        return padded;
+    }
+
+    private StoredMedia store(byte[] content) throws IOException {
+        return storage.store(new ByteArrayInputStream(content), Long.MAX_VALUE);
+    }
+
+    private MockHttpServletResponse get(String path, MockHttpServletRequest request) throws IOException {
+        String[] parts = path.split("/");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serve(parts[0], parts[1], parts[2], request, response);
+        return response;
+    }
+
+    private MockHttpServletResponse get(String path) throws IOException {
+        return get(path, new MockHttpServletRequest("GET", "/media/" + path));
+    }
+
+    @Nested
+    @DisplayName("serve()")
+    class Serve {
+
+        @Test
+        @DisplayName("Should send the file with its hash as ETag and immutable caching")
+        void shouldServeWholeFile() throws IOException {
+            byte[] content = png(1000);
+            StoredMedia stored = store(content);
+
+            MockHttpServletResponse response = get(stored.path());
+
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getContentAsByteArray()).isEqualTo(content);
+            assertThat(response.getContentType()).isEqualTo("image/png");
+            assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + stored.sha256() + "\"");
+            assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).contains("max-age=31536000", "immutable", "public");
+            assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+            assertThat(response.getHeader(HttpHeaders.LAST_MODIFIED)).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Should answer 304 to a matching If-None-Match")
+        void shouldHonourIfNoneMatch() throws IOException {
+            StoredMedia stored = store(png(1000));
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/" + stored.path());
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + stored.sha256() + "\"");
+
+            MockHttpServletResponse response = get(stored.path(), request);
+
+            assertThat(response.getStatus()).isEqualTo(304);
+            assertThat(response.getContentAsByteArray()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should answer 304 to an If-Modified-Since not older than the file")
+        void shouldHonourIfModifiedSince() throws IOException {
+            StoredMedia stored = store(png(1000));
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/" + stored.path());
+            request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, System.currentTimeMillis() + 60_000);
+
+            assertThat(get(stored.path(), request).getStatus()).isEqualTo(304);
+        }
+
+        @Test
+        @DisplayName("Should send a single byte range as 206")
+        void shouldServeRange() throws IOException {
+            byte[] content = png(5000);
+            StoredMedia stored = store(content);
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/" + stored.path());
+            request.addHeader(HttpHeaders.RANGE, "bytes=100-199");
+
+            MockHttpServletResponse response = get(stored.path(), request);
+
+            assertThat(response.getStatus()).isEqualTo(206);
+            assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 100-199/" + content.length);
+            assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 100, 200));
+        }
+
+        @Test
+        @DisplayName("Should ignore a range whose If-Range names another version")
+        void shouldIgnoreStaleIfRange() throws IOException {
+            byte[] content = png(5000);
+            StoredMedia stored = store(content);
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/" + stored.path());
+            request.addHeader(HttpHeaders.RANGE, "bytes=100-199");
+            request.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+
+            MockHttpServletResponse response = get(stored.path(), request);
+
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getContentAsByteArray()).hasSize(content.length);
+        }
+
+        @Test
+        @DisplayName("Should answer 416 to a range beyond the end of the file")
+        void shouldRejectUnsatisfiableRange() throws IOException {
+            byte[] content = png(5000);
+            StoredMedia stored = store(content);
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/" + stored.path());
+            request.addHeader(HttpHeaders.RANGE, "bytes=99999-");
+
+            MockHttpServletResponse response = get(stored.path(), request);
+
+            assertThat(response.getStatus()).isEqualTo(416);
+            assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */" + content.length);
+        }
+
+        @Test
+        @DisplayName("Should hand large files to sendfile instead of writing them")
+        void shouldUseSendfile() throws IOException {
+            byte[] content = png(CACHEABLE_SIZE * 2);
+            StoredMedia stored = store(content);
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/" + stored.path());
+            request.setAttribute(MediaController.SENDFILE_SUPPORTED, Boolean.TRUE);
+            request.addHeader(HttpHeaders.RANGE, "bytes=-1000");
+
+            MockHttpServletResponse response = get(stored.path(), request);
+
+            assertThat(response.getStatus()).isEqualTo(206);
+            assertThat(response.getContentAsByteArray()).isEmpty();
+            assertThat(response.getContentLengthLong()).isEqualTo(1000);
+            assertThat(request.getAttribute(MediaController.SENDFILE_FILENAME))
+                    .isEqualTo(basePath.resolve(stored.path()).toAbsolutePath().toString());
+            assertThat(request.getAttribute(MediaController.SENDFILE_START)).isEqualTo((long) content.length - 1000);
+            assertThat(request.getAttribute(MediaController.SENDFILE_END)).isEqualTo((long) content.length);
+        }
+
+        @Test
+        @DisplayName("Should transfer large files through the channel without sendfile")
+        void shouldTransferWithoutSendfile() throws IOException {
+            byte[] content = png(CACHEABLE_SIZE * 2);
+            StoredMedia stored = store(content);
+
+            assertThat(get(stored.path()).getContentAsByteArray()).isEqualTo(content);
+        }
+
+        @Test
+        @DisplayName("Should serve small files from memory once read")
+        void shouldCacheSmallFiles() throws IOException {
+            byte[] content = png(2000);
+            StoredMedia stored = store(content);
+            get(stored.path());
+            // Content-addressed files never change; overwriting it proves the second response comes from memory
+            Files.writeString(basePath.resolve(stored.path()), "x".repeat(2000));
+
+            assertThat(get(stored.path()).getContentAsByteArray()).isEqualTo(content);
+        }
+
+        @Test
+        @DisplayName("Should send headers only for HEAD")
+        void shouldHandleHead() throws IOException {
+            StoredMedia stored = store(png(1000));
+
+            MockHttpServletResponse response = get(stored.path(), new MockHttpServletRequest("HEAD", "/media/" + stored.path()));
+
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getContentLengthLong()).isEqualTo(1000);
+            assertThat(response.getContentAsByteArray()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should answer 404 to unknown files and paths outside the storage layout")
+        void shouldRejectUnknownPaths() throws IOException {
+            assertThat(get("ab/cd/" + "0".repeat(64) + ".png").getStatus()).isEqualTo(404);
+            assertThat(get("../../etc.png").getStatus()).isEqualTo(404);
+            assertThat(get(".incoming/x/y.png").getStatus()).isEqualTo(404);
+        }
+    }
+}
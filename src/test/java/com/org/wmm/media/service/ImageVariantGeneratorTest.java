@@ -0,0 +1,80 @@
+package com.org.wmm.media.service;
+
+import com.org.wmm.media.service.ImageVariantGenerator.GeneratedVariant;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ImageVariantGeneratorTest {
+
+    private final ImageVariantGenerator generator = new ImageVariantGenerator(new int[]{480, 160, 1200}, 0.8f);
+
+    private static byte[] image(int width, int height, int type, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, type);
+        for (int x = 0; x < width; x += 7) {
+            image.setRGB(x, x * height / width, 0xff336699);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(ImageIO.write(image, format, out)).isTrue();
+        return out.toByteArray();
+    }
+
+    private static BufferedImage decode(GeneratedVariant variant) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(variant.content()));
+    }
+
+    @Nested
+    @DisplayName("generate()")
+    class Generate {
+
+        @Test
+        @DisplayName("Should produce JPEGs at every configured width, widest first, keeping the aspect ratio")
+        void shouldScaleToAllWidths() throws IOException {
+            List<GeneratedVariant> variants = generator.generate(new ByteArrayInputStream(
+                    image(4000, 3000, BufferedImage.TYPE_INT_RGB, "png")));
+
+            assertThat(variants).extracting(GeneratedVariant::width).containsExactly(1200, 480, 160);
+            assertThat(variants).extracting(GeneratedVariant::height).containsExactly(900, 360, 120);
+            assertThat(variants).extracting(GeneratedVariant::mimeType).containsOnly("image/jpeg");
+            BufferedImage smallest = decode(variants.get(2));
+            assertThat(smallest.getWidth()).isEqualTo(160);
+            assertThat(smallest.getHeight()).isEqualTo(120);
+        }
+
+        @Test
+        @DisplayName("Should never upscale")
+        void shouldSkipWiderTargets() throws IOException {
+            assertThat(generator.generate(new ByteArrayInputStream(
+                    image(600, 800, BufferedImage.TYPE_INT_RGB, "jpeg"))))
+                    .extracting(GeneratedVariant::width).containsExactly(480, 160);
+            assertThat(generator.generate(new ByteArrayInputStream(
+                    image(160, 100, BufferedImage.TYPE_INT_RGB, "png")))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should keep transparency as PNG")
+        void shouldKeepAlpha() throws IOException {
+            List<GeneratedVariant> variants = generator.generate(new ByteArrayInputStream(
+                    image(500, 500, BufferedImage.TYPE_INT_ARGB, "png")));
+
+            assertThat(variants).extracting(GeneratedVariant::mimeType).containsOnly("image/png");
+            assertThat(decode(variants.get(0)).getColorModel().hasAlpha()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should reject content it cannot decode")
+        void shouldRejectUnknownFormat() {
+            assertThatThrownBy(() -> generator.generate(new ByteArrayInputStream("RIFF....WEBPVP8 ".getBytes())))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.org.wmm.media.service;
+
+import com.org.wmm.media.repository.ImageVariantRepository;
+import com.org.wmm.media.repository.ImageVariantRepository.VariantJob;
+import com.org.wmm.media.repository.ImageVariantRepository.VariantRow;
+import com.org.wmm.media.storage.LocalMediaStorage;
+import com.org.wmm.media.storage.StoredMedia;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageVariantWorkerTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+    private static final OffsetDateTime LEASE_UNTIL = OffsetDateTime.of(2025, 3, 1, 12, 5, 0, 0, ZoneOffset.UTC);
+
+    @TempDir
+    Path basePath;
+
+    @Mock
+    private ImageVariantRepository repository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LocalMediaStorage storage;
+    private ImageVariantWorker worker;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new LocalMediaStorage(basePath.toString());
+        worker = new ImageVariantWorker(repository, new ImageVariantGenerator(new int[]{160, 480}, 0.8f), storage,
+                transactionManager, 2, 3, LEASE.toMillis(), 3, RETRY_DELAY.toMillis(), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    private StoredMedia storeImage(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return storage.store(new ByteArrayInputStream(out.toByteArray()), Long.MAX_VALUE);
+    }
+
+    private static VariantJob job(String filePath, int attempts) {
+        return new VariantJob(1, 10, filePath, attempts, LEASE_UNTIL);
+    }
+
+    @Nested
+    @DisplayName("poll()")
+    class Poll {
+
+        @Test
+        @DisplayName("Should claim no more jobs than free threads and queue slots")
+        void shouldClaimUpToCapacity() {
+            when(repository.claim(anyInt(), any())).thenReturn(List.of());
+
+            assertThat(worker.poll()).isZero();
+
+            verify(repository).claim(5, LEASE);
+        }
+
+        @Test
+        @DisplayName("Should not claim anything after shutdown")
+        void shouldStopAfterShutdown() {
+            worker.shutdown();
+
+            assertThat(worker.poll()).isZero();
+            verifyNoInteractions(repository);
+        }
+    }
+
+    @Nested
+    @DisplayName("process()")
+    class Process {
+
+        @Test
+        @DisplayName("Should store the variants and complete the job")
+        @SuppressWarnings("unchecked")
+        void shouldStoreVariants() throws IOException {
+            StoredMedia original = storeImage(1000, 500);
+            VariantJob job = job(original.path(), 1);
+
+            worker.process(job);
+
+            ArgumentCaptor<List<VariantRow>> rows = ArgumentCaptor.forClass(List.class);
+            verify(repository).complete(eq(job), rows.capture());
+            assertThat(rows.getValue()).extracting(VariantRow::width).containsExactly(480, 160);
+            assertThat(rows.getValue()).extracting(VariantRow::height).containsExactly(240, 80);
+            for (VariantRow row : rows.getValue()) {
+                assertThat(row.mimeType()).isEqualTo("image/jpeg");
+                assertThat(Files.size(storage.resolve(row.filePath()))).isEqualTo(row.fileSizeBytes());
+            }
+            verify(transactionManager).commit(any());
+        }
+
+        @Test
+        @DisplayName("Should complete images too small for any variant without writing variants")
+        void shouldCompleteSmallImages() throws IOException {
+            VariantJob job = job(storeImage(100, 100).path(), 1);
+
+            worker.process(job);
+
+            verify(repository).complete(job, List.of());
+        }
+
+        @Test
+        @DisplayName("Should retry a failed job with exponential backoff")
+        void shouldRetryWithBackoff() {
+            String missing = "ab/cd/" + "a".repeat(64) + ".png";
+
+            worker.process(job(missing, 1));
+            worker.process(job(missing, 2));
+
+            verify(repository).retry(any(), eq(RETRY_DELAY), contains("NoSuchFileException"));
+            verify(repository).retry(any(), eq(RETRY_DELAY.multipliedBy(2)), anyString());
+            verify(repository, never()).fail(any(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should not count a failure whose claim is no longer current")
+        void shouldIgnoreStaleFailure() {
+            VariantJob job = job("ab/cd/" + "a".repeat(64) + ".png", 3);
+            when(repository.fail(eq(job), anyString())).thenReturn(false);
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            worker.shutdown();
+            worker = new ImageVariantWorker(repository, new ImageVariantGenerator(new int[]{160, 480}, 0.8f), storage,
+                    transactionManager, 2, 3, LEASE.toMillis(), 3, RETRY_DELAY.toMillis(), meterRegistry);
+
+            worker.process(job);
+
+            assertThat(meterRegistry.get("media.variants.failed").counter().count()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should give up after the last attempt")
+        void shouldGiveUpAfterMaxAttempts() {
+            VariantJob job = job("ab/cd/" + "a".repeat(64) + ".png", 3);
+
+            worker.process(job);
+
+            verify(repository).fail(eq(job), anyString());
+            verify(repository, never()).retry(any(), any(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should give up at once on a format that cannot be decoded")
+        void shouldGiveUpOnUndecodableImage() throws IOException {
+            StoredMedia webp = storage.store(new ByteArrayInputStream(webp()), Long.MAX_VALUE);
+            VariantJob job = job(webp.path(), 1);
+
+            worker.process(job);
+
+            verify(repository).fail(eq(job), contains("No image decoder"));
+        }
+
+        /**
+         * Lossy WebP header (800x600); ImageIO has no WebP reader
+         */
+        private byte[] webp() {
+            byte[] bytes = new byte[64];
+            System.arraycopy("RIFF".getBytes(), 0, bytes, 0, 4);
+            bytes[4] = 56;
+            System.arraycopy("WEBPVP8 ".getBytes(), 0, bytes, 8, 8);
+            bytes[23] = (byte) 0x9d;
+            bytes[24] = 0x01;
+            bytes[25] = 0x2a;
+            bytes[26] = 0x20;
+            bytes[27] = 0x03;
+            bytes[28] = 0x58;
+            bytes[29] = 0x02;
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.org.wmm.media.storage;
+
+import com.org.wmm.common.error.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LocalMediaStorageTest {
+
+    @TempDir
+    Path basePath;
+
+    private LocalMediaStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new LocalMediaStorage(basePath.toString());
+    }
+
+    private static byte[] image(String format, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(ImageIO.write(image, format, out)).isTrue();
+        return out.toByteArray();
+    }
+
+    private static ImageHeader header(byte[] bytes) throws IOException {
+        return ImageHeader.read(new InMemoryChannel(bytes));
+    }
+
+    private long incomingFiles() throws IOException {
+        try (Stream<Path> files = Files.list(basePath.resolve(".incoming"))) {
+            return files.count();
+        }
+    }
+
+    @Nested
+    @DisplayName("store()")
+    class Store {
+
+        @Test
+        @DisplayName("Should name the file by its SHA-256 and read the size from the header")
+        void shouldStoreByHash() throws Exception {
+            byte[] png = image("png", 640, 480);
+
+            StoredMedia stored = storage.store(new ByteArrayInputStream(png), 1_000_000);
+
+            String sha256 = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(png));
+            assertThat(stored.sha256()).isEqualTo(sha256);
+            assertThat(stored.path())
+                    .isEqualTo(sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256 + ".png");
+            assertThat(stored.sizeBytes()).isEqualTo(png.length);
+            assertThat(stored.header()).isEqualTo(new ImageHeader("image/png", "png", 640, 480));
+            assertThat(stored.existing()).isFalse();
+            assertThat(Files.readAllBytes(basePath.resolve(stored.path()))).isEqualTo(png);
+            assertThat(incomingFiles()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should store identical content once")
+        void shouldDeduplicate() throws Exception {
+            byte[] jpeg = image("jpg", 32, 16);
+
+            StoredMedia first = storage.store(new ByteArrayInputStream(jpeg), 1_000_000);
+            StoredMedia second = storage.store(new ByteArrayInputStream(jpeg), 1_000_000);
+
+            assertThat(second.path()).isEqualTo(first.path());
+            assertThat(second.existing()).isTrue();
+            assertThat(incomingFiles()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should stream a body larger than the buffer")
+        void shouldStreamLargeBody() throws Exception {
+            byte[] png = image("png", 1200, 900);
+            byte[] padded = new byte[png.length + 5 * LocalMediaStorage.BUFFER_SIZE];
+            System.arraycopy(png, 0, padded, 0, png.length);
+
+            StoredMedia stored = storage.store(new ByteArrayInputStream(padded), padded.length);
+
+            assertThat(stored.sizeBytes()).isEqualTo(padded.length);
+            assertThat(Files.size(basePath.resolve(stored.path()))).isEqualTo(padded.length);
+        }
+
+        @Test
+        @DisplayName("Should reject oversized, empty and non-image bodies and clean up")
+        void shouldReject() throws Exception {
+            byte[] png = image("png", 64, 64);
+
+            assertThatThrownBy(() -> storage.store(new ByteArrayInputStream(png), png.length - 1))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("larger");
+            assertThatThrownBy(() -> storage.store(InputStream.nullInputStream(), 100))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> storage.store(new ByteArrayInputStream("<svg/>".repeat(5).getBytes()), 100))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("Unsupported");
+            assertThat(incomingFiles()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("ImageHeader.read()")
+    class ReadHeader {
+
+        @Test
+        @DisplayName("Should read JPEG, PNG and GIF sizes")
+        void shouldReadCommonFormats() throws Exception {
+            assertThat(header(image("jpg", 300, 200))).isEqualTo(new ImageHeader("image/jpeg", "jpg", 300, 200));
+            assertThat(header(image("png", 1, 2))).isEqualTo(new ImageHeader("image/png", "png", 1, 2));
+            assertThat(header(image("gif", 70, 50))).isEqualTo(new ImageHeader("image/gif", "gif", 70, 50));
+        }
+
+        @Test
+        @DisplayName("Should skip JPEG segments before the frame header")
+        void shouldSkipJpegSegments() throws Exception {
+            byte[] jpeg = image("jpg", 123, 45);
+            byte[] comment = new byte[4 + 3000];
+            comment[0] = (byte) 0xFF;
+            comment[1] = (byte) 0xFE;
+            comment[2] = (byte) ((3000 + 2) >> 8);
+            comment[3] = (byte) ((3000 + 2) & 0xFF);
+            byte[] withComment = new byte[jpeg.length + comment.length];
+            System.arraycopy(jpeg, 0, withComment, 0, 2);
+            System.arraycopy(comment, 0, withComment, 2, comment.length);
+            System.arraycopy(jpeg, 2, withComment, 2 + comment.length, jpeg.length - 2);
+
+            assertThat(header(withComment)).isEqualTo(new ImageHeader("image/jpeg", "jpg", 123, 45));
+        }
+
+        @Test
+        @DisplayName("Should read the WebP variants")
+        void shouldReadWebp() throws Exception {
+            ByteBuffer extended = webp("VP8X");
+            extended.put(24, (byte) 0x1F).put(25, (byte) 0x03); // width 800 (799 + 1)
+            extended.put(27, (byte) 0x57).put(28, (byte) 0x02); // height 600
+            assertThat(header(extended.array())).isEqualTo(new ImageHeader("image/webp", "webp", 800, 600));
+
+            ByteBuffer lossy = webp("VP8 ");
+            lossy.putShort(26, (short) 640).putShort(28, (short) 480);
+            assertThat(header(lossy.array())).isEqualTo(new ImageHeader("image/webp", "webp", 640, 480));
+
+            ByteBuffer lossless = webp("VP8L");
+            lossless.put(20, (byte) 0x2F).putInt(21, (100 - 1) | (50 - 1) << 14);
+            assertThat(header(lossless.array())).isEqualTo(new ImageHeader("image/webp", "webp", 100, 50));
+        }
+
+        private ByteBuffer webp(String chunk) {
+            ByteBuffer buffer = ByteBuffer.allocate(40).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put("RIFF".getBytes()).putInt(32).put("WEBP".getBytes()).put(chunk.getBytes());
+            return buffer;
+        }
+    }
+
+    /**
+     * Read-only channel over a byte array
+     */
+    private static final class InMemoryChannel implements SeekableByteChannel {
+
+        private final byte[] bytes;
+        private int position;
+
+        InMemoryChannel(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (position >= bytes.length) {
+                return -1;
+            }
+            int count = Math.min(dst.remaining(), bytes.length - position);
+            dst.put(bytes, position, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long position() {
+            return position;
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition) {
+            position = (int) newPosition;
+            return this;
+        }
+
+        @Override
+        public long size() {
+            return bytes.length;
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
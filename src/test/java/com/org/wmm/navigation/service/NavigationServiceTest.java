@@ -0,0 +1,175 @@
+package com.org.wmm.navigation.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.wmm.navigation.dto.NavigationNode;
+import com.org.wmm.navigation.dto.NavigationTree;
+import com.org.wmm.navigation.repository.NavigationLevel;
+import com.org.wmm.navigation.repository.NavigationRepository;
+import com.org.wmm.navigation.repository.NavigationRepository.Change;
+import com.org.wmm.navigation.repository.NavigationRepository.LanguageRow;
+import com.org.wmm.navigation.repository.NavigationRepository.NodeRow;
+import com.org.wmm.navigation.repository.NavigationRepository.TranslationRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NavigationServiceTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2024, 5, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+    private static final long PL = 1;
+    private static final long EN = 2;
+
+    @Mock
+    private NavigationRepository repository;
+
+    private NavigationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new NavigationService(repository, new ObjectMapper(), 86_400_000, new SimpleMeterRegistry());
+
+        lenient().when(repository.currentChangeWatermark()).thenReturn(100L);
+        lenient().when(repository.findLanguages()).thenReturn(List.of(
+                new LanguageRow(PL, "pl", true, true),
+                new LanguageRow(EN, "en", false, true)));
+        lenient().when(repository.findNodes(NavigationLevel.CATEGORY, null)).thenReturn(List.of(
+                node(10, null, "whisky", 2, true),
+                node(11, null, "gin", 1, true),
+                node(12, null, "draft", 0, false)));
+        lenient().when(repository.findNodes(NavigationLevel.TOPIC, null)).thenReturn(List.of(
+                node(20, 10L, "islay", 0, true)));
+        lenient().when(repository.findNodes(NavigationLevel.SUBTOPIC, null)).thenReturn(List.of());
+        lenient().when(repository.findTranslations(NavigationLevel.CATEGORY, null)).thenReturn(List.of(
+                translation(100, 10, PL, "Whisky PL"),
+                translation(101, 10, EN, "Whisky EN"),
+                translation(102, 11, PL, "Gin PL")));
+        lenient().when(repository.findTranslations(NavigationLevel.TOPIC, null)).thenReturn(List.of(
+                translation(200, 20, PL, "Islay")));
+        lenient().when(repository.findTranslations(NavigationLevel.SUBTOPIC, null)).thenReturn(List.of());
+    }
+
+    private static NodeRow node(long id, Long parentId, String slug, int order, boolean visible) {
+        return new NodeRow(id, parentId, slug, null, order, visible, T0);
+    }
+
+    private static TranslationRow translation(long id, long nodeId, long languageId, String title) {
+        return new TranslationRow(id, nodeId, languageId, title, null, T0);
+    }
+
+    @Nested
+    @DisplayName("getTree()")
+    class GetTree {
+
+        @Test
+        @DisplayName("Should build the published tree in display order with default-language fallback")
+        void shouldBuildTree() {
+            NavigationTree tree = service.getTree("en");
+
+            assertThat(tree.getCategories()).extracting(NavigationNode::getSlug).containsExactly("gin", "whisky");
+            assertThat(tree.getCategories()).extracting(NavigationNode::getTitle).containsExactly("Gin PL", "Whisky EN");
+            assertThat(tree.getCategories().get(1).getChildren())
+                    .extracting(NavigationNode::getTitle).containsExactly("Islay");
+            assertThat(tree.getEtag()).isNotBlank();
+            assertThat(tree.getLastModified()).isEqualTo(T0.toInstant());
+        }
+
+        @Test
+        @DisplayName("Should serve the default language for unknown codes and hit the database only once")
+        void shouldServeFromMemory() {
+            NavigationTree pl = service.getTree(null);
+            NavigationTree unknown = service.getTree("xx");
+            service.getTree("PL");
+
+            assertThat(unknown).isSameAs(pl);
+            assertThat(pl.getLang()).isEqualTo("pl");
+            verify(repository, times(1)).findLanguages();
+        }
+    }
+
+    @Nested
+    @DisplayName("refresh()")
+    class Refresh {
+
+        @Test
+        @DisplayName("Should reload only changed rows and keep the ETag of unaffected languages")
+        void shouldApplyChangesIncrementally() {
+            NavigationTree plBefore = service.getTree("pl");
+            NavigationTree enBefore = service.getTree("en");
+
+            OffsetDateTime changedAt = T0.plusHours(1);
+            when(repository.currentChangeWatermark()).thenReturn(105L);
+            when(repository.findChanges(100L, 105L)).thenReturn(List.of(
+                    new Change("category_translations", 102, changedAt)));
+            when(repository.findTranslations(NavigationLevel.CATEGORY, Set.of(102L))).thenReturn(List.of(
+                    new TranslationRow(102, 11, PL, "Gin (nowy)", null, changedAt)));
+
+            service.refresh();
+
+            NavigationTree plAfter = service.getTree("pl");
+            assertThat(plAfter.getCategories().get(0).getTitle()).isEqualTo("Gin (nowy)");
+            assertThat(plAfter.getEtag()).isNotEqualTo(plBefore.getEtag());
+            assertThat(plAfter.getLastModified()).isEqualTo(changedAt.toInstant());
+            // "en" shows the gin title through fallback, so it changed too; whisky node is untouched
+            assertThat(service.getTree("en").getCategories().get(1)).isEqualTo(enBefore.getCategories().get(1));
+            verify(repository, never()).findNodes(any(), anySet());
+        }
+
+        @Test
+        @DisplayName("Should drop rows deleted since the last refresh")
+        void shouldRemoveDeletedRows() {
+            service.getTree("pl");
+            NavigationTree enBefore = service.getTree("en");
+
+            when(repository.currentChangeWatermark()).thenReturn(101L);
+            when(repository.findChanges(100L, 101L)).thenReturn(List.of(
+                    new Change("topics", 20, T0.plusMinutes(5))));
+            when(repository.findNodes(NavigationLevel.TOPIC, Set.of(20L))).thenReturn(List.of());
+
+            service.refresh();
+
+            assertThat(service.getTree("pl").getCategories().get(1).getChildren()).isEmpty();
+            assertThat(service.getTree("en").getEtag()).isNotEqualTo(enBefore.getEtag());
+        }
+
+        @Test
+        @DisplayName("Should keep the same tree instance when nothing visible changed")
+        void shouldKeepTreeWhenContentUnchanged() {
+            NavigationTree before = service.getTree("en");
+
+            when(repository.currentChangeWatermark()).thenReturn(101L);
+            when(repository.findChanges(100L, 101L)).thenReturn(List.of(
+                    new Change("categories", 12, T0.plusMinutes(5))));
+            when(repository.findNodes(NavigationLevel.CATEGORY, Set.of(12L))).thenReturn(List.of(
+                    node(12, null, "draft", 5, false)));
+
+            service.refresh();
+
+            assertThat(service.getTree("en")).isSameAs(before);
+        }
+
+        @Test
+        @DisplayName("Should not query changes when the watermark has not moved")
+        void shouldSkipWhenNoNewTransactions() {
+            service.getTree("pl");
+
+            service.refresh();
+
+            verify(repository, never()).findChanges(anyLong(), anyLong());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.org.wmm.security;
+
+import com.org.wmm.common.constants.SecurityConstants;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.lang.NonNull;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the original per-request authentication path (four token parses, a Spring {@link User},
+ * new authorities and web details) with the cached-claims {@link JwtAuthenticationFilter}.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main JwtAuthenticationFilterBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hmac-sha-256";
+
+    private String bearerHeader;
+    private OncePerRequestFilter legacyFilter;
+    private OncePerRequestFilter currentFilter;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 900_000, 604_800_000, "wmm-bench", 10_000);
+        UserDetails user = User.builder()
+                .username("editor@williammacmiron.com")
+                .password("")
+                .authorities(List.of(
+                        new SimpleGrantedAuthority(SecurityConstants.ROLE_EDITOR),
+                        new SimpleGrantedAuthority(SecurityConstants.ROLE_VIEWER)))
+                .build();
+
+        bearerHeader = SecurityConstants.BEARER_PREFIX + provider.generateAccessToken(user);
+        legacyFilter = new LegacyJwtAuthenticationFilter(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)));
+        currentFilter = new JwtAuthenticationFilter(provider);
+        response = new MockHttpServletResponse();
+        chain = (request, servletResponse) -> {
+        };
+    }
+
+    @Benchmark
+    public void legacyFilterPath(Blackhole blackhole) throws ServletException, IOException {
+        blackhole.consume(run(legacyFilter));
+    }
+
+    @Benchmark
+    public void currentFilterPath(Blackhole blackhole) throws ServletException, IOException {
+        blackhole.consume(run(currentFilter));
+    }
+
+    private Object run(OncePerRequestFilter filter) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/me");
+        request.addHeader(SecurityConstants.AUTHORIZATION_HEADER, bearerHeader);
+        try {
+            filter.doFilter(request, response, chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Copy of the filter as it was before claims caching and {@link JwtAuthenticationToken}
+     */
+    static final class LegacyJwtAuthenticationFilter extends OncePerRequestFilter {
+
+        private final SecretKey secretKey;
+
+        LegacyJwtAuthenticationFilter(SecretKey secretKey) {
+            this.secretKey = secretKey;
+        }
+
+        @Override
+        protected void doFilterInternal(
+                @NonNull HttpServletRequest request,
+                @NonNull HttpServletResponse response,
+                @NonNull FilterChain filterChain
+        ) throws ServletException, IOException {
+            String header = request.getHeader(SecurityConstants.AUTHORIZATION_HEADER);
+            String jwt = header.substring(SecurityConstants.BEARER_PREFIX.length());
+
+            // validateToken: parse + isTokenExpired (second parse)
+            parse(jwt);
+            boolean valid = !parse(jwt).getExpiration().before(new Date());
+
+            if (valid) {
+                String username = parse(jwt).getSubject();
+                @SuppressWarnings("unchecked")
+                List<String> roles = (List<String>) parse(jwt).get("roles");
+
+                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    UserDetails userDetails = User.builder()
+                            .username(username)
+                            .password("")
+                            .authorities(roles.stream()
+                                    .map(SimpleGrantedAuthority::new)
+                                    .collect(Collectors.toList()))
+                            .build();
+
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
+            }
+
+            filterChain.doFilter(request, response);
+        }
+
+        private Claims parse(String token) {
+            return Jwts.parser()
+                    .verifyWith(secretKey)
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.org.wmm.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hmac-sha-256";
+
+    private JwtTokenProvider provider;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        provider = new JwtTokenProvider(SECRET, 900_000, 604_800_000, "wmm-test", 100);
+        filter = new JwtAuthenticationFilter(provider);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/admin/items");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    @DisplayName("should authenticate an access token")
+    void shouldAuthenticateAccessToken() throws Exception {
+        Authentication authentication = authenticate(provider.generateAccessToken("admin@test.com", List.of("ROLE_ADMIN")));
+
+        assertThat(authentication).isInstanceOf(JwtAuthenticationToken.class);
+        assertThat(authentication.getName()).isEqualTo("admin@test.com");
+    }
+
+    @Test
+    @DisplayName("should not authenticate a refresh token used as a bearer token")
+    void shouldIgnoreRefreshToken() throws Exception {
+        Authentication authentication = authenticate(provider.generateRefreshToken("admin@test.com", UUID.randomUUID()));
+
+        assertThat(authentication).isNull();
+    }
+
+    @Test
+    @DisplayName("should not authenticate an invalid token")
+    void shouldIgnoreInvalidToken() throws Exception {
+        assertThat(authenticate("not-a-jwt")).isNull();
+    }
+}
@@ -0,0 +1,123 @@
+package com.org.wmm.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.interfaces.EdECPrivateKey;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtKeySetTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hmac-sha-256";
+
+    @TempDir
+    Path dir;
+
+    private KeyPair ecKeys;
+    private Path ecPrivatePem;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ecKeys = Jwts.SIG.ES256.keyPair().build();
+        ecPrivatePem = writePem("ec.pem", "PRIVATE KEY", ecKeys.getPrivate());
+    }
+
+    @Test
+    @DisplayName("should sign with ES256 from a PEM key and publish only its public part")
+    void shouldSignWithEcKey() {
+        JwtKeySet keySet = JwtKeySet.load(ecPrivatePem.toString(), "", List.of(), null);
+        JwtTokenProvider provider = provider(keySet);
+
+        String token = provider.generateAccessToken("admin@test.com", List.of("ROLE_ADMIN"));
+
+        assertThat(header(token)).contains("\"alg\":\"ES256\"").contains("\"kid\"");
+        assertThat(provider.parseClaims(token).getSubject()).isEqualTo("admin@test.com");
+        assertThat(keySet.toJwksJson())
+                .startsWith("{\"keys\":[{")
+                .contains("\"crv\":\"P-256\"")
+                .doesNotContain("\"d\"");
+    }
+
+    @Test
+    @DisplayName("should sign with EdDSA from a JWK file and honour a configured key id")
+    void shouldSignWithEd25519Jwk() throws Exception {
+        KeyPair edKeys = Jwks.CRV.Ed25519.keyPair().build();
+        Path jwkFile = dir.resolve("ed.jwk");
+        // jjwt only serializes public JWKs, so write the private one by hand
+        Object x = Jwks.builder().key(edKeys.getPublic()).build().get("x");
+        byte[] d = ((EdECPrivateKey) edKeys.getPrivate()).getBytes().orElseThrow();
+        Files.writeString(jwkFile, "{\"kty\":\"OKP\",\"crv\":\"Ed25519\",\"x\":\"" + x + "\",\"d\":\""
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(d) + "\"}");
+
+        JwtTokenProvider provider = provider(JwtKeySet.load(jwkFile.toString(), "ed-2026", List.of(), null));
+        String token = provider.generateAccessToken("admin@test.com", List.of("ROLE_ADMIN"));
+
+        assertThat(header(token)).contains("\"alg\":\"EdDSA\"").contains("\"kid\":\"ed-2026\"");
+        assertThat(provider.validateToken(token)).isTrue();
+    }
+
+    @Test
+    @DisplayName("should keep accepting tokens of a rotated-out key listed for verification")
+    void shouldVerifyWithPreviousKey() throws Exception {
+        String oldToken = provider(JwtKeySet.load(ecPrivatePem.toString(), "", List.of(), null))
+                .generateAccessToken("admin@test.com", List.of());
+
+        KeyPair newKeys = Jwts.SIG.ES256.keyPair().build();
+        Path newPem = writePem("new.pem", "PRIVATE KEY", newKeys.getPrivate());
+        Path oldPublicPem = writePem("old.pub.pem", "PUBLIC KEY", ecKeys.getPublic());
+
+        JwtTokenProvider rotated = provider(JwtKeySet.load(newPem.toString(), "", List.of(oldPublicPem.toString()), null));
+        JwtTokenProvider withoutOldKey = provider(JwtKeySet.load(newPem.toString(), "", List.of(), null));
+
+        assertThat(rotated.validateToken(oldToken)).isTrue();
+        assertThat(withoutOldKey.validateToken(oldToken)).isFalse();
+        assertThat(JwtKeySet.load(newPem.toString(), "", List.of(oldPublicPem.toString()), null).toJwksJson())
+                .contains("},{");
+    }
+
+    @Test
+    @DisplayName("should accept HMAC tokens without kid only while the secret is configured")
+    void shouldAcceptLegacyHmacTokensWithSecret() {
+        String hmacToken = new JwtTokenProvider(SECRET, 900_000, 604_800_000, "wmm-test", 100)
+                .generateAccessToken("admin@test.com", List.of());
+
+        assertThat(provider(JwtKeySet.load(ecPrivatePem.toString(), "", List.of(), SECRET)).validateToken(hmacToken))
+                .isTrue();
+        assertThat(provider(JwtKeySet.load(ecPrivatePem.toString(), "", List.of(), null)).validateToken(hmacToken))
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("should fail fast without any signing key")
+    void shouldRequireSigningKey() {
+        assertThatThrownBy(() -> JwtKeySet.load("", "", List.of(), ""))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private JwtTokenProvider provider(JwtKeySet keySet) {
+        return new JwtTokenProvider(keySet, 900_000, 604_800_000, "wmm-test", 100);
+    }
+
+    private Path writePem(String name, String type, Key key) throws Exception {
+        String pem = "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(key.getEncoded())
+                + "\n-----END " + type + "-----\n";
+        return Files.writeString(dir.resolve(name), pem);
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,109 @@
+package com.org.wmm.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hmac-sha-256";
+
+    private JwtTokenProvider provider;
+    private UserDetails admin;
+
+    @BeforeEach
+    void setUp() {
+        provider = new JwtTokenProvider(SECRET, 900_000, 604_800_000, "wmm-test", 100);
+        admin = User.builder()
+                .username("admin@test.com")
+                .password("")
+                .authorities(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")))
+                .build();
+    }
+
+    @Test
+    @DisplayName("should parse subject, type and roles in one pass")
+    void shouldParseClaims() {
+        String token = provider.generateAccessToken(admin);
+
+        JwtClaims claims = provider.parseClaims(token);
+
+        assertThat(claims.getSubject()).isEqualTo("admin@test.com");
+        assertThat(claims.getType()).isEqualTo("access");
+        assertThat(claims.getRoles()).containsExactly("ROLE_ADMIN");
+        assertThat(claims.getExpiresAt()).isAfter(claims.getIssuedAt());
+    }
+
+    @Test
+    @DisplayName("should carry user id, display name and profile version in access tokens")
+    void shouldParseProfileClaims() {
+        OffsetDateTime updatedAt = OffsetDateTime.parse("2026-03-01T10:15:30.123Z");
+        String token = provider.generateAccessToken(7L, "admin@test.com", "Admin", List.of("ROLE_ADMIN"), updatedAt);
+
+        JwtClaims claims = provider.parseClaims(token);
+
+        assertThat(claims.getUserId()).isEqualTo(7L);
+        assertThat(claims.getDisplayName()).isEqualTo("Admin");
+        assertThat(claims.getUserVersion()).isEqualTo(updatedAt.toInstant());
+        assertThat(provider.parseClaims(provider.generateAccessToken(admin)).getUserId()).isNull();
+    }
+
+    @Test
+    @DisplayName("should serve repeated parses of the same token from the cache")
+    void shouldReuseCachedClaims() {
+        String token = provider.generateAccessToken(admin);
+
+        JwtClaims first = provider.parseClaims(token);
+        JwtClaims second = provider.parseClaims(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(provider.extractUsername(token)).isEqualTo("admin@test.com");
+        assertThat(provider.extractRoles(token)).containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    @DisplayName("should reject a token whose payload was swapped under a cached signature")
+    void shouldRejectForgedPayloadWithCachedSignature() {
+        String token = provider.generateAccessToken(admin);
+        provider.parseClaims(token);
+
+        String[] parts = token.split("\\.");
+        String other = provider.generateRefreshToken(admin).split("\\.")[1];
+        String forged = parts[0] + "." + other + "." + parts[2];
+
+        assertThat(provider.validateToken(forged)).isFalse();
+        assertThat(provider.resolveClaims(forged)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should reject tokens signed with another key")
+    void shouldRejectForeignSignature() {
+        JwtTokenProvider other = new JwtTokenProvider(
+                "another-secret-key-that-is-long-enough-for-hmac-256", 900_000, 604_800_000, "wmm-test", 100);
+
+        assertThat(provider.validateToken(other.generateAccessToken(admin))).isFalse();
+    }
+
+    @Test
+    @DisplayName("should reject expired tokens")
+    void shouldRejectExpiredToken() {
+        JwtTokenProvider shortLived = new JwtTokenProvider(SECRET, -1_000, 604_800_000, "wmm-test", 100);
+
+        assertThat(provider.validateToken(shortLived.generateAccessToken(admin))).isFalse();
+    }
+
+    @Test
+    @DisplayName("should reject malformed tokens")
+    void shouldRejectMalformedToken() {
+        assertThat(provider.validateToken("not-a-jwt")).isFalse();
+        assertThat(provider.validateToken("a.b.")).isFalse();
+    }
+}
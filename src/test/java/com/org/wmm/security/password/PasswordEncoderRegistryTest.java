@@ -0,0 +1,96 @@
+package com.org.wmm.security.password;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PasswordEncoderRegistryTest {
+
+    private static PasswordEncoderRegistry registry(String target, int bcryptStrength, int argon2MemoryKib) {
+        return new PasswordEncoderRegistry(List.of(
+                new BCryptHashAlgorithm(bcryptStrength),
+                new Argon2HashAlgorithm(argon2MemoryKib, 1, 1)
+        ), target, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("should fail fast on an unknown target algorithm")
+    void shouldRejectUnknownTarget() {
+        assertThatThrownBy(() -> registry("md5", 4, 1024))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("md5");
+    }
+
+    @Nested
+    @DisplayName("matches")
+    class Matches {
+
+        @Test
+        @DisplayName("should verify hashes with the encoder of their stored algorithm")
+        void shouldMatchByAlgorithm() {
+            PasswordEncoderRegistry bcryptTarget = registry("bcrypt", 4, 1024);
+            PasswordEncoderRegistry argonTarget = registry("argon2", 4, 1024);
+            String argonHash = argonTarget.encode("secret123");
+
+            assertThat(bcryptTarget.matches("argon2", "secret123", argonHash)).isTrue();
+            assertThat(bcryptTarget.matches("bcrypt", "secret123", argonHash)).isFalse();
+            assertThat(bcryptTarget.matches("argon2", "wrong", argonHash)).isFalse();
+        }
+
+        @Test
+        @DisplayName("should treat a missing algorithm as bcrypt and reject unknown ones")
+        void shouldHandleMissingAndUnknownAlgorithm() {
+            PasswordEncoderRegistry registry = registry("bcrypt", 4, 1024);
+            String hash = registry.encode("secret123");
+
+            assertThat(registry.matches(null, "secret123", hash)).isTrue();
+            assertThat(registry.matches("sha1", "secret123", hash)).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("needsRehash")
+    class NeedsRehash {
+
+        @Test
+        @DisplayName("should keep hashes that match the target algorithm and cost")
+        void shouldKeepCurrentHash() {
+            PasswordEncoderRegistry registry = registry("bcrypt", 5, 1024);
+
+            assertThat(registry.needsRehash("bcrypt", registry.encode("secret123"))).isFalse();
+        }
+
+        @Test
+        @DisplayName("should rehash bcrypt when the cost is lowered or raised")
+        void shouldRehashOnBcryptCostChange() {
+            String cost4 = registry("bcrypt", 4, 1024).encode("secret123");
+            String cost6 = registry("bcrypt", 6, 1024).encode("secret123");
+            PasswordEncoderRegistry registry = registry("bcrypt", 5, 1024);
+
+            assertThat(registry.needsRehash("bcrypt", cost4)).isTrue();
+            assertThat(registry.needsRehash("bcrypt", cost6)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should rehash argon2 when memory cost changes")
+        void shouldRehashOnArgon2ParameterChange() {
+            String hash = registry("argon2", 4, 1024).encode("secret123");
+
+            assertThat(registry("argon2", 4, 1024).needsRehash("argon2", hash)).isFalse();
+            assertThat(registry("argon2", 4, 2048).needsRehash("argon2", hash)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should rehash when the algorithm differs from the target")
+        void shouldRehashOnAlgorithmChange() {
+            String bcryptHash = registry("bcrypt", 4, 1024).encode("secret123");
+
+            assertThat(registry("argon2", 4, 1024).needsRehash("bcrypt", bcryptHash)).isTrue();
+        }
+    }
+}
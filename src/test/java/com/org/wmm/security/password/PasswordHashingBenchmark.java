@@ -0,0 +1,57 @@
+package com.org.wmm.security.password;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one password hash per algorithm and setting on the current machine. Use it to pick
+ * {@code auth.password.*} values that fit the login latency budget.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main PasswordHashingBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    /**
+     * {@code bcrypt:<strength>} or {@code argon2:<memoryKib>:<iterations>:<parallelism>}
+     */
+    @Param({
+            "bcrypt:8",
+            "bcrypt:10",
+            "bcrypt:12",
+            "argon2:19456:2:1",
+            "argon2:47104:1:1",
+            "argon2:65536:3:1"
+    })
+    public String setting;
+
+    private PasswordEncoder encoder;
+
+    @Setup
+    public void setUp() {
+        String[] parts = setting.split(":");
+        PasswordHashAlgorithm algorithm = switch (parts[0]) {
+            case "bcrypt" -> new BCryptHashAlgorithm(Integer.parseInt(parts[1]));
+            case "argon2" -> new Argon2HashAlgorithm(
+                    Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+            default -> throw new IllegalArgumentException("Unknown algorithm: " + parts[0]);
+        };
+        encoder = algorithm.getEncoder();
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("correct horse battery staple");
+    }
+}
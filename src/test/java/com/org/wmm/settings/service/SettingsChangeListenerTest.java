@@ -0,0 +1,160 @@
+package com.org.wmm.settings.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SettingsChangeListenerTest {
+
+    @Mock
+    private SettingsService settingsService;
+    @Mock
+    private Connection connection;
+    @Mock
+    private PGConnection pgConnection;
+    @Mock
+    private Statement statement;
+
+    private final AtomicInteger reloads = new AtomicInteger();
+    private SettingsChangeListener listener;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> reloads.incrementAndGet()).when(settingsService).reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (listener != null) {
+            listener.stop();
+        }
+    }
+
+    private SettingsChangeListener listener(Connection... connections) {
+        AtomicInteger attempt = new AtomicInteger();
+        return new SettingsChangeListener(settingsService, new DataSourceProperties(), 10, 10) {
+            @Override
+            Connection connect() throws SQLException {
+                int i = attempt.getAndIncrement();
+                if (i >= connections.length) {
+                    throw new SQLException("database is down");
+                }
+                return connections[i];
+            }
+        };
+    }
+
+    private void givenListeningConnection() throws SQLException {
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+    }
+
+    /**
+     * Waits for the listener to reload {@code expected} times, then checks that no more reloads follow.
+     * Not verify(timeout()): reload() is synchronized, and a timed verification holds the mock's monitor while
+     * it waits, which blocks the listener thread.
+     */
+    private void assertReloads(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (reloads.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+        assertThat(reloads).hasValue(expected);
+    }
+
+    /**
+     * Like the driver, wait out the poll timeout when nothing arrived; an immediate return would spin the
+     * listener loop and bury the verifications under recorded calls
+     */
+    private static Answer<PGNotification[]> noNotifications() {
+        return invocation -> {
+            try {
+                Thread.sleep(invocation.<Integer>getArgument(0));
+            } catch (InterruptedException e) {
+                // stop(): the listener notices running is false
+                Thread.currentThread().interrupt();
+            }
+            return new PGNotification[0];
+        };
+    }
+
+    @Nested
+    @DisplayName("start()")
+    class Start {
+
+        @Test
+        @DisplayName("Should reload once LISTEN is registered, so changes since startup are not missed")
+        void shouldReloadAfterListen() throws Exception {
+            givenListeningConnection();
+            when(pgConnection.getNotifications(anyInt())).thenAnswer(noNotifications());
+            listener = listener(connection);
+
+            listener.start();
+
+            verify(statement, timeout(2000)).execute("LISTEN " + SettingsChangeListener.CHANNEL);
+            assertReloads(1);
+        }
+
+        @Test
+        @DisplayName("Should LISTEN on the channel and reload once per batch of notifications")
+        void shouldReloadOnNotification() throws Exception {
+            givenListeningConnection();
+            PGNotification notification = mock(PGNotification.class);
+            when(pgConnection.getNotifications(anyInt()))
+                    .thenReturn(new PGNotification[]{notification, notification})
+                    .thenAnswer(noNotifications());
+            listener = listener(connection);
+
+            listener.start();
+
+            verify(statement, timeout(2000)).execute("LISTEN " + SettingsChangeListener.CHANNEL);
+            assertReloads(2);
+        }
+
+        @Test
+        @DisplayName("Should reconnect after the connection drops and reload what it may have missed")
+        void shouldReloadAfterReconnect() throws Exception {
+            givenListeningConnection();
+            when(pgConnection.getNotifications(anyInt()))
+                    .thenThrow(new SQLException("connection reset"))
+                    .thenAnswer(noNotifications());
+            listener = listener(connection, connection);
+
+            listener.start();
+
+            verify(statement, timeout(2000).times(2)).execute("LISTEN " + SettingsChangeListener.CHANNEL);
+            assertReloads(2);
+        }
+
+        @Test
+        @DisplayName("Should keep retrying while the database is unreachable")
+        void shouldRetryConnecting() throws Exception {
+            listener = listener();
+
+            listener.start();
+
+            assertReloads(0);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.org.wmm.settings.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.wmm.settings.dto.PublicSettings;
+import com.org.wmm.settings.repository.SettingsRepository;
+import com.org.wmm.settings.repository.SettingsRepository.SettingRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SettingsServiceTest {
+
+    private static final OffsetDateTime UPDATED_AT = OffsetDateTime.of(2025, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Mock
+    private SettingsRepository repository;
+
+    private SettingsService service;
+    private List<SettingRow> rows;
+
+    @BeforeEach
+    void setUp() {
+        service = new SettingsService(repository, new ObjectMapper(), new SimpleMeterRegistry());
+        rows = new ArrayList<>(List.of(
+                row("site.name", "WilliamMacMiron", "string", true),
+                row("site.minimum_age", "18", "integer", true),
+                row("site.enable_search", "true", "boolean", true),
+                row("site.items_per_page", "12", "integer", false),
+                row("media.allowed_extensions", "[\"jpg\",\"png\"]", "json", false)));
+        lenient().when(repository.findAll()).thenAnswer(invocation -> List.copyOf(rows));
+    }
+
+    private static SettingRow row(String key, String value, String type, boolean isPublic) {
+        return new SettingRow(key, value, type, isPublic, UPDATED_AT);
+    }
+
+    @Nested
+    @DisplayName("typed accessors")
+    class Accessors {
+
+        @Test
+        @DisplayName("Should parse every value type once, on load")
+        void shouldParseValueTypes() {
+            service.reload();
+
+            assertThat(service.getString("site.name", null)).isEqualTo("WilliamMacMiron");
+            assertThat(service.getInt("site.items_per_page", 0)).isEqualTo(12);
+            assertThat(service.getLong("site.minimum_age", 0)).isEqualTo(18);
+            assertThat(service.getBoolean("site.enable_search", false)).isTrue();
+            assertThat(service.getJson("media.allowed_extensions")).get()
+                    .satisfies(node -> assertThat(node.get(1).asText()).isEqualTo("png"));
+
+            service.getString("site.name", null);
+            verify(repository, times(1)).findAll();
+        }
+
+        @Test
+        @DisplayName("Should return the default for missing keys and other types")
+        void shouldFallBackToDefault() {
+            assertThat(service.getString("missing", "fallback")).isEqualTo("fallback");
+            assertThat(service.getInt("site.name", 7)).isEqualTo(7);
+            assertThat(service.getBoolean("site.minimum_age", true)).isTrue();
+            assertThat(service.getJson("site.name")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should skip rows whose value does not parse")
+        void shouldSkipInvalidRows() {
+            rows.add(row("broken.flag", "yes", "boolean", true));
+            rows.add(row("broken.json", "{", "json", false));
+            rows.add(row("broken.number", "ten", "integer", false));
+
+            service.reload();
+
+            assertThat(service.find("broken.flag")).isEmpty();
+            assertThat(service.getBoolean("broken.flag", true)).isTrue();
+            assertThat(service.getJson("broken.json")).isEmpty();
+            assertThat(service.getLong("broken.number", 10)).isEqualTo(10);
+            assertThat(service.getString("site.name", null)).isEqualTo("WilliamMacMiron");
+        }
+    }
+
+    @Nested
+    @DisplayName("reload()")
+    class Reload {
+
+        @Test
+        @DisplayName("Should swap in a new snapshot and leave the old one untouched")
+        void shouldSwapSnapshot() {
+            service.reload();
+            PublicSettings before = service.getPublicSettings();
+
+            rows.set(0, row("site.name", "WMM", "string", true));
+            service.reload();
+
+            assertThat(service.getString("site.name", null)).isEqualTo("WMM");
+            assertThat(before.getSettings()).containsEntry("site.name", "WilliamMacMiron");
+            assertThat(service.getPublicSettings().getEtag()).isNotEqualTo(before.getEtag());
+        }
+
+        @Test
+        @DisplayName("Should take Last-Modified of a changed snapshot from the newest public row")
+        void shouldDeriveLastModifiedFromRows() {
+            service.reload();
+
+            OffsetDateTime edited = UPDATED_AT.plusDays(1);
+            rows.set(0, new SettingRow("site.name", "WMM", "string", true, edited));
+            service.reload();
+
+            assertThat(service.getPublicSettings().getLastModified()).isEqualTo(edited.toInstant());
+        }
+
+        @Test
+        @DisplayName("Should move Last-Modified forward when a public row is deleted")
+        void shouldAdvanceLastModifiedOnDelete() {
+            service.reload();
+            PublicSettings before = service.getPublicSettings();
+
+            rows.remove(0);
+            service.reload();
+
+            assertThat(service.getPublicSettings().getLastModified()).isAfter(before.getLastModified());
+        }
+
+        @Test
+        @DisplayName("Should keep the public ETag when only private settings change")
+        void shouldKeepEtagForPrivateChanges() {
+            service.reload();
+            PublicSettings before = service.getPublicSettings();
+
+            rows.set(3, row("site.items_per_page", "24", "integer", false));
+            service.reload();
+
+            assertThat(service.getInt("site.items_per_page", 0)).isEqualTo(24);
+            assertThat(service.getPublicSettings()).isSameAs(before);
+        }
+    }
+
+    @Nested
+    @DisplayName("getPublicSettings()")
+    class GetPublicSettings {
+
+        @Test
+        @DisplayName("Should expose only public settings, typed, with validators")
+        void shouldExposePublicSubset() {
+            PublicSettings settings = service.getPublicSettings();
+
+            assertThat(settings.getSettings()).containsOnlyKeys("site.name", "site.minimum_age", "site.enable_search");
+            assertThat(settings.getSettings()).containsEntry("site.minimum_age", 18L)
+                    .containsEntry("site.enable_search", true);
+            assertThat(settings.getEtag()).startsWith("\"").endsWith("\"");
+            assertThat(settings.getLastModified()).isEqualTo(UPDATED_AT.toInstant());
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.org.wmm.users.controller;
 
 import com.org.wmm.auth.dto.UserInfo;
 import com.org.wmm.common.error.ResourceNotFoundException;
+import com.org.wmm.security.JwtAuthenticationToken;
+import com.org.wmm.security.JwtTokenProvider;
+import com.org.wmm.users.dto.UserSnapshot;
 import com.org.wmm.users.entity.RoleEntity;
 import com.org.wmm.users.entity.UserEntity;
 import com.org.wmm.users.entity.UserRoleEntity;
@@ -16,6 +19,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
@@ -64,7 +70,7 @@ class UserControllerTest {
         var auth = new UsernamePasswordAuthenticationToken("admin@test.com", null);
         SecurityContextHolder.getContext().setAuthentication(auth);
 
-        when(userDetailsService.getUserByEmail("admin@test.com")).thenReturn(testUser);
+        when(userDetailsService.getUserSnapshot("admin@test.com")).thenReturn(UserSnapshot.from(testUser));
 
         var response = userController.getCurrentUser();
 
@@ -80,7 +86,7 @@ class UserControllerTest {
         assertThat(data.getDisplayName()).isEqualTo("Admin");
         assertThat(data.getRoles()).containsExactly("ROLE_ADMIN");
 
-        verify(userDetailsService).getUserByEmail("admin@test.com");
+        verify(userDetailsService).getUserSnapshot("admin@test.com");
 
         // Cleanup
         SecurityContextHolder.clearContext();
@@ -92,7 +98,7 @@ class UserControllerTest {
         var auth = new UsernamePasswordAuthenticationToken("ghost@test.com", null);
         SecurityContextHolder.getContext().setAuthentication(auth);
 
-        when(userDetailsService.getUserByEmail("ghost@test.com"))
+        when(userDetailsService.getUserSnapshot("ghost@test.com"))
                 .thenThrow(new ResourceNotFoundException("User", "email", "ghost@test.com"));
 
         assertThatThrownBy(() -> userController.getCurrentUser())
@@ -118,7 +124,7 @@ class UserControllerTest {
         var auth = new UsernamePasswordAuthenticationToken("admin@test.com", null);
         SecurityContextHolder.getContext().setAuthentication(auth);
 
-        when(userDetailsService.getUserByEmail("admin@test.com")).thenReturn(testUser);
+        when(userDetailsService.getUserSnapshot("admin@test.com")).thenReturn(UserSnapshot.from(testUser));
 
         var response = userController.getCurrentUser();
         UserInfo data = response.getBody().getData();
@@ -129,5 +135,40 @@ class UserControllerTest {
 
         SecurityContextHolder.clearContext();
     }
-}
 
+    @Test
+    @DisplayName("GET /users/me — should answer from access token claims without loading the user")
+    void shouldReturnUserFromClaims() {
+        JwtTokenProvider provider = new JwtTokenProvider(
+                "test-secret-key-that-is-long-enough-for-hmac-sha-256", 900_000, 604_800_000, "wmm-test", 100);
+        OffsetDateTime updatedAt = OffsetDateTime.parse("2026-03-01T10:15:30Z");
+        String token = provider.generateAccessToken(1L, "admin@test.com", "Admin", List.of("ROLE_ADMIN"), updatedAt);
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(provider.parseClaims(token)));
+
+        var response = userController.getCurrentUser();
+
+        UserInfo data = response.getBody().getData();
+        assertThat(data.getId()).isEqualTo(1L);
+        assertThat(data.getEmail()).isEqualTo("admin@test.com");
+        assertThat(data.getDisplayName()).isEqualTo("Admin");
+        assertThat(data.getRoles()).containsExactly("ROLE_ADMIN");
+        assertThat(response.getHeaders().getETag())
+                .isEqualTo(UserController.etagOf(data, updatedAt.toInstant()))
+                .startsWith("\"");
+        verifyNoInteractions(userDetailsService);
+
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("GET /users/me — ETag should change when the profile version or roles change")
+    void shouldChangeEtagWithVersionAndRoles() {
+        UserInfo admin = UserInfo.builder().id(1L).roles(List.of("ROLE_ADMIN")).build();
+        UserInfo editor = UserInfo.builder().id(1L).roles(List.of("ROLE_EDITOR")).build();
+        Instant version = Instant.parse("2026-03-01T10:15:30Z");
+
+        assertThat(UserController.etagOf(admin, version)).isEqualTo(UserController.etagOf(admin, version));
+        assertThat(UserController.etagOf(admin, version)).isNotEqualTo(UserController.etagOf(admin, version.plusMillis(1)));
+        assertThat(UserController.etagOf(admin, version)).isNotEqualTo(UserController.etagOf(editor, version));
+    }
+}
@@ -1,10 +1,12 @@
 package com.org.wmm.users.service;
 
 import com.org.wmm.common.error.ResourceNotFoundException;
+import com.org.wmm.users.dto.UserSnapshot;
 import com.org.wmm.users.entity.RoleEntity;
 import com.org.wmm.users.entity.UserEntity;
 import com.org.wmm.users.entity.UserRoleEntity;
 import com.org.wmm.users.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -29,6 +32,9 @@ class CustomUserDetailsServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private UserSnapshotCache userSnapshotCache = new UserSnapshotCache(100, 60_000, new SimpleMeterRegistry());
+
     @InjectMocks
     private CustomUserDetailsService service;
 
@@ -210,5 +216,49 @@ class CustomUserDetailsServiceTest {
                     .hasMessageContaining("missing@test.com");
         }
     }
-}
 
+    @Nested
+    @DisplayName("findUserSnapshot")
+    class FindUserSnapshot {
+
+        @Test
+        @DisplayName("should load the snapshot once and serve repeats from the cache")
+        void shouldCacheSnapshot() {
+            when(userRepository.findByEmailWithRoles("admin@test.com"))
+                    .thenReturn(Optional.of(activeUser));
+
+            UserSnapshot first = service.getUserSnapshot("admin@test.com");
+            UserSnapshot second = service.getUserSnapshot("admin@test.com");
+
+            assertThat(second).isSameAs(first);
+            assertThat(first.getRoles()).containsExactly("ROLE_ADMIN", "ROLE_EDITOR");
+            assertThat(first.isActive()).isTrue();
+            verify(userRepository, times(1)).findByEmailWithRoles("admin@test.com");
+        }
+
+        @Test
+        @DisplayName("should reload after the user is evicted")
+        void shouldReloadAfterEviction() {
+            when(userRepository.findByEmailWithRoles("admin@test.com"))
+                    .thenReturn(Optional.of(activeUser));
+
+            service.getUserSnapshot("admin@test.com");
+            userSnapshotCache.evictByUserId(1L);
+            service.getUserSnapshot("admin@test.com");
+
+            verify(userRepository, times(2)).findByEmailWithRoles("admin@test.com");
+        }
+
+        @Test
+        @DisplayName("should not cache a missing user")
+        void shouldNotCacheMissingUser() {
+            when(userRepository.findByEmailWithRoles("missing@test.com"))
+                    .thenReturn(Optional.empty());
+
+            assertThat(service.findUserSnapshot("missing@test.com")).isEmpty();
+            assertThat(service.findUserSnapshot("missing@test.com")).isEmpty();
+
+            verify(userRepository, times(2)).findByEmailWithRoles("missing@test.com");
+        }
+    }
+}